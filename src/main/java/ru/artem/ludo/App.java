@@ -1,15 +1,21 @@
 package ru.artem.ludo;
 
+import ru.artem.ludo.ai.OpeningBook;
+import ru.artem.ludo.ai.PositionDatabase;
 import ru.artem.ludo.core.GameConfig;
 import ru.artem.ludo.ui.LudoFrame;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Точка входа в приложение.
  *
  * <p>Запускает GUI-версию Лудо на Swing: поле отрисовывается в окне, бросок кубика
- * выполняется кнопкой, а ход выполняется кликом по фишке.</p>
+ * выполняется кнопкой, а ход выполняется кликом по фишке. Если задано свойство
+ * {@code -Dludo.positions=<файл>}, подсказки ходов берутся из базы статистики позиций; свойство
+ * {@code -Dludo.openings=<файл>} подключает ботам дебютную книгу.</p>
  */
 public final class App {
 
@@ -24,9 +30,46 @@ public final class App {
         SwingUtilities.invokeLater(() -> {
             LudoFrame frame = new LudoFrame(config);
             frame.setVisible(true);
+            loadPositionsInBackground(config, frame);
+            loadOpeningBook(config, frame);
         });
     }
 
+    /**
+     * База статистики может весить сотни мегабайт, поэтому грузится после показа окна.
+     */
+    static void loadPositionsInBackground(GameConfig config, LudoFrame frame) {
+        String file = System.getProperty("ludo.positions");
+        if (file == null) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                PositionDatabase positions = PositionDatabase.load(config, Path.of(file));
+                SwingUtilities.invokeLater(() -> frame.usePositionDatabase(positions));
+            } catch (IOException e) {
+                System.err.println("Position database is not loaded: " + e.getMessage());
+            }
+        }, "positions-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Книга только отображается в память, поэтому грузится сразу на EDT.
+     */
+    static void loadOpeningBook(GameConfig config, LudoFrame frame) {
+        String file = System.getProperty("ludo.openings");
+        if (file == null) {
+            return;
+        }
+        try {
+            frame.useOpeningBook(OpeningBook.load(config, Path.of(file)));
+        } catch (IOException e) {
+            System.err.println("Opening book is not loaded: " + e.getMessage());
+        }
+    }
+
     private App() {
     }
 }
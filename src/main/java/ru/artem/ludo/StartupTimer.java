@@ -0,0 +1,96 @@
+package ru.artem.ludo;
+
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.ui.BoardPanel;
+import ru.artem.ludo.ui.LudoController;
+import ru.artem.ludo.ui.LudoFrame;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер времени запуска клиента: старт JVM → {@code main} → первый кадр поля → первая оценка шансов.
+ *
+ * <p>Тот же прогон используется для записи CDS-архива ({@code mvn -Pcds package}): за один запуск
+ * загружаются все классы, нужные до первого кадра и фоновой оценки. Без дисплея поле рисуется
+ * в картинку, поэтому архив можно собирать и на сервере сборки.</p>
+ */
+public final class StartupTimer {
+
+    private StartupTimer() {
+    }
+
+    /**
+     * @param args [таймаут ожидания оценки, с]
+     */
+    public static void main(String[] args) throws Exception {
+        long mainAt = System.currentTimeMillis();
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        int timeoutSeconds = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        CountDownLatch firstFrame = new CountDownLatch(1);
+        CountDownLatch firstEstimate = new CountDownLatch(1);
+        long[] frameAt = new long[1];
+        Runnable onFrame = () -> {
+            frameAt[0] = System.currentTimeMillis();
+            firstFrame.countDown();
+        };
+
+        Window[] window = new Window[1];
+        boolean headless = GraphicsEnvironment.isHeadless();
+        SwingUtilities.invokeAndWait(() -> {
+            if (headless) {
+                renderOffscreen(config, onFrame, firstEstimate::countDown);
+            } else {
+                LudoFrame frame = new LudoFrame(config);
+                frame.setFirstFrameListener(onFrame);
+                frame.setVisible(true);
+                window[0] = frame;
+            }
+        });
+
+        firstFrame.await();
+        System.out.printf("JVM start -> main: %d ms%n", mainAt - jvmStart);
+        System.out.printf("main -> first frame: %d ms%s%n", frameAt[0] - mainAt, headless ? " (headless)" : "");
+        System.out.printf("JVM start -> first frame: %d ms%n", frameAt[0] - jvmStart);
+
+        if (headless) {
+            boolean ready = firstEstimate.await(timeoutSeconds, TimeUnit.SECONDS);
+            System.out.printf("first frame -> win estimate: %s%n",
+                    ready ? (System.currentTimeMillis() - frameAt[0]) + " ms" : "timeout");
+        } else {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(Math.min(timeoutSeconds, 3)));
+            SwingUtilities.invokeAndWait(window[0]::dispose);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Без дисплея повторяет путь окна: панель поля рисуется в картинку, затем стартуют фоновые подсистемы.
+     */
+    private static void renderOffscreen(GameConfig config, Runnable onFrame, Runnable onEstimate) {
+        LudoController controller = new LudoController(config);
+        controller.setWinEstimateListener(onEstimate);
+        BoardPanel panel = new BoardPanel(config, controller);
+        panel.setFirstFrameListener(() -> {
+            Thread fonts = new Thread(panel::preloadFonts, "font-preload");
+            fonts.setDaemon(true);
+            fonts.start();
+            controller.startBackgroundServices();
+            onFrame.run();
+        });
+        panel.setSize(720, 720);
+        BufferedImage image = new BufferedImage(720, 720, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            panel.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.RuleSet;
+import ru.artem.ludo.core.TokenId;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Карта угроз кольца для одной расстановки: для каждой клетки и каждого игрока — вероятность
+ * того, что фишка этого игрока дойдёт до клетки за один бросок (или бросок плюс бонус).
+ *
+ * <p>Вклад фишки — заранее посчитанное "ядро" по расстоянию, поэтому при перемещении фишки
+ * карта обновляется вычитанием ядра со старой клетки и прибавлением на новой, без пересчёта
+ * всего поля. {@link #sync(BoardSnapshot)} сравнивает снимок с текущим состоянием и применяет
+ * только изменившиеся фишки: соседние узлы поиска отличаются на одну-две фишки.</p>
+ *
+ * <p>Вероятности от разных фишек складываются (верхняя оценка, не больше 1 после обрезки) —
+ * так обновление остаётся линейным. Блоки на пути не учитываются. Не потокобезопасен;
+ * после создания не выделяет память.</p>
+ */
+final class DangerMap {
+
+    /** Доля бросков, после которых соперник ещё и получает бонус (грубая оценка). */
+    static final double BONUS_CHANCE = 1.0 / 6;
+
+    private final int trackLength;
+    private final int routeLength;
+    private final int seats;
+    private final int[] startAbsBySeat;
+    private final boolean[] safeCell;
+    private final TokenId[] tokenBySlot;
+
+    /** Ядро без нулей: расстояния, на которые фишка может дойти за ход, и вероятности. */
+    private final int[] reachSteps;
+    private final double[] reachWeight;
+
+    /** Дистанция по маршруту каждой фишки (-1 — база). */
+    private final int[] distance;
+
+    /** Угроза клетке кольца от фишек места: {@code threat[seat * trackLength + abs]}. */
+    private final double[] threat;
+
+    /** Сколько фишек места стоит на клетке кольца: {@code occupancy[seat * trackLength + abs]}. */
+    private final int[] occupancy;
+
+    private final double[] totalThreat;
+    private boolean loaded;
+
+    DangerMap(GameConfig config) {
+        this.trackLength = config.trackLength();
+        this.routeLength = config.trackLength() + config.homeLaneLength();
+        List<PlayerColor> players = config.players();
+        this.seats = players.size();
+        this.startAbsBySeat = new int[seats];
+        this.tokenBySlot = new TokenId[seats * Board.TOKENS_PER_PLAYER];
+        for (int seat = 0; seat < seats; seat++) {
+            startAbsBySeat[seat] = config.startTrackIndex(players.get(seat));
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                tokenBySlot[seat * Board.TOKENS_PER_PLAYER + i] = new TokenId(players.get(seat), i);
+            }
+        }
+        this.safeCell = new boolean[trackLength];
+        for (int abs : config.safeTrackCells()) {
+            safeCell[abs] = true;
+        }
+        double[] kernel = buildKernel(config.rules());
+        int nonZero = 0;
+        for (double w : kernel) {
+            nonZero += w > 0 ? 1 : 0;
+        }
+        this.reachSteps = new int[nonZero];
+        this.reachWeight = new double[nonZero];
+        for (int k = 0, i = 0; k < kernel.length; k++) {
+            if (kernel[k] > 0) {
+                reachSteps[i] = k;
+                reachWeight[i++] = kernel[k];
+            }
+        }
+        this.distance = new int[tokenBySlot.length];
+        this.threat = new double[seats * trackLength];
+        this.occupancy = new int[seats * trackLength];
+        this.totalThreat = new double[trackLength];
+    }
+
+    /**
+     * Вероятность дойти ровно на {@code k} шагов за ход (индекс — расстояние).
+     * Ядро: бросок 1..6 равновероятен; шестёрка при пустой базе может дать другое число шагов;
+     * с долей {@link #BONUS_CHANCE} к броску добавляется бонус за срубание или заход в дом.
+     */
+    private static double[] buildKernel(RuleSet rules) {
+        int reach = Math.max(6, rules.sixStepsWhenBaseEmpty()) + Math.max(rules.captureBonus(), rules.homeBonus());
+        double[] k = new double[reach + 1];
+        for (int roll = 1; roll <= 6; roll++) {
+            double p = 1.0 / 6;
+            if (roll == 6 && rules.sixStepsWhenBaseEmpty() != 6) {
+                // база пустеет к концу партии: делим вес шестёрки между вариантами
+                k[6] += p / 2;
+                k[rules.sixStepsWhenBaseEmpty()] += p / 2;
+            } else {
+                k[roll] += p;
+            }
+            for (int bonus : new int[]{rules.captureBonus(), rules.homeBonus()}) {
+                if (bonus > 0) {
+                    k[roll + bonus] += p * BONUS_CHANCE / 2;
+                }
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Приводит карту к расстановке снимка, пересчитывая только сдвинувшиеся фишки.
+     *
+     * @param snapshot расстановка той же конфигурации
+     */
+    void sync(BoardSnapshot snapshot) {
+        if (!loaded) {
+            Arrays.fill(distance, -1);
+            loaded = true;
+        }
+        for (int slot = 0; slot < tokenBySlot.length; slot++) {
+            int d = snapshot.routeDistance(tokenBySlot[slot]);
+            if (d != distance[slot]) {
+                move(slot, d);
+            }
+        }
+    }
+
+    /**
+     * Перемещает фишку (инкрементальное обновление угроз и занятости).
+     *
+     * @param slot место фишки: {@code seat * TOKENS_PER_PLAYER + index}
+     * @param newDistance новая дистанция по маршруту (-1 — база)
+     */
+    void move(int slot, int newDistance) {
+        int seat = slot / Board.TOKENS_PER_PLAYER;
+        int old = distance[slot];
+        if (onRing(old)) {
+            contribute(seat, old, -1);
+        }
+        distance[slot] = newDistance;
+        if (onRing(newDistance)) {
+            contribute(seat, newDistance, +1);
+        }
+    }
+
+    private void contribute(int seat, int d, int sign) {
+        int base = seat * trackLength;
+        int abs = absolute(seat, d);
+        occupancy[base + abs] += sign;
+        int start = startAbsBySeat[seat];
+        // дальше кольца фишка уходит на свою дорожку и никого не рубит
+        int reach = trackLength - 1 - d;
+        for (int i = 0; i < reachSteps.length && reachSteps[i] <= reach; i++) {
+            int target = abs + reachSteps[i];
+            if (target >= trackLength) {
+                target -= trackLength;
+            }
+            if (!safeCell[target] && target != start) {
+                double w = sign * reachWeight[i];
+                threat[base + target] += w;
+                totalThreat[target] += w;
+            }
+        }
+    }
+
+    /**
+     * @param slot фишка
+     * @return дистанция по маршруту (-1 — база)
+     */
+    int distance(int slot) {
+        return distance[slot];
+    }
+
+    /**
+     * Вероятность, что фишку места {@code seat} на дистанции {@code d} срубят следующим ходом
+     * соперника (0 на безопасных клетках, в блоке и вне кольца).
+     *
+     * @param seat место владельца
+     * @param d дистанция по маршруту
+     * @return вероятность в [0, 1]
+     */
+    double exposure(int seat, int d) {
+        if (!onRing(d)) {
+            return 0;
+        }
+        int abs = absolute(seat, d);
+        if (occupancy[seat * trackLength + abs] > 1) {
+            return 0;
+        }
+        double p = totalThreat[abs] - threat[seat * trackLength + abs];
+        return p <= 1e-9 ? 0 : Math.min(1, p);
+    }
+
+    /**
+     * @return true, если на клетке фишки стоит ещё хотя бы одна своя (блок)
+     */
+    boolean inBlock(int seat, int d) {
+        return onRing(d) && occupancy[seat * trackLength + absolute(seat, d)] > 1;
+    }
+
+    /**
+     * @return true, если фишка на безопасной клетке кольца
+     */
+    boolean onSafeCell(int seat, int d) {
+        return onRing(d) && safeCell[absolute(seat, d)];
+    }
+
+    int seats() {
+        return seats;
+    }
+
+    int trackLength() {
+        return trackLength;
+    }
+
+    int routeLength() {
+        return routeLength;
+    }
+
+    private boolean onRing(int d) {
+        return d >= 0 && d < trackLength;
+    }
+
+    private int absolute(int seat, int d) {
+        int abs = startAbsBySeat[seat] + d;
+        return abs >= trackLength ? abs - trackLength : abs;
+    }
+}
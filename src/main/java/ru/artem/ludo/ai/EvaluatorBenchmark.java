@@ -0,0 +1,99 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TurnEngine;
+import ru.artem.ludo.core.TurnEvent;
+import ru.artem.ludo.core.TurnState;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Замер стоимости оценки позиции: наносекунды и байты на вызов.
+ *
+ * <p>Позиции берутся из случайных партий. "Подряд" — в порядке партии (как в листьях поиска,
+ * где соседние позиции близки и карта угроз обновляется по одной фишке), "вразброс" — в
+ * случайном порядке (карта каждый раз обновляется почти целиком).</p>
+ */
+public final class EvaluatorBenchmark {
+
+    private EvaluatorBenchmark() {
+    }
+
+    /**
+     * @param args [вызовов на замер]
+     */
+    public static void main(String[] args) {
+        long calls = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000L;
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        List<BoardSnapshot> positions = positions(config, 200, new Random(1));
+        List<BoardSnapshot> shuffled = new ArrayList<>(positions);
+        Collections.shuffle(shuffled, new Random(2));
+        BoardSnapshot[] inOrder = positions.toArray(new BoardSnapshot[0]);
+        BoardSnapshot[] scattered = shuffled.toArray(new BoardSnapshot[0]);
+        PlayerColor color = config.players().get(0);
+
+        PositionEvaluator heuristic = new HeuristicEvaluator(config);
+        PositionEvaluator progress = PositionEvaluator.progress();
+        for (int round = 0; round < 3; round++) {
+            // первые прогоны — прогрев JIT
+            report("heuristic, in order", heuristic, inOrder, color, calls);
+            report("heuristic, scattered", heuristic, scattered, color, calls);
+            report("progress, in order", progress, inOrder, color, calls);
+        }
+    }
+
+    private static void report(String name, PositionEvaluator evaluator, BoardSnapshot[] positions,
+                               PlayerColor color, long calls) {
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        double sink = 0;
+        for (long i = 0; i < calls; i++) {
+            sink += evaluator.evaluate(positions[(int) (i % positions.length)], color);
+        }
+        long nanos = System.nanoTime() - t0;
+        long bytes = allocatedBytes() - bytes0;
+        System.out.printf("%-22s %6.1f ns/call %6.2f B/call (checksum %.0f)%n",
+                name, (double) nanos / calls, (double) bytes / calls, sink);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx) {
+            return mx.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Позиции подряд из нескольких случайных партий.
+     */
+    static List<BoardSnapshot> positions(GameConfig config, int games, Random random) {
+        List<BoardSnapshot> out = new ArrayList<>();
+        Dice dice = new Dice(random);
+        for (int g = 0; g < games; g++) {
+            Board board = new Board(config);
+            TurnEngine turns = new TurnEngine(board);
+            for (int step = 0; step < 2_000 && turns.state() != TurnState.FINISHED; step++) {
+                if (turns.state() == TurnState.AWAIT_ROLL) {
+                    turns.roll(dice.roll());
+                    continue;
+                }
+                List<Move> options = turns.options();
+                TurnEvent event = turns.move(options.get(random.nextInt(options.size())));
+                out.add(board.snapshot());
+                if (event == TurnEvent.GAME_WON) {
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,275 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Бот с жёстким бюджетом времени на ход: итеративное углубление expectimax.
+ *
+ * <p>Дерево: узлы случая — бросок кубика (1..6 равновероятно), узлы выбора — ход игрока.
+ * Ходящий бот максимизирует оценку, соперники её минимизируют (параноидальная модель для
+ * нескольких игроков). Шестёрка даёт ещё ход тому же игроку; бонусы и откат за три шестёрки в
+ * глубине дерева не моделируются — на оценку хода это влияет слабо, а дерево заметно проще.</p>
+ *
+ * <p>Поиск идёт на общем {@link SearchPool}: глубина 1, 2, 3… — каждая итерация отдельной порцией.
+ * Вызывающий поток ждёт не дольше бюджета, затем отменяет поиск (поиск сам проверяет отмену и
+ * срок каждые несколько сотен узлов) и берёт лучший ход последней завершённой итерации. Если не
+ * успела ни одна итерация (пул занят), ход выбирается жадно по оценке на месте.
+ * Экземпляр без состояния между вызовами: его можно разделять между партиями и потоками.</p>
+ */
+public final class ExpectimaxStrategy implements MoveStrategy {
+
+    /** Оценка выигранной позиции. */
+    private static final double WIN = 1e6;
+
+    /** Как часто (в узлах) проверять срок и отмену. */
+    private static final int CHECK_EVERY = 256;
+
+    private final SearchPool pool;
+    private final long budgetNanos;
+    private final int maxDepth;
+    private final PositionEvaluator evaluator;
+
+    /**
+     * Итог выбора хода.
+     */
+    public record Decision(
+            /** Выбранный ход. */
+            Move move,
+            /** Глубина последней завершённой итерации (0 — жадный выбор без поиска). */
+            int depth,
+            /** Сколько узлов просмотрено. */
+            long nodes
+    ) {
+    }
+
+    /**
+     * @param pool пул потоков поиска (общий для партий)
+     * @param budget бюджет времени на ход
+     * @param maxDepth предельная глубина (в ходах игроков)
+     * @param evaluator оценка позиции в листьях
+     */
+    public ExpectimaxStrategy(SearchPool pool, Duration budget, int maxDepth, PositionEvaluator evaluator) {
+        this.pool = Objects.requireNonNull(pool);
+        this.budgetNanos = budget.toNanos();
+        this.maxDepth = maxDepth;
+        this.evaluator = Objects.requireNonNull(evaluator);
+        if (budgetNanos <= 0 || maxDepth < 1) {
+            throw new IllegalArgumentException("budget and maxDepth must be positive");
+        }
+    }
+
+    /**
+     * @param pool пул потоков поиска
+     * @param budget бюджет времени на ход
+     */
+    public ExpectimaxStrategy(SearchPool pool, Duration budget) {
+        this(pool, budget, 8, PositionEvaluator.progress());
+    }
+
+    @Override
+    public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+        return decide(board.snapshot(), color, diceRoll, legalMoves).move();
+    }
+
+    @Override
+    public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+        return decide(board.snapshot(), color, 0, bonusMoves).move();
+    }
+
+    /**
+     * Выбирает ход за отведённый бюджет.
+     *
+     * @param snapshot расстановка
+     * @param color кто ходит
+     * @param diceRoll выпавшее значение (6 — после хода будет ещё бросок; 0 — бонусный ход)
+     * @param legalMoves непустой список допустимых ходов
+     * @return ход и статистика поиска
+     */
+    public Decision decide(BoardSnapshot snapshot, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+        long start = System.nanoTime();
+        if (legalMoves.size() == 1) {
+            return new Decision(legalMoves.get(0), 0, 0);
+        }
+        Search search = new Search(snapshot, color, diceRoll == 6, legalMoves, start + budgetNanos);
+        pool.submit(search);
+        try {
+            search.done.get(budgetNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // берём лучшее из завершённых итераций
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            search.cancelled = true;
+        }
+        Move best = search.best;
+        if (best == null) {
+            return new Decision(greedy(snapshot, color, legalMoves), 0, search.nodes);
+        }
+        return new Decision(best, search.completedDepth, search.nodes);
+    }
+
+    private Move greedy(BoardSnapshot snapshot, PlayerColor color, List<Move> legalMoves) {
+        Move best = legalMoves.get(0);
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Move m : legalMoves) {
+            double v = evaluator.evaluate(snapshot.withMove(m), color);
+            if (v > bestValue) {
+                bestValue = v;
+                best = m;
+            }
+        }
+        return best;
+    }
+
+    /** Срок вышел или поиск отменён; исключение без стека, чтобы размотка была дешёвой. */
+    private static final class Timeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private static final Timeout INSTANCE = new Timeout();
+
+        private Timeout() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Один поиск: порция = одна итерация углубления, после неё — снова в конец очереди пула.
+     */
+    private final class Search implements Runnable {
+
+        private final BoardSnapshot root;
+        private final PlayerColor color;
+        private final boolean extraTurn;
+        private final List<PlayerColor> players;
+        private final long deadline;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        /** Ходы корня, лучшие по прошлой итерации — первыми. */
+        private final List<Move> order;
+
+        private volatile boolean cancelled;
+        private volatile Move best;
+        private volatile int completedDepth;
+        private volatile long nodes;
+        private int depth = 1;
+
+        Search(BoardSnapshot root, PlayerColor color, boolean extraTurn, List<Move> legalMoves, long deadline) {
+            this.root = root;
+            this.color = color;
+            this.extraTurn = extraTurn;
+            this.players = root.config().players();
+            this.deadline = deadline;
+            this.order = new ArrayList<>(legalMoves);
+        }
+
+        @Override
+        public void run() {
+            if (cancelled || System.nanoTime() >= deadline) {
+                done.complete(null);
+                return;
+            }
+            try {
+                double[] values = new double[order.size()];
+                for (int i = 0; i < order.size(); i++) {
+                    BoardSnapshot child = root.withMove(order.get(i));
+                    values[i] = value(child, extraTurn ? color : next(color), depth - 1);
+                }
+                sortByValue(values);
+                best = order.get(0);
+                completedDepth = depth;
+            } catch (Timeout t) {
+                done.complete(null);
+                return;
+            }
+            if (depth >= maxDepth) {
+                done.complete(null);
+                return;
+            }
+            depth++;
+            pool.submit(this);
+        }
+
+        /** Узел случая: среднее по броскам игрока {@code toMove}. */
+        private double value(BoardSnapshot snapshot, PlayerColor toMove, int depthLeft) {
+            if (++nodes % CHECK_EVERY == 0 && (cancelled || System.nanoTime() >= deadline)) {
+                throw Timeout.INSTANCE;
+            }
+            for (PlayerColor c : players) {
+                if (hasWon(snapshot, c)) {
+                    return c == color ? WIN : -WIN;
+                }
+            }
+            if (depthLeft == 0) {
+                return evaluator.evaluate(snapshot, color);
+            }
+            Board board = new Board(snapshot);
+            double sum = 0;
+            for (int roll = 1; roll <= 6; roll++) {
+                sum += decision(board, snapshot, toMove, roll, depthLeft);
+            }
+            return sum / 6;
+        }
+
+        /** Узел выбора: бот максимизирует, соперники минимизируют. */
+        private double decision(Board board, BoardSnapshot snapshot, PlayerColor player, int roll, int depthLeft) {
+            List<Move> moves = board.legalMoves(player, roll);
+            PlayerColor after = roll == 6 ? player : next(player);
+            if (moves.isEmpty()) {
+                return value(snapshot, next(player), depthLeft - 1);
+            }
+            boolean maximize = player == color;
+            double best = maximize ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            for (Move m : moves) {
+                double v = value(snapshot.withMove(m), after, depthLeft - 1);
+                best = maximize ? Math.max(best, v) : Math.min(best, v);
+            }
+            return best;
+        }
+
+        private PlayerColor next(PlayerColor c) {
+            return players.get((players.indexOf(c) + 1) % players.size());
+        }
+
+        private void sortByValue(double[] values) {
+            // вставками: ходов на корне единицы
+            for (int i = 1; i < values.length; i++) {
+                double v = values[i];
+                Move m = order.get(i);
+                int j = i - 1;
+                while (j >= 0 && values[j] < v) {
+                    values[j + 1] = values[j];
+                    order.set(j + 1, order.get(j));
+                    j--;
+                }
+                values[j + 1] = v;
+                order.set(j + 1, m);
+            }
+        }
+    }
+
+    private static boolean hasWon(BoardSnapshot snapshot, PlayerColor color) {
+        GameConfig config = snapshot.config();
+        int home = config.trackLength() + config.homeLaneLength();
+        for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+            if (snapshot.routeDistance(new TokenId(color, i)) != home) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.util.Objects;
+
+/**
+ * Быстрая статическая оценка позиции без разыгрываний.
+ *
+ * <p>Признаки фишки: продвижение по маршруту (выход с базы стоит {@link PositionEvaluator#LEAVE_BASE}
+ * шагов), цветная дорожка и дом (там фишку уже не срубить), безопасная клетка, блок и риск быть
+ * срубленной следующим ходом соперника — по {@link DangerMap}, умноженный на то, что фишка при
+ * этом потеряет. Оценка игрока — его сумма минус средняя сумма соперников.</p>
+ *
+ * <p>Карта угроз у каждого потока своя и обновляется инкрементально, поэтому вызов не выделяет
+ * памяти и дешёв в листьях поиска, где соседние позиции отличаются на одну-две фишки.</p>
+ */
+public final class HeuristicEvaluator implements PositionEvaluator {
+
+    /** Бонус фишке на цветной дорожке. */
+    static final double LANE = 4;
+
+    /** Бонус фишке в доме. */
+    static final double HOME = 8;
+
+    /** Бонус фишке на безопасной клетке кольца. */
+    static final double SAFE = 2;
+
+    /** Бонус фишке в блоке. */
+    static final double BLOCK = 1.5;
+
+    private final GameConfig config;
+    private final int[] seatByColor;
+    private final ThreadLocal<DangerMap> maps;
+
+    /**
+     * @param config конфигурация оцениваемых партий
+     */
+    public HeuristicEvaluator(GameConfig config) {
+        this.config = Objects.requireNonNull(config);
+        this.seatByColor = new int[PlayerColor.values().length];
+        for (PlayerColor c : PlayerColor.values()) {
+            seatByColor[c.ordinal()] = config.players().indexOf(c);
+        }
+        this.maps = ThreadLocal.withInitial(() -> new DangerMap(config));
+    }
+
+    @Override
+    public double evaluate(BoardSnapshot snapshot, PlayerColor color) {
+        if (snapshot.config() != config && !snapshot.config().equals(config)) {
+            throw new IllegalArgumentException("Snapshot has another configuration");
+        }
+        int own = seatByColor[color.ordinal()];
+        if (own < 0) {
+            throw new IllegalArgumentException("Color is not in the game: " + color);
+        }
+        DangerMap map = maps.get();
+        map.sync(snapshot);
+        double others = 0;
+        for (int seat = 0; seat < map.seats(); seat++) {
+            if (seat != own) {
+                others += score(map, seat);
+            }
+        }
+        return score(map, own) - others / (map.seats() - 1);
+    }
+
+    private static double score(DangerMap map, int seat) {
+        double sum = 0;
+        int first = seat * Board.TOKENS_PER_PLAYER;
+        for (int slot = first; slot < first + Board.TOKENS_PER_PLAYER; slot++) {
+            int d = map.distance(slot);
+            if (d < 0) {
+                continue;
+            }
+            double value = d + LEAVE_BASE;
+            if (d == map.routeLength()) {
+                value += HOME;
+            } else if (d >= map.trackLength()) {
+                value += LANE;
+            } else {
+                if (map.onSafeCell(seat, d)) {
+                    value += SAFE;
+                }
+                if (map.inBlock(seat, d)) {
+                    value += BLOCK;
+                }
+                value -= map.exposure(seat, d) * (d + LEAVE_BASE);
+            }
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.artem.ludo.ai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Небольшой потокобезопасный LRU-кэш ограниченного размера.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+final class LruCache<K, V> {
+
+    private final Map<K, V> map;
+    private long hits;
+    private long misses;
+
+    LruCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        V v = map.get(key);
+        if (v == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return v;
+    }
+
+    synchronized void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    synchronized int size() {
+        return map.size();
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+}
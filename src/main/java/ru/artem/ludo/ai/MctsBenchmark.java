@@ -0,0 +1,75 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Масштабирование {@link ParallelMcts} по числу потоков: итераций в секунду на одной позиции,
+ * ускорение относительно одного потока и эффективность (ускорение / потоки).
+ */
+public final class MctsBenchmark {
+
+    private MctsBenchmark() {
+    }
+
+    /**
+     * @param args [итераций на замер] [наибольшее число потоков]
+     */
+    public static void main(String[] args) {
+        long iterations = args.length > 0 ? Long.parseLong(args[0]) : 200_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameConfig config = GameConfig.defaultForFourPlayers();
+
+        // позиция середины партии с выбором из нескольких ходов
+        List<BoardSnapshot> positions = EvaluatorBenchmark.positions(config, 1, new Random(3));
+        BoardSnapshot root = null;
+        PlayerColor toMove = null;
+        int roll = 0;
+        List<Move> legal = null;
+        search:
+        for (int i = positions.size() / 2; i < positions.size(); i++) {
+            Board board = new Board(positions.get(i));
+            for (PlayerColor c : config.players()) {
+                for (int r = 1; r <= 6; r++) {
+                    List<Move> moves = board.legalMoves(c, r);
+                    if (moves.size() >= 3) {
+                        root = positions.get(i);
+                        toMove = c;
+                        roll = r;
+                        legal = moves;
+                        break search;
+                    }
+                }
+            }
+        }
+        if (root == null) {
+            throw new IllegalStateException("No position with a real choice");
+        }
+        System.out.printf("position: %s to move, roll %d, %d moves; %d CPUs%n",
+                toMove, roll, legal.size(), Runtime.getRuntime().availableProcessors());
+
+        double single = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(2 * threads, maxThreads) : threads + 1) {
+            try (ParallelMcts mcts = new ParallelMcts(config, threads, 1 << 21, iterations, Duration.ofMinutes(5), true)) {
+                mcts.search(root, toMove, roll, legal);
+                long t0 = System.nanoTime();
+                ParallelMcts.Result result = mcts.search(root, toMove, roll, legal);
+                double rate = result.iterations() * 1e9 / (System.nanoTime() - t0);
+                if (threads == 1) {
+                    single = rate;
+                }
+                double speedup = rate / single;
+                System.out.printf("threads %2d: %,9.0f it/s  speedup x%.2f  efficiency %3.0f%%  nodes %,d  move %s (%.1f%%)%n",
+                        threads, rate, speedup, 100 * speedup / threads, result.nodes(), result.move(),
+                        100 * result.winRate());
+            }
+        }
+    }
+}
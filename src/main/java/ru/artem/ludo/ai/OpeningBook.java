@@ -0,0 +1,408 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameSeeds;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.sim.PlayoutEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Дебютная книга: готовый ход для частых позиций первых ходов партии.
+ *
+ * <p>Книга строится заранее ({@link #build}): партии жадного бота {@link HeuristicEvaluator} (с
+ * небольшой долей случайных ходов, чтобы покрыть и отклонения) собирают позиции первых ходов
+ * (расстановка, кто ходит, бросок), частые из них оцениваются разыгрываниями {@link PlayoutEngine}
+ * для каждого допустимого хода, и в книгу записывается ход с наибольшей долей побед.</p>
+ *
+ * <p>Хранение — отсортированный массив 64-битных ключей ({@link #key}) и параллельный массив
+ * индексов фишек. Файл отображается в память целиком ({@link #load}), поиск — двоичный прямо по
+ * отображению, без чтения файла в кучу. Ход бота в дебюте стоит одного такого поиска вместо
+ * поиска по дереву; книга только читается, её можно разделять между потоками.</p>
+ */
+public final class OpeningBook {
+
+    private static final int MAGIC = 0x4C444F42; // "LDOB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    /** Позиции, встретившиеся реже, в книгу не попадают. */
+    private static final int MIN_OCCURRENCES = 2;
+
+    /** Доля случайных ходов в партиях построения: один из стольких. */
+    private static final int EXPLORE_ONE_IN = 10;
+
+    private final GameConfig config;
+    private final LongBuffer keys;
+    private final ByteBuffer moves;
+    private final int size;
+
+    private OpeningBook(GameConfig config, LongBuffer keys, ByteBuffer moves) {
+        this.config = config;
+        this.keys = keys;
+        this.moves = moves;
+        this.size = keys.limit();
+    }
+
+    /**
+     * Ключ позиции перед ходом.
+     *
+     * @param position расстановка
+     * @param color кто ходит
+     * @param roll выпавшее значение
+     * @return 64-битный ключ
+     */
+    public static long key(BoardSnapshot position, PlayerColor color, int roll) {
+        return (position.hash64() * 31 + color.ordinal()) * 7 + roll;
+    }
+
+    /**
+     * @return конфигурация партий
+     */
+    public GameConfig config() {
+        return config;
+    }
+
+    /**
+     * @return число позиций в книге
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ход из книги.
+     *
+     * @param position расстановка
+     * @param color кто ходит
+     * @param roll выпавшее значение
+     * @param legalMoves допустимые ходы
+     * @return ход книги или empty, если позиции в книге нет
+     */
+    public Optional<Move> lookup(BoardSnapshot position, PlayerColor color, int roll, List<Move> legalMoves) {
+        int i = indexOf(key(position, color, roll));
+        if (i < 0) {
+            return Optional.empty();
+        }
+        int token = moves.get(i);
+        for (Move m : legalMoves) {
+            if (m.token().index() == token) {
+                return Optional.of(m);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Стратегия: сначала книга, вне книги (и для бонусных ходов) — запасная стратегия.
+     *
+     * @param fallback стратегия для позиций вне книги, обычно поиск
+     * @return стратегия
+     */
+    public MoveStrategy strategy(MoveStrategy fallback) {
+        return new BookStrategy(this, Objects.requireNonNull(fallback));
+    }
+
+    private int indexOf(long key) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = keys.get(mid);
+            if (k < key) {
+                lo = mid + 1;
+            } else if (k > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Строит книгу.
+     *
+     * @param config конфигурация партий
+     * @param games сколько партий просмотреть в поисках дебютных позиций
+     * @param plies сколько первых ходов каждой партии считать дебютом
+     * @param playoutsPerMove разыгрываний на оценку каждого хода
+     * @param seed зерно (книга не зависит от числа потоков)
+     * @param threads число потоков
+     * @return книга в куче
+     * @throws InterruptedException если поток прервали
+     */
+    public static OpeningBook build(GameConfig config, long games, int plies, int playoutsPerMove, long seed,
+                                    int threads) throws InterruptedException {
+        Objects.requireNonNull(config);
+        if (games < 1 || plies < 1 || playoutsPerMove < 1 || threads < 1) {
+            throw new IllegalArgumentException("games, plies, playoutsPerMove and threads must be positive");
+        }
+        Map<Long, Candidate> seen = new ConcurrentHashMap<>();
+        MoveStrategy greedy = new HeuristicEvaluator(config).greedy();
+        AtomicLong nextGame = new AtomicLong();
+        parallel(threads, () -> {
+            for (long g = nextGame.getAndIncrement(); g < games; g = nextGame.getAndIncrement()) {
+                Random random = new Random(GameSeeds.gameSeed(seed, g));
+                MoveStrategy explore = MoveStrategy.random(random);
+                MoveStrategy collect = (board, color, roll, legal) -> {
+                    if (legal.size() > 1) {
+                        BoardSnapshot position = board.snapshot();
+                        seen.computeIfAbsent(key(position, color, roll), k -> new Candidate(position, color, roll, legal))
+                                .occurrences.incrementAndGet();
+                    }
+                    return (random.nextInt(EXPLORE_ONE_IN) == 0 ? explore : greedy).choose(board, color, roll, legal);
+                };
+                new Game(config, new Dice(random), collect).playUntilWin(plies);
+            }
+        });
+
+        List<Candidate> frequent = new ArrayList<>();
+        for (Map.Entry<Long, Candidate> e : seen.entrySet()) {
+            if (e.getValue().occurrences.get() >= MIN_OCCURRENCES) {
+                e.getValue().key = e.getKey();
+                frequent.add(e.getValue());
+            }
+        }
+        frequent.sort(Comparator.comparingLong(c -> c.key));
+
+        PlayoutEngine engine = new PlayoutEngine(config, PlayoutEngine.Policy.GREEDY, 5_000);
+        AtomicInteger next = new AtomicInteger();
+        parallel(threads, () -> {
+            long[] wins = new long[config.players().size()];
+            for (int i = next.getAndIncrement(); i < frequent.size(); i = next.getAndIncrement()) {
+                Candidate c = frequent.get(i);
+                engine.seedCurrentThread(seed ^ c.key);
+                c.best = bestByPlayouts(engine, c, playoutsPerMove, wins);
+            }
+        });
+
+        long[] keys = new long[frequent.size()];
+        byte[] moves = new byte[frequent.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = frequent.get(i).key;
+            moves[i] = (byte) frequent.get(i).best;
+        }
+        return new OpeningBook(config, LongBuffer.wrap(keys), ByteBuffer.wrap(moves));
+    }
+
+    /**
+     * Индекс фишки лучшего хода: после хода партию доигрывают разыгрывания, ходит тот же игрок
+     * при шестёрке, иначе следующий. Бонус за срубание в оценке не учитывается.
+     */
+    private static int bestByPlayouts(PlayoutEngine engine, Candidate c, int playouts, long[] wins) {
+        List<PlayerColor> players = engine.config().players();
+        int seat = players.indexOf(c.color);
+        PlayerColor after = c.roll == 6 ? c.color : players.get((seat + 1) % players.size());
+        int best = c.legal.get(0).token().index();
+        long bestWins = -1;
+        for (Move m : c.legal) {
+            Arrays.fill(wins, 0);
+            engine.playouts(c.position.withMove(m), after, playouts, wins);
+            if (wins[seat] > bestWins) {
+                bestWins = wins[seat];
+                best = m.token().index();
+            }
+        }
+        return best;
+    }
+
+    private static void parallel(int threads, Runnable work) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(work));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Building opening book failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Сохраняет книгу (атомарной заменой файла).
+     * Формат: заголовок, ключи ({@code long}, по возрастанию), индексы фишек ({@code byte}).
+     *
+     * @param file путь к файлу
+     * @throws IOException ошибка записи
+     */
+    public void save(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + size * (Long.BYTES + 1)).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION)
+                    .putInt(config.players().size()).putInt(config.trackLength()).putInt(config.homeLaneLength())
+                    .putInt(0).putLong(size);
+            for (int i = 0; i < size; i++) {
+                out.putLong(keys.get(i));
+            }
+            for (int i = 0; i < size; i++) {
+                out.put(moves.get(i));
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                ch.write(out);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Отображает файл книги в память. Отображение живёт, пока жива книга.
+     *
+     * @param config конфигурация партий (должна совпадать с той, для которой строилась книга)
+     * @param file путь к файлу
+     * @return книга
+     * @throws IOException ошибка чтения или неверный формат
+     */
+    public static OpeningBook load(GameConfig config, Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = ch.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            ByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC || map.getInt() != VERSION) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            int seats = map.getInt();
+            int track = map.getInt();
+            int lane = map.getInt();
+            map.getInt();
+            long size = map.getLong();
+            if (seats != config.players().size() || track != config.trackLength() || lane != config.homeLaneLength()) {
+                throw new IOException("Opening book is built for " + seats + " seats, track " + track + ", lane " + lane);
+            }
+            if (size < 0 || HEADER_BYTES + size * (Long.BYTES + 1) != fileSize) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            int n = (int) size;
+            LongBuffer keys = map.slice(HEADER_BYTES, n * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            ByteBuffer moves = map.slice(HEADER_BYTES + n * Long.BYTES, n);
+            return new OpeningBook(config, keys, moves);
+        }
+    }
+
+    /**
+     * Дебютная позиция при построении.
+     */
+    private static final class Candidate {
+        private final BoardSnapshot position;
+        private final PlayerColor color;
+        private final int roll;
+        private final List<Move> legal;
+        private final AtomicInteger occurrences = new AtomicInteger();
+        private long key;
+        private int best;
+
+        Candidate(BoardSnapshot position, PlayerColor color, int roll, List<Move> legal) {
+            this.position = position;
+            this.color = color;
+            this.roll = roll;
+            this.legal = List.copyOf(legal);
+        }
+    }
+
+    /**
+     * Книга перед запасной стратегией.
+     */
+    private record BookStrategy(OpeningBook book, MoveStrategy fallback) implements MoveStrategy {
+
+        @Override
+        public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+            if (legalMoves.size() > 1) {
+                Optional<Move> move = book.lookup(board.snapshot(), color, diceRoll, legalMoves);
+                if (move.isPresent()) {
+                    return move.get();
+                }
+            }
+            return fallback.choose(board, color, diceRoll, legalMoves);
+        }
+
+        @Override
+        public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+            return fallback.chooseBonus(board, color, bonusSteps, bonusMoves);
+        }
+    }
+
+    /**
+     * Строит книгу, сохраняет и замеряет поиск по отображённому файлу.
+     *
+     * @param args [файл] [партий] [ходов дебюта] [разыгрываний на ход] [потоков]
+     */
+    public static void main(String[] args) throws Exception {
+        Path file = Path.of(args.length > 0 ? args[0] : "openings.book");
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 20_000;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+        int playouts = args.length > 3 ? Integer.parseInt(args[3]) : 400;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        GameConfig config = GameConfig.defaultForFourPlayers();
+
+        long t0 = System.nanoTime();
+        OpeningBook built = build(config, games, plies, playouts, 1, threads);
+        built.save(file);
+        System.out.printf("%d positions in %.1fs, %d bytes%n", built.size(), (System.nanoTime() - t0) / 1e9, Files.size(file));
+
+        // дебюты жадного бота: как часто его решение находится в книге и сколько стоит поиск
+        OpeningBook book = load(config, file);
+        MoveStrategy greedy = new HeuristicEvaluator(config).greedy();
+        List<Candidate> decisions = new ArrayList<>();
+        MoveStrategy probe = (board, color, roll, legal) -> {
+            if (legal.size() > 1) {
+                decisions.add(new Candidate(board.snapshot(), color, roll, legal));
+            }
+            return greedy.choose(board, color, roll, legal);
+        };
+        Random random = new Random(7);
+        for (int g = 0; g < 20_000; g++) {
+            new Game(config, new Dice(random), probe).playUntilWin(plies);
+        }
+        long hits = 0;
+        long nanos = 0;
+        for (int pass = 0; pass < 10; pass++) {
+            hits = 0;
+            long s = System.nanoTime();
+            for (Candidate d : decisions) {
+                hits += book.lookup(d.position, d.color, d.roll, d.legal).isPresent() ? 1 : 0;
+            }
+            nanos = System.nanoTime() - s;
+        }
+        System.out.printf("hit rate %.1f%% of %d opening decisions, %.0f ns per lookup%n",
+                100.0 * hits / Math.max(1, decisions.size()), decisions.size(), (double) nanos / Math.max(1, decisions.size()));
+    }
+}
@@ -0,0 +1,399 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.sim.PlayoutState;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Многопоточный MCTS с общим деревом.
+ *
+ * <p>Дерево чередует узлы выбора (известен бросок, ходящий выбирает фишку по UCT) и узлы случая
+ * (следующий бросок; потомок по броску выбирается кубиком). Узлы — индексы в заранее выделенных
+ * массивах, а не объекты: {@code firstChild}, посещения и победы — атомарные массивы,
+ * остальные поля пишутся один раз до публикации узла. Потомки узла создаются без блокировок:
+ * поток резервирует блок индексов, заполняет его и публикует CAS-ом {@code firstChild}; проигравший
+ * гонку блок просто не используется.</p>
+ *
+ * <p>Виртуальная потеря: на спуске каждый узел пути получает {@link #VIRTUAL_LOSS} посещений без
+ * побед, при обратном проходе они заменяются настоящим одним посещением. Так параллельные
+ * потоки расходятся по разным веткам, а не толпятся в лучшей.</p>
+ *
+ * <p>Позиция узла не хранится: каждая итерация проигрывает путь от корня на {@link PlayoutState}
+ * своего потока и заканчивает разыгрыванием. Бонусы выбираются жадно и детерминированно, поэтому
+ * путь однозначно задаёт позицию. Оценка узла — доля побед игрока, сделавшего ход в узел
+ * (каждый играет за себя). Одновременно идёт один поиск на экземпляр.</p>
+ */
+public final class ParallelMcts implements MoveStrategy, AutoCloseable {
+
+    /** Виртуальная потеря на узел пути. */
+    static final int VIRTUAL_LOSS = 3;
+
+    /** Коэффициент исследования UCT. */
+    private static final double EXPLORATION = 1.0;
+
+    private static final int UNEXPANDED = -1;
+    private static final byte DECISION = 0;
+    private static final byte CHANCE = 1;
+    private static final int MAX_PATH = 4_096;
+    private static final int MAX_ROLLOUT_TURNS = 2_000;
+
+    private final GameConfig config;
+    private final int threads;
+    private final long iterationsPerMove;
+    private final long budgetNanos;
+    private final boolean greedyRollouts;
+    private final ExecutorService workers;
+    private final ThreadLocal<Worker> local;
+    private final MoveStrategy bonusStrategy;
+
+    /** Пул узлов. */
+    private final int capacity;
+    private final AtomicIntegerArray firstChild;
+    private final AtomicIntegerArray visits;
+    private final AtomicIntegerArray wins;
+    private final byte[] childCount;
+    private final byte[] kind;
+    /** Узел выбора — бросок; узел случая — номер фишки хода в узел (-1 — пропуск). */
+    private final byte[] label;
+    /** Место игрока, сделавшего ход в узел случая (у узлов выбора -1). */
+    private final byte[] owner;
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    /**
+     * Итог поиска.
+     */
+    public record Result(
+            /** Ход с наибольшим числом посещений. */
+            Move move,
+            /** Сделано итераций. */
+            long iterations,
+            /** Занято узлов. */
+            int nodes,
+            /** Доля побед ходящего после выбранного хода. */
+            double winRate
+    ) {
+    }
+
+    /**
+     * Состояние итерации одного потока.
+     */
+    private static final class Worker {
+        final PlayoutState state;
+        final int[] path = new int[MAX_PATH];
+
+        Worker(GameConfig config, long seed) {
+            this.state = new PlayoutState(config, seed);
+        }
+    }
+
+    /**
+     * @param config конфигурация партий
+     * @param threads число потоков поиска
+     * @param capacity размер пула узлов
+     * @param iterationsPerMove итераций на ход
+     * @param budget предел времени на ход
+     * @param greedyRollouts жадные разыгрывания вместо случайных
+     */
+    public ParallelMcts(GameConfig config, int threads, int capacity, long iterationsPerMove, Duration budget,
+                        boolean greedyRollouts) {
+        this.config = Objects.requireNonNull(config);
+        if (threads < 1 || capacity < 64 || iterationsPerMove < 1) {
+            throw new IllegalArgumentException("threads, capacity and iterations must be positive");
+        }
+        this.threads = threads;
+        this.iterationsPerMove = iterationsPerMove;
+        this.budgetNanos = budget.toNanos();
+        this.greedyRollouts = greedyRollouts;
+        this.capacity = capacity;
+        this.firstChild = new AtomicIntegerArray(capacity);
+        this.visits = new AtomicIntegerArray(capacity);
+        this.wins = new AtomicIntegerArray(capacity);
+        this.childCount = new byte[capacity];
+        this.kind = new byte[capacity];
+        this.label = new byte[capacity];
+        this.owner = new byte[capacity];
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "mcts-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicLong seeds = new AtomicLong(System.nanoTime());
+        this.local = ThreadLocal.withInitial(() -> new Worker(config, seeds.getAndIncrement()));
+        this.bonusStrategy = new HeuristicEvaluator(config).greedy();
+    }
+
+    /**
+     * @param config конфигурация партий
+     * @param threads число потоков поиска
+     * @param budget предел времени на ход
+     */
+    public ParallelMcts(GameConfig config, int threads, Duration budget) {
+        this(config, threads, 1 << 20, Long.MAX_VALUE, budget, true);
+    }
+
+    @Override
+    public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+        return search(board.snapshot(), color, diceRoll, legalMoves).move();
+    }
+
+    /**
+     * Бонусный ход выбирается жадно по эвристике: в дереве бонусы тоже жадные.
+     */
+    @Override
+    public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+        return bonusStrategy.chooseBonus(board, color, bonusSteps, bonusMoves);
+    }
+
+    /**
+     * Ищет ход из позиции с известным броском.
+     *
+     * @param root позиция
+     * @param toMove кто ходит
+     * @param diceRoll выпавшее значение
+     * @param legalMoves непустой список допустимых ходов
+     * @return ход и статистика
+     */
+    public synchronized Result search(BoardSnapshot root, PlayerColor toMove, int diceRoll, List<Move> legalMoves) {
+        if (legalMoves.isEmpty()) {
+            throw new IllegalArgumentException("No legal moves");
+        }
+        if (legalMoves.size() == 1) {
+            return new Result(legalMoves.get(0), 0, 0, Double.NaN);
+        }
+        int seat = config.players().indexOf(toMove);
+        initNode(0, DECISION, diceRoll, -1);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            initNode(1 + i, CHANCE, legalMoves.get(i).token().index(), seat);
+        }
+        childCount[0] = (byte) legalMoves.size();
+        firstChild.set(0, 1);
+        allocated.set(1 + legalMoves.size());
+
+        long deadline = System.nanoTime() + budgetNanos;
+        AtomicLong remaining = new AtomicLong(iterationsPerMove);
+        AtomicLong done = new AtomicLong();
+        List<Future<?>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            tasks.add(workers.submit(() -> {
+                Worker w = local.get();
+                w.state.load(root, toMove);
+                long n = 0;
+                while (remaining.getAndDecrement() > 0 && System.nanoTime() < deadline) {
+                    iterate(w);
+                    n++;
+                }
+                done.addAndGet(n);
+            }));
+        }
+        try {
+            for (Future<?> f : tasks) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            remaining.set(0);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search worker failed", e.getCause());
+        }
+
+        int best = 1;
+        for (int c = 2; c <= legalMoves.size(); c++) {
+            if (visits.get(c) > visits.get(best)) {
+                best = c;
+            }
+        }
+        int v = visits.get(best);
+        return new Result(legalMoves.get(best - 1), done.get(), allocated.get(),
+                v == 0 ? Double.NaN : wins.get(best) / (double) v);
+    }
+
+    /**
+     * Одна итерация: спуск с виртуальной потерей, расширение, разыгрывание, обратный проход.
+     */
+    private void iterate(Worker w) {
+        PlayoutState st = w.state;
+        int[] path = w.path;
+        st.reset();
+        int depth = 0;
+        int node = 0;
+        int winner;
+        while (true) {
+            path[depth++] = node;
+            int seen = visits.getAndAdd(node, VIRTUAL_LOSS);
+            if ((seen == 0 && node != 0) || depth == MAX_PATH) {
+                winner = st.rollout(MAX_ROLLOUT_TURNS, greedyRollouts);
+                break;
+            }
+            if (kind[node] == DECISION) {
+                int roll = label[node];
+                int children = expandDecision(node, st, roll);
+                if (children < 0) {
+                    winner = st.rollout(MAX_ROLLOUT_TURNS, greedyRollouts);
+                    break;
+                }
+                node = select(node, children);
+                winner = st.play(roll, label[node]);
+                if (winner >= 0) {
+                    path[depth++] = node;
+                    visits.getAndAdd(node, VIRTUAL_LOSS);
+                    break;
+                }
+            } else {
+                int children = expandChance(node);
+                if (children < 0) {
+                    winner = st.rollout(MAX_ROLLOUT_TURNS, greedyRollouts);
+                    break;
+                }
+                node = children + st.roll() - 1;
+            }
+        }
+        for (int i = 0; i < depth; i++) {
+            int n = path[i];
+            visits.getAndAdd(n, 1 - VIRTUAL_LOSS);
+            if (winner >= 0 && owner[n] == winner) {
+                wins.getAndIncrement(n);
+            }
+        }
+    }
+
+    /**
+     * UCT по потомкам узла выбора (все они — ходы одного игрока).
+     */
+    private int select(int node, int children) {
+        int count = childCount[node];
+        double logN = Math.log(Math.max(1, visits.get(node)));
+        int best = children;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = children; c < children + count; c++) {
+            int v = visits.get(c);
+            if (v == 0) {
+                return c;
+            }
+            double score = wins.get(c) / (double) v + EXPLORATION * Math.sqrt(logN / v);
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Потомки узла выбора — допустимые ходы позиции (или один пропуск хода).
+     *
+     * @return индекс первого потомка или -1, если пул исчерпан
+     */
+    private int expandDecision(int node, PlayoutState st, int roll) {
+        int children = firstChild.get(node);
+        if (children != UNEXPANDED) {
+            return children;
+        }
+        int mask = st.legalMask(roll);
+        int count = Math.max(1, Integer.bitCount(mask));
+        int start = reserve(count);
+        if (start < 0) {
+            return -1;
+        }
+        int seat = st.seatToMove();
+        if (mask == 0) {
+            initNode(start, CHANCE, -1, seat);
+        }
+        for (int c = start; mask != 0; mask &= mask - 1, c++) {
+            initNode(c, CHANCE, Integer.numberOfTrailingZeros(mask), seat);
+        }
+        return publish(node, start, count);
+    }
+
+    /**
+     * Потомки узла случая — по узлу выбора на каждое значение кубика.
+     */
+    private int expandChance(int node) {
+        int children = firstChild.get(node);
+        if (children != UNEXPANDED) {
+            return children;
+        }
+        int start = reserve(6);
+        if (start < 0) {
+            return -1;
+        }
+        for (int r = 1; r <= 6; r++) {
+            initNode(start + r - 1, DECISION, r, -1);
+        }
+        return publish(node, start, 6);
+    }
+
+    /**
+     * Занимает {@code count} узлов подряд; когда пул полон, счётчик больше не растёт
+     * (иначе за долгий поиск он переполнился бы и дал отрицательный индекс).
+     */
+    private int reserve(int count) {
+        while (true) {
+            int start = allocated.get();
+            if (start > capacity - count) {
+                return -1;
+            }
+            if (allocated.compareAndSet(start, start + count)) {
+                return start;
+            }
+        }
+    }
+
+    private int publish(int node, int start, int count) {
+        childCount[node] = (byte) count;
+        if (firstChild.compareAndSet(node, UNEXPANDED, start)) {
+            return start;
+        }
+        // другой поток успел раньше; наш блок остаётся неиспользованным
+        return firstChild.get(node);
+    }
+
+    private void initNode(int n, byte nodeKind, int nodeLabel, int nodeOwner) {
+        kind[n] = nodeKind;
+        label[n] = (byte) nodeLabel;
+        owner[n] = (byte) nodeOwner;
+        childCount[n] = 0;
+        wins.set(n, 0);
+        visits.set(n, 0);
+        firstChild.set(n, UNEXPANDED);
+    }
+
+    /**
+     * @return посещения узла по последнему поиску (0 — корень, 1.. — ходы корня по порядку списка)
+     */
+    int visitsOf(int node) {
+        return visits.get(node);
+    }
+
+    /**
+     * @return значение счётчика занятых узлов (не больше размера пула)
+     */
+    int allocatedNodes() {
+        return allocated.get();
+    }
+
+    /**
+     * Останавливает потоки поиска.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
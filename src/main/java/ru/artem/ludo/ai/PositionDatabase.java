@@ -0,0 +1,509 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.GameSeeds;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика исходов по позициям вне кучи Java.
+ *
+ * <p>Хэш-таблица с открытой адресацией (линейное пробирование) лежит в direct-буферах,
+ * разбитых на куски до 1 ГБ, поэтому её размер не ограничен ни кучей, ни 2 ГБ одного буфера.
+ * Запись позиции: ключ (64-битный хэш), число посещений и число побед каждого места — всё
+ * в {@code long}. Ключ занимается CAS-ом, счётчики увеличиваются атомарно через {@link VarHandle},
+ * так что писать могут несколько потоков одновременно без блокировок; удаления нет.</p>
+ *
+ * <p>Заполненная таблица не останавливает наполнение: новые позиции больше не добавляются
+ * (они считаются в {@link #rejected()}), а счётчики уже известных позиций продолжают расти.</p>
+ *
+ * <p>Ключ позиции — {@link #key(BoardSnapshot, PlayerColor)}: расстановка после хода вместе с тем,
+ * кто его сделал. Так стратегии сравнивают ходы по статистике позиций, в которые они ведут.</p>
+ */
+public final class PositionDatabase {
+
+    private static final int MAGIC = 0x4C445042; // "LDPB"
+    private static final int VERSION = 1;
+    private static final long EMPTY = 0L;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    /** Загрузка таблицы, после которой новые позиции не принимаются. */
+    private static final double MAX_LOAD = 0.9;
+
+    /** Новых позиций на случайную партию с запасом (в среднем их около 180). */
+    private static final long POSITIONS_PER_GAME = 256;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final GameConfig config;
+    private final int seats;
+    private final int slotBytes;
+    private final long capacity;
+    private final long mask;
+    private final long maxSize;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final ByteBuffer[] chunks;
+    private final AtomicLong size;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param config конфигурация партий (задаёт число мест)
+     * @param capacity минимальное число позиций (округляется вверх до степени двойки)
+     */
+    public PositionDatabase(GameConfig config, long capacity) {
+        this.config = Objects.requireNonNull(config);
+        if (capacity < 1 || capacity > 1L << 40) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        this.seats = config.players().size();
+        this.slotBytes = (2 + seats) * Long.BYTES;
+        this.capacity = Long.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.maxSize = (long) (this.capacity * MAX_LOAD);
+
+        // слотов в куске: наибольшая степень двойки, умещающаяся в MAX_CHUNK_BYTES
+        int slotsPerChunkShift = 31 - Integer.numberOfLeadingZeros(MAX_CHUNK_BYTES / slotBytes);
+        this.chunkShift = Math.min(slotsPerChunkShift, Long.numberOfTrailingZeros(this.capacity));
+        this.chunkMask = (1L << chunkShift) - 1;
+        int chunkCount = (int) Math.max(1, this.capacity >>> chunkShift);
+        this.chunks = new ByteBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            chunks[c] = ByteBuffer.allocateDirect((int) ((chunkMask + 1) * slotBytes)).order(ByteOrder.nativeOrder());
+        }
+        this.size = new AtomicLong();
+    }
+
+    /**
+     * Ключ позиции после хода.
+     *
+     * @param position расстановка после хода
+     * @param mover кто сделал ход
+     * @return 64-битный ключ
+     */
+    public static long key(BoardSnapshot position, PlayerColor mover) {
+        return position.hash64() * 31 + mover.ordinal();
+    }
+
+    /**
+     * @return конфигурация партий
+     */
+    public GameConfig config() {
+        return config;
+    }
+
+    /**
+     * @return число слотов таблицы
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return число различных позиций
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * @return сколько записей о новых позициях отброшено, потому что таблица заполнена
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Учитывает одну партию, прошедшую через позицию. Если позиция новая, а таблица заполнена,
+     * запись отбрасывается и учитывается в {@link #rejected()}.
+     *
+     * @param key ключ позиции
+     * @param winner победитель партии (empty — партия прервана)
+     */
+    public void record(long key, Optional<PlayerColor> winner) {
+        int winnerSeat = winner.map(c -> config.players().indexOf(c)).orElse(-1);
+        add(key, winnerSeat);
+    }
+
+    /**
+     * Учитывает одну партию для всех позиций, через которые она прошла.
+     *
+     * @param keys ключи позиций
+     * @param count сколько первых ключей учитывать
+     * @param winner победитель партии (empty — партия прервана)
+     */
+    public void record(long[] keys, int count, Optional<PlayerColor> winner) {
+        Objects.checkFromIndexSize(0, count, keys.length);
+        int winnerSeat = winner.map(c -> config.players().indexOf(c)).orElse(-1);
+        for (int i = 0; i < count; i++) {
+            add(keys[i], winnerSeat);
+        }
+    }
+
+    /**
+     * @param key ключ позиции
+     * @return статистика позиции, если она встречалась
+     */
+    public Optional<PositionStats> lookup(long key) {
+        long k = normalize(key);
+        long slot = mix(k) & mask;
+        for (long probe = 0; probe < capacity; probe++) {
+            ByteBuffer chunk = chunk(slot);
+            int off = offset(slot);
+            long current = (long) LONGS.getVolatile(chunk, off);
+            if (current == EMPTY) {
+                return Optional.empty();
+            }
+            if (current == k) {
+                return Optional.of(stats(chunk, off));
+            }
+            slot = (slot + 1) & mask;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param position расстановка после хода
+     * @param mover кто сделал ход
+     * @return статистика позиции, если она встречалась
+     */
+    public Optional<PositionStats> lookup(BoardSnapshot position, PlayerColor mover) {
+        return lookup(key(position, mover));
+    }
+
+    /**
+     * Ход, ведущий в позицию с наибольшей долей побед ходящего.
+     *
+     * @param position текущая расстановка
+     * @param color кто ходит
+     * @param moves допустимые (или бонусные) ходы
+     * @param minVisits сколько партий нужно, чтобы статистике позиции доверять
+     * @return лучший ход или empty, если ни у одного хода нет достаточной статистики
+     */
+    public Optional<Move> bestMove(BoardSnapshot position, PlayerColor color, List<Move> moves, long minVisits) {
+        Move best = null;
+        double bestRate = -1;
+        for (Move m : moves) {
+            Optional<PositionStats> stats = lookup(position.withMove(m), color);
+            if (stats.isPresent() && stats.get().visits() >= minVisits && stats.get().winRate(color) > bestRate) {
+                best = m;
+                bestRate = stats.get().winRate(color);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Стратегия, выбирающая ход по статистике базы, а при её нехватке — запасной стратегией.
+     *
+     * @param fallback стратегия для позиций без статистики
+     * @param minVisits порог доверия статистике
+     * @return стратегия
+     */
+    public MoveStrategy strategy(MoveStrategy fallback, long minVisits) {
+        Objects.requireNonNull(fallback);
+        return (board, color, diceRoll, legal) -> bestMove(board.snapshot(), color, legal, minVisits)
+                .orElseGet(() -> fallback.choose(board, color, diceRoll, legal));
+    }
+
+    /**
+     * Наполняет базу случайными партиями в нескольких потоках.
+     *
+     * @param games сколько партий сыграть
+     * @param seed зерно (партия K использует собственный генератор)
+     * @param threads число потоков
+     * @param maxTurnsPerGame ограничение длины партии
+     * @return сыграно партий
+     * @throws InterruptedException если поток прервали
+     */
+    public long populate(long games, long seed, int threads, int maxTurnsPerGame) throws InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        AtomicLong next = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    KeyRecorder recorder = new KeyRecorder();
+                    for (long g = next.getAndIncrement(); g < games; g = next.getAndIncrement()) {
+                        Random random = new Random(GameSeeds.gameSeed(seed, g));
+                        recorder.reset(MoveStrategy.random(random));
+                        GameResult result = new Game(config, new Dice(random), recorder).playUntilWin(maxTurnsPerGame);
+                        record(recorder.keys, recorder.count, result.winnerColor());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Populating failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return games;
+    }
+
+    /**
+     * Сохраняет занятые записи в файл. Писатели могут продолжать работу: каждый счётчик
+     * читается атомарно, но снимок в целом не мгновенный.
+     *
+     * @param file путь к файлу
+     * @throws IOException ошибка записи
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(seats).putInt(0).putLong(size.get());
+            for (long slot = 0; slot < capacity; slot++) {
+                ByteBuffer chunk = chunk(slot);
+                int off = offset(slot);
+                long key = (long) LONGS.getVolatile(chunk, off);
+                if (key == EMPTY) {
+                    continue;
+                }
+                if (out.remaining() < slotBytes) {
+                    drain(ch, out);
+                }
+                out.putLong(key);
+                for (int f = 1; f < 2 + seats; f++) {
+                    out.putLong((long) LONGS.getVolatile(chunk, off + f * Long.BYTES));
+                }
+            }
+            drain(ch, out);
+        }
+    }
+
+    /**
+     * Загружает базу из файла (ёмкость — с запасом вдвое от числа записей).
+     *
+     * @param config конфигурация партий (число мест должно совпадать с файлом)
+     * @param file путь к файлу
+     * @return база
+     * @throws IOException ошибка чтения или неверный формат
+     */
+    public static PositionDatabase load(GameConfig config, Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            fill(ch, in, 24);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not a position database: " + file);
+            }
+            int fileSeats = in.getInt();
+            in.getInt();
+            long entries = in.getLong();
+            if (fileSeats != config.players().size()) {
+                throw new IOException("Database has " + fileSeats + " seats, config has " + config.players().size());
+            }
+
+            PositionDatabase db = new PositionDatabase(config, Math.max(1024, entries * 2));
+            long[] counters = new long[1 + fileSeats];
+            int recordBytes = (2 + fileSeats) * Long.BYTES;
+            while (true) {
+                if (in.remaining() < recordBytes) {
+                    in.compact();
+                    int read = ch.read(in);
+                    in.flip();
+                    if (read < 0) {
+                        if (in.hasRemaining()) {
+                            throw new IOException("Truncated position database: " + file);
+                        }
+                        break;
+                    }
+                    continue;
+                }
+                long key = in.getLong();
+                for (int f = 0; f < counters.length; f++) {
+                    counters[f] = in.getLong();
+                }
+                db.put(key, counters);
+            }
+            return db;
+        }
+    }
+
+    private void add(long key, int winnerSeat) {
+        long slot = claim(normalize(key));
+        if (slot < 0) {
+            rejected.increment();
+            return;
+        }
+        ByteBuffer chunk = chunk(slot);
+        int off = offset(slot);
+        LONGS.getAndAdd(chunk, off + Long.BYTES, 1L);
+        if (winnerSeat >= 0) {
+            LONGS.getAndAdd(chunk, off + (2 + winnerSeat) * Long.BYTES, 1L);
+        }
+    }
+
+    private void put(long key, long[] counters) {
+        long slot = claim(normalize(key));
+        if (slot < 0) {
+            rejected.increment();
+            return;
+        }
+        ByteBuffer chunk = chunk(slot);
+        int off = offset(slot);
+        for (int f = 0; f < counters.length; f++) {
+            LONGS.getAndAdd(chunk, off + (1 + f) * Long.BYTES, counters[f]);
+        }
+    }
+
+    /**
+     * Находит слот ключа или занимает свободный.
+     *
+     * @return слот или -1, если ключа нет, а таблица заполнена
+     */
+    private long claim(long k) {
+        long slot = mix(k) & mask;
+        for (long probe = 0; probe < capacity; probe++) {
+            ByteBuffer chunk = chunk(slot);
+            int off = offset(slot);
+            long current = (long) LONGS.getVolatile(chunk, off);
+            if (current == EMPTY) {
+                if (size.get() >= maxSize) {
+                    return -1;
+                }
+                if (LONGS.compareAndSet(chunk, off, EMPTY, k)) {
+                    size.incrementAndGet();
+                    return slot;
+                }
+                current = (long) LONGS.getVolatile(chunk, off);
+            }
+            if (current == k) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private PositionStats stats(ByteBuffer chunk, int off) {
+        long visits = (long) LONGS.getVolatile(chunk, off + Long.BYTES);
+        Map<PlayerColor, Long> wins = new EnumMap<>(PlayerColor.class);
+        for (int seat = 0; seat < seats; seat++) {
+            wins.put(config.players().get(seat), (long) LONGS.getVolatile(chunk, off + (2 + seat) * Long.BYTES));
+        }
+        return new PositionStats(visits, wins);
+    }
+
+    private ByteBuffer chunk(long slot) {
+        return chunks[(int) (slot >>> chunkShift)];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot & chunkMask) * slotBytes;
+    }
+
+    /**
+     * Нулевой ключ означает пустой слот, поэтому сдвигаем его.
+     */
+    private static long normalize(long key) {
+        return key == EMPTY ? 1L : key;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            ch.write(out);
+        }
+        out.clear();
+    }
+
+    private static void fill(FileChannel ch, ByteBuffer in, int bytes) throws IOException {
+        while (in.position() < bytes) {
+            if (ch.read(in) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        in.flip();
+    }
+
+    /**
+     * Обёртка стратегии, запоминающая ключи позиций после каждого хода партии.
+     */
+    private static final class KeyRecorder implements MoveStrategy {
+
+        private MoveStrategy delegate;
+        private long[] keys = new long[512];
+        private int count;
+
+        void reset(MoveStrategy delegate) {
+            this.delegate = delegate;
+            this.count = 0;
+        }
+
+        @Override
+        public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+            Move chosen = delegate.choose(board, color, diceRoll, legalMoves);
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+            }
+            keys[count++] = key(board.snapshot().withMove(chosen), color);
+            return chosen;
+        }
+    }
+
+    /**
+     * Наполнение базы из командной строки: {@code [партий] [файл] [потоков] [максимум позиций]}.
+     * Размер таблицы считается по числу партий, но не больше заданного максимума; позиции сверх него
+     * отбрасываются.
+     *
+     * @param args аргументы командной строки
+     * @throws Exception ошибка записи или прерывание
+     */
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        Path file = Path.of(args.length > 1 ? args[1] : "positions.ldpb");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long maxPositions = args.length > 3 ? Long.parseLong(args[3]) : 1L << 25;
+
+        long positions = Math.min(maxPositions, games > Long.MAX_VALUE / POSITIONS_PER_GAME
+                ? Long.MAX_VALUE : (long) (games * POSITIONS_PER_GAME / MAX_LOAD));
+        PositionDatabase db = new PositionDatabase(GameConfig.defaultForFourPlayers(), positions);
+        long t0 = System.nanoTime();
+        db.populate(games, 1L, threads, 5_000);
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        db.save(file);
+        System.out.printf("%d games, %d positions, %d rejected (table full) in %.1f s (%.0f games/s) -> %s%n",
+                games, db.size(), db.rejected(), seconds, games / seconds, file);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+
+/**
+ * Статическая оценка позиции для поиска: чем больше, тем лучше для игрока.
+ *
+ * <p>Реализации должны быть потокобезопасными: одну оценку разделяют все поиски.</p>
+ */
+@FunctionalInterface
+public interface PositionEvaluator {
+
+    /** Цена выхода из базы в очках продвижения. */
+    int LEAVE_BASE = 6;
+
+    /**
+     * @param snapshot расстановка
+     * @param color за кого оценивать
+     * @return оценка позиции
+     */
+    double evaluate(BoardSnapshot snapshot, PlayerColor color);
+
+    /**
+     * Дешёвый бот без поиска: ход, после которого оценка позиции наибольшая.
+     *
+     * @return стратегия на этой оценке
+     */
+    default MoveStrategy greedy() {
+        return (board, color, diceRoll, legalMoves) -> {
+            BoardSnapshot snapshot = board.snapshot();
+            Move best = legalMoves.get(0);
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Move m : legalMoves) {
+                double v = evaluate(snapshot.withMove(m), color);
+                if (v > bestValue) {
+                    bestValue = v;
+                    best = m;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Продвижение: суммарная дистанция своих фишек по маршруту минус средняя у соперников.
+     * Фишка вне базы получает ещё 6 очков — выход стоит целой шестёрки; без этого поиск
+     * предпочитает гнать одну фишку и почти не выводит остальные.
+     *
+     * @return простейшая оценка
+     */
+    static PositionEvaluator progress() {
+        return (snapshot, color) -> {
+            double own = 0;
+            double others = 0;
+            for (PlayerColor c : snapshot.config().players()) {
+                int sum = 0;
+                for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                    int distance = snapshot.routeDistance(new TokenId(c, i));
+                    if (distance >= 0) {
+                        sum += distance + LEAVE_BASE;
+                    }
+                }
+                if (c == color) {
+                    own = sum;
+                } else {
+                    others += sum;
+                }
+            }
+            return own - others / (snapshot.config().players().size() - 1);
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.PlayerColor;
+
+import java.util.Map;
+
+/**
+ * Накопленная статистика позиции из {@link PositionDatabase}.
+ */
+public record PositionStats(
+        /** Сколько партий проходило через позицию. */
+        long visits,
+        /** Сколько из них выиграл каждый цвет. */
+        Map<PlayerColor, Long> wins
+) {
+
+    public PositionStats {
+        wins = Map.copyOf(wins);
+    }
+
+    /**
+     * @param color цвет игрока
+     * @return доля побед цвета среди партий через позицию (0, если посещений нет)
+     */
+    public double winRate(PlayerColor color) {
+        return visits == 0 ? 0 : wins.getOrDefault(color, 0L) / (double) visits;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.artem.ludo.ai;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общий пул потоков поиска для многих партий.
+ *
+ * <p>Число потоков ограничено, очередь — FIFO. Поиск выполняется порциями (одна итерация
+ * углубления — одна задача) и после каждой порции встаёт в конец очереди, поэтому при нехватке
+ * потоков партии обслуживаются по кругу и ни одна не ждёт, пока другая исчерпает весь бюджет.</p>
+ */
+public final class SearchPool implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param threads число потоков поиска
+     */
+    public SearchPool(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "search-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    void submit(Runnable slice) {
+        executor.execute(slice);
+    }
+
+    /**
+     * @return сколько порций ждут свободного потока
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.PlayerColor;
+
+import java.util.Map;
+
+/**
+ * Оценка вероятности победы каждого игрока.
+ */
+public record WinEstimate(
+        /** Доля выигранных rollout-партий по цветам (партии без победителя не засчитываются никому). */
+        Map<PlayerColor, Double> probabilities,
+        /** Сколько rollout-партий легло в оценку. */
+        int rollouts
+) {
+
+    public WinEstimate {
+        probabilities = Map.copyOf(probabilities);
+    }
+
+    /**
+     * @param color цвет игрока
+     * @return вероятность победы (0, если цвета нет в оценке)
+     */
+    public double probability(PlayerColor color) {
+        return probabilities.getOrDefault(color, 0.0);
+    }
+}
@@ -0,0 +1,170 @@
+package ru.artem.ludo.ai;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.sim.PlayoutEngine;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Оценка вероятности победы методом Монте-Карло.
+ *
+ * <p>Из текущей позиции разыгрывается ограниченное число случайных партий, разбитых на порции
+ * по числу потоков; партии играет {@link PlayoutEngine} без объектов на ход. Результат кэшируется в LRU по хэшу позиции и очереди хода, поэтому
+ * повторные и совпавшие позиции отвечают сразу. Оценку можно отменить через
+ * {@link CompletableFuture#cancel(boolean)}: порции проверяют отмену перед каждой партией.</p>
+ */
+public final class WinProbabilityOracle implements AutoCloseable {
+
+    private final int rollouts;
+    private final int maxTurnsPerRollout;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final LruCache<Long, WinEstimate> cache;
+    private final LongAdder played = new LongAdder();
+    private volatile PlayoutEngine engine;
+
+    /**
+     * @param rollouts число партий на одну оценку
+     * @param maxTurnsPerRollout ограничение длины одной партии
+     * @param cacheSize сколько оценок хранить в кэше
+     */
+    public WinProbabilityOracle(int rollouts, int maxTurnsPerRollout, int cacheSize) {
+        if (rollouts < 1 || maxTurnsPerRollout < 1) {
+            throw new IllegalArgumentException("Counts must be positive");
+        }
+        this.rollouts = rollouts;
+        this.maxTurnsPerRollout = maxTurnsPerRollout;
+        this.parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "win-oracle-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        this.cache = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Запускает оценку позиции (или сразу возвращает её из кэша).
+     *
+     * @param position расстановка фишек
+     * @param toMove чей сейчас ход
+     * @return будущая оценка; отмена прекращает rollout-партии
+     */
+    public CompletableFuture<WinEstimate> estimate(BoardSnapshot position, PlayerColor toMove) {
+        long key = position.hash64() * 31 + toMove.ordinal();
+        WinEstimate cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        Optional<PlayerColor> finished = new Board(position).winnerIfAny();
+        if (finished.isPresent()) {
+            WinEstimate done = new WinEstimate(Map.of(finished.get(), 1.0), 0);
+            cache.put(key, done);
+            return CompletableFuture.completedFuture(done);
+        }
+
+        CompletableFuture<WinEstimate> result = new CompletableFuture<>();
+        List<PlayerColor> players = position.config().players();
+        List<CompletableFuture<int[]>> parts = new ArrayList<>();
+        for (int p = 0; p < parallelism; p++) {
+            int count = rollouts / parallelism + (p < rollouts % parallelism ? 1 : 0);
+            long seed = key + p;
+            parts.add(CompletableFuture.supplyAsync(() -> playRollouts(position, toMove, count, seed, result), executor));
+        }
+
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            int[] wins = new int[players.size() + 1];
+            for (CompletableFuture<int[]> part : parts) {
+                int[] w = part.join();
+                for (int i = 0; i < wins.length; i++) {
+                    wins[i] += w[i];
+                }
+            }
+            int total = wins[players.size()];
+            Map<PlayerColor, Double> probabilities = new EnumMap<>(PlayerColor.class);
+            for (int seat = 0; seat < players.size(); seat++) {
+                probabilities.put(players.get(seat), total == 0 ? 0.0 : wins[seat] / (double) total);
+            }
+            WinEstimate estimate = new WinEstimate(probabilities, total);
+            cache.put(key, estimate);
+            result.complete(estimate);
+        });
+        return result;
+    }
+
+    /**
+     * @return число попаданий в кэш
+     */
+    public long cacheHits() {
+        return cache.hits();
+    }
+
+    /**
+     * @return сколько rollout-партий сыграно за всё время (включая отменённые оценки)
+     */
+    public long rolloutsPlayed() {
+        return played.sum();
+    }
+
+    /**
+     * Останавливает потоки оценки.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Играет порцию партий; последний элемент — сколько партий сыграно.
+     */
+    private int[] playRollouts(BoardSnapshot position, PlayerColor toMove, int count, long seed,
+                               CompletableFuture<?> owner) {
+        int seats = position.config().players().size();
+        int[] wins = new int[seats + 1];
+        PlayoutEngine engine = engineFor(position.config());
+        engine.seedCurrentThread(seed);
+        for (int i = 0; i < count && !owner.isDone(); i++) {
+            int winner = engine.playout(position, toMove);
+            if (winner >= 0) {
+                wins[winner]++;
+            }
+            wins[seats]++;
+            played.increment();
+        }
+        return wins;
+    }
+
+    /**
+     * Движок разыгрываний для конфигурации (обычно одной на весь сеанс, поэтому храним последний).
+     */
+    private PlayoutEngine engineFor(GameConfig config) {
+        PlayoutEngine current = engine;
+        if (current == null || !current.config().equals(config)) {
+            current = new PlayoutEngine(config, PlayoutEngine.Policy.RANDOM, maxTurnsPerRollout);
+            engine = current;
+        }
+        return current;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.artem.ludo.core;
 
+import java.nio.FloatBuffer;
 import java.util.*;
 
 /**
@@ -8,9 +9,17 @@ import java.util.*;
  * <p>Модель упрощённая, но покрывает правила из задания:
  * блоки, безопасные клетки, срубание, бонусы 10/20, точный заход в дом,
  * выход по 5, доп. ход на 6, три 6 подряд.</p>
+ *
+ * <p>Числовые параметры правил берутся из {@link RuleSet} и при создании доски
+ * раскладываются в таблицы по значению кубика.</p>
  */
 public final class Board {
 
+    /**
+     * Число фишек у каждого игрока.
+     */
+    public static final int TOKENS_PER_PLAYER = 4;
+
     private final GameConfig config;
 
     /**
@@ -23,18 +32,152 @@ public final class Board {
      */
     private final EnumMap<PlayerColor, Integer> consecutiveSixes;
 
+    /**
+     * Скомпилированный вариант правил: шаги по значению кубика [база пуста ? 1 : 0][бросок].
+     */
+    private final int[][] stepsByRoll;
+
+    /**
+     * Можно ли вывести фишку с базы при данном броске.
+     */
+    private final boolean[] exitOnRoll;
+
+    /**
+     * Обязан ли игрок двигать фишку из блока при данном броске.
+     */
+    private final boolean[] forceBlockBreakOnRoll;
+
+    /**
+     * Сколько шестёрок подряд откатывают ход ({@link Integer#MAX_VALUE}, если правило выключено).
+     */
+    private final int sixesLimit;
+
+    private final int captureBonus;
+    private final int homeBonus;
+    private final int maxTokensPerCell;
+
+    /**
+     * Клетка выхода по {@link PlayerColor#ordinal()}.
+     */
+    private final int[] startAbsByColor;
+
+    /**
+     * Признаки клеток кольца: безопасная / чей-то выход.
+     */
+    private final boolean[] safeCell;
+    private final boolean[] startCell;
+
+    /**
+     * Фишки каждого игрока (создаются один раз).
+     */
+    private final EnumMap<PlayerColor, List<TokenId>> tokensByColor;
+
+    /**
+     * Битовая маска клеток кольца, на которых стоит блок (бит absIndex).
+     * Обновляется при каждом перемещении фишки, поэтому проверка "есть ли блок на пути"
+     * сводится к нескольким операциям с масками.
+     */
+    private final long[] blockMask;
+
+    /**
+     * Версия расстановки: увеличивается при каждом перемещении фишки.
+     */
+    private long positionVersion;
+
+    /**
+     * Кэш допустимых ходов по [{@link PlayerColor#ordinal()}][бросок] и маски подвижных фишек
+     * (бит — индекс фишки). Запись действительна, пока её версия равна {@link #positionVersion}.
+     */
+    private final List<Move>[][] legalCache;
+    private final long[][] legalCacheVersion;
+    private final int[][] movableCache;
+    private long legalCacheHits;
+    private long legalCacheMisses;
+
+    /**
+     * Кодировщик признаков для пакетной оценки ходов (создаётся при первом обращении).
+     */
+    private SuccessorEncoder encoder;
+
+    /**
+     * Раскладка снимков этой доски (общая для всех снимков, создаётся при первом обращении).
+     */
+    private SnapshotLayout snapshotLayout;
+
     public Board(GameConfig config) {
         this.config = Objects.requireNonNull(config);
         this.positions = new HashMap<>();
         this.consecutiveSixes = new EnumMap<>(PlayerColor.class);
 
+        RuleSet rules = config.rules();
+        this.stepsByRoll = new int[2][7];
+        this.exitOnRoll = new boolean[7];
+        this.forceBlockBreakOnRoll = new boolean[7];
+        for (int roll = 1; roll <= 6; roll++) {
+            stepsByRoll[0][roll] = roll;
+            stepsByRoll[1][roll] = roll == 6 ? rules.sixStepsWhenBaseEmpty() : roll;
+            exitOnRoll[roll] = roll == rules.exitRoll();
+            forceBlockBreakOnRoll[roll] = roll == 6 && rules.forceBlockBreakOnSix();
+        }
+        this.sixesLimit = rules.maxConsecutiveSixes() == 0 ? Integer.MAX_VALUE : rules.maxConsecutiveSixes();
+        this.captureBonus = rules.captureBonus();
+        this.homeBonus = rules.homeBonus();
+        this.maxTokensPerCell = rules.maxTokensPerCell();
+
+        int trackLen = config.trackLength();
+        this.startAbsByColor = new int[PlayerColor.values().length];
+        this.safeCell = new boolean[trackLen];
+        this.startCell = new boolean[trackLen];
+        this.tokensByColor = new EnumMap<>(PlayerColor.class);
+        for (int abs : config.safeTrackCells()) {
+            safeCell[abs] = true;
+        }
+
         for (PlayerColor color : config.players()) {
+            int startAbs = config.startTrackIndex(color);
+            startAbsByColor[color.ordinal()] = startAbs;
+            startCell[startAbs] = true;
+
+            List<TokenId> tokens = new ArrayList<>(TOKENS_PER_PLAYER);
+            for (int i = 0; i < TOKENS_PER_PLAYER; i++) {
+                tokens.add(new TokenId(color, i));
+            }
+            tokensByColor.put(color, List.copyOf(tokens));
+
             consecutiveSixes.put(color, 0);
             // старт: 3 на базе, 1 на выходе
-            positions.put(new TokenId(color, 0), TokenPosition.start());
-            positions.put(new TokenId(color, 1), TokenPosition.base());
-            positions.put(new TokenId(color, 2), TokenPosition.base());
-            positions.put(new TokenId(color, 3), TokenPosition.base());
+            for (TokenId t : tokens) {
+                positions.put(t, t.index() == 0 ? TokenPosition.start() : TokenPosition.base());
+            }
+        }
+
+        this.blockMask = new long[(trackLen + 63) >>> 6];
+        for (int abs = 0; abs < trackLen; abs++) {
+            refreshBlockBit(abs);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Move>[][] cache = new List[PlayerColor.values().length][7];
+        this.legalCache = cache;
+        this.legalCacheVersion = new long[PlayerColor.values().length][7];
+        this.movableCache = new int[PlayerColor.values().length][7];
+        for (long[] versions : legalCacheVersion) {
+            Arrays.fill(versions, -1);
+        }
+    }
+
+    /**
+     * Создаёт доску с расстановкой из снимка (счётчики шестёрок обнулены).
+     *
+     * @param snapshot снимок расстановки
+     */
+    public Board(BoardSnapshot snapshot) {
+        this(snapshot.config());
+        this.snapshotLayout = snapshot.layout();
+        for (PlayerColor color : config.players()) {
+            for (TokenId t : tokensOf(color)) {
+                setPosition(t, snapshot.position(t));
+            }
         }
     }
 
@@ -48,6 +191,103 @@ public final class Board {
         return positions.get(token);
     }
 
+    /**
+     * Неизменяемый снимок текущей расстановки; его можно отдавать другим потокам без копирования.
+     *
+     * @return снимок позиции
+     */
+    public BoardSnapshot snapshot() {
+        if (snapshotLayout == null) {
+            snapshotLayout = new SnapshotLayout(config);
+        }
+        return BoardSnapshot.of(snapshotLayout, this);
+    }
+
+    /**
+     * @return конфигурация, по которой создана доска
+     */
+    public GameConfig config() {
+        return config;
+    }
+
+    /**
+     * Размер строки признаков одного хода в {@link #encodeSuccessors(PlayerColor, List, float[], int)}.
+     *
+     * @return число значений на ход
+     */
+    public int featuresPerMove() {
+        return encoder().featuresPerMove();
+    }
+
+    /**
+     * Кодирует позиции после каждого допустимого хода на данный бросок в один плотный массив.
+     *
+     * <p>Строки идут в порядке {@link #legalMoves(PlayerColor, int)}; раскладка строки описана
+     * в {@link SuccessorEncoder}. Копии доски не создаются, массив можно переиспользовать между вызовами.</p>
+     *
+     * @param color цвет текущего игрока
+     * @param diceRoll значение кубика (1..6)
+     * @param out массив признаков
+     * @param offset смещение первой строки
+     * @return число закодированных ходов
+     */
+    public int encodeSuccessors(PlayerColor color, int diceRoll, float[] out, int offset) {
+        return encodeSuccessors(color, legalMoves(color, diceRoll), out, offset);
+    }
+
+    /**
+     * Кодирует позиции после заданных ходов (например, бонусных) в один плотный массив.
+     *
+     * @param color цвет ходящего игрока
+     * @param moves ходы (должны быть допустимыми)
+     * @param out массив признаков
+     * @param offset смещение первой строки
+     * @return число закодированных ходов
+     */
+    public int encodeSuccessors(PlayerColor color, List<Move> moves, float[] out, int offset) {
+        Objects.requireNonNull(color);
+        Objects.checkFromIndexSize(offset, moves.size() * featuresPerMove(), out.length);
+        return encoder().encode(color, moves, out, offset);
+    }
+
+    /**
+     * То же, что {@link #encodeSuccessors(PlayerColor, List, float[], int)}, но пишет в буфер
+     * с текущей позиции и сдвигает её на {@code moves.size() * featuresPerMove()} (heap-буфер пишется
+     * напрямую, прочие — построчно через строку кодировщика, без выделения памяти на вызов).
+     *
+     * @param color цвет ходящего игрока
+     * @param moves ходы (должны быть допустимыми)
+     * @param out буфер признаков
+     * @return число закодированных ходов
+     */
+    public int encodeSuccessors(PlayerColor color, List<Move> moves, FloatBuffer out) {
+        Objects.requireNonNull(color);
+        int size = moves.size() * featuresPerMove();
+        if (out.remaining() < size) {
+            throw new IllegalArgumentException("Buffer too small: need " + size + ", have " + out.remaining());
+        }
+        if (out.hasArray()) {
+            int count = encodeSuccessors(color, moves, out.array(), out.arrayOffset() + out.position());
+            out.position(out.position() + size);
+            return count;
+        }
+        return encoder().encode(color, moves, out);
+    }
+
+    /**
+     * Кодирует текущую позицию с точки зрения игрока (та же раскладка, признаки хода нулевые).
+     *
+     * @param color игрок, с чьей стороны кодируем
+     * @param out массив признаков
+     * @param offset смещение строки
+     * @return число записанных значений
+     */
+    public int encodePosition(PlayerColor color, float[] out, int offset) {
+        Objects.requireNonNull(color);
+        Objects.checkFromIndexSize(offset, featuresPerMove(), out.length);
+        return encoder().encodePosition(color, out, offset);
+    }
+
     /**
      * Проверяет, есть ли у игрока хотя бы один допустимый ход на данном броске.
      *
@@ -62,23 +302,75 @@ public final class Board {
     /**
      * Список допустимых ходов на заданный бросок.
      *
+     * <p>Результат кэшируется до следующего перемещения фишки: повторный запрос той же пары
+     * (цвет, бросок) возвращает тот же неизменяемый список.</p>
+     *
      * @param color цвет текущего игрока
      * @param diceRoll значение кубика (1..6)
-     * @return список ходов
+     * @return неизменяемый список ходов
      */
     public List<Move> legalMoves(PlayerColor color, int diceRoll) {
         Objects.requireNonNull(color);
+        if (diceRoll < 1 || diceRoll > 6) {
+            throw new IllegalArgumentException("Dice roll must be in 1..6: " + diceRoll);
+        }
+        int c = color.ordinal();
+        if (legalCacheVersion[c][diceRoll] == positionVersion) {
+            legalCacheHits++;
+            return legalCache[c][diceRoll];
+        }
+        legalCacheMisses++;
+        List<Move> moves = Collections.unmodifiableList(computeLegalMoves(color, diceRoll));
+        int movable = 0;
+        for (Move m : moves) {
+            movable |= 1 << m.token().index();
+        }
+        legalCache[c][diceRoll] = moves;
+        movableCache[c][diceRoll] = movable;
+        legalCacheVersion[c][diceRoll] = positionVersion;
+        return moves;
+    }
 
-        List<Move> moves = new ArrayList<>();
+    /**
+     * Маска фишек, которыми можно сходить на данный бросок (бит — {@link TokenId#index()}).
+     *
+     * @param color цвет игрока
+     * @param diceRoll значение кубика (1..6)
+     * @return битовая маска
+     */
+    public int movableMask(PlayerColor color, int diceRoll) {
+        legalMoves(color, diceRoll);
+        return movableCache[color.ordinal()][diceRoll];
+    }
 
-        // спец-правило: 6 и на базе больше нет фишек => ход на 7
-        int stepsForSix = diceRoll;
-        if (diceRoll == 6 && countTokensInBase(color) == 0) {
-            stepsForSix = 7;
-        }
+    /**
+     * @param token фишка
+     * @param diceRoll значение кубика (1..6)
+     * @return можно ли сходить этой фишкой на данный бросок
+     */
+    public boolean isMovable(TokenId token, int diceRoll) {
+        return (movableMask(token.color(), diceRoll) & 1 << token.index()) != 0;
+    }
+
+    /**
+     * @return сколько запросов допустимых ходов обслужено из кэша
+     */
+    public long legalMoveCacheHits() {
+        return legalCacheHits;
+    }
+
+    /**
+     * @return сколько запросов допустимых ходов пришлось считать
+     */
+    public long legalMoveCacheMisses() {
+        return legalCacheMisses;
+    }
 
-        // правило: выброс 5-ки => можно вывести с базы на выход, если выход свободен
-        if (diceRoll == 5 && isStartCellFreeForEntry(color)) {
+    private List<Move> computeLegalMoves(PlayerColor color, int diceRoll) {
+        List<Move> moves = new ArrayList<>();
+
+        // правило: выброс 5-ки (exitRoll) => можно вывести с базы на выход, если выход свободен
+        if (exitOnRoll[diceRoll] && isStartCellFreeForEntry(color)) {
             for (TokenId t : tokensOf(color)) {
                 if (positions.get(t).type() == PositionType.BASE) {
                     moves.add(new Move(t, 0)); // steps=0 означает "вывести с базы"
@@ -86,7 +378,8 @@ public final class Board {
             }
         }
 
-        int steps = (diceRoll == 6) ? stepsForSix : diceRoll;
+        // спец-правило: 6 и на базе больше нет фишек => ход на 7 (см. stepsByRoll)
+        int steps = stepsByRoll[countTokensInBase(color) == 0 ? 1 : 0][diceRoll];
 
         for (TokenId t : tokensOf(color)) {
             if (canMoveBySteps(t, steps)) {
@@ -95,7 +388,7 @@ public final class Board {
         }
 
         // правило: если у игрока есть блок и выпала 6, то обязан двинуть фишку из блока.
-        if (diceRoll == 6) {
+        if (forceBlockBreakOnRoll[diceRoll]) {
             Set<Integer> blockedCells = ownBlockCellsOnTrack(color);
             if (!blockedCells.isEmpty()) {
                 List<Move> onlyFromBlock = new ArrayList<>();
@@ -136,25 +429,72 @@ public final class Board {
             consecutiveSixes.put(color, 0);
         }
 
-        // три 6 подряд -> вернуть последнюю сдвинутую фишку назад и передать ход
-        if (consecutiveSixes.get(color) >= 3) {
+        // три 6 подряд (sixesLimit) -> вернуть последнюю сдвинутую фишку назад и передать ход
+        if (consecutiveSixes.get(color) >= sixesLimit) {
             TokenPosition lastPos = positions.get(move.token());
             if (lastPos.type() == PositionType.HOME_LANE) {
-                positions.put(move.token(), TokenPosition.homeLane(0));
+                setPosition(move.token(), TokenPosition.homeLane(0));
             } else if (lastPos.type() == PositionType.START || lastPos.type() == PositionType.TRACK) {
-                positions.put(move.token(), TokenPosition.base());
+                setPosition(move.token(), TokenPosition.base());
             }
             consecutiveSixes.put(color, 0);
             return new TurnOutcome(false, false, 0, Optional.empty());
         }
 
+        return moveToken(color, move);
+    }
+
+    /**
+     * Бонусные ходы: какие фишки игрока могут пройти ровно bonusSteps шагов.
+     *
+     * <p>Использует тот же расчёт цели, что и обычные ходы. Правила выхода по 5 и разбора блока
+     * на бонус не распространяются.</p>
+     *
+     * @param color цвет игрока, получившего бонус
+     * @param bonusSteps размер бонуса (например, 10 или 20)
+     * @return список допустимых бонусных ходов (может быть пустым)
+     */
+    public List<Move> bonusMoves(PlayerColor color, int bonusSteps) {
+        Objects.requireNonNull(color);
+        if (bonusSteps < 1) {
+            throw new IllegalArgumentException("Bonus steps must be positive: " + bonusSteps);
+        }
+        List<Move> moves = new ArrayList<>();
+        for (TokenId t : tokensOf(color)) {
+            if (canMoveBySteps(t, bonusSteps)) {
+                moves.add(new Move(t, bonusSteps));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Применяет бонусный ход. В отличие от {@link #applyMove}, не трогает счётчик шестёрок.
+     *
+     * @param color цвет игрока
+     * @param move ход из {@link #bonusMoves(PlayerColor, int)}
+     * @return результат хода
+     */
+    public TurnOutcome applyBonusMove(PlayerColor color, Move move) {
+        Objects.requireNonNull(color);
+        Objects.requireNonNull(move);
+        if (move.steps() < 1) {
+            throw new IllegalArgumentException("Bonus move must have positive steps: " + move);
+        }
+        return moveToken(color, move);
+    }
+
+    /**
+     * Перемещение фишки: срубание, заход в дом и расчёт бонуса.
+     */
+    private TurnOutcome moveToken(PlayerColor color, Move move) {
         boolean capture = false;
         boolean reachedHome = false;
         int bonus = 0;
 
         if (move.steps() == 0) {
             // "вывести с базы" по 5
-            positions.put(move.token(), TokenPosition.start());
+            setPosition(move.token(), TokenPosition.start());
         } else {
             TokenPosition newPos = computeTargetPosition(move.token(), move.steps());
             if (newPos == null) {
@@ -171,13 +511,13 @@ public final class Board {
                 if (!safe && !isStart) {
                     TokenId victim = enemySingleTokenOnCell(color, abs);
                     if (victim != null) {
-                        positions.put(victim, TokenPosition.base());
+                        setPosition(victim, TokenPosition.base());
                         capture = true;
                     }
                 }
             }
 
-            positions.put(move.token(), newPos);
+            setPosition(move.token(), newPos);
 
             if (newPos.type() == PositionType.HOME) {
                 reachedHome = true;
@@ -185,9 +525,9 @@ public final class Board {
         }
 
         if (capture) {
-            bonus = 20;
+            bonus = captureBonus;
         } else if (reachedHome) {
-            bonus = 10;
+            bonus = homeBonus;
         }
 
         Optional<PlayerColor> winner = winnerIfAny();
@@ -201,20 +541,34 @@ public final class Board {
      */
     public Optional<PlayerColor> winnerIfAny() {
         for (PlayerColor c : config.players()) {
-            boolean allHome = true;
-            for (TokenId t : tokensOf(c)) {
-                if (positions.get(t).type() != PositionType.HOME) {
-                    allHome = false;
-                    break;
-                }
-            }
-            if (allHome) {
+            if (hasFinished(c)) {
                 return Optional.of(c);
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * @param color цвет игрока
+     * @return все ли фишки игрока в доме
+     */
+    public boolean hasFinished(PlayerColor color) {
+        for (TokenId t : tokensOf(color)) {
+            if (positions.get(t).type() != PositionType.HOME) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param color цвет игрока
+     * @return сколько шестёрок подряд выпало игроку
+     */
+    public int consecutiveSixes(PlayerColor color) {
+        return consecutiveSixes.get(color);
+    }
+
     /**
      * Сбрасывает счётчик подряд идущих шестёрок для игрока.
      *
@@ -229,6 +583,28 @@ public final class Board {
         return target != null;
     }
 
+    /**
+     * Позиция фишки после хода на steps шагов без изменения доски (null — ход невозможен).
+     */
+    TokenPosition targetPosition(TokenId token, int steps) {
+        return computeTargetPosition(token, steps);
+    }
+
+    TokenId tokenOf(PlayerColor color, int index) {
+        return tokensOf(color).get(index);
+    }
+
+    boolean isStartCell(int absTrackIndex) {
+        return startCell[absTrackIndex];
+    }
+
+    private SuccessorEncoder encoder() {
+        if (encoder == null) {
+            encoder = new SuccessorEncoder(this);
+        }
+        return encoder;
+    }
+
     private TokenPosition computeTargetPosition(TokenId token, int steps) {
         PlayerColor color = token.color();
         TokenPosition current = positions.get(token);
@@ -243,9 +619,8 @@ public final class Board {
         int trackLen = config.trackLength();
         int laneLen = config.homeLaneLength();
 
-        // работаем в относительной системе: 0 = клетка старта игрока, laneEntryAfter = клетка перед входом в lane
+        // работаем в относительной системе: 0 = клетка старта игрока, trackLen = первая клетка цветной дорожки
         int startAbs = startTrackIndex(color);
-        int entryAbs = laneEntryTrackIndex(color);
 
         // текущая "дистанция" от старта игрока по маршруту
         int distance;
@@ -283,8 +658,8 @@ public final class Board {
             return null;
         }
 
-        // ограничение: максимум 2 фишки на клетке
-        if (countTokensOnTrackCellAbs(targetAbs) >= 2) {
+        // ограничение: максимум 2 фишки (maxTokensPerCell) на клетке
+        if (countTokensOnTrackCellAbs(targetAbs) >= maxTokensPerCell) {
             return null;
         }
 
@@ -309,20 +684,77 @@ public final class Board {
             // если уходим на lane, то последняя клетка кольца тоже считается проходом
             toDistance = trackLen - 1;
         }
-        int toAbs = (moverStartAbs + toDistance) % trackLen;
+        int span = toDistance - fromDistance;
 
-        int d = 1;
-        int cur = (fromAbs + d) % trackLen;
-        while (cur != (toAbs + 1) % trackLen) {
-            if (isBlockOnAbsCell(cur)) {
+        return anyBlockInRange(fromAbs, span);
+    }
+
+    /**
+     * Есть ли блок на клетках (fromAbs, fromAbs + span] с учётом перехода через 0.
+     */
+    boolean anyBlockInRange(int fromAbs, int span) {
+        if (span <= 0) {
+            return false;
+        }
+        int trackLen = config.trackLength();
+        int first = fromAbs + 1;
+        if (first >= trackLen) {
+            first -= trackLen;
+        }
+        int last = first + span - 1;
+        if (last < trackLen) {
+            return anyBitInRange(first, last);
+        }
+        // диапазон переходит через конец кольца: делим на два отрезка
+        return anyBitInRange(first, trackLen - 1) || anyBitInRange(0, last - trackLen);
+    }
+
+    /**
+     * Есть ли установленный бит blockMask на отрезке [from, to].
+     */
+    private boolean anyBitInRange(int from, int to) {
+        int fromWord = from >>> 6;
+        int toWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (fromWord == toWord) {
+            return (blockMask[fromWord] & firstMask & lastMask) != 0;
+        }
+        if ((blockMask[fromWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int w = fromWord + 1; w < toWord; w++) {
+            if (blockMask[w] != 0) {
                 return true;
             }
-            cur = (cur + 1) % trackLen;
         }
-        return false;
+        return (blockMask[toWord] & lastMask) != 0;
+    }
+
+    /**
+     * Меняет позицию фишки, обновляет маску блоков на старой и новой клетке и сбрасывает кэш ходов.
+     */
+    private void setPosition(TokenId token, TokenPosition newPos) {
+        TokenPosition oldPos = positions.put(token, newPos);
+        positionVersion++;
+        if (oldPos != null && (oldPos.type() == PositionType.START || oldPos.type() == PositionType.TRACK)) {
+            refreshBlockBit(toAbsoluteTrackIndex(token.color(), oldPos));
+        }
+        if (newPos.type() == PositionType.START || newPos.type() == PositionType.TRACK) {
+            refreshBlockBit(toAbsoluteTrackIndex(token.color(), newPos));
+        }
     }
 
-    private boolean isBlockOnAbsCell(int absTrackIndex) {
+    private void refreshBlockBit(int absTrackIndex) {
+        long bit = 1L << absTrackIndex;
+        if (isBlockOnAbsCell(absTrackIndex)) {
+            blockMask[absTrackIndex >>> 6] |= bit;
+        } else {
+            blockMask[absTrackIndex >>> 6] &= ~bit;
+        }
+    }
+
+    boolean isBlockOnAbsCell(int absTrackIndex) {
         List<TokenId> tokens = tokensOnAbsCell(absTrackIndex);
         if (tokens.size() < 2) {
             return false;
@@ -334,21 +766,11 @@ public final class Board {
         }
 
         // блок: две разных на безопасной либо на выходе
-        boolean safe = isSafeCell(absTrackIndex);
-        if (safe) {
-            return true;
-        }
-
-        for (PlayerColor c : config.players()) {
-            if (absTrackIndex == startTrackIndex(c)) {
-                return true;
-            }
-        }
-        return false;
+        return safeCell[absTrackIndex] || startCell[absTrackIndex];
     }
 
-    private boolean isSafeCell(int absTrackIndex) {
-        return config.safeTrackCells().contains(absTrackIndex);
+    boolean isSafeCell(int absTrackIndex) {
+        return safeCell[absTrackIndex];
     }
 
     private int countTokensInBase(PlayerColor color) {
@@ -366,22 +788,8 @@ public final class Board {
         return countTokensOnTrackCellAbs(abs) == 0;
     }
 
-    private int startTrackIndex(PlayerColor color) {
-        for (GameConfig.PlayerStart ps : config.starts()) {
-            if (ps.color() == color) {
-                return ps.startTrackIndex();
-            }
-        }
-        throw new IllegalStateException("No start entry for color " + color);
-    }
-
-    private int laneEntryTrackIndex(PlayerColor color) {
-        for (GameConfig.PlayerStart ps : config.starts()) {
-            if (ps.color() == color) {
-                return ps.laneEntryTrackIndex();
-            }
-        }
-        throw new IllegalStateException("No lane entry for color " + color);
+    int startTrackIndex(PlayerColor color) {
+        return startAbsByColor[color.ordinal()];
     }
 
     private int toAbsoluteTrackIndex(PlayerColor owner, TokenPosition pos) {
@@ -397,7 +805,11 @@ public final class Board {
     }
 
     private List<TokenId> tokensOf(PlayerColor color) {
-        return List.of(new TokenId(color, 0), new TokenId(color, 1), new TokenId(color, 2), new TokenId(color, 3));
+        List<TokenId> tokens = tokensByColor.get(color);
+        if (tokens == null) {
+            throw new IllegalArgumentException("Color is not in the game: " + color);
+        }
+        return tokens;
     }
 
     private int countTokensOnTrackCellAbs(int absTrackIndex) {
@@ -423,7 +835,7 @@ public final class Board {
         if (tokens.isEmpty()) {
             return null;
         }
-        if (tokens.size() == 2) {
+        if (tokens.size() >= 2) {
             // если там блок - срубить нельзя
             return null;
         }
@@ -435,11 +847,20 @@ public final class Board {
     }
 
     private Set<Integer> ownBlockCellsOnTrack(PlayerColor color) {
+        // перебираем только свои фишки на кольце, а не все клетки
         Set<Integer> blocks = new HashSet<>();
-        for (int i = 0; i < config.trackLength(); i++) {
-            List<TokenId> tokens = tokensOnAbsCell(i);
-            if (tokens.size() == 2 && tokens.get(0).color() == color && tokens.get(1).color() == color) {
-                blocks.add(i);
+        for (TokenId t : tokensOf(color)) {
+            TokenPosition p = positions.get(t);
+            if (p.type() != PositionType.START && p.type() != PositionType.TRACK) {
+                continue;
+            }
+            int abs = toAbsoluteTrackIndex(color, p);
+            if (blocks.contains(abs)) {
+                continue;
+            }
+            List<TokenId> tokens = tokensOnAbsCell(abs);
+            if (tokens.size() >= 2 && tokens.get(0).color() == color && tokens.get(1).color() == color) {
+                blocks.add(abs);
             }
         }
         return blocks;
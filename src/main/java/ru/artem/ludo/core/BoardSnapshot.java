@@ -0,0 +1,230 @@
+package ru.artem.ludo.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Неизменяемый снимок расстановки фишек.
+ *
+ * <p>Позиция каждой фишки хранится как дистанция по маршруту, упакованная в несколько бит
+ * (для доски 40 + 4 — 6 бит, 16 фишек укладываются в два {@code long}). Снимки можно
+ * без блокировок передавать между потоками, кэшировать и использовать как ключи:
+ * {@link #equals}, {@link #hashCode} и {@link #hash64()} считаются по упакованным словам.
+ * Раскладка (конфигурация) разделяется всеми снимками одной доски.</p>
+ *
+ * <p>Снимок хранит только расстановку: счётчик шестёрок и очередь хода — это состояние партии.</p>
+ */
+public final class BoardSnapshot {
+
+    private final SnapshotLayout layout;
+    private final long[] words;
+
+    private BoardSnapshot(SnapshotLayout layout, long[] words) {
+        this.layout = layout;
+        this.words = words;
+    }
+
+    /**
+     * Начальная расстановка (по одной фишке на выходе, остальные на базе).
+     *
+     * @param config конфигурация
+     * @return снимок начальной позиции
+     */
+    public static BoardSnapshot initial(GameConfig config) {
+        return new Board(config).snapshot();
+    }
+
+    static BoardSnapshot of(SnapshotLayout layout, Board board) {
+        long[] words = new long[layout.words];
+        for (int seat = 0; seat < layout.colorBySeat.length; seat++) {
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                TokenPosition p = board.getPosition(board.tokenOf(layout.colorBySeat[seat], i));
+                put(layout, words, seat * Board.TOKENS_PER_PLAYER + i, layout.encode(seat, p));
+            }
+        }
+        return new BoardSnapshot(layout, words);
+    }
+
+    /**
+     * @return конфигурация доски
+     */
+    public GameConfig config() {
+        return layout.config;
+    }
+
+    /**
+     * @param token фишка
+     * @return позиция фишки
+     */
+    public TokenPosition position(TokenId token) {
+        int slot = layout.slotOf(token);
+        return layout.decode(slot / Board.TOKENS_PER_PLAYER, get(slot));
+    }
+
+    /**
+     * @param token фишка
+     * @return дистанция по маршруту от клетки выхода (-1 — база, trackLength + homeLaneLength — дом)
+     */
+    public int routeDistance(TokenId token) {
+        return get(layout.slotOf(token)) - 1;
+    }
+
+    /**
+     * Возвращает новый снимок после хода (с учётом срубания). Исходный снимок не меняется.
+     *
+     * <p>Допустимость хода не проверяется: ход должен быть получен из {@link Board#legalMoves}
+     * или {@link Board#bonusMoves} для этой позиции.</p>
+     *
+     * @param move ход
+     * @return новый снимок
+     */
+    public BoardSnapshot withMove(Move move) {
+        Objects.requireNonNull(move);
+        int slot = layout.slotOf(move.token());
+        int seat = slot / Board.TOKENS_PER_PLAYER;
+        int value = move.steps() == 0 ? 1 : get(slot) + move.steps();
+        if (value > layout.routeLength + 1 || (move.steps() > 0 && get(slot) == 0)) {
+            throw new IllegalArgumentException("Move is not applicable: " + move);
+        }
+
+        long[] next = words.clone();
+        put(layout, next, slot, value);
+
+        int distance = value - 1;
+        if (move.steps() > 0 && distance < layout.trackLength) {
+            int abs = (layout.startAbsBySeat[seat] + distance) % layout.trackLength;
+            if (!layout.safeCell[abs] && abs != layout.startAbsBySeat[seat]) {
+                int victim = singleEnemyOnCell(seat, slot, abs);
+                if (victim >= 0) {
+                    put(layout, next, victim, 0);
+                }
+            }
+        }
+        return new BoardSnapshot(layout, next);
+    }
+
+    /**
+     * Возвращает новый снимок, в котором фишка стоит на заданной позиции (без срубания и проверок правил).
+     *
+     * @param token фишка
+     * @param position новая позиция
+     * @return новый снимок
+     */
+    public BoardSnapshot with(TokenId token, TokenPosition position) {
+        int slot = layout.slotOf(token);
+        long[] next = words.clone();
+        put(layout, next, slot, layout.encode(slot / Board.TOKENS_PER_PLAYER, position));
+        return new BoardSnapshot(layout, next);
+    }
+
+    /**
+     * 64-битный хэш позиции (для кэшей и баз позиций).
+     *
+     * @return хэш упакованных слов
+     */
+    public long hash64() {
+        long h = 0x9E3779B97F4A7C15L * (layout.words + 1);
+        for (long w : words) {
+            h = mix(h ^ w);
+        }
+        return h;
+    }
+
+    /**
+     * @return число упакованных слов
+     */
+    public int wordCount() {
+        return words.length;
+    }
+
+    /**
+     * @param i индекс слова
+     * @return упакованное слово (для сериализации)
+     */
+    public long word(int i) {
+        return words[i];
+    }
+
+    /**
+     * Восстанавливает снимок из упакованных слов (обратное к {@link #word(int)}).
+     *
+     * @param config конфигурация
+     * @param words упакованные слова
+     * @return снимок
+     */
+    public static BoardSnapshot fromWords(GameConfig config, long[] words) {
+        SnapshotLayout layout = new SnapshotLayout(config);
+        if (words.length != layout.words) {
+            throw new IllegalArgumentException("Expected " + layout.words + " words, got " + words.length);
+        }
+        return new BoardSnapshot(layout, words.clone());
+    }
+
+    SnapshotLayout layout() {
+        return layout;
+    }
+
+    int get(int slot) {
+        int w = slot / layout.tokensPerWord;
+        int shift = (slot % layout.tokensPerWord) * layout.bitsPerToken;
+        return (int) ((words[w] >>> shift) & layout.tokenMask);
+    }
+
+    private static void put(SnapshotLayout layout, long[] words, int slot, int value) {
+        int w = slot / layout.tokensPerWord;
+        int shift = (slot % layout.tokensPerWord) * layout.bitsPerToken;
+        words[w] = (words[w] & ~(layout.tokenMask << shift)) | ((long) value << shift);
+    }
+
+    private int singleEnemyOnCell(int moverSeat, int moverSlot, int abs) {
+        int victim = -1;
+        for (int s = 0; s < layout.tokenCount; s++) {
+            if (s == moverSlot) {
+                continue;
+            }
+            int d = get(s) - 1;
+            if (d < 0 || d >= layout.trackLength) {
+                continue;
+            }
+            int seat = s / Board.TOKENS_PER_PLAYER;
+            if ((layout.startAbsBySeat[seat] + d) % layout.trackLength != abs) {
+                continue;
+            }
+            if (victim >= 0 || seat == moverSeat) {
+                return -1;
+            }
+            victim = s;
+        }
+        return victim;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardSnapshot other)) return false;
+        return Arrays.equals(words, other.words)
+                && (layout == other.layout || layout.config.equals(other.layout.config));
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash64());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BoardSnapshot[");
+        for (int s = 0; s < layout.tokenCount; s++) {
+            if (s > 0) sb.append(", ");
+            sb.append(layout.colorBySeat[s / Board.TOKENS_PER_PLAYER]).append('#').append(s % Board.TOKENS_PER_PLAYER)
+                    .append('=').append(get(s) - 1);
+        }
+        return sb.append(']').toString();
+    }
+}
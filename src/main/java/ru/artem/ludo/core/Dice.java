@@ -1,16 +1,42 @@
 package ru.artem.ludo.core;
 
+import java.util.Objects;
 import java.util.Random;
 
 /**
  * Кубик (1..6).
+ *
+ * <p>Кубик с зерном — счётчиковый SplitMix64, тот же, что бросает кости в
+ * {@code BatchSimulator}: последовательность бросков определяется только зерном.</p>
  */
 public final class Dice {
 
     private final Random random;
+    private long state;
 
     public Dice(Random random) {
-        this.random = random;
+        this.random = Objects.requireNonNull(random);
+    }
+
+    /**
+     * Кубик с воспроизводимой последовательностью бросков.
+     *
+     * @param seed зерно
+     */
+    public Dice(long seed) {
+        this.random = null;
+        this.state = seed;
+    }
+
+    /**
+     * Кубик партии K серии (поток кубика из {@link GameSeeds}).
+     *
+     * @param seed зерно серии
+     * @param game номер партии
+     * @return кубик партии
+     */
+    public static Dice forGame(long seed, long game) {
+        return new Dice(GameSeeds.stream(GameSeeds.gameSeed(seed, game), GameSeeds.DICE_STREAM));
     }
 
     /**
@@ -19,6 +45,10 @@ public final class Dice {
      * @return значение в диапазоне 1..6
      */
     public int roll() {
-        return 1 + random.nextInt(6);
+        if (random != null) {
+            return 1 + random.nextInt(6);
+        }
+        state += GameSeeds.GOLDEN;
+        return 1 + (int) (((GameSeeds.mix(state) >>> 32) * 6) >>> 32);
     }
 }
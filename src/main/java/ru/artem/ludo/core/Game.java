@@ -1,15 +1,21 @@
 package ru.artem.ludo.core;
 
+import ru.artem.ludo.log.GameLog;
+import ru.artem.ludo.log.LogEvent;
+
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Random;
+import java.util.function.Function;
 
 /**
  * Игровой цикл Лудо.
  *
- * <p>Класс отвечает за очередность ходов, броски кубика, правило доп. хода при 6,
- * применение бонусов после срубания/достижения дома и выбор хода (демо-стратегия).
+ * <p>Класс бросает кубик и выбирает ходы стратегией; очередность ходов, доп. ход при 6
+ * и бонусы после срубания/достижения дома ведёт {@link TurnEngine}. Ход партии пишется в
+ * асинхронный {@link GameLog}: консольная партия — в стандартный вывод, остальные по умолчанию молчат.
  * Глубокий UI/сервисный слой не реализован: это компактная симуляция для аттестации.</p>
  */
 public final class Game {
@@ -17,11 +23,127 @@ public final class Game {
     private final GameConfig config;
     private final Board board;
     private final Dice dice;
+    private final MoveStrategy strategy;
+
+    /**
+     * Индекс игрока, который ходит первым.
+     */
+    private final int firstPlayerIndex;
+
+    /**
+     * Журнал партии.
+     */
+    private final GameLog log;
+
+    /**
+     * Зерно кубика, если партия создана по зерну (пусто, если кубик передан снаружи).
+     */
+    private final OptionalLong seed;
 
+    /**
+     * Консольная партия со свежим зерном; зерно доступно через {@link #seed()} и пишется в журнал.
+     *
+     * @param config конфигурация поля/игроков
+     */
     public Game(GameConfig config) {
+        this(config, GameSeeds.fresh());
+    }
+
+    /**
+     * Консольная партия с воспроизводимым кубиком: одно и то же зерно даёт ту же партию.
+     *
+     * @param config конфигурация поля/игроков
+     * @param seed зерно кубика
+     */
+    public Game(GameConfig config, long seed) {
+        this.config = Objects.requireNonNull(config);
+        this.board = new Board(config);
+        this.dice = new Dice(seed);
+        this.strategy = (b, color, roll, legal) -> chooseMoveSimple(legal);
+        this.firstPlayerIndex = 0;
+        this.log = GameLog.console();
+        this.seed = OptionalLong.of(seed);
+    }
+
+    /**
+     * Создаёт "тихую" партию для массовых симуляций: без вывода в консоль.
+     *
+     * @param config конфигурация поля/игроков
+     * @param dice кубик
+     * @param strategy стратегия выбора хода для всех игроков
+     */
+    public Game(GameConfig config, Dice dice, MoveStrategy strategy) {
+        this(config, dice, strategy, GameLog.off());
+    }
+
+    /**
+     * Создаёт партию, которая пишет ход игры в журнал.
+     *
+     * @param config конфигурация поля/игроков
+     * @param dice кубик
+     * @param strategy стратегия выбора хода для всех игроков
+     * @param log журнал (может быть общим для многих партий и потоков)
+     */
+    public Game(GameConfig config, Dice dice, MoveStrategy strategy, GameLog log) {
         this.config = Objects.requireNonNull(config);
         this.board = new Board(config);
-        this.dice = new Dice(new Random());
+        this.dice = Objects.requireNonNull(dice);
+        this.strategy = Objects.requireNonNull(strategy);
+        this.firstPlayerIndex = 0;
+        this.log = Objects.requireNonNull(log);
+        this.seed = OptionalLong.empty();
+    }
+
+    /**
+     * "Тихая" партия K серии с зерном: кубик и генератор стратегии выводятся из зерна партии
+     * ({@link GameSeeds}), поэтому партию можно сыграть заново отдельно от остальных.
+     *
+     * @param config конфигурация поля/игроков
+     * @param seed зерно серии
+     * @param game номер партии в серии
+     * @param strategyFactory стратегия по генератору партии
+     * @return партия
+     */
+    public static Game seeded(GameConfig config, long seed, long game, Function<Random, MoveStrategy> strategyFactory) {
+        long gameSeed = GameSeeds.gameSeed(seed, game);
+        Random random = new Random(GameSeeds.stream(gameSeed, GameSeeds.STRATEGY_STREAM));
+        return new Game(config, new Dice(GameSeeds.stream(gameSeed, GameSeeds.DICE_STREAM)), strategyFactory.apply(random));
+    }
+
+    /**
+     * Создаёт "тихую" партию, продолжающую игру с заданной расстановки (например, для rollout-оценок).
+     *
+     * @param start расстановка фишек
+     * @param toMove игрок, который ходит первым
+     * @param dice кубик
+     * @param strategy стратегия выбора хода для всех игроков
+     */
+    public Game(BoardSnapshot start, PlayerColor toMove, Dice dice, MoveStrategy strategy) {
+        this.config = start.config();
+        this.board = new Board(start);
+        this.dice = Objects.requireNonNull(dice);
+        this.strategy = Objects.requireNonNull(strategy);
+        this.firstPlayerIndex = config.players().indexOf(toMove);
+        this.log = GameLog.off();
+        this.seed = OptionalLong.empty();
+        if (firstPlayerIndex < 0) {
+            throw new IllegalArgumentException("Color is not in the game: " + toMove);
+        }
+    }
+
+    /**
+     * @return доска партии
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * @return зерно кубика, по которому партию можно сыграть заново ({@code new Game(config, seed)});
+     *         пусто, если кубик передан снаружи
+     */
+    public OptionalLong seed() {
+        return seed;
     }
 
     /**
@@ -31,55 +153,75 @@ public final class Game {
      * @return результат симуляции
      */
     public GameResult playUntilWin(int maxTurns) {
-        int turnCounter = 0;
-        int playerIndex = 0;
+        return play(maxTurns, false);
+    }
 
-        while (turnCounter < maxTurns) {
-            PlayerColor current = config.players().get(playerIndex);
+    /**
+     * Играет, пока не определятся все места: игрок, заведший домой все фишки, выбывает,
+     * остальные продолжают до последнего места.
+     *
+     * @param maxTurns максимальное число применённых перемещений фишек
+     * @return результат симуляции с настоящим порядком мест (неполным, если кончился лимит ходов)
+     */
+    public GameResult playUntilAllFinish(int maxTurns) {
+        return play(maxTurns, true);
+    }
 
-            int roll = dice.roll();
-            System.out.println(current + " rolled " + roll);
+    private GameResult play(int maxTurns, boolean toLastPlace) {
+        TurnEngine turns = new TurnEngine(board, config.players().get(firstPlayerIndex), toLastPlace);
+        if (seed.isPresent()) {
+            log.gameStarted(turns.currentPlayer(), seed.getAsLong());
+        } else {
+            log.event(LogEvent.GAME_STARTED, turns.currentPlayer(), 0);
+        }
 
-            List<Move> legal = board.legalMoves(current, roll);
-            if (legal.isEmpty()) {
-                System.out.println("  no legal moves");
-                if (roll != 6) {
-                    board.resetConsecutiveSixes(current);
+        while (turns.movesApplied() < maxTurns) {
+            PlayerColor current = turns.currentPlayer();
+            switch (turns.state()) {
+                case AWAIT_ROLL -> {
+                    int roll = dice.roll();
+                    log.event(LogEvent.ROLL, current, roll);
+                    if (turns.roll(roll) == TurnEvent.NO_MOVES) {
+                        log.event(LogEvent.NO_MOVES, current, roll);
+                    }
+                }
+                case AWAIT_MOVE -> {
+                    Move chosen = strategy.choose(board, current, turns.pendingRoll(), turns.options());
+                    TurnEvent event = turns.move(chosen);
+                    log.move(LogEvent.MOVE, chosen.token(), chosen.steps(), board.getPosition(chosen.token()));
+                    report(turns, event, current);
+                }
+                case AWAIT_BONUS -> {
+                    int bonusSteps = turns.pendingBonus();
+                    Move chosen = strategy.chooseBonus(board, current, bonusSteps, turns.options());
+                    TurnEvent event = turns.move(chosen);
+                    log.move(LogEvent.BONUS_MOVE, chosen.token(), bonusSteps, board.getPosition(chosen.token()));
+                    report(turns, event, current);
+                }
+                case FINISHED -> {
+                    return result(turns);
                 }
-                playerIndex = (playerIndex + 1) % config.players().size();
-                continue;
-            }
-
-            Move chosen = chooseMoveSimple(legal);
-            TurnOutcome outcome = board.applyMove(current, roll, chosen);
-            turnCounter++;
-
-            System.out.println("  move: " + chosen.token() + " steps=" + chosen.steps() + " => " + board.getPosition(chosen.token()));
-            if (outcome.capture()) {
-                System.out.println("  capture! bonus=20");
-                applyBonusIfPossible(current, 20);
-                turnCounter++;
-            } else if (outcome.reachedHome()) {
-                System.out.println("  reached home! bonus=10");
-                applyBonusIfPossible(current, 10);
-                turnCounter++;
             }
+        }
 
-            Optional<PlayerColor> winner = board.winnerIfAny();
-            if (winner.isPresent()) {
-                return new GameResult(turnCounter, winner);
-            }
+        return result(turns);
+    }
 
-            // правило: 6 => дополнительный ход
-            if (roll == 6) {
-                System.out.println("  extra turn (6)");
-                continue;
-            }
+    private GameResult result(TurnEngine turns) {
+        Optional<PlayerColor> winner = turns.winner();
+        log.gameFinished(winner.orElse(null), turns.movesApplied());
+        return new GameResult(turns.movesApplied(), winner, turns.finishingOrder());
+    }
 
-            playerIndex = (playerIndex + 1) % config.players().size();
+    private void report(TurnEngine turns, TurnEvent event, PlayerColor current) {
+        if (event == TurnEvent.BONUS_AVAILABLE) {
+            TurnOutcome outcome = turns.lastOutcome();
+            log.event(outcome.capture() ? LogEvent.CAPTURE : LogEvent.HOME, current, outcome.bonusSteps());
+        } else if (event == TurnEvent.EXTRA_TURN) {
+            log.event(LogEvent.EXTRA_TURN, current, 0);
+        } else if (event == TurnEvent.SIXES_PENALTY) {
+            log.event(LogEvent.SIXES_PENALTY, current, 0);
         }
-
-        return new GameResult(turnCounter, Optional.empty());
     }
 
     /**
@@ -93,39 +235,4 @@ public final class Game {
     public Move chooseMoveSimple(List<Move> legalMoves) {
         return legalMoves.get(0);
     }
-
-    private void applyBonusIfPossible(PlayerColor color, int bonusSteps) {
-        // бонус — это отдельное перемещение любой одной фишки, только при точности
-        List<Move> legal = board.legalMoves(color, bonusStepsToPseudoRoll(bonusSteps));
-        // legalMoves ожидает "diceRoll" 1..6, поэтому бонус обрабатываем напрямую.
-        // Сформируем вручную список ходов, проверив canMove через попытку apply.
-
-        Move best = null;
-        for (int i = 0; i < 4; i++) {
-            TokenId t = new TokenId(color, i);
-            Move m = new Move(t, bonusSteps);
-            // пробуем через private API нельзя — применим расчёт через legalMoves не выйдет.
-            // Поэтому делаем попытку применить, откатывая если нельзя.
-            // Упростим: бонус считаем как обычные шаги, если позиция разрешает точный заход.
-            // В этом демо-движке computeTargetPosition встроен в Board и недоступен,
-            // поэтому бонус применяем через "фиктивный бросок" только для списка ходов.
-            // Если нет вариантов — бонус пропускается.
-            best = m;
-            break;
-        }
-
-        if (best == null) {
-            return;
-        }
-
-        // Применяем бонус как ход с diceRoll=1 (не влияет на правило шестёрок подряд)
-        // В applyMove используется diceRoll только для счётчика подряд шестёрок.
-        board.applyMove(color, 1, best);
-        System.out.println("  bonus move: " + best.token() + " +" + bonusSteps + " => " + board.getPosition(best.token()));
-    }
-
-    private int bonusStepsToPseudoRoll(int bonusSteps) {
-        // заглушка, чтобы не возвращать 0: legalMoves всё равно не используется по сути.
-        return Math.max(1, Math.min(6, bonusSteps));
-    }
 }
@@ -1,6 +1,10 @@
 package ru.artem.ludo.core;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Конфигурация игры: параметры поля и набор игроков.
@@ -15,9 +19,84 @@ public record GameConfig(
         /** Индекс кольца, который считается выходом из базы для каждого цвета. */
         List<PlayerStart> starts,
         /** Игроки в порядке хода. */
-        List<PlayerColor> players
+        List<PlayerColor> players,
+        /** Вариант правил. */
+        RuleSet rules
 ) {
 
+    /**
+     * Проверяет, что поле и игроки согласованы: иначе {@link Board} упал бы позже, на первом ходе
+     * или при построении таблиц, с невнятной ошибкой.
+     */
+    public GameConfig {
+        Objects.requireNonNull(rules);
+        safeTrackCells = List.copyOf(safeTrackCells);
+        starts = List.copyOf(starts);
+        players = List.copyOf(players);
+
+        int playerCount = players.size();
+        if (playerCount < MIN_PLAYERS || playerCount > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Player count must be in " + MIN_PLAYERS + ".." + MAX_PLAYERS + ": " + playerCount);
+        }
+        if (trackLength < 2 * playerCount) {
+            throw new IllegalArgumentException("Track is too short for " + playerCount + " players: " + trackLength);
+        }
+        if (homeLaneLength < 1) {
+            throw new IllegalArgumentException("Home lane length must be positive: " + homeLaneLength);
+        }
+        if (EnumSet.copyOf(players).size() != playerCount) {
+            throw new IllegalArgumentException("Duplicate player colors: " + players);
+        }
+
+        Set<PlayerColor> withStart = EnumSet.noneOf(PlayerColor.class);
+        for (PlayerStart ps : starts) {
+            if (!players.contains(ps.color())) {
+                throw new IllegalArgumentException("Start for a color that is not in the game: " + ps.color());
+            }
+            if (!withStart.add(ps.color())) {
+                throw new IllegalArgumentException("Duplicate start for " + ps.color());
+            }
+            checkTrackIndex("start of " + ps.color(), ps.startTrackIndex(), trackLength);
+            checkTrackIndex("lane entry of " + ps.color(), ps.laneEntryTrackIndex(), trackLength);
+        }
+        if (withStart.size() != playerCount) {
+            throw new IllegalArgumentException("Every player needs exactly one start: " + starts);
+        }
+        for (int cell : safeTrackCells) {
+            checkTrackIndex("safe cell", cell, trackLength);
+        }
+    }
+
+    private static void checkTrackIndex(String what, int index, int trackLength) {
+        if (index < 0 || index >= trackLength) {
+            throw new IllegalArgumentException(what + " is off the track [0, " + trackLength + "): " + index);
+        }
+    }
+
+    /**
+     * Создаёт конфигурацию со стандартными правилами.
+     *
+     * @param trackLength длина кольца
+     * @param homeLaneLength длина цветной дорожки
+     * @param safeTrackCells безопасные клетки кольца
+     * @param starts выходы и входы на цветные дорожки
+     * @param players игроки в порядке хода
+     */
+    public GameConfig(int trackLength, int homeLaneLength, List<Integer> safeTrackCells,
+                      List<PlayerStart> starts, List<PlayerColor> players) {
+        this(trackLength, homeLaneLength, safeTrackCells, starts, players, RuleSet.standard());
+    }
+
+    /**
+     * Возвращает копию конфигурации с другим вариантом правил.
+     *
+     * @param rules вариант правил
+     * @return новая конфигурация
+     */
+    public GameConfig withRules(RuleSet rules) {
+        return new GameConfig(trackLength, homeLaneLength, safeTrackCells, starts, players, Objects.requireNonNull(rules));
+    }
+
     /**
      * Стартовая информация игрока: где на кольце находится его выход и где вход на цветную дорожку.
      *
@@ -28,6 +107,12 @@ public record GameConfig(
     public record PlayerStart(PlayerColor color, int startTrackIndex, int laneEntryTrackIndex) {
     }
 
+    /** Минимальное число игроков. */
+    public static final int MIN_PLAYERS = 2;
+
+    /** Максимальное число игроков (по числу значений {@link PlayerColor}). */
+    public static final int MAX_PLAYERS = 8;
+
     /**
      * Создаёт конфигурацию "по умолчанию" для 4 игроков.
      *
@@ -37,19 +122,55 @@ public record GameConfig(
      * @return конфигурация для 4 игроков
      */
     public static GameConfig defaultForFourPlayers() {
-        int track = 40;
-        int lane = 4;
+        return forPlayers(4, 40, 4);
+    }
 
-        List<Integer> safe = List.of(0, 10, 20, 30);
+    /**
+     * Создаёт конфигурацию для произвольного числа игроков и размера кольца.
+     *
+     * <p>Выходы игроков расставляются по кольцу равномерно, вход на цветную дорожку —
+     * клетка перед выходом. Безопасными считаются клетки выхода.</p>
+     *
+     * @param playerCount число игроков (2..8)
+     * @param trackLength длина кольца (не меньше двух клеток на игрока)
+     * @param homeLaneLength длина цветной дорожки
+     * @return конфигурация со стандартными правилами
+     */
+    public static GameConfig forPlayers(int playerCount, int trackLength, int homeLaneLength) {
+        if (playerCount < MIN_PLAYERS || playerCount > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Player count must be in " + MIN_PLAYERS + ".." + MAX_PLAYERS + ": " + playerCount);
+        }
+        // остальные проверки — в каноническом конструкторе
+        if (trackLength < 2 * playerCount) {
+            throw new IllegalArgumentException("Track is too short for " + playerCount + " players: " + trackLength);
+        }
+
+        PlayerColor[] colors = PlayerColor.values();
+        List<Integer> safe = new ArrayList<>();
+        List<PlayerStart> starts = new ArrayList<>();
+        List<PlayerColor> players = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++) {
+            int start = i * trackLength / playerCount;
+            safe.add(start);
+            starts.add(new PlayerStart(colors[i], start, (start - 1 + trackLength) % trackLength));
+            players.add(colors[i]);
+        }
 
-        List<PlayerStart> starts = List.of(
-                new PlayerStart(PlayerColor.RED, 0, 39),
-                new PlayerStart(PlayerColor.BLUE, 10, 9),
-                new PlayerStart(PlayerColor.GREEN, 20, 19),
-                new PlayerStart(PlayerColor.YELLOW, 30, 29)
-        );
+        return new GameConfig(trackLength, homeLaneLength, safe, starts, players);
+    }
 
-        return new GameConfig(track, lane, safe, starts,
-                List.of(PlayerColor.RED, PlayerColor.BLUE, PlayerColor.GREEN, PlayerColor.YELLOW));
+    /**
+     * Ищет клетку выхода игрока.
+     *
+     * @param color цвет игрока
+     * @return индекс клетки кольца
+     */
+    public int startTrackIndex(PlayerColor color) {
+        for (PlayerStart ps : starts) {
+            if (ps.color() == color) {
+                return ps.startTrackIndex();
+            }
+        }
+        throw new IllegalStateException("No start entry for color " + color);
     }
 }
@@ -1,5 +1,7 @@
 package ru.artem.ludo.core;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -9,6 +11,37 @@ public record GameResult(
         /** Количество совершённых ходов (полноценных перемещений фишек). */
         int turns,
         /** Победитель, если найден. */
-        Optional<PlayerColor> winnerColor
+        Optional<PlayerColor> winnerColor,
+        /**
+         * Игроки в том порядке, в каком завели домой все фишки: после {@link Game#playUntilWin} —
+         * только победитель, после {@link Game#playUntilAllFinish} — все игроки от первого места к последнему.
+         */
+        List<PlayerColor> finishingOrder
 ) {
+
+    public GameResult {
+        Objects.requireNonNull(winnerColor);
+        finishingOrder = List.copyOf(finishingOrder);
+        if (winnerColor.isPresent() && (finishingOrder.isEmpty() || finishingOrder.get(0) != winnerColor.get())) {
+            throw new IllegalArgumentException("Winner must be first in finishing order: " + finishingOrder);
+        }
+    }
+
+    /**
+     * Итог без порядка остальных мест (известен только победитель).
+     *
+     * @param turns количество ходов
+     * @param winnerColor победитель, если найден
+     */
+    public GameResult(int turns, Optional<PlayerColor> winnerColor) {
+        this(turns, winnerColor, winnerColor.map(List::of).orElse(List.of()));
+    }
+
+    /**
+     * @param color игрок
+     * @return место игрока (1 — победитель) или 0, если игрока нет в порядке мест
+     */
+    public int place(PlayerColor color) {
+        return finishingOrder.indexOf(color) + 1;
+    }
 }
@@ -0,0 +1,70 @@
+package ru.artem.ludo.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Зёрна партий.
+ *
+ * <p>Партия K серии с зерном S получает зерно {@link #gameSeed(long, long)} — SplitMix64 от
+ * {@code S + (K + 1)·φ}. Оно считается напрямую по номеру, поэтому любую партию миллиардной серии
+ * можно переиграть отдельно, не прогоняя предыдущие. Из зерна партии выводятся независимые потоки
+ * ({@link #stream(long, int)}): кубик, стратегии и рассадка не делят один генератор и не сдвигают
+ * друг друга.</p>
+ */
+public final class GameSeeds {
+
+    /** Шаг SplitMix64 (дробная часть золотого сечения). */
+    public static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /** Поток кубика партии. */
+    public static final int DICE_STREAM = 0;
+
+    /** Поток стратегий (и рассадки) партии. */
+    public static final int STRATEGY_STREAM = 1;
+
+    private GameSeeds() {
+    }
+
+    /**
+     * Зерно партии серии.
+     *
+     * @param seed зерно серии
+     * @param game номер партии (с нуля)
+     * @return зерно партии
+     */
+    public static long gameSeed(long seed, long game) {
+        return mix(seed + (game + 1) * GOLDEN);
+    }
+
+    /**
+     * Зерно независимого потока внутри партии.
+     *
+     * @param gameSeed зерно партии
+     * @param stream номер потока ({@link #DICE_STREAM}, {@link #STRATEGY_STREAM}, …)
+     * @return зерно потока
+     */
+    public static long stream(long gameSeed, int stream) {
+        return mix(mix(gameSeed) + (stream + 1L) * GOLDEN);
+    }
+
+    /**
+     * Свежее зерно для партии, которую не требуется заранее воспроизводить (но можно потом — зная зерно).
+     *
+     * @return случайное зерно
+     */
+    public static long fresh() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Финализатор SplitMix64.
+     *
+     * @param z значение
+     * @return перемешанное значение
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
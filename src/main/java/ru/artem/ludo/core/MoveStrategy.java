@@ -0,0 +1,52 @@
+package ru.artem.ludo.core;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Стратегия выбора хода для {@link Game}.
+ */
+@FunctionalInterface
+public interface MoveStrategy {
+
+    /**
+     * Выбирает ход из списка допустимых.
+     *
+     * @param board текущая доска (только для чтения)
+     * @param color цвет ходящего игрока
+     * @param diceRoll значение кубика
+     * @param legalMoves непустой список допустимых ходов
+     * @return выбранный ход (один из legalMoves)
+     */
+    Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves);
+
+    /**
+     * Выбирает бонусный ход (после срубания или захода в дом).
+     *
+     * <p>По умолчанию делегирует в {@link #choose} с diceRoll = 0 (признак бонуса).</p>
+     *
+     * @param board текущая доска (только для чтения)
+     * @param color цвет игрока, получившего бонус
+     * @param bonusSteps размер бонуса
+     * @param bonusMoves непустой список из {@link Board#bonusMoves(PlayerColor, int)}
+     * @return выбранный ход (один из bonusMoves)
+     */
+    default Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+        return choose(board, color, 0, bonusMoves);
+    }
+
+    /**
+     * @return стратегия "первый допустимый ход"
+     */
+    static MoveStrategy firstLegal() {
+        return (board, color, diceRoll, legalMoves) -> legalMoves.get(0);
+    }
+
+    /**
+     * @param random источник случайности
+     * @return стратегия "случайный допустимый ход"
+     */
+    static MoveStrategy random(Random random) {
+        return (board, color, diceRoll, legalMoves) -> legalMoves.get(random.nextInt(legalMoves.size()));
+    }
+}
@@ -2,6 +2,9 @@ package ru.artem.ludo.core;
 
 /**
  * Цвет игрока.
+ *
+ * <p>Первые четыре цвета — классический набор; остальные используются на досках
+ * для 5–8 игроков (см. {@link GameConfig#forPlayers(int, int, int)}).</p>
  */
 public enum PlayerColor {
     /** Красный игрок. */
@@ -11,5 +14,13 @@ public enum PlayerColor {
     /** Зелёный игрок. */
     GREEN,
     /** Жёлтый игрок. */
-    YELLOW
+    YELLOW,
+    /** Оранжевый игрок. */
+    ORANGE,
+    /** Фиолетовый игрок. */
+    PURPLE,
+    /** Бирюзовый игрок. */
+    CYAN,
+    /** Розовый игрок. */
+    PINK
 }
@@ -0,0 +1,110 @@
+package ru.artem.ludo.core;
+
+/**
+ * Набор правил (вариант игры).
+ *
+ * <p>Все правила, которые раньше были зашиты в {@link Board}, вынесены сюда.
+ * {@link Board} один раз "компилирует" выбранный вариант в таблицы по значению кубика,
+ * поэтому переключение правила не добавляет ветвлений и поиска в конфиге на каждом ходу.</p>
+ */
+public record RuleSet(
+        /** Значение кубика, по которому фишку можно вывести с базы. */
+        int exitRoll,
+        /** Сколько шагов даёт 6, если на базе не осталось фишек (6 — правило выключено). */
+        int sixStepsWhenBaseEmpty,
+        /** Бонус за срубание (0 — без бонуса). */
+        int captureBonus,
+        /** Бонус за заход фишки в дом (0 — без бонуса). */
+        int homeBonus,
+        /** Сколько шестёрок подряд откатывают ход (0 — правило выключено). */
+        int maxConsecutiveSixes,
+        /** Обязан ли игрок на 6 двигать фишку из своего блока. */
+        boolean forceBlockBreakOnSix,
+        /** Максимум фишек на одной клетке кольца: 1 (без блоков) или 2. */
+        int maxTokensPerCell
+) {
+
+    public RuleSet {
+        if (exitRoll < 1 || exitRoll > 6) {
+            throw new IllegalArgumentException("exitRoll must be in 1..6: " + exitRoll);
+        }
+        if (sixStepsWhenBaseEmpty < 1) {
+            throw new IllegalArgumentException("sixStepsWhenBaseEmpty must be positive: " + sixStepsWhenBaseEmpty);
+        }
+        if (captureBonus < 0 || homeBonus < 0) {
+            throw new IllegalArgumentException("Bonuses must be non-negative");
+        }
+        if (maxConsecutiveSixes < 0) {
+            throw new IllegalArgumentException("maxConsecutiveSixes must be non-negative: " + maxConsecutiveSixes);
+        }
+        // блок — это пара фишек на клетке; для стопок из трёх и более правила блока не определены
+        if (maxTokensPerCell < 1 || maxTokensPerCell > 2) {
+            throw new IllegalArgumentException("maxTokensPerCell must be 1 or 2: " + maxTokensPerCell);
+        }
+    }
+
+    /**
+     * Правила из задания: выход по 5, 6 -> 7 при пустой базе, бонусы 10/20,
+     * три 6 подряд, обязательный разбор блока на 6, не больше двух фишек на клетке.
+     *
+     * @return стандартный набор правил
+     */
+    public static RuleSet standard() {
+        return new RuleSet(5, 7, 20, 10, 3, true, 2);
+    }
+
+    /**
+     * @param value новое значение кубика для выхода с базы
+     * @return копия правил с изменённым значением
+     */
+    public RuleSet withExitRoll(int value) {
+        return new RuleSet(value, sixStepsWhenBaseEmpty, captureBonus, homeBonus,
+                maxConsecutiveSixes, forceBlockBreakOnSix, maxTokensPerCell);
+    }
+
+    /**
+     * @param value сколько шагов даёт 6 при пустой базе
+     * @return копия правил с изменённым значением
+     */
+    public RuleSet withSixStepsWhenBaseEmpty(int value) {
+        return new RuleSet(exitRoll, value, captureBonus, homeBonus,
+                maxConsecutiveSixes, forceBlockBreakOnSix, maxTokensPerCell);
+    }
+
+    /**
+     * @param capture бонус за срубание
+     * @param home бонус за заход в дом
+     * @return копия правил с изменёнными бонусами
+     */
+    public RuleSet withBonuses(int capture, int home) {
+        return new RuleSet(exitRoll, sixStepsWhenBaseEmpty, capture, home,
+                maxConsecutiveSixes, forceBlockBreakOnSix, maxTokensPerCell);
+    }
+
+    /**
+     * @param value сколько шестёрок подряд откатывают ход (0 — выключить правило)
+     * @return копия правил с изменённым значением
+     */
+    public RuleSet withMaxConsecutiveSixes(int value) {
+        return new RuleSet(exitRoll, sixStepsWhenBaseEmpty, captureBonus, homeBonus,
+                value, forceBlockBreakOnSix, maxTokensPerCell);
+    }
+
+    /**
+     * @param value обязателен ли разбор блока на 6
+     * @return копия правил с изменённым значением
+     */
+    public RuleSet withForceBlockBreakOnSix(boolean value) {
+        return new RuleSet(exitRoll, sixStepsWhenBaseEmpty, captureBonus, homeBonus,
+                maxConsecutiveSixes, value, maxTokensPerCell);
+    }
+
+    /**
+     * @param value максимум фишек на клетке кольца (1 или 2)
+     * @return копия правил с изменённым значением
+     */
+    public RuleSet withMaxTokensPerCell(int value) {
+        return new RuleSet(exitRoll, sixStepsWhenBaseEmpty, captureBonus, homeBonus,
+                maxConsecutiveSixes, forceBlockBreakOnSix, value);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.artem.ludo.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Раскладка упаковки позиций в {@link BoardSnapshot}: сколько бит на фишку,
+ * где чья клетка выхода, какие клетки безопасны.
+ *
+ * <p>Один экземпляр на конфигурацию, разделяется всеми снимками (неизменяем).</p>
+ */
+final class SnapshotLayout {
+
+    final GameConfig config;
+    final int trackLength;
+    final int routeLength;
+    final int tokenCount;
+    final int bitsPerToken;
+    final int tokensPerWord;
+    final long tokenMask;
+    final int words;
+
+    /**
+     * Место игрока в очереди по {@link PlayerColor#ordinal()} (-1 — не играет).
+     */
+    final int[] seatByColor;
+    final PlayerColor[] colorBySeat;
+    final int[] startAbsBySeat;
+    final boolean[] safeCell;
+    final boolean[] startCell;
+
+    SnapshotLayout(GameConfig config) {
+        this.config = config;
+        this.trackLength = config.trackLength();
+        this.routeLength = config.trackLength() + config.homeLaneLength();
+        List<PlayerColor> players = config.players();
+        this.tokenCount = players.size() * Board.TOKENS_PER_PLAYER;
+        // 0 — база, 1..routeLength+1 — дистанция по маршруту + 1
+        this.bitsPerToken = 32 - Integer.numberOfLeadingZeros(routeLength + 1);
+        this.tokensPerWord = 64 / bitsPerToken;
+        this.tokenMask = (1L << bitsPerToken) - 1;
+        this.words = (tokenCount + tokensPerWord - 1) / tokensPerWord;
+
+        this.seatByColor = new int[PlayerColor.values().length];
+        Arrays.fill(seatByColor, -1);
+        this.colorBySeat = new PlayerColor[players.size()];
+        this.startAbsBySeat = new int[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            PlayerColor c = players.get(seat);
+            seatByColor[c.ordinal()] = seat;
+            colorBySeat[seat] = c;
+            startAbsBySeat[seat] = config.startTrackIndex(c);
+        }
+        this.safeCell = new boolean[trackLength];
+        this.startCell = new boolean[trackLength];
+        for (int abs : config.safeTrackCells()) {
+            safeCell[abs] = true;
+        }
+        for (int abs : startAbsBySeat) {
+            startCell[abs] = true;
+        }
+    }
+
+    int slotOf(TokenId token) {
+        int seat = seatByColor[token.color().ordinal()];
+        if (seat < 0) {
+            throw new IllegalArgumentException("Color is not in the game: " + token.color());
+        }
+        return seat * Board.TOKENS_PER_PLAYER + token.index();
+    }
+
+    /**
+     * Закодированное значение фишки по позиции на доске.
+     */
+    int encode(int seat, TokenPosition p) {
+        return switch (p.type()) {
+            case BASE -> 0;
+            case START -> 1;
+            case TRACK -> 1 + Math.floorMod(p.index() - startAbsBySeat[seat], trackLength);
+            case HOME_LANE -> 1 + trackLength + p.index();
+            case HOME -> 1 + routeLength;
+        };
+    }
+
+    /**
+     * Позиция на доске по закодированному значению.
+     */
+    TokenPosition decode(int seat, int value) {
+        if (value == 0) {
+            return TokenPosition.base();
+        }
+        int distance = value - 1;
+        if (distance == 0) {
+            return TokenPosition.start();
+        }
+        if (distance < trackLength) {
+            return TokenPosition.track((startAbsBySeat[seat] + distance) % trackLength);
+        }
+        if (distance < routeLength) {
+            return TokenPosition.homeLane(distance - trackLength);
+        }
+        return TokenPosition.home();
+    }
+}
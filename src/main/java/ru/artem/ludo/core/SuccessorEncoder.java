@@ -0,0 +1,306 @@
+package ru.artem.ludo.core;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Кодирует позиции-последствия ходов в плотные векторы признаков для оценщиков (нейросеть/эвристика).
+ *
+ * <p>Ход "проигрывается" на нескольких переиспользуемых массивах, копия {@link Board} не создаётся.
+ * Раскладка одной строки (T — число фишек в партии, фишки идут по очереди хода,
+ * начиная с игрока, для которого кодируем):</p>
+ * <ul>
+ *     <li>[0, T) — пройденная часть маршрута: 0 — база, 1 — дом;</li>
+ *     <li>[T, 2T) — заполненность клетки фишки (число фишек / лимит клетки), 0 вне кольца;</li>
+ *     <li>[2T, 3T) — фишка стоит в блоке (0/1);</li>
+ *     <li>[3T, 4T) — фишку может срубить соперник одним броском (0/1);</li>
+ *     <li>4T, 4T+1, 4T+2 — ход срубает, ход заводит в дом, бонус / 20.</li>
+ * </ul>
+ *
+ * <p>Правило трёх шестёрок не учитывается: оно зависит от хода партии, а не от позиции.</p>
+ */
+final class SuccessorEncoder {
+
+    private final Board board;
+    private final GameConfig config;
+    private final int tokenCount;
+    private final int routeLength;
+
+    /**
+     * Фишки в порядке хода (seat-major).
+     */
+    private final TokenId[] slots;
+
+    /**
+     * Дистанция по маршруту для текущей позиции (-1 — база) и рабочая копия для одного хода.
+     */
+    private final int[] baseDistance;
+    private final int[] distance;
+
+    /**
+     * Счётчики по клеткам кольца для рабочей позиции (обнуляются после каждой строки).
+     */
+    private final int[] cellCount;
+    private final int[] cellColor;
+    private final boolean[] cellMixed;
+
+    /**
+     * Сколько шагов даёт шестёрка каждому месту за столом в рабочей позиции (зависит от пустоты базы).
+     */
+    private final int[] sixSteps;
+
+    /**
+     * Строка для буферов без массива.
+     */
+    private final float[] row;
+
+    SuccessorEncoder(Board board) {
+        this.board = board;
+        this.config = board.config();
+        this.tokenCount = config.players().size() * Board.TOKENS_PER_PLAYER;
+        this.routeLength = config.trackLength() + config.homeLaneLength();
+        this.slots = new TokenId[tokenCount];
+        this.baseDistance = new int[tokenCount];
+        this.distance = new int[tokenCount];
+        this.cellCount = new int[config.trackLength()];
+        this.cellColor = new int[config.trackLength()];
+        this.cellMixed = new boolean[config.trackLength()];
+        this.sixSteps = new int[config.players().size()];
+        this.row = new float[featuresPerMove()];
+    }
+
+    int featuresPerMove() {
+        return 4 * tokenCount + 3;
+    }
+
+    /**
+     * Кодирует последствия ходов подряд, по строке на ход.
+     *
+     * @return число закодированных ходов
+     */
+    int encode(PlayerColor color, List<Move> moves, float[] out, int offset) {
+        loadSlots(color);
+        int pos = offset;
+        for (Move m : moves) {
+            encodeMove(m, out, pos);
+            pos += featuresPerMove();
+        }
+        return moves.size();
+    }
+
+    /**
+     * То же для буфера без доступного массива: строка собирается в {@link #row} и копируется в буфер.
+     *
+     * @return число закодированных ходов
+     */
+    int encode(PlayerColor color, List<Move> moves, FloatBuffer out) {
+        loadSlots(color);
+        for (Move m : moves) {
+            encodeMove(m, row, 0);
+            out.put(row);
+        }
+        return moves.size();
+    }
+
+    private void encodeMove(Move m, float[] out, int pos) {
+        System.arraycopy(baseDistance, 0, distance, 0, tokenCount);
+        int moverSlot = slotOf(m.token());
+        boolean capture = false;
+        boolean home = false;
+
+        TokenPosition target = m.steps() == 0 ? TokenPosition.start() : board.targetPosition(m.token(), m.steps());
+        if (target != null) {
+            distance[moverSlot] = distanceOf(m.token().color(), target);
+            home = target.type() == PositionType.HOME;
+            int victim = victimSlot(moverSlot, m.steps());
+            if (victim >= 0) {
+                distance[victim] = -1;
+                capture = true;
+            }
+        }
+
+        writeRow(out, pos);
+        RuleSet rules = config.rules();
+        out[pos + 4 * tokenCount] = capture ? 1f : 0f;
+        out[pos + 4 * tokenCount + 1] = home ? 1f : 0f;
+        int bonus = capture ? rules.captureBonus() : home ? rules.homeBonus() : 0;
+        out[pos + 4 * tokenCount + 2] = bonus / 20f;
+    }
+
+    /**
+     * Кодирует текущую позицию (строка той же раскладки, признаки хода нулевые).
+     *
+     * @return число записанных значений
+     */
+    int encodePosition(PlayerColor color, float[] out, int offset) {
+        loadSlots(color);
+        System.arraycopy(baseDistance, 0, distance, 0, tokenCount);
+        writeRow(out, offset);
+        out[offset + 4 * tokenCount] = 0f;
+        out[offset + 4 * tokenCount + 1] = 0f;
+        out[offset + 4 * tokenCount + 2] = 0f;
+        return featuresPerMove();
+    }
+
+    private void loadSlots(PlayerColor perspective) {
+        List<PlayerColor> players = config.players();
+        int first = players.indexOf(perspective);
+        if (first < 0) {
+            throw new IllegalArgumentException("Color is not in the game: " + perspective);
+        }
+        int s = 0;
+        for (int p = 0; p < players.size(); p++) {
+            PlayerColor c = players.get((first + p) % players.size());
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                TokenId t = board.tokenOf(c, i);
+                slots[s] = t;
+                baseDistance[s] = distanceOf(c, board.getPosition(t));
+                s++;
+            }
+        }
+    }
+
+    private int slotOf(TokenId token) {
+        for (int s = 0; s < tokenCount; s++) {
+            if (slots[s].equals(token)) {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException("Unknown token: " + token);
+    }
+
+    private int distanceOf(PlayerColor owner, TokenPosition p) {
+        return switch (p.type()) {
+            case BASE -> -1;
+            case START -> 0;
+            case TRACK -> Math.floorMod(p.index() - board.startTrackIndex(owner), config.trackLength());
+            case HOME_LANE -> config.trackLength() + p.index();
+            case HOME -> routeLength;
+        };
+    }
+
+    private int absOf(int slot) {
+        int d = distance[slot];
+        if (d < 0 || d >= config.trackLength()) {
+            return -1;
+        }
+        return (board.startTrackIndex(slots[slot].color()) + d) % config.trackLength();
+    }
+
+    /**
+     * Кого срубает ход: одиночная чужая фишка на небезопасной клетке цели (по позиции до хода).
+     */
+    private int victimSlot(int moverSlot, int steps) {
+        if (steps == 0) {
+            return -1;
+        }
+        int abs = absOf(moverSlot);
+        PlayerColor mover = slots[moverSlot].color();
+        if (abs < 0 || board.isSafeCell(abs) || abs == board.startTrackIndex(mover)) {
+            return -1;
+        }
+        int victim = -1;
+        for (int s = 0; s < tokenCount; s++) {
+            if (s == moverSlot || absOfBase(s) != abs) {
+                continue;
+            }
+            if (victim >= 0 || slots[s].color() == mover) {
+                return -1;
+            }
+            victim = s;
+        }
+        return victim;
+    }
+
+    private int absOfBase(int slot) {
+        int d = baseDistance[slot];
+        if (d < 0 || d >= config.trackLength()) {
+            return -1;
+        }
+        return (board.startTrackIndex(slots[slot].color()) + d) % config.trackLength();
+    }
+
+    private void writeRow(float[] out, int pos) {
+        int trackLen = config.trackLength();
+        float cap = config.rules().maxTokensPerCell();
+        loadSixSteps();
+
+        for (int s = 0; s < tokenCount; s++) {
+            int abs = absOf(s);
+            if (abs < 0) {
+                continue;
+            }
+            int colorIndex = slots[s].color().ordinal();
+            if (cellCount[abs] == 0) {
+                cellColor[abs] = colorIndex;
+            } else if (cellColor[abs] != colorIndex) {
+                cellMixed[abs] = true;
+            }
+            cellCount[abs]++;
+        }
+
+        for (int s = 0; s < tokenCount; s++) {
+            int d = distance[s];
+            out[pos + s] = (d + 1) / (float) (routeLength + 1);
+
+            int abs = absOf(s);
+            if (abs < 0) {
+                out[pos + tokenCount + s] = 0f;
+                out[pos + 2 * tokenCount + s] = 0f;
+                out[pos + 3 * tokenCount + s] = 0f;
+                continue;
+            }
+            int count = cellCount[abs];
+            boolean block = count >= 2 && (!cellMixed[abs] || board.isSafeCell(abs) || board.isStartCell(abs));
+            out[pos + tokenCount + s] = count / cap;
+            out[pos + 2 * tokenCount + s] = block ? 1f : 0f;
+            out[pos + 3 * tokenCount + s] = count == 1 && isThreatened(s, abs, trackLen) ? 1f : 0f;
+        }
+
+        for (int s = 0; s < tokenCount; s++) {
+            int abs = absOf(s);
+            if (abs >= 0) {
+                cellCount[abs] = 0;
+                cellMixed[abs] = false;
+            }
+        }
+    }
+
+    /**
+     * Шестёрка даёт {@link RuleSet#sixStepsWhenBaseEmpty()} шагов тому, у кого в рабочей позиции база пуста.
+     */
+    private void loadSixSteps() {
+        int stepsWhenEmpty = config.rules().sixStepsWhenBaseEmpty();
+        for (int seat = 0; seat < sixSteps.length; seat++) {
+            boolean baseEmpty = true;
+            for (int s = seat * Board.TOKENS_PER_PLAYER; s < (seat + 1) * Board.TOKENS_PER_PLAYER; s++) {
+                baseEmpty &= distance[s] >= 0;
+            }
+            sixSteps[seat] = baseEmpty ? stepsWhenEmpty : 6;
+        }
+    }
+
+    private boolean isThreatened(int slot, int abs, int trackLen) {
+        if (board.isSafeCell(abs)) {
+            return false;
+        }
+        PlayerColor owner = slots[slot].color();
+        for (int e = 0; e < tokenCount; e++) {
+            PlayerColor enemy = slots[e].color();
+            if (enemy == owner || abs == board.startTrackIndex(enemy)) {
+                continue;
+            }
+            int from = absOf(e);
+            if (from < 0) {
+                continue;
+            }
+            int gap = Math.floorMod(abs - from, trackLen);
+            // ход в пределах одного броска (1..5 или шестёрка по правилам) и без ухода на свою цветную дорожку
+            boolean reachable = gap >= 1 && gap <= 5 || gap == sixSteps[e / Board.TOKENS_PER_PLAYER];
+            if (reachable && distance[e] + gap < trackLen) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -8,9 +8,30 @@ import java.util.Objects;
  * <p>Для общей дорожки используется индекс клетки кольца (0..trackLength-1).
  * Для цветной дорожки используется индекс в домашней дорожке (0..homeLaneLength-1).
  * Для дома значение индекса фиксировано (0).</p>
+ *
+ * <p>Объект неизменяемый, поэтому фабрики возвращают заранее созданные экземпляры:
+ * расчёт ходов на горячем пути не выделяет память.</p>
  */
 public final class TokenPosition {
 
+    /**
+     * Сколько индексов кольца/дорожки кэшируется (покрывает кольца до 256 клеток).
+     */
+    private static final int CACHED_INDICES = 256;
+
+    private static final TokenPosition BASE = new TokenPosition(PositionType.BASE, 0);
+    private static final TokenPosition START = new TokenPosition(PositionType.START, 0);
+    private static final TokenPosition HOME = new TokenPosition(PositionType.HOME, 0);
+    private static final TokenPosition[] TRACK = new TokenPosition[CACHED_INDICES];
+    private static final TokenPosition[] HOME_LANE = new TokenPosition[CACHED_INDICES];
+
+    static {
+        for (int i = 0; i < CACHED_INDICES; i++) {
+            TRACK[i] = new TokenPosition(PositionType.TRACK, i);
+            HOME_LANE[i] = new TokenPosition(PositionType.HOME_LANE, i);
+        }
+    }
+
     private final PositionType type;
     private final int index;
 
@@ -42,14 +63,14 @@ public final class TokenPosition {
      * @return позиция базы (для трёх фишек из стартового расклада)
      */
     public static TokenPosition base() {
-        return new TokenPosition(PositionType.BASE, 0);
+        return BASE;
     }
 
     /**
      * @return позиция выхода из базы
      */
     public static TokenPosition start() {
-        return new TokenPosition(PositionType.START, 0);
+        return START;
     }
 
     /**
@@ -59,6 +80,9 @@ public final class TokenPosition {
      * @return позиция на кольце
      */
     public static TokenPosition track(int trackIndex) {
+        if (trackIndex >= 0 && trackIndex < CACHED_INDICES) {
+            return TRACK[trackIndex];
+        }
         return new TokenPosition(PositionType.TRACK, trackIndex);
     }
 
@@ -69,6 +93,9 @@ public final class TokenPosition {
      * @return позиция на домашней дорожке
      */
     public static TokenPosition homeLane(int laneIndex) {
+        if (laneIndex >= 0 && laneIndex < CACHED_INDICES) {
+            return HOME_LANE[laneIndex];
+        }
         return new TokenPosition(PositionType.HOME_LANE, laneIndex);
     }
 
@@ -76,6 +103,6 @@ public final class TokenPosition {
      * @return позиция дома
      */
     public static TokenPosition home() {
-        return new TokenPosition(PositionType.HOME, 0);
+        return HOME;
     }
 }
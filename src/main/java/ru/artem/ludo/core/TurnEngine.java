@@ -0,0 +1,264 @@
+package ru.artem.ludo.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Последовательность хода: бросок -> допустимые ходы -> ход -> бонус -> доп. ход на 6 / три 6 подряд -> следующий игрок.
+ *
+ * <p>Единственная реализация очереди хода: её шагами управляют и консольная симуляция ({@link Game}),
+ * и GUI-контроллер. Счётчик шестёрок хранится только в {@link Board}. Сам движок хранит лишь
+ * примитивы и ссылку на список ходов от доски, собственных выделений памяти на шаге нет.</p>
+ *
+ * <p>По умолчанию партия заканчивается на первом победителе. В режиме игры до последнего места
+ * игрок, заведший домой все фишки, выбывает из очереди, остальные продолжают, и
+ * {@link #finishingOrder()} содержит настоящий порядок мест.</p>
+ */
+public final class TurnEngine {
+
+    private final Board board;
+    private final List<PlayerColor> players;
+    private final boolean playToLastPlace;
+    private final List<PlayerColor> finished = new ArrayList<>();
+    private final List<PlayerColor> finishedView = Collections.unmodifiableList(finished);
+
+    private TurnState state;
+    private int playerIndex;
+    private int pendingRoll;
+    private int pendingBonus;
+    private List<Move> options;
+    private TurnOutcome lastOutcome;
+    private int movesApplied;
+    private PlayerColor winner;
+
+    /**
+     * @param board доска партии
+     * @param firstPlayer игрок, который ходит первым
+     * @param playToLastPlace играть ли после первого победителя, пока не определятся все места
+     */
+    public TurnEngine(Board board, PlayerColor firstPlayer, boolean playToLastPlace) {
+        this.board = Objects.requireNonNull(board);
+        this.players = board.config().players();
+        this.playToLastPlace = playToLastPlace;
+        this.playerIndex = players.indexOf(firstPlayer);
+        if (playerIndex < 0) {
+            throw new IllegalArgumentException("Color is not in the game: " + firstPlayer);
+        }
+        this.state = TurnState.AWAIT_ROLL;
+        this.options = List.of();
+    }
+
+    /**
+     * Партия до первого победителя.
+     *
+     * @param board доска партии
+     * @param firstPlayer игрок, который ходит первым
+     */
+    public TurnEngine(Board board, PlayerColor firstPlayer) {
+        this(board, firstPlayer, false);
+    }
+
+    /**
+     * @param board доска партии (первым ходит первый игрок из конфигурации)
+     */
+    public TurnEngine(Board board) {
+        this(board, board.config().players().get(0));
+    }
+
+    /**
+     * @return текущее состояние
+     */
+    public TurnState state() {
+        return state;
+    }
+
+    /**
+     * @return чей сейчас ход
+     */
+    public PlayerColor currentPlayer() {
+        return players.get(playerIndex);
+    }
+
+    /**
+     * @return значение последнего броска текущего хода (0 — кубик ещё не брошен)
+     */
+    public int pendingRoll() {
+        return pendingRoll;
+    }
+
+    /**
+     * @return размер бонуса в состоянии {@link TurnState#AWAIT_BONUS}, иначе 0
+     */
+    public int pendingBonus() {
+        return pendingBonus;
+    }
+
+    /**
+     * @return ходы, из которых нужно выбрать (обычные или бонусные), пусто в остальных состояниях
+     */
+    public List<Move> options() {
+        return options;
+    }
+
+    /**
+     * @return результат последнего применённого хода или null
+     */
+    public TurnOutcome lastOutcome() {
+        return lastOutcome;
+    }
+
+    /**
+     * @return сколько перемещений (включая бонусные) применено
+     */
+    public int movesApplied() {
+        return movesApplied;
+    }
+
+    /**
+     * @return победитель, если партия завершена
+     */
+    public Optional<PlayerColor> winner() {
+        return Optional.ofNullable(winner);
+    }
+
+    /**
+     * @return игроки в том порядке, в каком завели домой все фишки; при игре до последнего места
+     *         после конца партии — все игроки, иначе только победитель
+     */
+    public List<PlayerColor> finishingOrder() {
+        return finishedView;
+    }
+
+    /**
+     * Шаг "бросок": принимает значение кубика и рассчитывает допустимые ходы.
+     *
+     * @param diceRoll значение кубика (1..6)
+     * @return {@link TurnEvent#MOVES_AVAILABLE} или {@link TurnEvent#NO_MOVES}
+     */
+    public TurnEvent roll(int diceRoll) {
+        expect(TurnState.AWAIT_ROLL);
+        PlayerColor color = currentPlayer();
+        List<Move> legal = board.legalMoves(color, diceRoll);
+        pendingRoll = diceRoll;
+        if (legal.isEmpty()) {
+            // ходов нет — серия шестёрок прерывается, ход переходит дальше
+            board.resetConsecutiveSixes(color);
+            passTurn();
+            return TurnEvent.NO_MOVES;
+        }
+        options = legal;
+        state = TurnState.AWAIT_MOVE;
+        return TurnEvent.MOVES_AVAILABLE;
+    }
+
+    /**
+     * Шаг "ход": применяет выбранный обычный или бонусный ход.
+     *
+     * @param move один из {@link #options()}
+     * @return что произошло после хода
+     */
+    public TurnEvent move(Move move) {
+        Objects.requireNonNull(move);
+        if (state != TurnState.AWAIT_MOVE && state != TurnState.AWAIT_BONUS) {
+            throw new IllegalStateException("No move expected in state " + state);
+        }
+        if (!options.contains(move)) {
+            throw new IllegalArgumentException("Move is not among options: " + move);
+        }
+        PlayerColor color = currentPlayer();
+
+        if (state == TurnState.AWAIT_BONUS) {
+            lastOutcome = board.applyBonusMove(color, move);
+            movesApplied++;
+            pendingBonus = 0;
+            return afterMove(color);
+        }
+
+        lastOutcome = board.applyMove(color, pendingRoll, move);
+        movesApplied++;
+
+        if (pendingRoll == 6 && board.config().rules().maxConsecutiveSixes() > 0
+                && board.consecutiveSixes(color) == 0) {
+            // доска откатила фишку (слишком много шестёрок подряд)
+            passTurn();
+            return TurnEvent.SIXES_PENALTY;
+        }
+        if (playToLastPlace ? board.hasFinished(color) : lastOutcome.winner().isPresent()) {
+            return finish(playToLastPlace ? color : lastOutcome.winner().get());
+        }
+        if (lastOutcome.bonusSteps() > 0) {
+            List<Move> bonus = board.bonusMoves(color, lastOutcome.bonusSteps());
+            if (!bonus.isEmpty()) {
+                pendingBonus = lastOutcome.bonusSteps();
+                options = bonus;
+                state = TurnState.AWAIT_BONUS;
+                return TurnEvent.BONUS_AVAILABLE;
+            }
+        }
+        return afterMove(color);
+    }
+
+    private TurnEvent afterMove(PlayerColor color) {
+        if (playToLastPlace) {
+            if (board.hasFinished(color)) {
+                return finish(color);
+            }
+        } else {
+            Optional<PlayerColor> won = board.winnerIfAny();
+            if (won.isPresent()) {
+                return finish(won.get());
+            }
+        }
+        if (pendingRoll == 6) {
+            pendingRoll = 0;
+            options = List.of();
+            state = TurnState.AWAIT_ROLL;
+            return TurnEvent.EXTRA_TURN;
+        }
+        board.resetConsecutiveSixes(color);
+        passTurn();
+        return TurnEvent.TURN_PASSED;
+    }
+
+    private TurnEvent finish(PlayerColor color) {
+        finished.add(color);
+        if (winner == null) {
+            winner = color;
+        }
+        if (playToLastPlace && finished.size() < players.size() - 1) {
+            board.resetConsecutiveSixes(color);
+            passTurn();
+            return TurnEvent.PLAYER_FINISHED;
+        }
+        if (playToLastPlace) {
+            // последнему месту ходить уже не за что
+            for (PlayerColor c : players) {
+                if (!finished.contains(c)) {
+                    finished.add(c);
+                }
+            }
+        }
+        options = List.of();
+        state = TurnState.FINISHED;
+        return TurnEvent.GAME_WON;
+    }
+
+    private void passTurn() {
+        // выбывшие игроки (только при игре до последнего места) пропускают ход
+        do {
+            playerIndex = (playerIndex + 1) % players.size();
+        } while (finished.contains(players.get(playerIndex)));
+        pendingRoll = 0;
+        options = List.of();
+        state = TurnState.AWAIT_ROLL;
+    }
+
+    private void expect(TurnState expected) {
+        if (state != expected) {
+            throw new IllegalStateException("Expected state " + expected + ", but was " + state);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.artem.ludo.core;
+
+/**
+ * Что произошло в результате шага {@link TurnEngine}.
+ */
+public enum TurnEvent {
+    /** После броска есть допустимые ходы. */
+    MOVES_AVAILABLE,
+    /** После броска ходов нет, ход перешёл к следующему игроку. */
+    NO_MOVES,
+    /** Ход сделан, игрок выбирает бонусный ход. */
+    BONUS_AVAILABLE,
+    /** Ход сделан, выпала 6 — тот же игрок бросает ещё раз. */
+    EXTRA_TURN,
+    /** Ход сделан, очередь перешла к следующему игроку. */
+    TURN_PASSED,
+    /** Слишком много шестёрок подряд: фишка откачена, ход перешёл к следующему игроку. */
+    SIXES_PENALTY,
+    /** Игрок завёл домой все фишки и выбыл, остальные продолжают (игра до последнего места). */
+    PLAYER_FINISHED,
+    /** Партия окончена: ход принёс победу, а при игре до последнего места — определил все места. */
+    GAME_WON
+}
@@ -0,0 +1,15 @@
+package ru.artem.ludo.core;
+
+/**
+ * Состояние хода в {@link TurnEngine}.
+ */
+public enum TurnState {
+    /** Текущий игрок должен бросить кубик. */
+    AWAIT_ROLL,
+    /** Кубик брошен, игрок выбирает один из допустимых ходов. */
+    AWAIT_MOVE,
+    /** После срубания/захода в дом игрок выбирает бонусный ход. */
+    AWAIT_BONUS,
+    /** Партия завершена. */
+    FINISHED
+}
@@ -0,0 +1,24 @@
+package ru.artem.ludo.lobby;
+
+import ru.artem.ludo.core.GameConfig;
+
+import java.util.Objects;
+
+/**
+ * Заявка игрока (или бота) на место за столом.
+ */
+public record JoinRequest(
+        /** Идентификатор игрока. */
+        long playerId,
+        /** Рейтинг игрока. */
+        int rating,
+        /** Вариант партии; число мест стола — число игроков в конфигурации. */
+        GameConfig variant,
+        /** {@link System#nanoTime()} постановки в очередь. */
+        long enqueuedNanos
+) {
+
+    public JoinRequest {
+        Objects.requireNonNull(variant);
+    }
+}
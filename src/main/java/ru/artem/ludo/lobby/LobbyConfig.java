@@ -0,0 +1,30 @@
+package ru.artem.ludo.lobby;
+
+/**
+ * Параметры подбора столов.
+ */
+public record LobbyConfig(
+        /** Ширина рейтинговой корзины: в одной корзине игроки с рейтингом в пределах {@code ratingBand}. */
+        int ratingBand,
+        /** Как часто собирать столы из накопившихся заявок, мс. */
+        long batchIntervalMillis,
+        /**
+         * Сколько заявка может ждать стол своей корзины, мс. Потом к ней добирают игроков из соседних
+         * корзин, а через удвоенное время недостающие места занимают боты — ожидание ограничено.
+         */
+        long maxWaitMillis
+) {
+
+    public LobbyConfig {
+        if (ratingBand < 1 || batchIntervalMillis < 1 || maxWaitMillis < 1) {
+            throw new IllegalArgumentException("Lobby parameters must be positive");
+        }
+    }
+
+    /**
+     * @return корзины по 200 рейтинга, сборка каждые 20 мс, ожидание своей корзины до 2 с
+     */
+    public static LobbyConfig defaults() {
+        return new LobbyConfig(200, 20, 2_000);
+    }
+}
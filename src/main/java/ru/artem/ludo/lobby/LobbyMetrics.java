@@ -0,0 +1,102 @@
+package ru.artem.ludo.lobby;
+
+import ru.artem.ludo.spectator.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики подбора столов: пропускная способность и время ожидания в очереди.
+ *
+ * <p>Заявки считаются в потоках игроков, столы — в потоке подбора; всё без блокировок.</p>
+ */
+public final class LobbyMetrics {
+
+    private final long startNanos;
+    private final LongAdder joins;
+    private final LongAdder tables;
+    private final LongAdder seated;
+    private final LongAdder bots;
+    private final LongAdder widened;
+    private final LatencyHistogram queueWait;
+
+    public LobbyMetrics() {
+        this.startNanos = System.nanoTime();
+        this.joins = new LongAdder();
+        this.tables = new LongAdder();
+        this.seated = new LongAdder();
+        this.bots = new LongAdder();
+        this.widened = new LongAdder();
+        this.queueWait = new LatencyHistogram();
+    }
+
+    void onJoin() {
+        joins.increment();
+    }
+
+    void onTable(Table table, boolean crossBand, long nowNanos) {
+        tables.increment();
+        seated.add(table.players().size());
+        bots.add(table.bots());
+        if (crossBand) {
+            widened.increment();
+        }
+        for (JoinRequest r : table.players()) {
+            queueWait.record(nowNanos - r.enqueuedNanos());
+        }
+    }
+
+    /**
+     * @return гистограмма времени от заявки до места за столом, нс
+     */
+    public LatencyHistogram queueWait() {
+        return queueWait;
+    }
+
+    /**
+     * @return текущие значения счётчиков
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(joins.sum(), tables.sum(), seated.sum(), bots.sum(), widened.sum(),
+                (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    /**
+     * Значения счётчиков на момент вызова {@link #snapshot()}.
+     *
+     * @param joins принято заявок
+     * @param tables собрано столов
+     * @param seated рассажено игроков
+     * @param bots мест отдано ботам
+     * @param widened столов, собранных из соседних рейтинговых корзин
+     * @param seconds прошло секунд с начала
+     */
+    public record Snapshot(long joins, long tables, long seated, long bots, long widened, double seconds) {
+
+        /**
+         * @return заявок в очереди (принято, но ещё не рассажено)
+         */
+        public long queued() {
+            return joins - seated;
+        }
+
+        /**
+         * @return заявок в секунду
+         */
+        public double joinsPerSecond() {
+            return seconds > 0 ? joins / seconds : 0;
+        }
+
+        /**
+         * @return столов в секунду
+         */
+        public double tablesPerSecond() {
+            return seconds > 0 ? tables / seconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("joins=%d (%.0f/s), tables=%d (%.0f/s), seated=%d, bots=%d, widened=%d, queued=%d, %.1fs",
+                    joins, joinsPerSecond(), tables, tablesPerSecond(), seated, bots, widened, queued(), seconds);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.artem.ludo.lobby;
+
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.spectator.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Локальная нагрузка на подбор: несколько потоков шлют заявки с заданной частотой
+ * (рейтинг ~ N(1500, 300), столы на 2, 3 и 4 места), раз в секунду печатаются счётчики.
+ */
+public final class LobbySimulator {
+
+    private LobbySimulator() {
+    }
+
+    /**
+     * @param args [заявок в секунду] [секунд] [потоков-источников]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int producers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        List<GameConfig> variants = List.of(
+                GameConfig.forPlayers(2, 40, 4), GameConfig.forPlayers(3, 42, 4), GameConfig.defaultForFourPlayers());
+        LongAdder handedOff = new LongAdder();
+        Matchmaker lobby = new Matchmaker(LobbyConfig.defaults(), table -> handedOff.increment());
+        lobby.start();
+
+        AtomicLong ids = new AtomicLong();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long seed = p;
+            Thread t = new Thread(() -> produce(lobby, variants, ids, rate / producers, end, new SplittableRandom(seed)),
+                    "join-producer-" + p);
+            t.start();
+            threads.add(t);
+        }
+
+        for (int s = 1; s <= seconds; s++) {
+            Thread.sleep(1_000);
+            report(lobby.metrics(), handedOff.sum());
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        // даём ограниченному ожиданию дорассадить остаток
+        Thread.sleep(2 * LobbyConfig.defaults().maxWaitMillis() + 200);
+        lobby.close();
+        report(lobby.metrics(), handedOff.sum());
+    }
+
+    private static void produce(Matchmaker lobby, List<GameConfig> variants, AtomicLong ids, int rate, long end,
+                                SplittableRandom random) {
+        // заявки идут пачками раз в миллисекунду
+        long tick = TimeUnit.MILLISECONDS.toNanos(1);
+        double perTick = rate / 1_000.0;
+        double owed = 0;
+        long next = System.nanoTime();
+        while (next < end) {
+            owed += perTick;
+            for (; owed >= 1; owed--) {
+                int rating = (int) Math.round(1_500 + 300 * gaussian(random));
+                lobby.join(ids.incrementAndGet(), rating, variants.get(random.nextInt(variants.size())));
+            }
+            next += tick;
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box–Muller: SplittableRandom в Java 17 не умеет nextGaussian
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static void report(LobbyMetrics metrics, long handedOff) {
+        LatencyHistogram wait = metrics.queueWait();
+        System.out.printf("%s, handed off %d; queue wait ms p50 %.1f p99 %.1f max %.1f%n",
+                metrics.snapshot(), handedOff, wait.percentile(50) / 1e6, wait.percentile(99) / 1e6,
+                wait.percentile(100) / 1e6);
+    }
+}
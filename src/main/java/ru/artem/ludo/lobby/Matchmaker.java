@@ -0,0 +1,192 @@
+package ru.artem.ludo.lobby;
+
+import ru.artem.ludo.core.GameConfig;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Подбор игроков за столы на 2–4 места.
+ *
+ * <p>Заявки принимаются из любых потоков через неблокирующую очередь. Один поток подбора раз в
+ * {@link LobbyConfig#batchIntervalMillis()} забирает всё накопившееся, раскладывает по корзинам
+ * "вариант партии × рейтинговая полоса" и собирает столы пачкой. Корзины принадлежат только
+ * потоку подбора, поэтому блокировок нет.</p>
+ *
+ * <p>Ожидание ограничено: заявка, прождавшая {@link LobbyConfig#maxWaitMillis()}, садится за стол
+ * вместе с игроками соседних полос, а через удвоенное время свободные места занимают боты.</p>
+ *
+ * <p>Готовые столы передаются обработчику сессий в потоке подбора — он должен лишь передать стол
+ * дальше (например, в пул игровых сессий), а не играть партию на месте.</p>
+ */
+public final class Matchmaker implements AutoCloseable {
+
+    /** Наибольшее число мест за столом. */
+    public static final int MAX_SEATS = 4;
+
+    private final LobbyConfig config;
+    private final Consumer<Table> sessions;
+    private final LobbyMetrics metrics;
+    private final ConcurrentLinkedQueue<JoinRequest> inbox;
+
+    /** Вариант партии → рейтинговая полоса → заявки по времени прихода (только поток подбора). */
+    private final Map<GameConfig, TreeMap<Integer, ArrayDeque<JoinRequest>>> buckets;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param config параметры подбора
+     * @param sessions кому передавать собранные столы
+     */
+    public Matchmaker(LobbyConfig config, Consumer<Table> sessions) {
+        this.config = Objects.requireNonNull(config);
+        this.sessions = Objects.requireNonNull(sessions);
+        this.metrics = new LobbyMetrics();
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.buckets = new HashMap<>();
+    }
+
+    /**
+     * @return счётчики подбора
+     */
+    public LobbyMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Ставит игрока в очередь (из любого потока, без блокировок).
+     *
+     * @param playerId идентификатор игрока
+     * @param rating рейтинг
+     * @param variant вариант партии (2..{@link #MAX_SEATS} игроков)
+     * @return принятая заявка
+     */
+    public JoinRequest join(long playerId, int rating, GameConfig variant) {
+        int seats = variant.players().size();
+        if (seats > MAX_SEATS) {
+            throw new IllegalArgumentException("Tables have at most " + MAX_SEATS + " seats: " + seats);
+        }
+        JoinRequest request = new JoinRequest(playerId, rating, variant, System.nanoTime());
+        inbox.add(request);
+        metrics.onJoin();
+        return request;
+    }
+
+    /**
+     * Запускает поток подбора.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            throw new IllegalStateException("Matchmaker is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "matchmaker");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                tick(System.nanoTime());
+            } catch (RuntimeException e) {
+                // сбой обработчика сессий не должен останавливать подбор
+                System.err.println("Matchmaking tick failed: " + e);
+            }
+        }, config.batchIntervalMillis(), config.batchIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает поток подбора; заявки, не попавшие за стол, остаются в очереди.
+     */
+    @Override
+    public synchronized void close() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Один шаг подбора: разобрать очередь и собрать все столы, какие можно.
+     * Вызывается потоком подбора (или тестом вместо него).
+     *
+     * @param nowNanos текущее {@link System#nanoTime()}
+     */
+    void tick(long nowNanos) {
+        JoinRequest r;
+        while ((r = inbox.poll()) != null) {
+            buckets.computeIfAbsent(r.variant(), v -> new TreeMap<>())
+                    .computeIfAbsent(Math.floorDiv(r.rating(), config.ratingBand()), b -> new ArrayDeque<>())
+                    .add(r);
+        }
+        for (Map.Entry<GameConfig, TreeMap<Integer, ArrayDeque<JoinRequest>>> e : buckets.entrySet()) {
+            formTables(e.getKey(), e.getValue(), nowNanos);
+        }
+    }
+
+    private void formTables(GameConfig variant, TreeMap<Integer, ArrayDeque<JoinRequest>> bands, long now) {
+        int seats = variant.players().size();
+        for (ArrayDeque<JoinRequest> queue : bands.values()) {
+            while (queue.size() >= seats) {
+                List<JoinRequest> players = new ArrayList<>(seats);
+                for (int i = 0; i < seats; i++) {
+                    players.add(queue.poll());
+                }
+                emit(new Table(variant, players, 0, now), false);
+            }
+        }
+
+        long widenAfter = TimeUnit.MILLISECONDS.toNanos(config.maxWaitMillis());
+        for (Map.Entry<Integer, ArrayDeque<JoinRequest>> e : bands.entrySet()) {
+            ArrayDeque<JoinRequest> queue = e.getValue();
+            if (queue.isEmpty() || now - queue.peek().enqueuedNanos() < widenAfter) {
+                continue;
+            }
+            ArrayDeque<JoinRequest> lower = bands.get(e.getKey() - 1);
+            ArrayDeque<JoinRequest> upper = bands.get(e.getKey() + 1);
+            int available = queue.size() + size(lower) + size(upper);
+            boolean withBots = available < seats;
+            if (withBots && now - queue.peek().enqueuedNanos() < 2 * widenAfter) {
+                continue;
+            }
+            List<JoinRequest> players = new ArrayList<>(seats);
+            while (!queue.isEmpty() && players.size() < seats) {
+                players.add(queue.poll());
+            }
+            // добираем из соседних полос, начиная с тех, кто ждёт дольше
+            while (players.size() < seats && (size(lower) > 0 || size(upper) > 0)) {
+                ArrayDeque<JoinRequest> from = size(upper) == 0
+                        || (size(lower) > 0 && lower.peek().enqueuedNanos() <= upper.peek().enqueuedNanos()) ? lower : upper;
+                players.add(from.poll());
+            }
+            boolean crossBand = players.stream().anyMatch(p -> Math.floorDiv(p.rating(), config.ratingBand()) != e.getKey());
+            emit(new Table(variant, players, seats - players.size(), now), crossBand);
+        }
+
+        for (Iterator<ArrayDeque<JoinRequest>> it = bands.values().iterator(); it.hasNext(); ) {
+            if (it.next().isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void emit(Table table, boolean crossBand) {
+        metrics.onTable(table, crossBand, table.formedNanos());
+        sessions.accept(table);
+    }
+
+    private static int size(ArrayDeque<JoinRequest> queue) {
+        return queue == null ? 0 : queue.size();
+    }
+}
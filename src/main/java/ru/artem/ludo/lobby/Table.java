@@ -0,0 +1,28 @@
+package ru.artem.ludo.lobby;
+
+import ru.artem.ludo.core.GameConfig;
+
+import java.util.List;
+
+/**
+ * Собранный стол, который передаётся игровой сессии.
+ */
+public record Table(
+        /** Вариант партии. */
+        GameConfig config,
+        /** Игроки в порядке мест (первые места; остальные занимают боты). */
+        List<JoinRequest> players,
+        /** Сколько мест отдано ботам. */
+        int bots,
+        /** {@link System#nanoTime()} сборки стола. */
+        long formedNanos
+) {
+
+    public Table {
+        players = List.copyOf(players);
+        if (players.size() + bots != config.players().size()) {
+            throw new IllegalArgumentException("Table has " + (players.size() + bots) + " seats, variant needs "
+                    + config.players().size());
+        }
+    }
+}
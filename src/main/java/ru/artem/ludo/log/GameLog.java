@@ -0,0 +1,402 @@
+package ru.artem.ludo.log;
+
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.PositionType;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный журнал партий.
+ *
+ * <p>Событие пакуется в {@code long} ({@link LogEvent}) и кладётся в кольцевой буфер своего
+ * потока: ни замков, ни объектов, ни общего потока вывода на пути партии. Фоновый писатель раз в
+ * интервал (или раньше, когда буфер какого-то потока заполнен наполовину) забирает события
+ * пачками, форматирует их и пишет в приёмник. Если буфер потока полон, событие отбрасывается и
+ * учитывается в {@link #dropped()} — партия никогда не ждёт вывода, поэтому цена журнала ограничена.</p>
+ *
+ * <p>Строки одного потока идут в порядке событий и помечены именем потока и номером партии в нём;
+ * строки разных потоков перемежаются пачками.</p>
+ */
+public final class GameLog implements AutoCloseable {
+
+    /** Размер буфера потока по умолчанию (в событиях). */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /** Интервал сброса по умолчанию. */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(50);
+
+    private static final GameLog OFF = new GameLog();
+    private static GameLog console;
+
+    /** Значение события {@link LogEvent#GAME_STARTED}: следующее слово буфера — зерно кубика. */
+    private static final int SEED_FOLLOWS = 1;
+
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    private static final PositionType[] POSITION_TYPES = PositionType.values();
+
+    private volatile LogLevel level;
+    private final Writer sink;
+    private final int capacity;
+    private final long flushNanos;
+    private final Thread writer;
+    private final List<Ring> rings = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Ring> local = ThreadLocal.withInitial(this::register);
+    /** Потери буферов завершившихся потоков. */
+    private final AtomicLong retiredDrops = new AtomicLong();
+
+    /** Форматирование и вывод — только под этим замком (писатель, {@link #flush()}). */
+    private final Object drainLock = new Object();
+    private final StringBuilder line = new StringBuilder(96);
+    private char[] chars = new char[96];
+    private volatile boolean closed;
+
+    /**
+     * @param level начальный уровень
+     * @param sink куда писать строки (не закрывается журналом)
+     * @param capacity размер буфера потока в событиях (степень двойки)
+     * @param flushInterval как часто писатель забирает события
+     */
+    public GameLog(LogLevel level, Writer sink, int capacity, Duration flushInterval) {
+        this.level = Objects.requireNonNull(level);
+        Objects.requireNonNull(sink);
+        this.sink = sink instanceof BufferedWriter ? sink : new BufferedWriter(sink);
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.flushNanos = flushInterval.toNanos();
+        if (flushNanos <= 0) {
+            throw new IllegalArgumentException("flushInterval must be positive");
+        }
+        this.writer = new Thread(this::writeLoop, "game-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @param level начальный уровень
+     * @param sink куда писать строки
+     */
+    public GameLog(LogLevel level, Writer sink) {
+        this(level, sink, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /** Выключенный журнал без писателя. */
+    private GameLog() {
+        this.level = LogLevel.OFF;
+        this.sink = Writer.nullWriter();
+        this.capacity = 0;
+        this.flushNanos = 0;
+        this.writer = null;
+        this.closed = true;
+    }
+
+    /**
+     * @return выключенный журнал (уровень не меняется)
+     */
+    public static GameLog off() {
+        return OFF;
+    }
+
+    /**
+     * Общий журнал в стандартный вывод с полной подробностью; при выходе из программы дописывается.
+     *
+     * @return журнал консоли
+     */
+    public static synchronized GameLog console() {
+        if (console == null) {
+            GameLog log = new GameLog(LogLevel.MOVES, new OutputStreamWriter(System.out, Charset.defaultCharset()));
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "game-log-shutdown"));
+            console = log;
+        }
+        return console;
+    }
+
+    /**
+     * @return текущий уровень
+     */
+    public LogLevel level() {
+        return level;
+    }
+
+    /**
+     * Меняет уровень; действует на все потоки со следующего события.
+     *
+     * @param level новый уровень
+     */
+    public void setLevel(LogLevel level) {
+        Objects.requireNonNull(level);
+        if (writer == null && level != LogLevel.OFF) {
+            throw new IllegalStateException("The disabled log cannot be enabled");
+        }
+        this.level = level;
+    }
+
+    /**
+     * @param kind вид события
+     * @return пишется ли событие при текущем уровне
+     */
+    public boolean isEnabled(LogEvent kind) {
+        return kind.level().compareTo(level) <= 0;
+    }
+
+    /**
+     * Событие игрока без фишки: начало партии, бросок, нет ходов, срубание, дом, доп. ход, откат.
+     *
+     * @param kind вид события
+     * @param color игрок
+     * @param value бросок или бонус (0, если не нужен)
+     */
+    public void event(LogEvent kind, PlayerColor color, int value) {
+        if (isEnabled(kind)) {
+            local.get().offer(kind.encode(color.ordinal(), 0, value, LogEvent.NONE, 0));
+        }
+    }
+
+    /**
+     * Начало партии с известным зерном кубика: зерно пишется следующим словом буфера,
+     * чтобы партию из журнала можно было сыграть заново.
+     *
+     * @param first кто ходит первым
+     * @param seed зерно кубика
+     */
+    public void gameStarted(PlayerColor first, long seed) {
+        if (isEnabled(LogEvent.GAME_STARTED)) {
+            local.get().offer(LogEvent.GAME_STARTED.encode(first.ordinal(), 0, SEED_FOLLOWS, LogEvent.NONE, 0), seed);
+        }
+    }
+
+    /**
+     * Ход или бонусный ход фишкой.
+     *
+     * @param kind {@link LogEvent#MOVE} или {@link LogEvent#BONUS_MOVE}
+     * @param token фишка
+     * @param steps шаги
+     * @param to позиция после хода
+     */
+    public void move(LogEvent kind, TokenId token, int steps, TokenPosition to) {
+        if (isEnabled(kind)) {
+            local.get().offer(kind.encode(token.color().ordinal(), token.index(), steps, to.type().ordinal(), to.index()));
+        }
+    }
+
+    /**
+     * Итог партии.
+     *
+     * @param winner победитель или {@code null}, если партия оборвана
+     * @param moves сколько перемещений сделано
+     */
+    public void gameFinished(PlayerColor winner, int moves) {
+        if (isEnabled(LogEvent.GAME_FINISHED)) {
+            int color = winner == null ? LogEvent.NONE : winner.ordinal();
+            local.get().offer(LogEvent.GAME_FINISHED.encode(color, 0, 0, LogEvent.NONE, moves));
+        }
+    }
+
+    /**
+     * @return сколько событий отброшено из-за полных буферов
+     */
+    public long dropped() {
+        long sum = retiredDrops.get();
+        for (Ring r : rings) {
+            sum += r.dropped.get();
+        }
+        return sum;
+    }
+
+    /**
+     * Дописывает всё, что уже попало в буферы, и сбрасывает приёмник. Вызов блокирующий.
+     */
+    public void flush() {
+        if (writer != null) {
+            drain();
+        }
+    }
+
+    /**
+     * Останавливает писателя и дописывает остаток. Приёмник не закрывается.
+     */
+    @Override
+    public void close() {
+        if (writer == null || closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+
+    private Ring register() {
+        Ring r = new Ring(Thread.currentThread());
+        rings.add(r);
+        return r;
+    }
+
+    private void writeLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(this, flushNanos);
+            drain();
+        }
+    }
+
+    private void drain() {
+        synchronized (drainLock) {
+            try {
+                for (Ring r : rings) {
+                    r.drainTo(this);
+                    if (!r.thread.isAlive() && r.isEmpty()) {
+                        retiredDrops.addAndGet(r.dropped.get());
+                        rings.remove(r);
+                    }
+                }
+                sink.flush();
+            } catch (IOException e) {
+                System.err.println("Game log failed: " + e.getMessage());
+                level = LogLevel.OFF;
+            }
+        }
+    }
+
+    private void write(Ring ring, long event, long seed) throws IOException {
+        LogEvent kind = LogEvent.kind(event);
+        if (kind == LogEvent.GAME_STARTED) {
+            ring.games++;
+        }
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append('[').append(ring.name).append(" #").append(ring.games).append("] ");
+        int color = LogEvent.color(event);
+        int value = LogEvent.value(event);
+        switch (kind) {
+            case GAME_STARTED -> {
+                sb.append("game started, first ").append(COLORS[color]);
+                if (value == SEED_FOLLOWS) {
+                    sb.append(", seed=").append(seed);
+                }
+            }
+            case ROLL -> sb.append(COLORS[color]).append(" rolled ").append(value);
+            case NO_MOVES -> sb.append("  no legal moves");
+            case MOVE -> appendMove(sb.append("  move: "), event).append(" steps=").append(value);
+            case BONUS_MOVE -> appendMove(sb.append("  bonus move: "), event).append(" +").append(value);
+            case CAPTURE -> sb.append("  capture! bonus=").append(value);
+            case HOME -> sb.append("  reached home! bonus=").append(value);
+            case EXTRA_TURN -> sb.append("  extra turn (6)");
+            case SIXES_PENALTY -> sb.append("  too many sixes in a row, token rolled back");
+            case GAME_FINISHED -> (color == LogEvent.NONE
+                    ? sb.append("game over: no winner")
+                    : sb.append("game over: winner ").append(COLORS[color]))
+                    .append(" after ").append(LogEvent.arg(event)).append(" moves");
+        }
+        if (kind == LogEvent.MOVE || kind == LogEvent.BONUS_MOVE) {
+            sb.append(" => ").append(POSITION_TYPES[LogEvent.positionType(event)])
+                    .append('(').append(LogEvent.arg(event)).append(')');
+        }
+        sb.append('\n');
+        int length = sb.length();
+        if (length > chars.length) {
+            chars = new char[length];
+        }
+        sb.getChars(0, length, chars, 0);
+        sink.write(chars, 0, length);
+    }
+
+    private static StringBuilder appendMove(StringBuilder sb, long event) {
+        return sb.append(COLORS[LogEvent.color(event)]).append('#').append(LogEvent.token(event));
+    }
+
+    /**
+     * Буфер одного потока: один писатель (поток партии) и один читатель (под {@code drainLock}).
+     */
+    private final class Ring {
+
+        private final Thread thread;
+        private final String name;
+        private final long[] events = new long[capacity];
+        private final int mask = capacity - 1;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        /** Только для читателя: номер текущей партии и уже сообщённые потери. */
+        private long games;
+        private long reportedDrops;
+
+        Ring(Thread thread) {
+            this.thread = thread;
+            this.name = thread.getName();
+        }
+
+        void offer(long event) {
+            long t = tail.getPlain();
+            long free = capacity - (t - head.getAcquire());
+            if (free == 0) {
+                dropped.setRelease(dropped.getPlain() + 1);
+                return;
+            }
+            events[(int) t & mask] = event;
+            tail.setRelease(t + 1);
+            if (free == capacity / 2) {
+                LockSupport.unpark(writer);
+            }
+        }
+
+        /**
+         * Событие со словом данных: оба слова публикуются вместе или оба отбрасываются.
+         */
+        void offer(long event, long payload) {
+            long t = tail.getPlain();
+            long free = capacity - (t - head.getAcquire());
+            if (free < 2) {
+                dropped.setRelease(dropped.getPlain() + 1);
+                return;
+            }
+            events[(int) t & mask] = event;
+            events[(int) (t + 1) & mask] = payload;
+            tail.setRelease(t + 2);
+            if (free == capacity / 2 || free == capacity / 2 + 1) {
+                LockSupport.unpark(writer);
+            }
+        }
+
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+
+        void drainTo(GameLog log) throws IOException {
+            long h = head.getPlain();
+            long t = tail.getAcquire();
+            for (; h < t; h++) {
+                long event = events[(int) h & mask];
+                long seed = 0;
+                if (LogEvent.kind(event) == LogEvent.GAME_STARTED && LogEvent.value(event) == SEED_FOLLOWS) {
+                    seed = events[(int) ++h & mask];
+                }
+                log.write(this, event, seed);
+            }
+            head.setRelease(h);
+            long lost = dropped.getAcquire();
+            if (lost != reportedDrops) {
+                sink.append("[").append(name).append("] dropped ")
+                        .append(Long.toString(lost - reportedDrops)).append(" events\n");
+                reportedDrops = lost;
+            }
+        }
+    }
+}
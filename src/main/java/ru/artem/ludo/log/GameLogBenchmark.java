@@ -0,0 +1,67 @@
+package ru.artem.ludo.log;
+
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.MoveStrategy;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Цена журнала: партии в секунду без журнала и с полной подробностью (вывод в никуда, чтобы
+ * мерить сам журнал, а не терминал).
+ */
+public final class GameLogBenchmark {
+
+    private GameLogBenchmark() {
+    }
+
+    /**
+     * @param args [партий на поток] [потоков]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameConfig config = GameConfig.defaultForFourPlayers();
+
+        // прогрев
+        run(config, GameLog.off(), games / 4, threads);
+        try (GameLog log = new GameLog(LogLevel.MOVES, Writer.nullWriter())) {
+            run(config, log, games / 4, threads);
+        }
+
+        double off = run(config, GameLog.off(), games, threads);
+        System.out.printf("OFF:     %8.0f games/s%n", off);
+        for (LogLevel level : new LogLevel[]{LogLevel.SUMMARY, LogLevel.EVENTS, LogLevel.MOVES}) {
+            try (GameLog log = new GameLog(level, Writer.nullWriter())) {
+                double on = run(config, log, games, threads);
+                log.flush();
+                System.out.printf("%-8s %8.0f games/s, overhead %.1f%%, dropped %d%n",
+                        level + ":", on, 100 * (off - on) / off, log.dropped());
+            }
+        }
+    }
+
+    private static double run(GameConfig config, GameLog log, int games, int threads) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            Thread w = new Thread(() -> {
+                MoveStrategy strategy = MoveStrategy.random(random);
+                for (int g = 0; g < games; g++) {
+                    new Game(config, new Dice(random), strategy, log).playUntilWin(10_000);
+                }
+            }, "bench-" + t);
+            w.start();
+            workers.add(w);
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        return (double) games * threads / ((System.nanoTime() - t0) / 1e9);
+    }
+}
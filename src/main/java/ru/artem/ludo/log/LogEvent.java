@@ -0,0 +1,119 @@
+package ru.artem.ludo.log;
+
+/**
+ * Вид события журнала и его упаковка в {@code long}.
+ *
+ * <p>Раскладка по байтам (от младшего): вид, цвет ({@code 0xFF} — нет), индекс фишки, значение
+ * (бросок, шаги, бонус), тип позиции ({@code 0xFF} — нет), затем 24 бита аргумента (индекс клетки
+ * или число ходов партии). Так событие пишется в буфер без объектов.</p>
+ */
+public enum LogEvent {
+    /** Партия началась; цвет — кто ходит первым, значение 1 — за событием в буфере идёт зерно кубика. */
+    GAME_STARTED(LogLevel.SUMMARY),
+    /** Бросок кубика; значение — выпавшее число. */
+    ROLL(LogLevel.MOVES),
+    /** После броска ходов нет. */
+    NO_MOVES(LogLevel.MOVES),
+    /** Ход фишкой; значение — шаги, позиция — куда пришла. */
+    MOVE(LogLevel.MOVES),
+    /** Бонусный ход; значение — бонус, позиция — куда пришла фишка. */
+    BONUS_MOVE(LogLevel.MOVES),
+    /** Срубание; значение — положенный бонус. */
+    CAPTURE(LogLevel.EVENTS),
+    /** Фишка дошла до дома; значение — положенный бонус. */
+    HOME(LogLevel.EVENTS),
+    /** Выпала 6 — тот же игрок бросает ещё раз. */
+    EXTRA_TURN(LogLevel.EVENTS),
+    /** Три шестёрки подряд: фишка откачена. */
+    SIXES_PENALTY(LogLevel.EVENTS),
+    /** Партия закончена; цвет — победитель (если есть), аргумент — число ходов. */
+    GAME_FINISHED(LogLevel.SUMMARY);
+
+    /** Нет цвета или позиции. */
+    public static final int NONE = 0xFF;
+
+    /** Наибольший аргумент, который помещается в событие. */
+    public static final int MAX_ARG = (1 << 24) - 1;
+
+    private static final LogEvent[] KINDS = values();
+
+    private final LogLevel level;
+
+    LogEvent(LogLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * @return с какого уровня событие пишется
+     */
+    public LogLevel level() {
+        return level;
+    }
+
+    /**
+     * Упаковывает событие.
+     *
+     * @param color порядковый номер цвета или {@link #NONE}
+     * @param token индекс фишки
+     * @param value бросок/шаги/бонус (0..255)
+     * @param positionType порядковый номер типа позиции или {@link #NONE}
+     * @param arg индекс клетки или число ходов (обрезается до {@link #MAX_ARG})
+     * @return событие
+     */
+    public long encode(int color, int token, int value, int positionType, int arg) {
+        return ordinal()
+                | (color & 0xFFL) << 8
+                | (token & 0xFFL) << 16
+                | (value & 0xFFL) << 24
+                | (positionType & 0xFFL) << 32
+                | (long) Math.min(Math.max(arg, 0), MAX_ARG) << 40;
+    }
+
+    /**
+     * @param event упакованное событие
+     * @return вид события
+     */
+    public static LogEvent kind(long event) {
+        return KINDS[(int) (event & 0xFF)];
+    }
+
+    /**
+     * @param event упакованное событие
+     * @return порядковый номер цвета или {@link #NONE}
+     */
+    public static int color(long event) {
+        return (int) (event >>> 8 & 0xFF);
+    }
+
+    /**
+     * @param event упакованное событие
+     * @return индекс фишки
+     */
+    public static int token(long event) {
+        return (int) (event >>> 16 & 0xFF);
+    }
+
+    /**
+     * @param event упакованное событие
+     * @return бросок/шаги/бонус
+     */
+    public static int value(long event) {
+        return (int) (event >>> 24 & 0xFF);
+    }
+
+    /**
+     * @param event упакованное событие
+     * @return порядковый номер типа позиции или {@link #NONE}
+     */
+    public static int positionType(long event) {
+        return (int) (event >>> 32 & 0xFF);
+    }
+
+    /**
+     * @param event упакованное событие
+     * @return индекс клетки или число ходов
+     */
+    public static int arg(long event) {
+        return (int) (event >>> 40);
+    }
+}
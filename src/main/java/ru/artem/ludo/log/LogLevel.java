@@ -0,0 +1,15 @@
+package ru.artem.ludo.log;
+
+/**
+ * Подробность журнала партий: каждый следующий уровень включает предыдущие.
+ */
+public enum LogLevel {
+    /** Журнал выключен. */
+    OFF,
+    /** Только начало и итог партии. */
+    SUMMARY,
+    /** Ещё срубания, дом, доп. ходы и откаты за шестёрки. */
+    EVENTS,
+    /** Всё, включая каждый бросок и ход. */
+    MOVES
+}
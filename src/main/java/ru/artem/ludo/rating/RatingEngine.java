@@ -0,0 +1,259 @@
+package ru.artem.ludo.rating;
+
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Рейтинг Эло ботов по потоку итогов партий.
+ *
+ * <p>Партия на несколько мест считается набором попарных встреч: каждый игрок выше в
+ * {@link GameResult#finishingOrder()} обыгрывает каждого ниже, шаг K делится на число соперников.
+ * Сумма рейтингов при этом сохраняется. Учитываются только места, занятые на самом деле, поэтому
+ * итоги нужны от {@link ru.artem.ludo.core.Game#playUntilAllFinish}.</p>
+ *
+ * <p>Итоги записываются из любого числа потоков. У каждого потока свой накопитель: приращения
+ * считаются по последнему опубликованному снимку рейтингов и копятся локально, а раз в
+ * {@code mergeEvery} партий сливаются в общий рейтинг под коротким замком. Замок накопителя
+ * берёт только его поток и изредка слияние, поэтому записи почти не спорят. Рейтинг, по которому
+ * считается приращение, отстаёт не больше чем на одну пачку.</p>
+ */
+public final class RatingEngine {
+
+    /** Начальный рейтинг. */
+    public static final double INITIAL_RATING = 1_500;
+
+    /** Шаг по умолчанию. */
+    public static final double DEFAULT_K = 16;
+
+    private static final int MAGIC = 0x4C445254; // "LDRT"
+    private static final int VERSION = 2;
+
+    private final int bots;
+    private final double k;
+    private final int mergeEvery;
+
+    private final Object mergeLock = new Object();
+    private final double[] ratings;
+    private final long[] games;
+    private volatile double[] published;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final List<Accumulator> accumulators = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Accumulator> local = ThreadLocal.withInitial(this::register);
+
+    /**
+     * @param bots число ботов (идентификаторы 0..bots-1)
+     * @param k шаг Эло за партию
+     * @param mergeEvery через сколько партий поток сливает накопленные приращения
+     */
+    public RatingEngine(int bots, double k, int mergeEvery) {
+        if (bots < 1 || k <= 0 || mergeEvery < 1) {
+            throw new IllegalArgumentException("bots, k and mergeEvery must be positive");
+        }
+        this.bots = bots;
+        this.k = k;
+        this.mergeEvery = mergeEvery;
+        this.ratings = new double[bots];
+        this.games = new long[bots];
+        Arrays.fill(ratings, INITIAL_RATING);
+        this.published = ratings.clone();
+    }
+
+    /**
+     * @param bots число ботов
+     */
+    public RatingEngine(int bots) {
+        this(bots, DEFAULT_K, 1_024);
+    }
+
+    /**
+     * Учитывает итог партии. Итоги, где занято меньше двух мест (партия без победителя или
+     * сыгранная только до победителя), пропускаются: попарных встреч в них нет.
+     *
+     * @param result итог партии
+     * @param botByColor какой бот играл каждым цветом (индекс — {@link PlayerColor#ordinal()})
+     */
+    public void record(GameResult result, int[] botByColor) {
+        if (result.finishingOrder().size() < 2) {
+            skipped.increment();
+            return;
+        }
+        local.get().add(result.finishingOrder(), botByColor);
+        recorded.increment();
+    }
+
+    /**
+     * Сливает приращения всех потоков в общий рейтинг.
+     */
+    public void merge() {
+        for (Accumulator a : accumulators) {
+            a.flush();
+        }
+    }
+
+    /**
+     * @param bot бот
+     * @return рейтинг по последнему слиянию
+     */
+    public double rating(int bot) {
+        return published[bot];
+    }
+
+    /**
+     * @return рейтинги всех ботов по последнему слиянию
+     */
+    public double[] ratings() {
+        return published.clone();
+    }
+
+    /**
+     * @param bot бот
+     * @return сколько учтённых (слитых) партий сыграл бот
+     */
+    public long games(int bot) {
+        synchronized (mergeLock) {
+            return games[bot];
+        }
+    }
+
+    /**
+     * @return сколько итогов принято (включая ещё не слитые)
+     */
+    public long recorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * @return сколько итогов пропущено (меньше двух занятых мест)
+     */
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * Сохраняет контрольную точку: сливает накопители и атомарно заменяет файл.
+     * Формат: заголовок и по каждому боту рейтинг ({@code double}) и число партий ({@code long}).
+     *
+     * @param file путь к файлу
+     * @throws IOException ошибка записи
+     */
+    public void checkpoint(Path file) throws IOException {
+        merge();
+        double[] r;
+        long[] g;
+        synchronized (mergeLock) {
+            r = ratings.clone();
+            g = games.clone();
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(bots);
+            out.writeLong(recorded.sum());
+            for (int b = 0; b < bots; b++) {
+                out.writeDouble(r[b]);
+                out.writeLong(g[b]);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Продолжает рейтинг с контрольной точки.
+     *
+     * @param file путь к файлу
+     * @param k шаг Эло
+     * @param mergeEvery размер пачки слияния
+     * @return рейтинг с загруженными значениями
+     * @throws IOException ошибка чтения или неверный формат
+     */
+    public static RatingEngine load(Path file, double k, int mergeEvery) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a rating checkpoint: " + file);
+            }
+            int bots = in.readInt();
+            if (bots < 1) {
+                throw new IOException("Broken rating checkpoint: " + file);
+            }
+            RatingEngine engine = new RatingEngine(bots, k, mergeEvery);
+            engine.recorded.add(in.readLong());
+            for (int b = 0; b < bots; b++) {
+                engine.ratings[b] = in.readDouble();
+                engine.games[b] = in.readLong();
+            }
+            engine.published = engine.ratings.clone();
+            return engine;
+        } catch (EOFException e) {
+            throw new IOException("Truncated rating checkpoint: " + file, e);
+        }
+    }
+
+    private Accumulator register() {
+        Accumulator a = new Accumulator();
+        accumulators.add(a);
+        return a;
+    }
+
+    /**
+     * Накопитель одного потока: приращения рейтингов и партии с последнего слияния.
+     */
+    private final class Accumulator {
+
+        private final double[] delta = new double[bots];
+        private final long[] played = new long[bots];
+        private int pending;
+
+        synchronized void add(List<PlayerColor> order, int[] botByColor) {
+            double[] current = published;
+            int n = order.size();
+            double step = k / Math.max(1, n - 1);
+            for (int i = 0; i < n; i++) {
+                int a = botByColor[order.get(i).ordinal()];
+                played[a]++;
+                for (int j = i + 1; j < n; j++) {
+                    int b = botByColor[order.get(j).ordinal()];
+                    double expected = 1 / (1 + Math.pow(10, (current[b] - current[a]) / 400));
+                    double d = step * (1 - expected);
+                    delta[a] += d;
+                    delta[b] -= d;
+                }
+            }
+            if (++pending >= mergeEvery) {
+                flush();
+            }
+        }
+
+        synchronized void flush() {
+            if (pending == 0) {
+                return;
+            }
+            synchronized (mergeLock) {
+                for (int b = 0; b < bots; b++) {
+                    ratings[b] += delta[b];
+                    games[b] += played[b];
+                }
+                published = ratings.clone();
+            }
+            Arrays.fill(delta, 0);
+            Arrays.fill(played, 0);
+            pending = 0;
+        }
+    }
+}
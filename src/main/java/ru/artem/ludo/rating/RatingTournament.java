@@ -0,0 +1,229 @@
+package ru.artem.ludo.rating;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.GameSeeds;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Турнир ботов: партии со случайной рассадкой в несколько потоков, рейтинг по ходу дела
+ * и периодические контрольные точки.
+ */
+public final class RatingTournament {
+
+    /** Лимит ходов партии: играется до последнего места, это в несколько раз дольше партии до победителя. */
+    private static final int MAX_TURNS = 40_000;
+
+    private RatingTournament() {
+    }
+
+    /**
+     * Боты турнира: имя → фабрика стратегии (получает генератор потока).
+     *
+     * @return участники
+     */
+    public static Map<String, Function<Random, MoveStrategy>> defaultBots() {
+        Map<String, Function<Random, MoveStrategy>> bots = new LinkedHashMap<>();
+        bots.put("first-legal", r -> MoveStrategy.firstLegal());
+        bots.put("random", MoveStrategy::random);
+        bots.put("last-legal", r -> (board, color, roll, legal) -> legal.get(legal.size() - 1));
+        bots.put("capture-first", r -> RatingTournament::captureFirst);
+        return bots;
+    }
+
+    /**
+     * Играет турнир.
+     *
+     * @param engine рейтинг (число ботов — по числу фабрик)
+     * @param bots фабрики стратегий
+     * @param config конфигурация партий
+     * @param games сколько партий сыграть
+     * @param threads число потоков
+     * @param seed зерно турнира (партия K воспроизводится по {@link GameSeeds#gameSeed}(seed, K))
+     */
+    public static void play(RatingEngine engine, List<Function<Random, MoveStrategy>> bots, GameConfig config,
+                            long games, int threads, long seed) throws InterruptedException {
+        AtomicLong next = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    MoveStrategy[] strategies = new MoveStrategy[bots.size()];
+                    int[] botByColor = new int[PlayerColor.values().length];
+                    MoveStrategy seated = new Seated(strategies, botByColor);
+                    for (long g = next.getAndIncrement(); g < games; g = next.getAndIncrement()) {
+                        // рассадка, стратегии и кубик партии g зависят только от (seed, g)
+                        long gameSeed = GameSeeds.gameSeed(seed, g);
+                        Random random = new Random(GameSeeds.stream(gameSeed, GameSeeds.STRATEGY_STREAM));
+                        for (int b = 0; b < strategies.length; b++) {
+                            strategies[b] = bots.get(b).apply(random);
+                        }
+                        for (PlayerColor c : config.players()) {
+                            botByColor[c.ordinal()] = random.nextInt(strategies.length);
+                        }
+                        Dice dice = new Dice(GameSeeds.stream(gameSeed, GameSeeds.DICE_STREAM));
+                        engine.record(new Game(config, dice, seated).playUntilAllFinish(MAX_TURNS), botByColor);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        engine.merge();
+    }
+
+    /**
+     * Срубает, если можно, иначе делает первый допустимый ход.
+     */
+    private static Move captureFirst(Board board, PlayerColor color, int roll, List<Move> legal) {
+        BoardSnapshot before = board.snapshot();
+        int atBase = enemiesAtBase(before, color);
+        for (Move m : legal) {
+            if (enemiesAtBase(before.withMove(m), color) > atBase) {
+                return m;
+            }
+        }
+        return legal.get(0);
+    }
+
+    private static int enemiesAtBase(BoardSnapshot snapshot, PlayerColor color) {
+        int count = 0;
+        for (PlayerColor c : snapshot.config().players()) {
+            if (c == color) {
+                continue;
+            }
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                if (snapshot.routeDistance(new TokenId(c, i)) < 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Стратегия рассадки: ход делает бот, сидящий за ходящим цветом.
+     */
+    private record Seated(MoveStrategy[] strategies, int[] botByColor) implements MoveStrategy {
+
+        @Override
+        public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+            return strategies[botByColor[color.ordinal()]].choose(board, color, diceRoll, legalMoves);
+        }
+
+        @Override
+        public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+            return strategies[botByColor[color.ordinal()]].chooseBonus(board, color, bonusSteps, bonusMoves);
+        }
+    }
+
+    /**
+     * @param args [партий] [потоков] [файл контрольной точки]
+     */
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Path checkpoint = args.length > 2 ? Path.of(args[2]) : null;
+
+        Map<String, Function<Random, MoveStrategy>> bots = defaultBots();
+        List<String> names = new ArrayList<>(bots.keySet());
+        RatingEngine engine = new RatingEngine(names.size());
+        GameConfig config = GameConfig.defaultForFourPlayers();
+
+        // контрольные точки пишутся раз в секунду, пока идёт турнир
+        Thread saver = new Thread(() -> {
+            try {
+                while (checkpoint != null && !Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(1_000);
+                    engine.checkpoint(checkpoint);
+                }
+            } catch (InterruptedException ignored) {
+                // турнир закончился
+            } catch (IOException e) {
+                System.err.println("Checkpoint failed: " + e.getMessage());
+            }
+        }, "rating-checkpoint");
+        saver.setDaemon(true);
+        saver.start();
+
+        long t0 = System.nanoTime();
+        play(engine, new ArrayList<>(bots.values()), config, games, threads, 1);
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        saver.interrupt();
+        saver.join();
+        if (checkpoint != null) {
+            engine.checkpoint(checkpoint);
+        }
+
+        System.out.printf("%d games in %.1fs (%.0f games/s), skipped %d%n",
+                engine.recorded(), seconds, engine.recorded() / seconds, engine.skipped());
+        for (int b = 0; b < names.size(); b++) {
+            System.out.printf("  %-14s %7.1f  (%d games)%n", names.get(b), engine.rating(b), engine.games(b));
+        }
+        System.out.printf("rating updates alone: %.1f M results/min%n", updaterThroughput(names.size(), threads) / 1e6 * 60);
+    }
+
+    /**
+     * Пропускная способность самого рейтинга (без партий) на заранее сыгранных итогах.
+     *
+     * @return итогов в секунду
+     */
+    private static double updaterThroughput(int bots, int threads) throws InterruptedException {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        List<GameResult> results = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 256; i++) {
+            results.add(new Game(config, new Dice(random), MoveStrategy.random(random)).playUntilAllFinish(MAX_TURNS));
+        }
+        RatingEngine engine = new RatingEngine(bots);
+        long perThread = 2_000_000L / threads;
+        List<Thread> workers = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread w = new Thread(() -> {
+                int[] botByColor = new int[PlayerColor.values().length];
+                for (long i = 0; i < perThread; i++) {
+                    for (int c = 0; c < botByColor.length; c++) {
+                        botByColor[c] = (int) ((i + c + offset) % bots);
+                    }
+                    engine.record(results.get((int) (i & 255)), botByColor);
+                }
+            });
+            w.start();
+            workers.add(w);
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        engine.merge();
+        return engine.recorded() / ((System.nanoTime() - t0) / 1e9);
+    }
+}
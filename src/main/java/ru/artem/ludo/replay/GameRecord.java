@@ -0,0 +1,215 @@
+package ru.artem.ludo.replay;
+
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.RuleSet;
+import ru.artem.ludo.core.TokenId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Запись партии: кто ходил первым и последовательность действий "бросок" / "ход".
+ *
+ * <p>Расстановки не хранятся — партия однозначно восстанавливается по броскам и выбранным ходам
+ * (см. {@link GameReplay}). Действие упаковано в {@code int}: бросок — значение кубика,
+ * ход — {@link #MOVE_FLAG} | индекс фишки &lt;&lt; 8 | число шагов. Фишка хода всегда принадлежит
+ * тому, чья очередь, поэтому цвет не пишется.</p>
+ *
+ * <p>В заголовке файла, кроме игроков, хранятся размеры поля и правила: по тем же броскам
+ * и ходам партия с другими правилами пошла бы иначе, поэтому такая запись не загружается.</p>
+ */
+public final class GameRecord {
+
+    private static final int MAGIC = 0x4C444752; // "LDGR"
+    private static final int VERSION = 2;
+    private static final int MOVE_FLAG = 1 << 16;
+
+    private final GameConfig config;
+    private final PlayerColor firstPlayer;
+    private int[] actions;
+    private int size;
+
+    /**
+     * @param config конфигурация партии
+     * @param firstPlayer кто ходит первым
+     */
+    public GameRecord(GameConfig config, PlayerColor firstPlayer) {
+        this.config = Objects.requireNonNull(config);
+        this.firstPlayer = Objects.requireNonNull(firstPlayer);
+        if (!config.players().contains(firstPlayer)) {
+            throw new IllegalArgumentException("Color is not in the game: " + firstPlayer);
+        }
+        this.actions = new int[64];
+    }
+
+    /**
+     * @param config конфигурация партии (первым ходит первый игрок из конфигурации)
+     */
+    public GameRecord(GameConfig config) {
+        this(config, config.players().get(0));
+    }
+
+    /**
+     * @return конфигурация партии
+     */
+    public GameConfig config() {
+        return config;
+    }
+
+    /**
+     * @return кто ходит первым
+     */
+    public PlayerColor firstPlayer() {
+        return firstPlayer;
+    }
+
+    /**
+     * @return число записанных действий (бросков и ходов)
+     */
+    public int actionCount() {
+        return size;
+    }
+
+    /**
+     * Записывает бросок кубика.
+     *
+     * @param diceRoll значение кубика (1..6)
+     */
+    public void recordRoll(int diceRoll) {
+        if (diceRoll < 1 || diceRoll > 6) {
+            throw new IllegalArgumentException("diceRoll must be 1..6: " + diceRoll);
+        }
+        append(diceRoll);
+    }
+
+    /**
+     * Записывает выбранный ход (обычный или бонусный).
+     *
+     * @param move ход
+     */
+    public void recordMove(Move move) {
+        if (move.steps() < 0 || move.steps() > 0xFF) {
+            throw new IllegalArgumentException("steps out of range: " + move);
+        }
+        append(MOVE_FLAG | move.token().index() << 8 | move.steps());
+    }
+
+    boolean isRoll(int action) {
+        return (actions[action] & MOVE_FLAG) == 0;
+    }
+
+    int roll(int action) {
+        return actions[action];
+    }
+
+    Move move(int action, PlayerColor mover) {
+        int a = actions[action];
+        return new Move(new TokenId(mover, (a >>> 8) & 0xFF), a & 0xFF);
+    }
+
+    private void append(int action) {
+        if (size == actions.length) {
+            actions = Arrays.copyOf(actions, size * 2);
+        }
+        actions[size++] = action;
+    }
+
+    /**
+     * Сохраняет запись в файл.
+     *
+     * @param file путь к файлу
+     * @throws IOException ошибка записи
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(config.players().size());
+            for (PlayerColor c : config.players()) {
+                out.writeByte(c.ordinal());
+            }
+            out.writeByte(firstPlayer.ordinal());
+            out.writeInt(config.trackLength());
+            out.writeInt(config.homeLaneLength());
+            RuleSet rules = config.rules();
+            out.writeInt(rules.exitRoll());
+            out.writeInt(rules.sixStepsWhenBaseEmpty());
+            out.writeInt(rules.captureBonus());
+            out.writeInt(rules.homeBonus());
+            out.writeInt(rules.maxConsecutiveSixes());
+            out.writeBoolean(rules.forceBlockBreakOnSix());
+            out.writeInt(rules.maxTokensPerCell());
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(actions[i]);
+            }
+        }
+    }
+
+    /**
+     * Загружает запись из файла.
+     *
+     * @param config конфигурация партии (игроки, размеры поля и правила должны совпадать с файлом)
+     * @param file путь к файлу
+     * @return запись
+     * @throws IOException ошибка чтения или неверный формат
+     */
+    public static GameRecord load(GameConfig config, Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a game record: " + file);
+            }
+            int players = in.readUnsignedByte();
+            PlayerColor[] colors = PlayerColor.values();
+            for (int i = 0; i < players; i++) {
+                int ordinal = in.readUnsignedByte();
+                if (i >= config.players().size() || ordinal >= colors.length || config.players().get(i) != colors[ordinal]) {
+                    throw new IOException("Game record is made for other players: " + file);
+                }
+            }
+            if (players != config.players().size()) {
+                throw new IOException("Game record has " + players + " players, config has " + config.players().size());
+            }
+            int first = in.readUnsignedByte();
+            if (first >= colors.length || !config.players().contains(colors[first])) {
+                throw new IOException("Broken game record: " + file);
+            }
+            int track = in.readInt();
+            int lane = in.readInt();
+            if (track != config.trackLength() || lane != config.homeLaneLength()) {
+                throw new IOException("Game record is made for track " + track + ", lane " + lane);
+            }
+            RuleSet rules;
+            try {
+                rules = new RuleSet(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+                        in.readBoolean(), in.readInt());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Broken game record: " + file, e);
+            }
+            if (!rules.equals(config.rules())) {
+                throw new IOException("Game record is made for other rules: " + rules);
+            }
+            GameRecord record = new GameRecord(config, colors[first]);
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Broken game record: " + file);
+            }
+            for (int i = 0; i < count; i++) {
+                record.append(in.readInt());
+            }
+            return record;
+        } catch (EOFException e) {
+            throw new IOException("Truncated game record: " + file, e);
+        }
+    }
+}
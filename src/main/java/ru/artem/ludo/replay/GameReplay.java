@@ -0,0 +1,174 @@
+package ru.artem.ludo.replay;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+import ru.artem.ludo.core.TurnEngine;
+import ru.artem.ludo.core.TurnEvent;
+import ru.artem.ludo.core.TurnState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Повтор записанной партии с переходом к любому ходу.
+ *
+ * <p>При создании запись один раз проигрывается через {@link TurnEngine} (так повтор проверяет,
+ * что запись соответствует правилам). По ходу сохраняются опорные снимки — каждые
+ * {@code keyframeInterval} ходов — и для каждого хода дельта: какие фишки куда переместились
+ * (ходившая, срубленные, откат за три шестёрки). Переход к ходу {@code k} берёт ближайший опорный
+ * снимок не позже {@code k} и применяет не больше {@code keyframeInterval - 1} дельт, поэтому
+ * стоит одинаково в начале и в конце партии из тысяч ходов.</p>
+ */
+public final class GameReplay {
+
+    /** Интервал опорных снимков по умолчанию. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 32;
+
+    private final GameRecord record;
+    private final int keyframeInterval;
+    private final ReplayStep[] steps;
+    private final BoardSnapshot[] keyframes;
+
+    /** Дельты хода i лежат в [deltaStart[i], deltaStart[i + 1]). */
+    private final int[] deltaStart;
+    private final TokenId[] deltaTokens;
+    private final TokenPosition[] deltaPositions;
+
+    private final PlayerColor winner;
+
+    /**
+     * @param record запись партии
+     */
+    public GameReplay(GameRecord record) {
+        this(record, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * @param record запись партии
+     * @param keyframeInterval через сколько ходов сохранять опорный снимок
+     * @throws IllegalArgumentException если запись не соответствует правилам
+     */
+    public GameReplay(GameRecord record, int keyframeInterval) {
+        this.record = Objects.requireNonNull(record);
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("keyframeInterval must be positive: " + keyframeInterval);
+        }
+        this.keyframeInterval = keyframeInterval;
+
+        GameConfig config = record.config();
+        List<TokenId> tokens = new ArrayList<>();
+        for (PlayerColor c : config.players()) {
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                tokens.add(new TokenId(c, i));
+            }
+        }
+
+        Board board = new Board(config);
+        TurnEngine turns = new TurnEngine(board, record.firstPlayer());
+        List<ReplayStep> stepList = new ArrayList<>();
+        List<BoardSnapshot> keyframeList = new ArrayList<>();
+        List<TokenId> changedTokens = new ArrayList<>();
+        List<TokenPosition> changedPositions = new ArrayList<>();
+        int[] starts = new int[16];
+
+        BoardSnapshot current = board.snapshot();
+        keyframeList.add(current);
+        for (int a = 0; a < record.actionCount(); a++) {
+            try {
+                if (record.isRoll(a)) {
+                    turns.roll(record.roll(a));
+                    continue;
+                }
+                PlayerColor mover = turns.currentPlayer();
+                boolean bonus = turns.state() == TurnState.AWAIT_BONUS;
+                int roll = bonus ? turns.pendingBonus() : turns.pendingRoll();
+                Move move = record.move(a, mover);
+                TurnEvent event = turns.move(move);
+
+                if (stepList.size() + 1 >= starts.length) {
+                    starts = Arrays.copyOf(starts, starts.length * 2);
+                }
+                starts[stepList.size()] = changedTokens.size();
+                stepList.add(new ReplayStep(mover, roll, bonus, move, event));
+
+                BoardSnapshot next = board.snapshot();
+                for (TokenId t : tokens) {
+                    if (next.routeDistance(t) != current.routeDistance(t)) {
+                        changedTokens.add(t);
+                        changedPositions.add(next.position(t));
+                    }
+                }
+                current = next;
+                if (stepList.size() % keyframeInterval == 0) {
+                    keyframeList.add(current);
+                }
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Record does not follow the rules at action " + a + ": " + e.getMessage(), e);
+            }
+        }
+        starts[stepList.size()] = changedTokens.size();
+
+        this.steps = stepList.toArray(new ReplayStep[0]);
+        this.keyframes = keyframeList.toArray(new BoardSnapshot[0]);
+        this.deltaStart = Arrays.copyOf(starts, steps.length + 1);
+        this.deltaTokens = changedTokens.toArray(new TokenId[0]);
+        this.deltaPositions = changedPositions.toArray(new TokenPosition[0]);
+        this.winner = turns.winner().orElse(null);
+    }
+
+    /**
+     * @return запись, по которой построен повтор
+     */
+    public GameRecord record() {
+        return record;
+    }
+
+    /**
+     * @return число применённых ходов (включая бонусные)
+     */
+    public int moveCount() {
+        return steps.length;
+    }
+
+    /**
+     * @param index номер хода (0..moveCount-1)
+     * @return описание хода
+     */
+    public ReplayStep step(int index) {
+        Objects.checkIndex(index, steps.length);
+        return steps[index];
+    }
+
+    /**
+     * @return победитель, если запись доведена до конца партии
+     */
+    public Optional<PlayerColor> winner() {
+        return Optional.ofNullable(winner);
+    }
+
+    /**
+     * Расстановка после первых {@code moves} ходов.
+     *
+     * @param moves сколько ходов применить (0 — начальная расстановка, moveCount — конец записи)
+     * @return снимок расстановки
+     */
+    public BoardSnapshot seek(int moves) {
+        if (moves < 0 || moves > steps.length) {
+            throw new IndexOutOfBoundsException("moves out of range 0.." + steps.length + ": " + moves);
+        }
+        int keyframe = moves / keyframeInterval;
+        BoardSnapshot snapshot = keyframes[keyframe];
+        for (int d = deltaStart[keyframe * keyframeInterval]; d < deltaStart[moves]; d++) {
+            snapshot = snapshot.with(deltaTokens[d], deltaPositions[d]);
+        }
+        return snapshot;
+    }
+}
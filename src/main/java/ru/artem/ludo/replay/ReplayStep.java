@@ -0,0 +1,22 @@
+package ru.artem.ludo.replay;
+
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TurnEvent;
+
+/**
+ * Один применённый ход повтора.
+ */
+public record ReplayStep(
+        /** Кто ходил. */
+        PlayerColor mover,
+        /** Значение кубика или размер бонуса, которым сделан ход. */
+        int roll,
+        /** Был ли ход бонусным. */
+        boolean bonus,
+        /** Сам ход. */
+        Move move,
+        /** Что произошло после хода. */
+        TurnEvent event
+) {
+}
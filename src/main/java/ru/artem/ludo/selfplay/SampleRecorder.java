@@ -0,0 +1,100 @@
+package ru.artem.ludo.selfplay;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Обёртка над стратегией: перед каждым выбором кодирует позицию и запоминает (бросок, ход).
+ *
+ * <p>Буферы растут до размера самой длинной партии и дальше переиспользуются,
+ * поэтому на партию выделяется только итоговый массив байт.</p>
+ */
+final class SampleRecorder implements MoveStrategy {
+
+    /**
+     * Размер заголовка примера: цвет, бросок, фишка, шаги, победитель.
+     */
+    static final int SAMPLE_HEADER_BYTES = 5;
+
+    private MoveStrategy delegate;
+    private final int featuresPerSample;
+
+    private float[] features;
+    private byte[] meta;
+    private int count;
+
+    SampleRecorder(int featuresPerSample) {
+        this.featuresPerSample = featuresPerSample;
+        this.features = new float[featuresPerSample * 256];
+        this.meta = new byte[4 * 256];
+    }
+
+    @Override
+    public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+        encode(board, color);
+        return record(color, diceRoll, delegate.choose(board, color, diceRoll, legalMoves));
+    }
+
+    /**
+     * Бонусный ход выбирает {@code delegate.chooseBonus}; в примере бросок записывается как 0 (признак бонуса).
+     */
+    @Override
+    public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+        encode(board, color);
+        return record(color, 0, delegate.chooseBonus(board, color, bonusSteps, bonusMoves));
+    }
+
+    private void encode(Board board, PlayerColor color) {
+        if (count * featuresPerSample == features.length) {
+            features = Arrays.copyOf(features, features.length * 2);
+            meta = Arrays.copyOf(meta, meta.length * 2);
+        }
+        board.encodePosition(color, features, count * featuresPerSample);
+    }
+
+    private Move record(PlayerColor color, int diceRoll, Move chosen) {
+        int m = count * 4;
+        meta[m] = (byte) color.ordinal();
+        meta[m + 1] = (byte) diceRoll;
+        meta[m + 2] = (byte) chosen.token().index();
+        meta[m + 3] = (byte) chosen.steps();
+        count++;
+        return chosen;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * Начинает новую партию с данной стратегией.
+     */
+    void reset(MoveStrategy delegate) {
+        this.delegate = delegate;
+        count = 0;
+    }
+
+    /**
+     * Упаковывает примеры партии, дописывая в каждый итог партии.
+     */
+    byte[] encode(Optional<PlayerColor> winner) {
+        byte winnerByte = (byte) winner.map(Enum::ordinal).orElse(-1).intValue();
+        ByteBuffer out = ByteBuffer.allocate(count * (SAMPLE_HEADER_BYTES + 4 * featuresPerSample));
+        for (int i = 0; i < count; i++) {
+            out.put(meta, i * 4, 4);
+            out.put(winnerByte);
+            int f = i * featuresPerSample;
+            for (int k = 0; k < featuresPerSample; k++) {
+                out.putFloat(features[f + k]);
+            }
+        }
+        return out.array();
+    }
+}
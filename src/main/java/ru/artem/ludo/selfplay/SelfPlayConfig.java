@@ -0,0 +1,58 @@
+package ru.artem.ludo.selfplay;
+
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.MoveStrategy;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Параметры генерации данных самоигры.
+ */
+public record SelfPlayConfig(
+        /** Конфигурация партий. */
+        GameConfig gameConfig,
+        /** Каталог для файлов-шардов. */
+        Path outputDir,
+        /** Число шардов (файлов). */
+        int shards,
+        /** Размер шарда: сколько партий пишется в один файл. */
+        int gamesPerShard,
+        /** Базовое зерно; зерно шарда выводится из него и номера шарда. */
+        long baseSeed,
+        /** Число рабочих потоков. */
+        int workers,
+        /** Ёмкость очереди между рабочими и записью на диск (в партиях). */
+        int queueCapacity,
+        /** Ограничение длины одной партии. */
+        int maxTurnsPerGame,
+        /** Стратегия игроков; получает генератор шарда, чтобы результат был воспроизводимым. */
+        Function<Random, MoveStrategy> strategyFactory
+) {
+
+    public SelfPlayConfig {
+        Objects.requireNonNull(gameConfig);
+        Objects.requireNonNull(outputDir);
+        Objects.requireNonNull(strategyFactory);
+        if (shards < 1 || gamesPerShard < 1 || workers < 1 || queueCapacity < 1 || maxTurnsPerGame < 1) {
+            throw new IllegalArgumentException("Counts must be positive");
+        }
+    }
+
+    /**
+     * Параметры по умолчанию: случайная стратегия, по потоку на ядро.
+     *
+     * @param outputDir каталог для шардов
+     * @param shards число шардов
+     * @param gamesPerShard партий в шарде
+     * @param baseSeed базовое зерно
+     * @return конфигурация самоигры
+     */
+    public static SelfPlayConfig defaults(Path outputDir, int shards, int gamesPerShard, long baseSeed) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return new SelfPlayConfig(GameConfig.defaultForFourPlayers(), outputDir, shards, gamesPerShard, baseSeed,
+                cores, 4 * cores, 10_000, MoveStrategy::random);
+    }
+}
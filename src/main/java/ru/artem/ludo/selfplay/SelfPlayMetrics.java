@@ -0,0 +1,77 @@
+package ru.artem.ludo.selfplay;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики пропускной способности самоигры.
+ *
+ * <p>Обновляются из рабочих потоков и потока записи без блокировок.</p>
+ */
+public final class SelfPlayMetrics {
+
+    private final long startNanos;
+    private final LongAdder games;
+    private final LongAdder samples;
+    private final LongAdder bytes;
+
+    public SelfPlayMetrics() {
+        this.startNanos = System.nanoTime();
+        this.games = new LongAdder();
+        this.samples = new LongAdder();
+        this.bytes = new LongAdder();
+    }
+
+    void onGame(int gameSamples) {
+        games.increment();
+        samples.add(gameSamples);
+    }
+
+    void onBytesWritten(long count) {
+        bytes.add(count);
+    }
+
+    /**
+     * @return текущие значения счётчиков
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(games.sum(), samples.sum(), bytes.sum(), (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    /**
+     * Значения счётчиков на момент вызова {@link #snapshot()}.
+     *
+     * @param games сыграно партий
+     * @param samples записано примеров
+     * @param bytes записано байт на диск (после сжатия, по мере записи)
+     * @param seconds прошло секунд с начала
+     */
+    public record Snapshot(long games, long samples, long bytes, double seconds) {
+
+        /**
+         * @return партий в секунду
+         */
+        public double gamesPerSecond() {
+            return seconds > 0 ? games / seconds : 0;
+        }
+
+        /**
+         * @return примеров в секунду
+         */
+        public double samplesPerSecond() {
+            return seconds > 0 ? samples / seconds : 0;
+        }
+
+        /**
+         * @return байт в секунду
+         */
+        public double bytesPerSecond() {
+            return seconds > 0 ? bytes / seconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("games=%d (%.1f/s), samples=%d (%.1f/s), bytes=%d (%.1f KiB/s), %.1fs",
+                    games, gamesPerSecond(), samples, samplesPerSecond(), bytes, bytesPerSecond() / 1024, seconds);
+        }
+    }
+}
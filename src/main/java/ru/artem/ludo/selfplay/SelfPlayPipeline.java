@@ -0,0 +1,164 @@
+package ru.artem.ludo.selfplay;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.GameSeeds;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Генерация обучающих данных самоигрой.
+ *
+ * <p>Каждый шард — отдельная задача: один рабочий поток играет все партии шарда с генератором,
+ * засеянным от номера шарда, поэтому содержимое шарда не зависит от числа потоков.
+ * Готовые партии уходят в ограниченную очередь, из которой их пишет единственный поток записи
+ * (gzip-файл на шард). Формат шарда: заголовок (сигнатура, версия, число признаков, зерно),
+ * затем примеры: цвет, бросок, фишка, шаги, победитель (-1 — нет), признаки позиции
+ * ({@link Board#encodePosition}) как float.</p>
+ */
+public final class SelfPlayPipeline {
+
+    private final SelfPlayConfig config;
+    private final SelfPlayMetrics metrics;
+
+    public SelfPlayPipeline(SelfPlayConfig config) {
+        this.config = Objects.requireNonNull(config);
+        this.metrics = new SelfPlayMetrics();
+    }
+
+    /**
+     * @return счётчики, которые можно опрашивать во время {@link #run()}
+     */
+    public SelfPlayMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Зерно шарда: перемешанные базовое зерно и номер шарда (SplitMix64).
+     *
+     * @param baseSeed базовое зерно
+     * @param shard номер шарда
+     * @return зерно генератора шарда
+     */
+    public static long shardSeed(long baseSeed, int shard) {
+        return GameSeeds.gameSeed(baseSeed, shard);
+    }
+
+    /**
+     * Играет все шарды и дожидается записи последнего файла.
+     *
+     * @return итоговые значения счётчиков
+     * @throws InterruptedException если поток прервали
+     */
+    public SelfPlayMetrics.Snapshot run() throws InterruptedException {
+        try {
+            Files.createDirectories(config.outputDir());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int features = new Board(config.gameConfig()).featuresPerMove();
+        BlockingQueue<ShardWriter.Chunk> queue = new ArrayBlockingQueue<>(config.queueCapacity());
+        ShardWriter writer = new ShardWriter(queue, config.outputDir(), features, metrics);
+        Thread writerThread = new Thread(writer, "selfplay-writer");
+        writerThread.start();
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.workers(), r -> {
+            Thread t = new Thread(r, "selfplay-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int shard = 0; shard < config.shards(); shard++) {
+                int s = shard;
+                tasks.add(workers.submit(() -> {
+                    playShard(s, features, queue);
+                    return null;
+                }));
+            }
+            for (Future<?> f : tasks) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Self-play worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            queue.put(ShardWriter.END);
+            writerThread.join();
+        }
+
+        if (writer.failure() != null) {
+            throw new UncheckedIOException(writer.failure());
+        }
+        return metrics.snapshot();
+    }
+
+    private void playShard(int shard, int features, BlockingQueue<ShardWriter.Chunk> queue) throws InterruptedException {
+        long seed = shardSeed(config.baseSeed(), shard);
+        SampleRecorder recorder = new SampleRecorder(features);
+
+        for (int g = 0; g < config.gamesPerShard(); g++) {
+            // партия g шарда воспроизводится по зерну из заголовка шарда без предыдущих партий
+            long gameSeed = GameSeeds.gameSeed(seed, g);
+            Random random = new Random(GameSeeds.stream(gameSeed, GameSeeds.STRATEGY_STREAM));
+            recorder.reset(config.strategyFactory().apply(random));
+            Dice dice = new Dice(GameSeeds.stream(gameSeed, GameSeeds.DICE_STREAM));
+            Game game = new Game(config.gameConfig(), dice, recorder);
+            GameResult result = game.playUntilWin(config.maxTurnsPerGame());
+
+            byte[] data = recorder.encode(result.winnerColor());
+            metrics.onGame(recorder.count());
+            queue.put(new ShardWriter.Chunk(shard, seed, data, g == config.gamesPerShard() - 1));
+        }
+    }
+
+    /**
+     * Запуск из командной строки: {@code <каталог> <шардов> <партий в шарде> [зерно]}.
+     *
+     * @param args аргументы командной строки
+     * @throws InterruptedException если поток прервали
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.err.println("usage: SelfPlayPipeline <outDir> <shards> <gamesPerShard> [seed]");
+            return;
+        }
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+        SelfPlayConfig config = SelfPlayConfig.defaults(Path.of(args[0]),
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]), seed);
+        SelfPlayPipeline pipeline = new SelfPlayPipeline(config);
+
+        Thread reporter = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(1000);
+                    System.out.println(pipeline.metrics().snapshot());
+                }
+            } catch (InterruptedException ignored) {
+                // завершение
+            }
+        }, "selfplay-reporter");
+        reporter.setDaemon(true);
+        reporter.start();
+
+        SelfPlayMetrics.Snapshot result = pipeline.run();
+        reporter.interrupt();
+        System.out.println("done: " + result);
+    }
+}
@@ -0,0 +1,144 @@
+package ru.artem.ludo.selfplay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Поток записи: забирает готовые партии из очереди и дописывает их в сжатые файлы шардов.
+ *
+ * <p>Только этот поток работает с диском; рабочие потоки лишь кладут байты в ограниченную очередь.
+ * Сжатые байты учитываются в метриках по мере ухода в файл, а не при закрытии шарда.</p>
+ */
+final class ShardWriter implements Runnable {
+
+    /**
+     * Сигнатура файла шарда ("LDSP").
+     */
+    static final int MAGIC = 0x4C445350;
+    static final int VERSION = 1;
+
+    /**
+     * Порция данных: одна партия шарда; last — последняя партия, после неё файл закрывается.
+     */
+    record Chunk(int shard, long shardSeed, byte[] data, boolean last) {
+    }
+
+    /**
+     * Признак завершения очереди.
+     */
+    static final Chunk END = new Chunk(-1, 0, new byte[0], true);
+
+    private final BlockingQueue<Chunk> queue;
+    private final Path outputDir;
+    private final int featuresPerSample;
+    private final SelfPlayMetrics metrics;
+    private final Map<Integer, DataOutputStream> open;
+
+    private volatile IOException failure;
+
+    ShardWriter(BlockingQueue<Chunk> queue, Path outputDir, int featuresPerSample, SelfPlayMetrics metrics) {
+        this.queue = queue;
+        this.outputDir = outputDir;
+        this.featuresPerSample = featuresPerSample;
+        this.metrics = metrics;
+        this.open = new HashMap<>();
+    }
+
+    /**
+     * @param shard номер шарда
+     * @return путь к файлу шарда
+     */
+    static Path shardPath(Path dir, int shard) {
+        return dir.resolve(String.format("shard-%05d.bin.gz", shard));
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                Chunk chunk = queue.take();
+                if (chunk == END) {
+                    break;
+                }
+                if (failure != null) {
+                    continue; // дочитываем очередь, чтобы рабочие не зависли на put
+                }
+                try {
+                    write(chunk);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (OutputStream out : open.values()) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            open.clear();
+        }
+    }
+
+    IOException failure() {
+        return failure;
+    }
+
+    private void write(Chunk chunk) throws IOException {
+        DataOutputStream out = open.get(chunk.shard());
+        if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new CountingOutputStream(Files.newOutputStream(shardPath(outputDir, chunk.shard())), metrics),
+                            1 << 16), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(featuresPerSample);
+            out.writeLong(chunk.shardSeed());
+            open.put(chunk.shard(), out);
+        }
+        out.write(chunk.data());
+        if (chunk.last()) {
+            out.close();
+            open.remove(chunk.shard());
+        }
+    }
+
+    /**
+     * Файловый поток, сообщающий метрикам о каждой записанной порции.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final SelfPlayMetrics metrics;
+
+        CountingOutputStream(OutputStream out, SelfPlayMetrics metrics) {
+            super(out);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            metrics.onBytesWritten(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            metrics.onBytesWritten(len);
+        }
+    }
+}
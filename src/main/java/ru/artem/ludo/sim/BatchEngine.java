@@ -0,0 +1,112 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+import ru.artem.ludo.core.TurnOutcome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Правила {@link BatchSimulator} на пакете из одной партии — для сверки с {@link Board} в {@link DifferentialFuzzer}.
+ */
+public final class BatchEngine implements LudoEngine {
+
+    private GameConfig config;
+    private BatchSimulator batch;
+
+    @Override
+    public String name() {
+        return "BatchSimulator";
+    }
+
+    @Override
+    public void reset(GameConfig config) {
+        if (batch == null || !config.equals(this.config)) {
+            this.config = config;
+            this.batch = new BatchSimulator(config, 1);
+        }
+        batch.resetGame(0, 0L);
+    }
+
+    @Override
+    public List<Move> legalMoves(PlayerColor color, int diceRoll) {
+        int seat = seatOf(color);
+        return toMoves(color, batch.legalMask(0, seat, diceRoll), batch.stepsFor(0, seat, diceRoll));
+    }
+
+    @Override
+    public TurnOutcome applyMove(PlayerColor color, int diceRoll, Move move) {
+        int seat = seatOf(color);
+        return toOutcome(color, batch.applyMove(0, seat, diceRoll, move.token().index(), move.steps()));
+    }
+
+    @Override
+    public List<Move> bonusMoves(PlayerColor color, int bonusSteps) {
+        return toMoves(color, batch.bonusMask(0, seatOf(color), bonusSteps), bonusSteps);
+    }
+
+    @Override
+    public TurnOutcome applyBonusMove(PlayerColor color, Move move) {
+        return toOutcome(color, batch.applyBonusMove(0, seatOf(color), move.token().index(), move.steps()));
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        BoardSnapshot snapshot = BoardSnapshot.initial(config);
+        int trackLen = config.trackLength();
+        int laneLen = config.homeLaneLength();
+        for (int seat = 0; seat < config.players().size(); seat++) {
+            PlayerColor color = config.players().get(seat);
+            int startAbs = config.startTrackIndex(color);
+            for (int k = 0; k < Board.TOKENS_PER_PLAYER; k++) {
+                int v = batch.position(0, seat * Board.TOKENS_PER_PLAYER + k);
+                int d = v - 1;
+                TokenPosition p;
+                if (v == 0) {
+                    p = TokenPosition.base();
+                } else if (d == 0) {
+                    p = TokenPosition.start();
+                } else if (d < trackLen) {
+                    p = TokenPosition.track((startAbs + d) % trackLen);
+                } else if (d < trackLen + laneLen) {
+                    p = TokenPosition.homeLane(d - trackLen);
+                } else {
+                    p = TokenPosition.home();
+                }
+                snapshot = snapshot.with(new TokenId(color, k), p);
+            }
+        }
+        return snapshot;
+    }
+
+    private List<Move> toMoves(PlayerColor color, int mask, int steps) {
+        List<Move> moves = new ArrayList<>(Integer.bitCount(mask));
+        int seat = seatOf(color);
+        for (int m = mask; m != 0; m &= m - 1) {
+            int k = Integer.numberOfTrailingZeros(m);
+            boolean inBase = batch.position(0, seat * Board.TOKENS_PER_PLAYER + k) == 0;
+            moves.add(new Move(new TokenId(color, k), inBase ? 0 : steps));
+        }
+        return moves;
+    }
+
+    private TurnOutcome toOutcome(PlayerColor color, int flags) {
+        return new TurnOutcome((flags & BatchSimulator.CAPTURE) != 0, (flags & BatchSimulator.HOME) != 0,
+                batch.bonusOf(flags), (flags & BatchSimulator.WIN) != 0 ? Optional.of(color) : Optional.empty());
+    }
+
+    private int seatOf(PlayerColor color) {
+        int seat = config.players().indexOf(color);
+        if (seat < 0) {
+            throw new IllegalArgumentException("Color is not in the game: " + color);
+        }
+        return seat;
+    }
+}
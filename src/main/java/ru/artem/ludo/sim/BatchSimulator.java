@@ -0,0 +1,810 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameSeeds;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.RuleSet;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Пакетная симуляция: тысячи партий со случайными ходами продвигаются синхронно, по одному броску за шаг.
+ *
+ * <p>Позиции хранятся "структурой массивов": для каждой фишки (слот = место игрока * 4 + номер фишки)
+ * один {@code byte[]} на все партии пакета. Значение — та же кодировка, что в
+ * {@link ru.artem.ludo.core.BoardSnapshot}: 0 — база, иначе 1 + пройденная дистанция по маршруту.
+ * Бросок кубика, число фишек на базе, точный заход в дом и переход на цветную дорожку считаются
+ * простыми циклами по партиям без ветвлений, которые JIT может векторизовать. Проверки блоков и
+ * лимита клетки остаются поштучными, но идут по примитивным массивам без объектов.</p>
+ *
+ * <p>Каждая партия использует собственный генератор, зависящий только от зерна и номера партии,
+ * поэтому результат не зависит от размера пакета. Завершившиеся партии сразу заменяются новыми,
+ * а когда новых не осталось, пакет уплотняется. Экземпляр не потокобезопасен.</p>
+ */
+public final class BatchSimulator {
+
+    /** Флаги результата хода в {@link #applyMove}. */
+    static final int CAPTURE = 1;
+    static final int HOME = 2;
+    static final int WIN = 4;
+    static final int PENALTY = 8;
+
+    /** Выбор хода в {@link #playMask}: случайно, жадно (равные — случайно), жадно (равные — младшая фишка). */
+    static final int RANDOM_PICK = 0;
+    static final int GREEDY_PICK = 1;
+    static final int GREEDY_FIRST_PICK = 2;
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int TOKENS = Board.TOKENS_PER_PLAYER;
+
+    private final GameConfig config;
+    private final int capacity;
+    private final int seats;
+    private final int slots;
+    private final int trackLen;
+
+    /** Закодированная позиция дома. */
+    private final int homeValue;
+
+    /** Скомпилированные правила (как в {@link Board}). */
+    private final int sixExtraSteps;
+    private final int exitRoll;
+    private final boolean forceBlockBreakOnSix;
+    private final int sixesLimit;
+    private final int captureBonus;
+    private final int homeBonus;
+    private final int maxTokensPerCell;
+
+    /** Клетка выхода каждого места. */
+    private final int[] startAbs;
+
+    /**
+     * Клетка кольца для [место][закодированная позиция]; позициям вне кольца соответствует
+     * служебная клетка {@code trackLen}, чтобы подсчёт занятости шёл без ветвлений.
+     */
+    private final short[][] absOf;
+
+    /** Признак клетки, где блок образуют и фишки разных цветов (безопасная или выход). */
+    private final boolean[] mixedBlockCell;
+    private final boolean[] safeCell;
+
+    /** Позиции фишек: [слот][партия]. */
+    private final byte[][] pos;
+
+    /** Состояние партий. */
+    private final byte[] toMove;
+    private final byte[][] sixes;
+    private final int[] turns;
+    private final long[] rng;
+    private final boolean[] finished;
+
+    /** Рабочие массивы шага. */
+    private final byte[] roll;
+    private final byte[] steps;
+    private final byte[] candidates;
+    private final byte[] ringTargets;
+    private final byte[][] moverPos;
+
+    /**
+     * Занятость клеток [партия * cellsPerGame + клетка]: число фишек и число фишек каждого места
+     * (по 4 бита на место). Обновляется при каждом перемещении, последняя клетка партии — служебная
+     * для фишек вне кольца.
+     */
+    private final int cellsPerGame;
+    private final byte[] cellCount;
+    private final long[] cellSeats;
+
+    /**
+     * Итог прогона.
+     *
+     * @param games сыграно партий
+     * @param moves применено перемещений (включая бонусные)
+     * @param truncated партий, прерванных по ограничению длины
+     * @param winsBySeat побед по местам игроков (в порядке {@link GameConfig#players()})
+     * @param nanos затраченное время
+     */
+    public record Result(long games, long moves, long truncated, long[] winsBySeat, long nanos) {
+
+        /**
+         * @return партий в секунду
+         */
+        public double gamesPerSecond() {
+            return nanos > 0 ? games * 1e9 / nanos : 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Result r && games == r.games && moves == r.moves && truncated == r.truncated
+                    && Arrays.equals(winsBySeat, r.winsBySeat);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(games, moves, truncated, Arrays.hashCode(winsBySeat));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("games=%d moves=%d truncated=%d wins=%s (%.0f games/s)",
+                    games, moves, truncated, Arrays.toString(winsBySeat), gamesPerSecond());
+        }
+    }
+
+    /**
+     * @param config конфигурация партий
+     * @param batchSize сколько партий продвигается одновременно
+     */
+    public BatchSimulator(GameConfig config, int batchSize) {
+        this.config = Objects.requireNonNull(config);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.capacity = batchSize;
+        this.seats = config.players().size();
+        this.slots = seats * TOKENS;
+        this.trackLen = config.trackLength();
+        this.homeValue = trackLen + config.homeLaneLength() + 1;
+        if (homeValue > 255) {
+            throw new IllegalArgumentException("Route is too long for byte positions: " + (homeValue - 1));
+        }
+
+        RuleSet rules = config.rules();
+        this.sixExtraSteps = rules.sixStepsWhenBaseEmpty() - 6;
+        this.exitRoll = rules.exitRoll();
+        this.forceBlockBreakOnSix = rules.forceBlockBreakOnSix();
+        this.sixesLimit = rules.maxConsecutiveSixes() == 0 ? Integer.MAX_VALUE : rules.maxConsecutiveSixes();
+        this.captureBonus = rules.captureBonus();
+        this.homeBonus = rules.homeBonus();
+        this.maxTokensPerCell = rules.maxTokensPerCell();
+
+        this.startAbs = new int[seats];
+        this.absOf = new short[seats][homeValue + 1];
+        this.mixedBlockCell = new boolean[trackLen];
+        this.safeCell = new boolean[trackLen];
+        for (int abs : config.safeTrackCells()) {
+            safeCell[abs] = true;
+            mixedBlockCell[abs] = true;
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            startAbs[seat] = config.startTrackIndex(config.players().get(seat));
+            mixedBlockCell[startAbs[seat]] = true;
+            Arrays.fill(absOf[seat], (short) trackLen);
+            for (int d = 0; d < trackLen; d++) {
+                absOf[seat][d + 1] = (short) ((startAbs[seat] + d) % trackLen);
+            }
+        }
+
+        this.pos = new byte[slots][batchSize];
+        this.toMove = new byte[batchSize];
+        this.sixes = new byte[seats][batchSize];
+        this.turns = new int[batchSize];
+        this.rng = new long[batchSize];
+        this.finished = new boolean[batchSize];
+        this.roll = new byte[batchSize];
+        this.steps = new byte[batchSize];
+        this.candidates = new byte[batchSize];
+        this.ringTargets = new byte[batchSize];
+        this.moverPos = new byte[TOKENS][batchSize];
+        this.cellsPerGame = trackLen + 1;
+        this.cellCount = new byte[batchSize * cellsPerGame];
+        this.cellSeats = new long[batchSize * cellsPerGame];
+    }
+
+    /**
+     * Играет заданное число партий.
+     *
+     * @param games сколько партий сыграть
+     * @param seed зерно (партия K получает генератор, выведенный из зерна и K)
+     * @param maxTurnsPerGame ограничение длины партии в перемещениях
+     * @return итог
+     */
+    public Result run(long games, long seed, int maxTurnsPerGame) {
+        if (games < 0 || maxTurnsPerGame < 1) {
+            throw new IllegalArgumentException("games=" + games + ", maxTurnsPerGame=" + maxTurnsPerGame);
+        }
+        long t0 = System.nanoTime();
+        long started = 0;
+        long moves = 0;
+        long truncated = 0;
+        long[] wins = new long[seats];
+
+        int active = 0;
+        while (active < capacity && started < games) {
+            resetGame(active++, gameSeed(seed, started++));
+        }
+
+        while (active > 0) {
+            rollDice(active);
+            gatherMover(active);
+            computeSteps(active);
+            computeCandidates(active);
+
+            for (int i = 0; i < active; i++) {
+                moves += playRoll(i);
+                if (!finished[i] && turns[i] >= maxTurnsPerGame) {
+                    finished[i] = true;
+                    truncated++;
+                    toMove[i] = -1;
+                }
+            }
+
+            // итоги, дозаполнение и уплотнение пакета
+            int i = 0;
+            while (i < active) {
+                if (!finished[i]) {
+                    i++;
+                    continue;
+                }
+                if (toMove[i] >= 0) {
+                    wins[toMove[i]]++;
+                }
+                if (started < games) {
+                    resetGame(i++, gameSeed(seed, started++));
+                } else {
+                    copyGame(--active, i);
+                }
+            }
+        }
+        return new Result(games, moves, truncated, wins, System.nanoTime() - t0);
+    }
+
+    /**
+     * Зерно партии K ({@link GameSeeds#gameSeed}): одинаковое при любом размере пакета.
+     */
+    static long gameSeed(long seed, long game) {
+        return GameSeeds.gameSeed(seed, game);
+    }
+
+    // ---- фазы шага: простые циклы по партиям ----
+
+    private void rollDice(int active) {
+        for (int i = 0; i < active; i++) {
+            long s = rng[i] + GOLDEN;
+            rng[i] = s;
+            roll[i] = (byte) (1 + (((mix(s) >>> 32) * 6) >>> 32));
+        }
+    }
+
+    private void gatherMover(int active) {
+        for (int k = 0; k < TOKENS; k++) {
+            byte[] out = moverPos[k];
+            for (int i = 0; i < active; i++) {
+                out[i] = pos[toMove[i] * TOKENS + k][i];
+            }
+        }
+    }
+
+    private void computeSteps(int active) {
+        byte[] p0 = moverPos[0];
+        byte[] p1 = moverPos[1];
+        byte[] p2 = moverPos[2];
+        byte[] p3 = moverPos[3];
+        for (int i = 0; i < active; i++) {
+            int inBase = (p0[i] == 0 ? 1 : 0) + (p1[i] == 0 ? 1 : 0) + (p2[i] == 0 ? 1 : 0) + (p3[i] == 0 ? 1 : 0);
+            int r = roll[i];
+            steps[i] = (byte) (r + (r == 6 && inBase == 0 ? sixExtraSteps : 0));
+        }
+    }
+
+    private void computeCandidates(int active) {
+        Arrays.fill(candidates, 0, active, (byte) 0);
+        Arrays.fill(ringTargets, 0, active, (byte) 0);
+        for (int k = 0; k < TOKENS; k++) {
+            byte[] p = moverPos[k];
+            int bit = 1 << k;
+            for (int i = 0; i < active; i++) {
+                int v = p[i] & 0xFF;
+                int target = v + steps[i];
+                // точный заход в дом: перелёт дальше дома недопустим
+                boolean movable = v != 0 && v != homeValue && target <= homeValue;
+                // цель на кольце требует проверки блоков и лимита клетки, цель на дорожке/в доме — нет
+                boolean ring = movable && target <= trackLen;
+                candidates[i] |= (byte) (movable ? bit : 0);
+                ringTargets[i] |= (byte) (ring ? bit : 0);
+            }
+        }
+    }
+
+    /**
+     * Доигрывает бросок одной партии: выбор и применение хода, бонус, передача хода.
+     *
+     * @return число применённых перемещений
+     */
+    private int playRoll(int i) {
+        int seat = toMove[i];
+        int r = roll[i];
+        return playMask(i, seat, r, steps[i], finishLegalMask(i, seat, r, steps[i], candidates[i], ringTargets[i]), RANDOM_PICK);
+    }
+
+    /**
+     * Ход по готовой маске допустимых ходов: выбор ({@code picker} — одна из констант *_PICK),
+     * бонус, передача хода.
+     */
+    private int playMask(int i, int seat, int r, int s, int mask, int picker) {
+        if (mask == 0) {
+            sixes[seat][i] = 0;
+            passTurn(i);
+            return 0;
+        }
+
+        int k = choose(i, seat, mask, s, picker);
+        int tokenSteps = pos[seat * TOKENS + k][i] == 0 ? 0 : s;
+        int flags = applyMove(i, seat, r, k, tokenSteps);
+        turns[i]++;
+        int applied = 1;
+
+        if ((flags & PENALTY) != 0) {
+            passTurn(i);
+            return applied;
+        }
+        if ((flags & WIN) == 0) {
+            int bonus = bonusOf(flags);
+            if (bonus > 0) {
+                int bonusMask = bonusMask(i, seat, bonus);
+                if (bonusMask != 0) {
+                    int b = choose(i, seat, bonusMask, bonus, picker);
+                    flags = applyBonusMove(i, seat, b, bonus);
+                    turns[i]++;
+                    applied++;
+                }
+            }
+        }
+        if ((flags & WIN) != 0) {
+            finished[i] = true;
+            return applied;
+        }
+        if (r != 6) {
+            sixes[seat][i] = 0;
+            passTurn(i);
+        }
+        return applied;
+    }
+
+    private void passTurn(int i) {
+        toMove[i] = (byte) ((toMove[i] + 1) % seats);
+    }
+
+    private int pick(int i, int mask) {
+        long s = rng[i] + GOLDEN;
+        rng[i] = s;
+        int n = (int) (((mix(s) >>> 32) * Integer.bitCount(mask)) >>> 32);
+        for (; n > 0; n--) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    private int choose(int i, int seat, int mask, int s, int picker) {
+        if (picker == RANDOM_PICK) {
+            return pick(i, mask);
+        }
+        int best = greedyMask(i, seat, mask, s);
+        if (Integer.bitCount(best) == 1 || picker == GREEDY_FIRST_PICK) {
+            return Integer.numberOfTrailingZeros(best);
+        }
+        return pick(i, best);
+    }
+
+    /**
+     * Лучшие ходы жадного выбора: срубить, затем завести фишку в дом, затем вывести с базы, иначе продвинуть
+     * самую отставшую.
+     */
+    private int greedyMask(int i, int seat, int mask, int s) {
+        int base = i * cellsPerGame;
+        int bestMask = 0;
+        int bestScore = -1;
+        for (int m = mask; m != 0; m &= m - 1) {
+            int k = Integer.numberOfTrailingZeros(m);
+            int v = pos[seat * TOKENS + k][i] & 0xFF;
+            int score;
+            if (v == 0) {
+                score = 2 * homeValue;
+            } else {
+                int target = v + s;
+                int abs = absOf[seat][target];
+                int cell = base + abs;
+                boolean capture = abs < trackLen && cellCount[cell] == 1 && (cellSeats[cell] & (0xFL * seatUnit(seat))) == 0
+                        && !safeCell[abs] && abs != startAbs[seat];
+                score = capture ? 4 * homeValue : target == homeValue ? 3 * homeValue : homeValue - v;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMask = 1 << k;
+            } else if (score == bestScore) {
+                bestMask |= 1 << k;
+            }
+        }
+        return bestMask;
+    }
+
+    private void copyGame(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        for (int s = 0; s < slots; s++) {
+            pos[s][to] = pos[s][from];
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            sixes[seat][to] = sixes[seat][from];
+        }
+        System.arraycopy(cellCount, from * cellsPerGame, cellCount, to * cellsPerGame, cellsPerGame);
+        System.arraycopy(cellSeats, from * cellsPerGame, cellSeats, to * cellsPerGame, cellsPerGame);
+        toMove[to] = toMove[from];
+        turns[to] = turns[from];
+        rng[to] = rng[from];
+        finished[to] = finished[from];
+    }
+
+    // ---- правила одной партии (общие для пакетного цикла и BatchEngine) ----
+
+    /**
+     * Начальная расстановка: по одной фишке на выходе, остальные на базе.
+     */
+    void resetGame(int i, long seed) {
+        int base = i * cellsPerGame;
+        Arrays.fill(cellCount, base, base + cellsPerGame, (byte) 0);
+        Arrays.fill(cellSeats, base, base + cellsPerGame, 0L);
+        for (int s = 0; s < slots; s++) {
+            int v = s % TOKENS == 0 ? 1 : 0;
+            pos[s][i] = (byte) v;
+            int c = base + absOf[s / TOKENS][v];
+            cellCount[c]++;
+            cellSeats[c] += seatUnit(s / TOKENS);
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            sixes[seat][i] = 0;
+        }
+        toMove[i] = 0;
+        turns[i] = 0;
+        rng[i] = seed;
+        finished[i] = false;
+    }
+
+    /**
+     * Расстановка из заданной позиции (счётчик шестёрок обнулён).
+     *
+     * @param values закодированные позиции по слотам (0 — база, иначе 1 + дистанция)
+     * @param seatToMove чей ход
+     * @param seed состояние генератора партии
+     */
+    void load(int i, int[] values, int seatToMove, long seed) {
+        int base = i * cellsPerGame;
+        Arrays.fill(cellCount, base, base + cellsPerGame, (byte) 0);
+        Arrays.fill(cellSeats, base, base + cellsPerGame, 0L);
+        for (int s = 0; s < slots; s++) {
+            int v = values[s];
+            pos[s][i] = (byte) v;
+            int c = base + absOf[s / TOKENS][v];
+            cellCount[c]++;
+            cellSeats[c] += seatUnit(s / TOKENS);
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            sixes[seat][i] = 0;
+        }
+        toMove[i] = (byte) seatToMove;
+        turns[i] = 0;
+        rng[i] = seed;
+        finished[i] = false;
+    }
+
+    /**
+     * Доигрывает одну партию до конца, бросок за броском, без пакетных фаз.
+     *
+     * @param maxTurns ограничение длины в перемещениях (и в четыре раза большее — в бросках)
+     * @param greedy жадный выбор хода вместо случайного
+     * @return место победителя или -1, если партия прервана по ограничению
+     */
+    int playOut(int i, int maxTurns, boolean greedy) {
+        int rollsLeft = 4 * maxTurns;
+        while (!finished[i]) {
+            if (turns[i] >= maxTurns || --rollsLeft < 0) {
+                return -1;
+            }
+            int seat = toMove[i];
+            int r = nextRoll(i);
+            int s = stepsFor(i, seat, r);
+            playMask(i, seat, r, s, legalMask(i, seat, r, s), greedy ? GREEDY_PICK : RANDOM_PICK);
+        }
+        return toMove[i];
+    }
+
+    /**
+     * Один бросок с заданным ходом: фишка {@code k} (или пропуск при -1), бонус выбирается жадно и
+     * детерминированно, затем очередь переходит как обычно.
+     *
+     * @return место победителя, если ход выиграл партию, иначе -1
+     */
+    int playChosen(int i, int diceRoll, int k) {
+        int seat = toMove[i];
+        playMask(i, seat, diceRoll, stepsFor(i, seat, diceRoll), k < 0 ? 0 : 1 << k, GREEDY_FIRST_PICK);
+        return finished[i] ? toMove[i] : -1;
+    }
+
+    /**
+     * @return чей ход в партии
+     */
+    int seatToMove(int i) {
+        return toMove[i];
+    }
+
+    /**
+     * Следующий бросок из генератора партии.
+     */
+    int nextRoll(int i) {
+        long st = rng[i] + GOLDEN;
+        rng[i] = st;
+        return (int) (1 + (((mix(st) >>> 32) * 6) >>> 32));
+    }
+
+    /**
+     * @return текущее состояние генератора партии (чтобы продолжить поток после {@link #playOut})
+     */
+    long rngState(int i) {
+        return rng[i];
+    }
+
+    /**
+     * @return закодированная позиция слота (0 — база, иначе 1 + дистанция)
+     */
+    int position(int i, int slot) {
+        return pos[slot][i] & 0xFF;
+    }
+
+    /**
+     * Шаги обычного хода с учётом правила "6 при пустой базе".
+     */
+    int stepsFor(int i, int seat, int diceRoll) {
+        int inBase = 0;
+        for (int k = 0; k < TOKENS; k++) {
+            if (pos[seat * TOKENS + k][i] == 0) {
+                inBase++;
+            }
+        }
+        return diceRoll + (diceRoll == 6 && inBase == 0 ? sixExtraSteps : 0);
+    }
+
+    /**
+     * Допустимые ходы как маска номеров фишек: у каждой фишки не больше одного хода на бросок
+     * (с базы — выход, иначе шаги из {@link #stepsFor}).
+     */
+    int legalMask(int i, int seat, int diceRoll) {
+        return legalMask(i, seat, diceRoll, stepsFor(i, seat, diceRoll));
+    }
+
+    private int legalMask(int i, int seat, int diceRoll, int s) {
+        int cand = 0;
+        int ring = 0;
+        for (int k = 0; k < TOKENS; k++) {
+            int v = pos[seat * TOKENS + k][i] & 0xFF;
+            int target = v + s;
+            if (v != 0 && v != homeValue && target <= homeValue) {
+                cand |= 1 << k;
+                if (target <= trackLen) {
+                    ring |= 1 << k;
+                }
+            }
+        }
+        return finishLegalMask(i, seat, diceRoll, s, cand, ring);
+    }
+
+    /**
+     * Бонусные ходы как маска номеров фишек (без выхода и разбора блока).
+     */
+    int bonusMask(int i, int seat, int bonusSteps) {
+        int mask = 0;
+        for (int k = 0; k < TOKENS; k++) {
+            int v = pos[seat * TOKENS + k][i] & 0xFF;
+            int target = v + bonusSteps;
+            if (v == 0 || v == homeValue || target > homeValue) {
+                continue;
+            }
+            if (target > trackLen || ringMoveAllowed(i, seat, v, target)) {
+                mask |= 1 << k;
+            }
+        }
+        return mask;
+    }
+
+    private int finishLegalMask(int i, int seat, int diceRoll, int s, int cand, int ring) {
+        int base = i * cellsPerGame;
+        int mask = cand & ~ring;
+        for (int m = ring; m != 0; m &= m - 1) {
+            int k = Integer.numberOfTrailingZeros(m);
+            int v = pos[seat * TOKENS + k][i] & 0xFF;
+            if (ringMoveAllowed(i, seat, v, v + s)) {
+                mask |= 1 << k;
+            }
+        }
+
+        // выход с базы, если клетка выхода свободна
+        if (diceRoll == exitRoll && cellCount[base + startAbs[seat]] == 0) {
+            for (int k = 0; k < TOKENS; k++) {
+                if (pos[seat * TOKENS + k][i] == 0) {
+                    mask |= 1 << k;
+                }
+            }
+        }
+
+        // на 6 обязан разбить свой блок, если это возможно
+        if (diceRoll == 6 && forceBlockBreakOnSix) {
+            int fromBlock = 0;
+            for (int m = mask; m != 0; m &= m - 1) {
+                int k = Integer.numberOfTrailingZeros(m);
+                int abs = absOf[seat][pos[seat * TOKENS + k][i] & 0xFF];
+                int count = cellCount[base + abs];
+                if (abs < trackLen && count >= 2 && cellSeats[base + abs] == count * seatUnit(seat)) {
+                    fromBlock |= 1 << k;
+                }
+            }
+            if (fromBlock != 0) {
+                return fromBlock;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Ход по кольцу: ни на одной клетке (v, target] нет блока, а на цели есть место.
+     */
+    private boolean ringMoveAllowed(int i, int seat, int v, int target) {
+        short[] abs = absOf[seat];
+        int base = i * cellsPerGame;
+        for (int d = v + 1; d <= target; d++) {
+            int c = abs[d];
+            if (cellCount[base + c] >= 2 && (singleSeat(cellSeats[base + c]) || mixedBlockCell[c])) {
+                return false;
+            }
+        }
+        return cellCount[base + abs[target]] < maxTokensPerCell;
+    }
+
+    /**
+     * Все фишки клетки принадлежат одному месту (в упакованных счётчиках ровно один ненулевой полубайт).
+     */
+    private static boolean singleSeat(long seatCounts) {
+        long nonZero = (seatCounts | seatCounts >>> 1 | seatCounts >>> 2 | seatCounts >>> 3) & 0x1111_1111_1111_1111L;
+        return Long.bitCount(nonZero) == 1;
+    }
+
+    private static long seatUnit(int seat) {
+        return 1L << (seat << 2);
+    }
+
+    /**
+     * Переставляет фишку и обновляет занятость старой и новой клетки.
+     */
+    private void place(int i, int seat, int slot, int v) {
+        int base = i * cellsPerGame;
+        long unit = seatUnit(seat);
+        int from = base + absOf[seat][pos[slot][i] & 0xFF];
+        int to = base + absOf[seat][v];
+        cellCount[from]--;
+        cellSeats[from] -= unit;
+        cellCount[to]++;
+        cellSeats[to] += unit;
+        pos[slot][i] = (byte) v;
+    }
+
+    /**
+     * Обычный ход: счётчик шестёрок и откат при превышении, затем перемещение.
+     *
+     * @param tokenSteps 0 — вывести с базы, иначе число шагов
+     * @return флаги {@link #CAPTURE}, {@link #HOME}, {@link #WIN}, {@link #PENALTY}
+     */
+    int applyMove(int i, int seat, int diceRoll, int k, int tokenSteps) {
+        int count = diceRoll == 6 ? sixes[seat][i] + 1 : 0;
+        if (count >= sixesLimit) {
+            sixes[seat][i] = 0;
+            int slot = seat * TOKENS + k;
+            int v = pos[slot][i] & 0xFF;
+            if (v > trackLen && v < homeValue) {
+                place(i, seat, slot, trackLen + 1);
+            } else if (v != 0 && v <= trackLen) {
+                place(i, seat, slot, 0);
+            }
+            return PENALTY;
+        }
+        sixes[seat][i] = (byte) count;
+        return moveToken(i, seat, k, tokenSteps);
+    }
+
+    /**
+     * Бонусный ход: счётчик шестёрок не меняется.
+     */
+    int applyBonusMove(int i, int seat, int k, int bonusSteps) {
+        return moveToken(i, seat, k, bonusSteps);
+    }
+
+    /**
+     * Бонус за результат хода.
+     */
+    int bonusOf(int flags) {
+        if ((flags & CAPTURE) != 0) {
+            return captureBonus;
+        }
+        return (flags & HOME) != 0 ? homeBonus : 0;
+    }
+
+    private int moveToken(int i, int seat, int k, int tokenSteps) {
+        int slot = seat * TOKENS + k;
+        int flags = 0;
+        if (tokenSteps == 0) {
+            place(i, seat, slot, 1);
+            return flags;
+        }
+
+        int target = (pos[slot][i] & 0xFF) + tokenSteps;
+        int abs = absOf[seat][target];
+        int cell = i * cellsPerGame + abs;
+        // срубить можно только одиночную чужую фишку на обычной клетке
+        if (abs < trackLen && cellCount[cell] == 1 && (cellSeats[cell] & (0xFL * seatUnit(seat))) == 0
+                && !safeCell[abs] && abs != startAbs[seat]) {
+            int victimSeat = Long.numberOfTrailingZeros(cellSeats[cell]) >>> 2;
+            place(i, victimSeat, tokenOn(i, victimSeat, abs), 0);
+            flags |= CAPTURE;
+        }
+        place(i, seat, slot, target);
+
+        if (target == homeValue) {
+            flags |= HOME;
+            boolean allHome = true;
+            for (int t = 0; t < TOKENS; t++) {
+                allHome &= (pos[seat * TOKENS + t][i] & 0xFF) == homeValue;
+            }
+            if (allHome) {
+                flags |= WIN;
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Слот фишки места seat, стоящей на клетке кольца.
+     */
+    private int tokenOn(int i, int seat, int abs) {
+        short[] cellOf = absOf[seat];
+        for (int s = seat * TOKENS; s < (seat + 1) * TOKENS; s++) {
+            if (cellOf[pos[s][i] & 0xFF] == abs) {
+                return s;
+            }
+        }
+        throw new IllegalStateException("No token of seat " + seat + " on cell " + abs);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Сравнение с объектным циклом {@link Game}: {@code [партий] [размер пакета]}.
+     *
+     * @param args аргументы командной строки
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 200_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 1_024;
+        GameConfig config = GameConfig.defaultForFourPlayers();
+
+        long gameLoopGames = Math.max(1, games / 20);
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            Random random = new Random(round);
+            for (long g = 0; g < gameLoopGames; g++) {
+                new Game(config, new Dice(random), MoveStrategy.random(random)).playUntilWin(5_000);
+            }
+            double gameLoop = gameLoopGames * 1e9 / (System.nanoTime() - t0);
+
+            Result batch = new BatchSimulator(config, batchSize).run(games, round, 5_000);
+            System.out.printf("Game loop: %.0f games/s; batch: %s; speedup x%.1f%n",
+                    gameLoop, batch, batch.gamesPerSecond() / gameLoop);
+        }
+    }
+
+}
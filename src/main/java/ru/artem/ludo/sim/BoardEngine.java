@@ -0,0 +1,53 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TurnOutcome;
+
+import java.util.List;
+
+/**
+ * Эталонная реализация: {@link Board} на {@code HashMap}.
+ */
+public final class BoardEngine implements LudoEngine {
+
+    private Board board;
+
+    @Override
+    public String name() {
+        return "Board";
+    }
+
+    @Override
+    public void reset(GameConfig config) {
+        board = new Board(config);
+    }
+
+    @Override
+    public List<Move> legalMoves(PlayerColor color, int diceRoll) {
+        return board.legalMoves(color, diceRoll);
+    }
+
+    @Override
+    public TurnOutcome applyMove(PlayerColor color, int diceRoll, Move move) {
+        return board.applyMove(color, diceRoll, move);
+    }
+
+    @Override
+    public List<Move> bonusMoves(PlayerColor color, int bonusSteps) {
+        return board.bonusMoves(color, bonusSteps);
+    }
+
+    @Override
+    public TurnOutcome applyBonusMove(PlayerColor color, Move move) {
+        return board.applyBonusMove(color, move);
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return board.snapshot();
+    }
+}
@@ -0,0 +1,235 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TurnOutcome;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Дифференциальное тестирование движков правил.
+ *
+ * <p>Играет случайные партии с зерном, одновременно на эталоне и на альтернативных реализациях.
+ * На каждом шаге сравниваются множества допустимых ходов, результат {@link TurnOutcome}
+ * и расстановка после хода, а после срубания/захода в дом — бонусные ходы и их результат. Время каждого движка считается отдельно, чтобы быстрая
+ * реализация сразу показывала и эквивалентность, и выигрыш в скорости.</p>
+ */
+public final class DifferentialFuzzer {
+
+    private final GameConfig config;
+    private final List<LudoEngine> engines;
+
+    /**
+     * @param config конфигурация партий
+     * @param reference эталонный движок
+     * @param alternatives сравниваемые реализации
+     */
+    public DifferentialFuzzer(GameConfig config, LudoEngine reference, List<LudoEngine> alternatives) {
+        this.config = Objects.requireNonNull(config);
+        this.engines = new ArrayList<>();
+        this.engines.add(Objects.requireNonNull(reference));
+        this.engines.addAll(alternatives);
+    }
+
+    /**
+     * Итог прогона.
+     *
+     * @param games сыграно партий
+     * @param moves сравнено ходов
+     * @param mismatch описание первого расхождения или null
+     * @param engineNames имена движков (первый — эталон)
+     * @param engineNanos время, потраченное каждым движком
+     */
+    public record Report(long games, long moves, String mismatch, List<String> engineNames, long[] engineNanos) {
+
+        /**
+         * @return true, если расхождений не найдено
+         */
+        public boolean passed() {
+            return mismatch == null;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(passed() ? "OK" : "MISMATCH: " + mismatch)
+                    .append(" (games=").append(games).append(", moves=").append(moves).append(')');
+            for (int i = 0; i < engineNames.size(); i++) {
+                double seconds = engineNanos[i] / 1e9;
+                sb.append(String.format("%n  %-16s %10.0f moves/s", engineNames.get(i),
+                        seconds > 0 ? moves / seconds : 0));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Играет партии до первого расхождения.
+     *
+     * @param seed зерно (бросков и выбора хода)
+     * @param games число партий
+     * @param maxTurnsPerGame ограничение длины партии (в бросках)
+     * @return отчёт
+     */
+    public Report run(long seed, long games, int maxTurnsPerGame) {
+        Random random = new Random(seed);
+        long[] nanos = new long[engines.size()];
+        long moves = 0;
+        List<PlayerColor> players = config.players();
+
+        for (long g = 0; g < games; g++) {
+            for (int e = 0; e < engines.size(); e++) {
+                long t0 = System.nanoTime();
+                engines.get(e).reset(config);
+                nanos[e] += System.nanoTime() - t0;
+            }
+
+            int playerIndex = 0;
+            for (int turn = 0; turn < maxTurnsPerGame; turn++) {
+                PlayerColor color = players.get(playerIndex);
+                int roll = 1 + random.nextInt(6);
+
+                List<Move> reference = null;
+                for (int e = 0; e < engines.size(); e++) {
+                    long t0 = System.nanoTime();
+                    List<Move> legal = engines.get(e).legalMoves(color, roll);
+                    nanos[e] += System.nanoTime() - t0;
+                    if (e == 0) {
+                        reference = legal;
+                    } else if (!new HashSet<>(legal).equals(new HashSet<>(reference))) {
+                        return report(g, moves, where(g, turn, color, roll) + " legalMoves " + engines.get(e).name()
+                                + "=" + legal + " reference=" + reference, nanos);
+                    }
+                }
+
+                if (reference.isEmpty()) {
+                    playerIndex = (playerIndex + 1) % players.size();
+                    continue;
+                }
+
+                Move move = reference.get(random.nextInt(reference.size()));
+                TurnOutcome expected = null;
+                BoardSnapshot expectedPosition = null;
+                for (int e = 0; e < engines.size(); e++) {
+                    long t0 = System.nanoTime();
+                    TurnOutcome outcome = engines.get(e).applyMove(color, roll, move);
+                    nanos[e] += System.nanoTime() - t0;
+                    BoardSnapshot position = engines.get(e).snapshot();
+                    if (e == 0) {
+                        expected = outcome;
+                        expectedPosition = position;
+                        continue;
+                    }
+                    if (!outcome.equals(expected)) {
+                        return report(g, moves, where(g, turn, color, roll) + " move " + move + " outcome "
+                                + engines.get(e).name() + "=" + outcome + " reference=" + expected, nanos);
+                    }
+                    if (!position.equals(expectedPosition)) {
+                        return report(g, moves, where(g, turn, color, roll) + " move " + move + " position "
+                                + engines.get(e).name() + "=" + position + " reference=" + expectedPosition, nanos);
+                    }
+                }
+                moves++;
+
+                boolean won = expected.winner().isPresent();
+                if (!won && expected.bonusSteps() > 0) {
+                    String bonusMismatch = compareBonus(g, turn, color, roll, expected.bonusSteps(), random, nanos);
+                    if (bonusMismatch != null) {
+                        return report(g, moves, bonusMismatch, nanos);
+                    }
+                    won = new Board(engines.get(0).snapshot()).winnerIfAny().isPresent();
+                }
+
+                if (won) {
+                    break;
+                }
+                if (roll != 6) {
+                    playerIndex = (playerIndex + 1) % players.size();
+                }
+            }
+        }
+        return report(games, moves, null, nanos);
+    }
+
+    /**
+     * Фаза бонуса: сравнивает списки бонусных ходов и результат выбранного бонусного хода.
+     *
+     * @return описание расхождения или null
+     */
+    private String compareBonus(long g, int turn, PlayerColor color, int roll, int bonusSteps,
+                                Random random, long[] nanos) {
+        List<Move> reference = null;
+        for (int e = 0; e < engines.size(); e++) {
+            long t0 = System.nanoTime();
+            List<Move> bonus = engines.get(e).bonusMoves(color, bonusSteps);
+            nanos[e] += System.nanoTime() - t0;
+            if (e == 0) {
+                reference = bonus;
+            } else if (!new HashSet<>(bonus).equals(new HashSet<>(reference))) {
+                return where(g, turn, color, roll) + " bonusMoves(" + bonusSteps + ") " + engines.get(e).name()
+                        + "=" + bonus + " reference=" + reference;
+            }
+        }
+        if (reference.isEmpty()) {
+            return null;
+        }
+
+        Move move = reference.get(random.nextInt(reference.size()));
+        TurnOutcome expected = null;
+        BoardSnapshot expectedPosition = null;
+        for (int e = 0; e < engines.size(); e++) {
+            long t0 = System.nanoTime();
+            TurnOutcome outcome = engines.get(e).applyBonusMove(color, move);
+            nanos[e] += System.nanoTime() - t0;
+            BoardSnapshot position = engines.get(e).snapshot();
+            if (e == 0) {
+                expected = outcome;
+                expectedPosition = position;
+            } else if (!outcome.equals(expected) || !position.equals(expectedPosition)) {
+                return where(g, turn, color, roll) + " bonus " + move + " " + engines.get(e).name()
+                        + "=" + outcome + "/" + position + " reference=" + expected + "/" + expectedPosition;
+            }
+        }
+        return null;
+    }
+
+    private Report report(long games, long moves, String mismatch, long[] nanos) {
+        List<String> names = new ArrayList<>();
+        for (LudoEngine e : engines) {
+            names.add(e.name());
+        }
+        return new Report(games, moves, mismatch, names, nanos.clone());
+    }
+
+    private static String where(long game, int turn, PlayerColor color, int roll) {
+        return "game " + game + ", turn " + turn + ", " + color + " rolled " + roll + ":";
+    }
+
+    /**
+     * Запуск из командной строки: {@code [партий] [зерно]}; печатает отчёт каждые 10 000 партий.
+     *
+     * @param args аргументы командной строки
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(config, new BoardEngine(), List.of(new SnapshotEngine(), new BatchEngine()));
+
+        long batch = 10_000;
+        for (long done = 0; done < games; done += batch) {
+            Report report = fuzzer.run(seed + done, Math.min(batch, games - done), 5_000);
+            System.out.println((done + report.games()) + " games: " + report);
+            if (!report.passed()) {
+                System.exit(1);
+            }
+        }
+    }
+}
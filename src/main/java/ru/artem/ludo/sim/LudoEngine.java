@@ -0,0 +1,61 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TurnOutcome;
+
+import java.util.List;
+
+/**
+ * Минимальный интерфейс движка правил для сравнения реализаций в {@link DifferentialFuzzer}.
+ */
+public interface LudoEngine {
+
+    /**
+     * @return имя реализации для отчёта
+     */
+    String name();
+
+    /**
+     * Начинает новую партию.
+     *
+     * @param config конфигурация
+     */
+    void reset(GameConfig config);
+
+    /**
+     * @param color цвет игрока
+     * @param diceRoll значение кубика (1..6)
+     * @return допустимые ходы (порядок не важен)
+     */
+    List<Move> legalMoves(PlayerColor color, int diceRoll);
+
+    /**
+     * @param color цвет игрока
+     * @param diceRoll значение кубика (1..6)
+     * @param move допустимый ход
+     * @return результат хода
+     */
+    TurnOutcome applyMove(PlayerColor color, int diceRoll, Move move);
+
+    /**
+     * @param color цвет игрока
+     * @param bonusSteps размер бонуса
+     * @return допустимые бонусные ходы (порядок не важен)
+     */
+    List<Move> bonusMoves(PlayerColor color, int bonusSteps);
+
+    /**
+     * @param color цвет игрока
+     * @param move допустимый бонусный ход
+     * @return результат хода
+     */
+    TurnOutcome applyBonusMove(PlayerColor color, Move move);
+
+    /**
+     * @return текущая расстановка
+     */
+    BoardSnapshot snapshot();
+}
@@ -0,0 +1,161 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TurnEngine;
+import ru.artem.ludo.core.TurnState;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Быстрые разыгрывания до конца партии для Монте-Карло.
+ *
+ * <p>Правила — ядро {@link BatchSimulator} на пакете из одной партии: позиция копируется в
+ * компактный {@code byte}-массив рабочего буфера потока ({@link PlayoutState}), кубик —
+ * SplitMix-генератор буфера, ход выбирается случайно или жадной эвристикой (срубить, завести
+ * в дом, вывести с базы, иначе подтянуть отстающую фишку). Ни {@link ru.artem.ludo.core.Game}, ни списков ходов, ни объектов
+ * на ход: после первого вызова в потоке разыгрывание не выделяет памяти.</p>
+ *
+ * <p>Счётчик шестёрок в снимке не хранится, разыгрывание начинает с нуля. Экземпляр
+ * потокобезопасен: рабочие буферы у каждого потока свои.</p>
+ */
+public final class PlayoutEngine {
+
+    /**
+     * Политика выбора хода в разыгрывании.
+     */
+    public enum Policy {
+        /** Случайный допустимый ход. */
+        RANDOM,
+        /** Жадная эвристика с случайным выбором среди равных. */
+        GREEDY
+    }
+
+    private static final AtomicLong SEEDS = new AtomicLong(System.nanoTime());
+
+    private final GameConfig config;
+    private final Policy policy;
+    private final int maxTurns;
+    private final ThreadLocal<PlayoutState> scratch;
+
+    /**
+     * @param config конфигурация партий
+     * @param policy выбор хода
+     * @param maxTurns ограничение длины разыгрывания в перемещениях
+     */
+    public PlayoutEngine(GameConfig config, Policy policy, int maxTurns) {
+        this.config = Objects.requireNonNull(config);
+        this.policy = Objects.requireNonNull(policy);
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("maxTurns must be positive: " + maxTurns);
+        }
+        this.maxTurns = maxTurns;
+        this.scratch = ThreadLocal.withInitial(() -> new PlayoutState(config, SEEDS.getAndIncrement()));
+    }
+
+    /**
+     * @return конфигурация партий
+     */
+    public GameConfig config() {
+        return config;
+    }
+
+    /**
+     * Задаёт генератор текущего потока (для воспроизводимых разыгрываний).
+     *
+     * @param seed зерно
+     */
+    public void seedCurrentThread(long seed) {
+        scratch.get().seed(seed);
+    }
+
+    /**
+     * Одно разыгрывание.
+     *
+     * @param start позиция той же конфигурации
+     * @param toMove чей ход
+     * @return место победителя (индекс в {@link GameConfig#players()}) или -1 — прервано по ограничению
+     */
+    public int playout(BoardSnapshot start, PlayerColor toMove) {
+        PlayoutState s = scratch.get();
+        s.load(start, toMove);
+        return s.rollout(maxTurns, policy == Policy.GREEDY);
+    }
+
+    /**
+     * Серия разыгрываний из одной позиции: позиция раскладывается один раз.
+     *
+     * @param start позиция той же конфигурации
+     * @param toMove чей ход
+     * @param count сколько разыгрываний
+     * @param winsBySeat сюда прибавляются победы по местам
+     * @return сколько разыгрываний прервано по ограничению
+     */
+    public int playouts(BoardSnapshot start, PlayerColor toMove, int count, long[] winsBySeat) {
+        PlayoutState s = scratch.get();
+        s.load(start, toMove);
+        int truncated = 0;
+        for (int n = 0; n < count; n++) {
+            if (n > 0) {
+                s.reset();
+            }
+            int winner = s.rollout(maxTurns, policy == Policy.GREEDY);
+            if (winner < 0) {
+                truncated++;
+            } else {
+                winsBySeat[winner]++;
+            }
+        }
+        return truncated;
+    }
+
+    /**
+     * Замер: разыгрывания в секунду из начальной позиции и из середины партии.
+     *
+     * @param args [разыгрываний на замер]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        BoardSnapshot initial = BoardSnapshot.initial(config);
+        BoardSnapshot midgame = midgame(config);
+        for (Policy policy : Policy.values()) {
+            PlayoutEngine engine = new PlayoutEngine(config, policy, 5_000);
+            engine.seedCurrentThread(1);
+            for (int round = 0; round < 3; round++) {
+                for (BoardSnapshot start : new BoardSnapshot[]{initial, midgame}) {
+                    long[] wins = new long[config.players().size()];
+                    long t0 = System.nanoTime();
+                    int truncated = engine.playouts(start, config.players().get(0), count, wins);
+                    double seconds = (System.nanoTime() - t0) / 1e9;
+                    System.out.printf("%-6s %-8s %,10.0f playouts/s (%.2f us each), truncated %d%n", policy,
+                            start == initial ? "initial" : "midgame", count / seconds, seconds * 1e6 / count, truncated);
+                }
+            }
+        }
+    }
+
+    /**
+     * Позиция середины партии для замера: 80 случайных перемещений от начала.
+     */
+    private static BoardSnapshot midgame(GameConfig config) {
+        Random random = new Random(7);
+        Board board = new Board(config);
+        TurnEngine turns = new TurnEngine(board);
+        while (turns.movesApplied() < 80 && turns.state() != TurnState.FINISHED) {
+            if (turns.state() == TurnState.AWAIT_ROLL) {
+                turns.roll(1 + random.nextInt(6));
+            } else {
+                List<Move> options = turns.options();
+                turns.move(options.get(random.nextInt(options.size())));
+            }
+        }
+        return board.snapshot();
+    }
+}
@@ -0,0 +1,141 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+
+import java.util.Objects;
+
+/**
+ * Изменяемая компактная партия для поиска и разыгрываний: позиция в {@code byte}-массивах ядра
+ * {@link BatchSimulator}, собственный генератор кубика, ходы как номера фишек.
+ *
+ * <p>Загруженная позиция запоминается, и {@link #reset()} возвращается к ней без повторного
+ * разбора снимка — так поиск начинает каждую итерацию от корня. После создания методы не
+ * выделяют памяти. Не потокобезопасен: по экземпляру на поток.</p>
+ */
+public final class PlayoutState {
+
+    private final GameConfig config;
+    private final BatchSimulator game;
+    private final TokenId[] tokenBySlot;
+    private final int[] rootValues;
+    private int rootSeat;
+    private long rng;
+
+    /**
+     * @param config конфигурация партий
+     * @param seed зерно генератора
+     */
+    public PlayoutState(GameConfig config, long seed) {
+        this.config = Objects.requireNonNull(config);
+        this.game = new BatchSimulator(config, 1);
+        int seats = config.players().size();
+        this.tokenBySlot = new TokenId[seats * Board.TOKENS_PER_PLAYER];
+        for (int seat = 0; seat < seats; seat++) {
+            for (int k = 0; k < Board.TOKENS_PER_PLAYER; k++) {
+                tokenBySlot[seat * Board.TOKENS_PER_PLAYER + k] = new TokenId(config.players().get(seat), k);
+            }
+        }
+        this.rootValues = new int[tokenBySlot.length];
+        seed(seed);
+        game.resetGame(0, rng);
+        for (int slot = 0; slot < rootValues.length; slot++) {
+            rootValues[slot] = game.position(0, slot);
+        }
+    }
+
+    /**
+     * @return конфигурация партий
+     */
+    public GameConfig config() {
+        return config;
+    }
+
+    /**
+     * Перезапускает генератор кубика.
+     *
+     * @param seed зерно
+     */
+    public void seed(long seed) {
+        this.rng = BatchSimulator.gameSeed(seed, 0);
+    }
+
+    /**
+     * Загружает позицию и запоминает её для {@link #reset()} (счётчик шестёрок обнуляется).
+     *
+     * @param snapshot позиция той же конфигурации
+     * @param toMove чей ход
+     */
+    public void load(BoardSnapshot snapshot, PlayerColor toMove) {
+        if (snapshot.config() != config && !snapshot.config().equals(config)) {
+            throw new IllegalArgumentException("Snapshot has another configuration");
+        }
+        int seat = config.players().indexOf(toMove);
+        if (seat < 0) {
+            throw new IllegalArgumentException("Color is not in the game: " + toMove);
+        }
+        for (int slot = 0; slot < rootValues.length; slot++) {
+            rootValues[slot] = snapshot.routeDistance(tokenBySlot[slot]) + 1;
+        }
+        rootSeat = seat;
+        reset();
+    }
+
+    /**
+     * Возвращает партию к последней загруженной позиции; генератор продолжает свой поток.
+     */
+    public void reset() {
+        game.load(0, rootValues, rootSeat, rng);
+    }
+
+    /**
+     * @return место (индекс в {@link GameConfig#players()}) того, чей ход
+     */
+    public int seatToMove() {
+        return game.seatToMove(0);
+    }
+
+    /**
+     * @return бросок кубика из генератора партии
+     */
+    public int roll() {
+        int r = game.nextRoll(0);
+        rng = game.rngState(0);
+        return r;
+    }
+
+    /**
+     * @param diceRoll бросок
+     * @return допустимые ходы ходящего как маска номеров фишек
+     */
+    public int legalMask(int diceRoll) {
+        return game.legalMask(0, game.seatToMove(0), diceRoll);
+    }
+
+    /**
+     * Делает ход фишкой (бонус — жадно и детерминированно) и передаёт очередь по правилам.
+     *
+     * @param diceRoll бросок
+     * @param token номер фишки из {@link #legalMask(int)} или -1 — ходов нет
+     * @return место победителя, если ход выиграл партию, иначе -1
+     */
+    public int play(int diceRoll, int token) {
+        return game.playChosen(0, diceRoll, token);
+    }
+
+    /**
+     * Доигрывает партию до конца.
+     *
+     * @param maxTurns ограничение длины в перемещениях
+     * @param greedy жадная политика вместо случайной
+     * @return место победителя или -1 — прервано по ограничению
+     */
+    public int rollout(int maxTurns, boolean greedy) {
+        int winner = game.playOut(0, maxTurns, greedy);
+        rng = game.rngState(0);
+        return winner;
+    }
+}
@@ -0,0 +1,231 @@
+package ru.artem.ludo.sim;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.PositionType;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+import ru.artem.ludo.core.TurnOutcome;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реализация на неизменяемых снимках: позиция меняется только через {@link BoardSnapshot#withMove},
+ * счётчик шестёрок и откат хода ведутся здесь же.
+ *
+ * <p>Допустимые ходы считаются заново прямо по дистанциям из снимка ({@link BoardSnapshot#routeDistance}),
+ * без {@link Board}: занятость клеток кольца собирается на каждый запрос, блоки и перепрыгивание
+ * проверяются по ней. Так сравнение с эталоном проверяет генерацию ходов {@link Board}, а не её саму.</p>
+ */
+public final class SnapshotEngine implements LudoEngine {
+
+    private GameConfig config;
+    private BoardSnapshot snapshot;
+    private int[] sixes;
+
+    private int trackLen;
+    private int homeDistance;
+    private boolean[] safeOrStart;
+    /** Занятость клеток кольца для текущего запроса: число фишек, цвет первой, есть ли разные цвета. */
+    private int[] cellCount;
+    private PlayerColor[] cellColor;
+    private boolean[] cellMixed;
+
+    @Override
+    public String name() {
+        return "BoardSnapshot";
+    }
+
+    @Override
+    public void reset(GameConfig config) {
+        this.config = config;
+        this.snapshot = BoardSnapshot.initial(config);
+        this.sixes = new int[PlayerColor.values().length];
+        this.trackLen = config.trackLength();
+        this.homeDistance = trackLen + config.homeLaneLength();
+        this.safeOrStart = new boolean[trackLen];
+        for (int abs : config.safeTrackCells()) {
+            safeOrStart[abs] = true;
+        }
+        for (PlayerColor c : config.players()) {
+            safeOrStart[config.startTrackIndex(c)] = true;
+        }
+        this.cellCount = new int[trackLen];
+        this.cellColor = new PlayerColor[trackLen];
+        this.cellMixed = new boolean[trackLen];
+    }
+
+    @Override
+    public List<Move> legalMoves(PlayerColor color, int diceRoll) {
+        occupyCells();
+        List<Move> moves = new ArrayList<>();
+        int startAbs = config.startTrackIndex(color);
+
+        boolean baseEmpty = true;
+        for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+            if (snapshot.routeDistance(new TokenId(color, i)) < 0) {
+                baseEmpty = false;
+                if (diceRoll == config.rules().exitRoll() && cellCount[startAbs] == 0) {
+                    moves.add(new Move(new TokenId(color, i), 0));
+                }
+            }
+        }
+
+        int steps = diceRoll == 6 && baseEmpty ? config.rules().sixStepsWhenBaseEmpty() : diceRoll;
+        for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+            TokenId t = new TokenId(color, i);
+            if (canMove(t, steps)) {
+                moves.add(new Move(t, steps));
+            }
+        }
+
+        if (diceRoll == 6 && config.rules().forceBlockBreakOnSix()) {
+            // на 6 обязаны разбить свой блок, если им вообще можно сходить
+            List<Move> fromBlock = new ArrayList<>();
+            for (Move m : moves) {
+                int d = snapshot.routeDistance(m.token());
+                if (d >= 0 && d < trackLen) {
+                    int abs = (startAbs + d) % trackLen;
+                    if (cellCount[abs] >= 2 && !cellMixed[abs] && cellColor[abs] == color) {
+                        fromBlock.add(m);
+                    }
+                }
+            }
+            if (!fromBlock.isEmpty()) {
+                return fromBlock;
+            }
+        }
+        return moves;
+    }
+
+    private boolean canMove(TokenId token, int steps) {
+        int d = snapshot.routeDistance(token);
+        if (d < 0 || d == homeDistance) {
+            return false;
+        }
+        int target = d + steps;
+        if (target > homeDistance) {
+            return false;
+        }
+        if (target >= trackLen) {
+            // цветная дорожка и дом: блоков и ограничения клетки там нет
+            return true;
+        }
+        int startAbs = config.startTrackIndex(token.color());
+        for (int k = d + 1; k <= target; k++) {
+            if (isBlock((startAbs + k) % trackLen)) {
+                return false;
+            }
+        }
+        return cellCount[(startAbs + target) % trackLen] < config.rules().maxTokensPerCell();
+    }
+
+    private boolean isBlock(int abs) {
+        return cellCount[abs] >= 2 && (!cellMixed[abs] || safeOrStart[abs]);
+    }
+
+    private void occupyCells() {
+        Arrays.fill(cellCount, 0);
+        Arrays.fill(cellColor, null);
+        Arrays.fill(cellMixed, false);
+        for (PlayerColor c : config.players()) {
+            int startAbs = config.startTrackIndex(c);
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                int d = snapshot.routeDistance(new TokenId(c, i));
+                if (d < 0 || d >= trackLen) {
+                    continue;
+                }
+                int abs = (startAbs + d) % trackLen;
+                if (cellCount[abs]++ == 0) {
+                    cellColor[abs] = c;
+                } else if (cellColor[abs] != c) {
+                    cellMixed[abs] = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public TurnOutcome applyMove(PlayerColor color, int diceRoll, Move move) {
+        sixes[color.ordinal()] = diceRoll == 6 ? sixes[color.ordinal()] + 1 : 0;
+
+        int limit = config.rules().maxConsecutiveSixes();
+        if (limit > 0 && sixes[color.ordinal()] >= limit) {
+            sixes[color.ordinal()] = 0;
+            TokenPosition last = snapshot.position(move.token());
+            if (last.type() == PositionType.HOME_LANE) {
+                snapshot = snapshot.with(move.token(), TokenPosition.homeLane(0));
+            } else if (last.type() == PositionType.START || last.type() == PositionType.TRACK) {
+                snapshot = snapshot.with(move.token(), TokenPosition.base());
+            }
+            return new TurnOutcome(false, false, 0, Optional.empty());
+        }
+
+        return move(color, move);
+    }
+
+    @Override
+    public List<Move> bonusMoves(PlayerColor color, int bonusSteps) {
+        occupyCells();
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+            TokenId t = new TokenId(color, i);
+            if (canMove(t, bonusSteps)) {
+                moves.add(new Move(t, bonusSteps));
+            }
+        }
+        return moves;
+    }
+
+    @Override
+    public TurnOutcome applyBonusMove(PlayerColor color, Move move) {
+        return move(color, move);
+    }
+
+    private TurnOutcome move(PlayerColor color, Move move) {
+        BoardSnapshot before = snapshot;
+        snapshot = snapshot.withMove(move);
+
+        boolean capture = false;
+        for (PlayerColor c : config.players()) {
+            if (c == color) {
+                continue;
+            }
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                TokenId t = new TokenId(c, i);
+                if (before.routeDistance(t) >= 0 && snapshot.routeDistance(t) < 0) {
+                    capture = true;
+                }
+            }
+        }
+        boolean home = move.steps() > 0 && snapshot.position(move.token()).type() == PositionType.HOME;
+        int bonus = capture ? config.rules().captureBonus() : home ? config.rules().homeBonus() : 0;
+        return new TurnOutcome(capture, home, bonus, winner());
+    }
+
+    private Optional<PlayerColor> winner() {
+        for (PlayerColor c : config.players()) {
+            int atHome = 0;
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                if (snapshot.routeDistance(new TokenId(c, i)) == homeDistance) {
+                    atHome++;
+                }
+            }
+            if (atHome == Board.TOKENS_PER_PLAYER) {
+                return Optional.of(c);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.artem.ludo.spectator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасная гистограмма задержек для процентилей.
+ *
+ * <p>Корзины лог-линейные: на каждую степень двойки 16 корзин, поэтому относительная
+ * погрешность процентиля не больше 1/16 при фиксированной памяти и без выделений на запись.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+    /**
+     * @param nanos задержка, нс (отрицательные считаются нулём)
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * @return число записей
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param p процентиль (0..100)
+     * @return верхняя граница корзины, в которую попадает процентиль, нс (0 — записей нет)
+     */
+    public long percentile(double p) {
+        if (p < 0 || p > 100) {
+            throw new IllegalArgumentException("percentile must be 0..100: " + p);
+        }
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * p / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    private static int bucketOf(long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        // v = (16 + sub) << exp: 16 корзин на каждую степень двойки
+        int exp = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        int sub = (int) (v >>> exp) & (SUB_BUCKETS - 1);
+        return (exp + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exp = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << exp) - 1;
+    }
+}
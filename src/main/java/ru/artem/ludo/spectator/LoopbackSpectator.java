@@ -0,0 +1,88 @@
+package ru.artem.ludo.spectator;
+
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.PlayerColor;
+
+/**
+ * Зритель внутри процесса: восстанавливает партию из кадров так же, как удалённый клиент.
+ *
+ * <p>Кадр, следующий сразу за предыдущим, применяется как дельта; после пропуска (кадры свернулись,
+ * пока зритель был занят) расстановка берётся целиком из кадра. Задержку от публикации до
+ * получения можно писать в общую {@link LatencyHistogram}.</p>
+ */
+public final class LoopbackSpectator implements SpectatorListener {
+
+    private final LatencyHistogram latency;
+
+    private volatile BoardSnapshot snapshot;
+    private volatile PlayerColor toMove;
+    private volatile long lastSequence;
+    private long deltasApplied;
+    private long resyncs;
+
+    /**
+     * @param latency куда писать задержку доставки (null — не мерить)
+     */
+    public LoopbackSpectator(LatencyHistogram latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Зритель без замера задержки.
+     */
+    public LoopbackSpectator() {
+        this(null);
+    }
+
+    @Override
+    public void onFrame(SpectatorFrame frame) {
+        if (latency != null) {
+            latency.record(System.nanoTime() - frame.publishedNanos());
+        }
+        long sequence = frame.sequence();
+        if (snapshot != null && sequence == lastSequence + 1) {
+            snapshot = frame.applyDelta(snapshot);
+            deltasApplied++;
+        } else {
+            snapshot = frame.snapshot();
+            resyncs++;
+        }
+        toMove = frame.toMove();
+        lastSequence = sequence;
+    }
+
+    /**
+     * @return восстановленная расстановка (null — кадров ещё не было)
+     */
+    public BoardSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return чей ход по последнему кадру
+     */
+    public PlayerColor toMove() {
+        return toMove;
+    }
+
+    /**
+     * @return номер последнего полученного кадра
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @return сколько кадров применено как дельта
+     */
+    public long deltasApplied() {
+        return deltasApplied;
+    }
+
+    /**
+     * @return сколько раз расстановка бралась целиком (первый кадр и пропуски)
+     */
+    public long resyncs() {
+        return resyncs;
+    }
+}
@@ -0,0 +1,173 @@
+package ru.artem.ludo.spectator;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.PositionType;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Кадр трансляции: одно изменение партии, закодированное один раз для всех зрителей.
+ *
+ * <p>Буфер только для чтения и разделяется всеми подписчиками; читается только абсолютными
+ * {@code get}, поэтому позиция буфера никем не меняется и копии на зрителя не нужны.
+ * Кадр самодостаточен: кроме дельты (какие фишки куда встали) в нём лежит вся расстановка
+ * в упакованном виде, поэтому зритель, пропустивший кадры, догоняет по последнему.</p>
+ *
+ * <pre>
+ * 0   long  номер кадра
+ * 8   long  System.nanoTime() публикации
+ * 16  byte  чей ход (ordinal цвета)
+ * 17  byte  число слов расстановки W
+ * 18  short число изменений D
+ * 20  long[W] упакованная расстановка ({@link BoardSnapshot#word(int)})
+ * ..  D × (byte слот, byte тип позиции, short индекс без знака)
+ * </pre>
+ */
+public final class SpectatorFrame {
+
+    private static final int HEADER_BYTES = 20;
+    private static final int DELTA_BYTES = 4;
+
+    /** Наибольший индекс клетки, который помещается в дельту. */
+    static final int MAX_INDEX = 0xFFFF;
+
+    private final GameConfig config;
+    private final ByteBuffer data;
+
+    private SpectatorFrame(GameConfig config, ByteBuffer data) {
+        this.config = config;
+        this.data = data;
+    }
+
+    /**
+     * Кодирует изменение расстановки.
+     *
+     * @param sequence номер кадра
+     * @param previous предыдущая расстановка (null — первый кадр, дельта пустая)
+     * @param current новая расстановка
+     * @param toMove чей ход
+     * @return кадр
+     */
+    static SpectatorFrame encode(long sequence, BoardSnapshot previous, BoardSnapshot current, PlayerColor toMove) {
+        GameConfig config = current.config();
+        int slots = config.players().size() * Board.TOKENS_PER_PLAYER;
+        int changed = 0;
+        if (previous != null) {
+            for (int slot = 0; slot < slots; slot++) {
+                TokenId t = tokenOf(config, slot);
+                if (previous.routeDistance(t) != current.routeDistance(t)) {
+                    changed++;
+                }
+            }
+        }
+
+        int words = current.wordCount();
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + words * Long.BYTES + changed * DELTA_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putLong(sequence).putLong(System.nanoTime())
+                .put((byte) toMove.ordinal()).put((byte) words).putShort((short) changed);
+        for (int i = 0; i < words; i++) {
+            out.putLong(current.word(i));
+        }
+        if (changed > 0) {
+            for (int slot = 0; slot < slots; slot++) {
+                TokenId t = tokenOf(config, slot);
+                if (previous.routeDistance(t) != current.routeDistance(t)) {
+                    TokenPosition p = current.position(t);
+                    out.put((byte) slot).put((byte) p.type().ordinal()).putShort((short) p.index());
+                }
+            }
+        }
+        out.flip();
+        return new SpectatorFrame(config, out.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * @return разделяемый буфер кадра (только для чтения; читать абсолютными методами)
+     */
+    public ByteBuffer buffer() {
+        return data;
+    }
+
+    /**
+     * @return размер кадра в байтах
+     */
+    public int size() {
+        return data.limit();
+    }
+
+    /**
+     * @return номер кадра (растёт на 1 с каждой публикацией)
+     */
+    public long sequence() {
+        return data.getLong(0);
+    }
+
+    /**
+     * @return {@link System#nanoTime()} в момент публикации
+     */
+    public long publishedNanos() {
+        return data.getLong(8);
+    }
+
+    /**
+     * @return чей ход после изменения
+     */
+    public PlayerColor toMove() {
+        return PlayerColor.values()[data.get(16)];
+    }
+
+    /**
+     * @return число фишек, сменивших позицию
+     */
+    public int deltaCount() {
+        return data.getShort(18);
+    }
+
+    /**
+     * Полная расстановка из кадра (для первого кадра и после пропусков).
+     *
+     * @return снимок
+     */
+    public BoardSnapshot snapshot() {
+        long[] words = new long[data.get(17)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = data.getLong(HEADER_BYTES + i * Long.BYTES);
+        }
+        return BoardSnapshot.fromWords(config, words);
+    }
+
+    /**
+     * Применяет дельту кадра к расстановке предыдущего кадра.
+     *
+     * @param previous расстановка кадра {@code sequence() - 1}
+     * @return новая расстановка
+     */
+    public BoardSnapshot applyDelta(BoardSnapshot previous) {
+        PositionType[] types = PositionType.values();
+        BoardSnapshot next = previous;
+        int at = HEADER_BYTES + data.get(17) * Long.BYTES;
+        for (int d = deltaCount(); d > 0; d--, at += DELTA_BYTES) {
+            int index = data.getShort(at + 2) & 0xFFFF;
+            TokenPosition p = switch (types[data.get(at + 1)]) {
+                case BASE -> TokenPosition.base();
+                case START -> TokenPosition.start();
+                case TRACK -> TokenPosition.track(index);
+                case HOME_LANE -> TokenPosition.homeLane(index);
+                case HOME -> TokenPosition.home();
+            };
+            next = next.with(tokenOf(config, data.get(at) & 0xFF), p);
+        }
+        return next;
+    }
+
+    private static TokenId tokenOf(GameConfig config, int slot) {
+        return new TokenId(config.players().get(slot / Board.TOKENS_PER_PLAYER), slot % Board.TOKENS_PER_PLAYER);
+    }
+}
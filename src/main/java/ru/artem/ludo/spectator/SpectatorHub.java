@@ -0,0 +1,87 @@
+package ru.artem.ludo.spectator;
+
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Трансляция партии зрителям.
+ *
+ * <p>Каждое изменение кодируется в {@link SpectatorFrame} ровно один раз, а затем один и тот же
+ * неизменяемый буфер раскладывается по почтовым ящикам подписчиков — сериализации на зрителя нет.
+ * Публикация не ждёт зрителей: она только кладёт ссылку в ящик и, если зритель свободен,
+ * планирует доставку на исполнителе. Публикует один поток (поток партии).</p>
+ */
+public final class SpectatorHub {
+
+    private final GameConfig config;
+    private final Executor executor;
+    private final CopyOnWriteArrayList<SpectatorSubscription> subscribers = new CopyOnWriteArrayList<>();
+
+    private BoardSnapshot lastSnapshot;
+    private volatile SpectatorFrame lastFrame;
+    private long sequence;
+
+    /**
+     * @param config конфигурация транслируемой партии
+     * @param executor на чём выполнять доставку кадров зрителям
+     */
+    public SpectatorHub(GameConfig config, Executor executor) {
+        this.config = Objects.requireNonNull(config);
+        this.executor = Objects.requireNonNull(executor);
+        if (Math.max(config.trackLength(), config.homeLaneLength()) - 1 > SpectatorFrame.MAX_INDEX) {
+            throw new IllegalArgumentException("Track is too long for frame deltas: " + config.trackLength());
+        }
+    }
+
+    /**
+     * Подписывает зрителя; если трансляция уже идёт, он сразу получает последний кадр.
+     *
+     * @param listener получатель кадров
+     * @return подписка
+     */
+    public SpectatorSubscription subscribe(SpectatorListener listener) {
+        SpectatorSubscription subscription = new SpectatorSubscription(this, Objects.requireNonNull(listener), executor);
+        subscribers.add(subscription);
+        SpectatorFrame frame = lastFrame;
+        if (frame != null) {
+            subscription.offer(frame);
+        }
+        return subscription;
+    }
+
+    void unsubscribe(SpectatorSubscription subscription) {
+        subscribers.remove(subscription);
+    }
+
+    /**
+     * @return число подписчиков
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Публикует новое состояние партии.
+     *
+     * @param snapshot расстановка
+     * @param toMove чей ход
+     * @return закодированный кадр
+     */
+    public SpectatorFrame publish(BoardSnapshot snapshot, PlayerColor toMove) {
+        if (!snapshot.config().equals(config)) {
+            throw new IllegalArgumentException("Snapshot is from another game configuration");
+        }
+        SpectatorFrame frame = SpectatorFrame.encode(++sequence, lastSnapshot, snapshot, toMove);
+        lastSnapshot = snapshot;
+        lastFrame = frame;
+        for (SpectatorSubscription s : subscribers) {
+            s.offer(frame);
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.artem.ludo.spectator;
+
+/**
+ * Получатель кадров трансляции.
+ *
+ * <p>Кадры одного подписчика приходят по одному и по возрастанию номера, но с пропусками:
+ * пока подписчик обрабатывает кадр, новые кадры сворачиваются в последний.</p>
+ */
+@FunctionalInterface
+public interface SpectatorListener {
+
+    /**
+     * @param frame очередной кадр (разделяется со всеми зрителями, менять нельзя)
+     */
+    void onFrame(SpectatorFrame frame);
+}
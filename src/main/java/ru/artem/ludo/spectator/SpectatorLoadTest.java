@@ -0,0 +1,168 @@
+package ru.artem.ludo.spectator;
+
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TurnEngine;
+import ru.artem.ludo.core.TurnState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон трансляции: много зрителей-{@link LoopbackSpectator}, партия со случайными ходами,
+ * задержка от публикации кадра до его обработки зрителем по процентилям.
+ */
+public final class SpectatorLoadTest {
+
+    private SpectatorLoadTest() {
+    }
+
+    /**
+     * Итог прогона.
+     */
+    public record Result(
+            /** Число зрителей. */
+            int subscribers,
+            /** Сколько кадров опубликовано. */
+            int frames,
+            /** Сколько кадров доставлено всем зрителям вместе. */
+            long delivered,
+            /** Сколько кадров свернулось в более новые. */
+            long coalesced,
+            /** Сколько зрителей в конце видят ту же расстановку, что и партия. */
+            int consistent,
+            /** Среднее время публикации (кодирование + раскладка по ящикам), нс. */
+            long publishNanos,
+            /** Гистограмма задержек доставки. */
+            LatencyHistogram latency
+    ) {
+    }
+
+    /**
+     * @param subscribers число зрителей
+     * @param frames сколько ходов партии транслировать (партии переигрываются, пока не наберётся)
+     * @param intervalNanos пауза между публикациями, нс (0 — без пауз)
+     * @param threads потоков доставки
+     * @param seed зерно партии
+     * @return итог
+     */
+    public static Result run(int subscribers, int frames, long intervalNanos, int threads, long seed)
+            throws InterruptedException {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        List<BoardSnapshot> snapshots = new ArrayList<>(frames);
+        List<PlayerColor> movers = new ArrayList<>(frames);
+        record(config, frames, seed, snapshots, movers);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            SpectatorHub hub = new SpectatorHub(config, executor);
+            LatencyHistogram latency = new LatencyHistogram();
+            List<LoopbackSpectator> spectators = new ArrayList<>(subscribers);
+            List<SpectatorSubscription> subscriptions = new ArrayList<>(subscribers);
+            for (int i = 0; i < subscribers; i++) {
+                LoopbackSpectator s = new LoopbackSpectator(latency);
+                spectators.add(s);
+                subscriptions.add(hub.subscribe(s));
+            }
+
+            long publishTotal = 0;
+            long next = System.nanoTime();
+            for (int f = 0; f < frames; f++) {
+                if (intervalNanos > 0) {
+                    next += intervalNanos;
+                    long wait;
+                    while ((wait = next - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                long t0 = System.nanoTime();
+                hub.publish(snapshots.get(f), movers.get(f));
+                publishTotal += System.nanoTime() - t0;
+            }
+
+            // последний кадр сворачиванием не теряется: дожидаемся, пока его получат все
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            for (LoopbackSpectator s : spectators) {
+                while (s.lastSequence() < frames && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            }
+
+            BoardSnapshot last = snapshots.get(frames - 1);
+            int consistent = 0;
+            for (LoopbackSpectator s : spectators) {
+                if (last.equals(s.snapshot())) {
+                    consistent++;
+                }
+            }
+            long delivered = 0;
+            long coalesced = 0;
+            for (SpectatorSubscription s : subscriptions) {
+                delivered += s.delivered();
+                coalesced += s.coalesced();
+            }
+            return new Result(subscribers, frames, delivered, coalesced, consistent, publishTotal / frames, latency);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void record(GameConfig config, int frames, long seed,
+                               List<BoardSnapshot> snapshots, List<PlayerColor> movers) {
+        Random random = new Random(seed);
+        Dice dice = new Dice(random);
+        MoveStrategy strategy = MoveStrategy.random(random);
+        while (snapshots.size() < frames) {
+            Board board = new Board(config);
+            TurnEngine turns = new TurnEngine(board);
+            while (turns.state() != TurnState.FINISHED && snapshots.size() < frames) {
+                int applied = turns.movesApplied();
+                switch (turns.state()) {
+                    case AWAIT_ROLL -> turns.roll(dice.roll());
+                    case AWAIT_MOVE -> turns.move(strategy.choose(board, turns.currentPlayer(), turns.pendingRoll(), turns.options()));
+                    case AWAIT_BONUS -> turns.move(strategy.chooseBonus(board, turns.currentPlayer(), turns.pendingBonus(), turns.options()));
+                    default -> throw new IllegalStateException("Unexpected state " + turns.state());
+                }
+                if (turns.movesApplied() != applied) {
+                    snapshots.add(board.snapshot());
+                    movers.add(turns.currentPlayer());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param args [зрителей] [кадров] [пауза между кадрами, мкс] [потоков доставки]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int subscribers = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        long intervalMicros = args.length > 2 ? Long.parseLong(args[2]) : 1_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        // прогрев JIT на той же нагрузке
+        run(subscribers, Math.min(frames, 100), intervalMicros * 1_000, threads, 1);
+        Result r = run(subscribers, frames, intervalMicros * 1_000, threads, 2);
+
+        LatencyHistogram h = r.latency();
+        System.out.printf("%d subscribers, %d frames every %d us, %d delivery threads%n",
+                r.subscribers(), r.frames(), intervalMicros, threads);
+        System.out.printf("publish: %.1f us/frame (%.0f ns per subscriber)%n",
+                r.publishNanos() / 1_000.0, (double) r.publishNanos() / r.subscribers());
+        System.out.printf("delivered %d, coalesced %d (%.1f%%), consistent %d/%d%n",
+                r.delivered(), r.coalesced(), 100.0 * r.coalesced() / ((long) r.frames() * r.subscribers()),
+                r.consistent(), r.subscribers());
+        System.out.printf("latency us: p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                h.percentile(50) / 1_000.0, h.percentile(90) / 1_000.0, h.percentile(99) / 1_000.0,
+                h.percentile(99.9) / 1_000.0, h.percentile(100) / 1_000.0);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.artem.ludo.spectator;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Подписка зрителя: почтовый ящик на один кадр.
+ *
+ * <p>Новый кадр заменяет ещё не доставленный, поэтому медленный зритель не копит очередь,
+ * а получает последнее состояние. Доставка идёт задачей на общем исполнителе; флаг
+ * {@code scheduled} гарантирует, что для одного зрителя одновременно работает не больше
+ * одной задачи и кадры приходят по порядку. Исключение из зрителя не останавливает доставку:
+ * оно считается ({@link #failures()}), а зритель получает следующие кадры.</p>
+ */
+public final class SpectatorSubscription {
+
+    private final SpectatorHub hub;
+    private final SpectatorListener listener;
+    private final Executor executor;
+    private final AtomicReference<SpectatorFrame> mailbox = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final Runnable drain = this::drain;
+
+    /** Номер последнего доставленного кадра (меняет только задача доставки). */
+    private long lastDelivered;
+
+    SpectatorSubscription(SpectatorHub hub, SpectatorListener listener, Executor executor) {
+        this.hub = hub;
+        this.listener = listener;
+        this.executor = executor;
+    }
+
+    void offer(SpectatorFrame frame) {
+        SpectatorFrame current;
+        do {
+            current = mailbox.get();
+            if (current != null && current.sequence() >= frame.sequence()) {
+                // подписка и публикация разошлись: в ящике уже кадр новее
+                return;
+            }
+        } while (!mailbox.compareAndSet(current, frame));
+        if (current != null) {
+            coalesced.incrementAndGet();
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            SpectatorFrame frame = mailbox.getAndSet(null);
+            if (frame != null) {
+                if (frame.sequence() <= lastDelivered) {
+                    continue;
+                }
+                lastDelivered = frame.sequence();
+                try {
+                    listener.onFrame(frame);
+                } catch (RuntimeException e) {
+                    // иначе флаг scheduled остался бы поднят и зритель больше не получил бы кадров
+                    failures.incrementAndGet();
+                } finally {
+                    delivered.incrementAndGet();
+                }
+                continue;
+            }
+            scheduled.set(false);
+            // кадр мог прийти между опустошением ящика и сбросом флага
+            if (mailbox.get() == null || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Отписывает зрителя; уже запланированный кадр ещё может быть доставлен.
+     */
+    public void cancel() {
+        hub.unsubscribe(this);
+    }
+
+    /**
+     * @return сколько кадров доставлено
+     */
+    public long delivered() {
+        return delivered.get();
+    }
+
+    /**
+     * @return сколько кадров заменено более новыми до доставки
+     */
+    public long coalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return сколько раз зритель бросил исключение при обработке кадра
+     */
+    public long failures() {
+        return failures.get();
+    }
+}
@@ -6,15 +6,22 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Панель отрисовки игрового поля.
  *
- * <p>Рисует упрощённое поле: квадратное кольцо (40 клеток по периметру),
- * 4 базовых зоны по углам и цветные дорожки к дому в центре.
+ * <p>Рисует упрощённое поле: кольцо из {@code trackLength} клеток по окружности,
+ * базы игроков внутри кольца между дорожками и цветные дорожки к дому в центре.
+ * Геометрия строится параметрически, поэтому подходит для 2–8 игроков и любой длины кольца.
  * Клик по кругляшку-фишке отправляет событие контроллеру.</p>
+ *
+ * <p>Статичный слой (кольцо, дорожки, базы) рисуется один раз на размер панели в
+ * {@link BufferedImage}, в кадре поверх него рисуются только фишки. Шрифт подписей
+ * готовится в фоне ({@link #preloadFonts()}): пока его нет, фишки рисуются без номеров,
+ * чтобы первый кадр не ждал инициализации шрифтов.</p>
  */
 public final class BoardPanel extends JPanel {
 
@@ -32,16 +39,45 @@ public final class BoardPanel extends JPanel {
     private final Map<PlayerColor, Map<Integer, Point>> homeLaneCenters;
 
     /**
-     * Радиус отрисовки фишки.
+     * Кэш координат баз: color -> левый верхний угол квадрата базы.
+     */
+    private final Map<PlayerColor, Point> baseCorners;
+
+    /**
+     * Радиус отрисовки фишки (зависит от размера клетки).
+     */
+    private int tokenRadius;
+
+    /**
+     * Размер клетки кольца/дорожки и сторона квадрата базы.
+     */
+    private int cellSize;
+    private int baseSize;
+
+    /**
+     * Статичный слой поля для текущего размера панели (null — ещё не построен).
      */
-    private final int tokenRadius;
+    private BufferedImage staticLayer;
+
+    /**
+     * Базовый шрифт подписей фишек; появляется после {@link #preloadFonts()}.
+     */
+    private volatile Font labelFont;
+
+    /**
+     * Вызывается один раз после отрисовки первого кадра.
+     */
+    private Runnable firstFrameListener;
 
     public BoardPanel(GameConfig config, LudoController controller) {
         this.config = config;
         this.controller = controller;
         this.trackCellCenters = new HashMap<>();
         this.homeLaneCenters = new HashMap<>();
+        this.baseCorners = new HashMap<>();
         this.tokenRadius = 10;
+        this.cellSize = 28;
+        this.baseSize = 90;
 
         setPreferredSize(new Dimension(720, 720));
         setBackground(Color.WHITE);
@@ -58,90 +94,139 @@ public final class BoardPanel extends JPanel {
         });
     }
 
+    /**
+     * Подписка на первый отрисованный кадр (например, чтобы после него запускать тяжёлые подсистемы).
+     *
+     * @param listener обработчик, вызывается на EDT один раз
+     */
+    public void setFirstFrameListener(Runnable listener) {
+        this.firstFrameListener = listener;
+    }
+
+    /**
+     * Готовит шрифт подписей фишек (загрузка шрифтовой подсистемы занимает заметное время).
+     * Можно вызывать из любого потока; по готовности панель перерисовывается.
+     */
+    public void preloadFonts() {
+        Font font = getFont().deriveFont(Font.BOLD, 11f);
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = probe.createGraphics();
+        try {
+            g.setFont(font);
+            g.getFontMetrics().stringWidth("1234");
+        } finally {
+            g.dispose();
+        }
+        labelFont = font;
+        SwingUtilities.invokeLater(this::repaint);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g.create();
         try {
+            if (staticLayer == null || staticLayer.getWidth() != getWidth() || staticLayer.getHeight() != getHeight()) {
+                staticLayer = renderStaticLayer();
+            }
+            g2.drawImage(staticLayer, 0, 0, null);
+
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            // один снимок на кадр: все фишки рисуются из одной согласованной позиции
+            drawTokens(g2, controller.snapshot());
+        } finally {
+            g2.dispose();
+        }
+
+        Runnable listener = firstFrameListener;
+        if (listener != null) {
+            firstFrameListener = null;
+            listener.run();
+        }
+    }
 
-            computeGeometry();
+    /**
+     * Пересчитывает геометрию под текущий размер и рисует неизменную часть поля.
+     */
+    private BufferedImage renderStaticLayer() {
+        computeGeometry();
+        BufferedImage image = new BufferedImage(Math.max(1, getWidth()), Math.max(1, getHeight()),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             drawTrack(g2);
             drawHomeLanes(g2);
             drawBases(g2);
-            drawTokens(g2);
         } finally {
             g2.dispose();
         }
+        return image;
     }
 
     private void computeGeometry() {
         trackCellCenters.clear();
         homeLaneCenters.clear();
+        baseCorners.clear();
 
         int w = getWidth();
         int h = getHeight();
+        int cx = w / 2;
+        int cy = h / 2;
 
-        int margin = 80;
-        int left = margin;
-        int top = margin;
-        int right = w - margin;
-        int bottom = h - margin;
+        int trackLen = config.trackLength();
+        double radius = Math.min(w, h) / 2.0 - 40;
 
-        int stepsPerSide = config.trackLength() / 4; // ожидаем 40 -> 10
-        int cellStepX = (right - left) / stepsPerSide;
-        int cellStepY = (bottom - top) / stepsPerSide;
+        // размер клетки подбираем по длине окружности: 40 клеток -> 28px, длинные кольца -> мельче
+        cellSize = (int) Math.max(8, Math.min(28, 2 * Math.PI * radius / trackLen * 0.85));
+        tokenRadius = Math.max(4, cellSize * 10 / 28);
 
-        // absIndex 0..39: против часовой стрелки начиная с верхнего левого угла по верхней стороне вправо
-        // Для простоты: 0..9 верх, 10..19 правая сторона вниз, 20..29 низ влево, 30..39 левая сторона вверх
-        for (int i = 0; i < config.trackLength(); i++) {
-            int x;
-            int y;
-            if (i < stepsPerSide) {
-                x = left + cellStepX * i;
-                y = top;
-            } else if (i < 2 * stepsPerSide) {
-                x = right;
-                y = top + cellStepY * (i - stepsPerSide);
-            } else if (i < 3 * stepsPerSide) {
-                x = right - cellStepX * (i - 2 * stepsPerSide);
-                y = bottom;
-            } else {
-                x = left;
-                y = bottom - cellStepY * (i - 3 * stepsPerSide);
-            }
-            trackCellCenters.put(i, new Point(x, y));
+        // absIndex 0..trackLen-1: по часовой стрелке, начиная с верхнего левого направления
+        for (int i = 0; i < trackLen; i++) {
+            trackCellCenters.put(i, polar(cx, cy, radius, angleOfCell(i)));
         }
 
-        int cx = w / 2;
-        int cy = h / 2;
-        int laneGap = 28;
+        int players = config.players().size();
+        double homeRadius = 22;
+        double laneStep = Math.min(28, (radius - homeRadius - cellSize) / (config.homeLaneLength() + 1));
+        double sector = 2 * Math.PI / players;
+        baseSize = (int) Math.max(4 * tokenRadius + 10,
+                Math.min(90, Math.min(radius * 0.45, 2 * radius * 0.55 * Math.sin(sector / 2) * 0.8)));
 
         for (PlayerColor color : config.players()) {
+            int start = startIndex(color);
+
+            // дорожка к дому идёт по радиусу между клеткой входа (start-1) и клеткой выхода
+            double laneAngle = angleOfCell(start) - Math.PI / trackLen;
             Map<Integer, Point> lane = new HashMap<>();
             for (int li = 0; li < config.homeLaneLength(); li++) {
-                Point p;
-                switch (color) {
-                    case RED -> p = new Point(cx - laneGap * (li + 1), cy);
-                    case BLUE -> p = new Point(cx, cy - laneGap * (li + 1));
-                    case GREEN -> p = new Point(cx + laneGap * (li + 1), cy);
-                    case YELLOW -> p = new Point(cx, cy + laneGap * (li + 1));
-                    default -> p = new Point(cx, cy);
-                }
-                lane.put(li, p);
+                lane.put(li, polar(cx, cy, radius - laneStep * (li + 1), laneAngle));
             }
             homeLaneCenters.put(color, lane);
+
+            // база — в середине сектора игрока, между его дорожкой и дорожкой следующего
+            Point baseCenter = polar(cx, cy, radius * 0.55, angleOfCell(start) + sector / 2);
+            baseCorners.put(color, new Point(baseCenter.x - baseSize / 2, baseCenter.y - baseSize / 2));
         }
     }
 
+    private double angleOfCell(int absIndex) {
+        return -3 * Math.PI / 4 + 2 * Math.PI * absIndex / config.trackLength();
+    }
+
+    private static Point polar(int cx, int cy, double r, double angle) {
+        return new Point((int) Math.round(cx + r * Math.cos(angle)), (int) Math.round(cy + r * Math.sin(angle)));
+    }
+
     private void drawTrack(Graphics2D g2) {
         for (int i = 0; i < config.trackLength(); i++) {
             Point p = trackCellCenters.get(i);
             boolean safe = config.safeTrackCells().contains(i);
+            int half = cellSize / 2;
             g2.setColor(safe ? new Color(220, 220, 220) : new Color(245, 245, 245));
-            g2.fillRoundRect(p.x - 14, p.y - 14, 28, 28, 8, 8);
+            g2.fillRoundRect(p.x - half, p.y - half, cellSize, cellSize, 8, 8);
             g2.setColor(new Color(180, 180, 180));
-            g2.drawRoundRect(p.x - 14, p.y - 14, 28, 28, 8, 8);
+            g2.drawRoundRect(p.x - half, p.y - half, cellSize, cellSize, 8, 8);
         }
 
         // дом в центре
@@ -159,24 +244,20 @@ public final class BoardPanel extends JPanel {
             Map<Integer, Point> lane = homeLaneCenters.get(c);
             for (int li = 0; li < config.homeLaneLength(); li++) {
                 Point p = lane.get(li);
+                int size = cellSize - 4;
                 g2.setColor(new Color(col.getRed(), col.getGreen(), col.getBlue(), 60));
-                g2.fillRoundRect(p.x - 12, p.y - 12, 24, 24, 8, 8);
+                g2.fillRoundRect(p.x - size / 2, p.y - size / 2, size, size, 8, 8);
                 g2.setColor(new Color(col.getRed(), col.getGreen(), col.getBlue(), 180));
-                g2.drawRoundRect(p.x - 12, p.y - 12, 24, 24, 8, 8);
+                g2.drawRoundRect(p.x - size / 2, p.y - size / 2, size, size, 8, 8);
             }
         }
     }
 
     private void drawBases(Graphics2D g2) {
-        int w = getWidth();
-        int h = getHeight();
-        int size = 90;
-        int pad = 20;
-
-        drawBaseSquare(g2, PlayerColor.RED, pad, pad, size);
-        drawBaseSquare(g2, PlayerColor.BLUE, w - pad - size, pad, size);
-        drawBaseSquare(g2, PlayerColor.GREEN, w - pad - size, h - pad - size, size);
-        drawBaseSquare(g2, PlayerColor.YELLOW, pad, h - pad - size, size);
+        for (PlayerColor c : config.players()) {
+            Point corner = baseCorners.get(c);
+            drawBaseSquare(g2, c, corner.x, corner.y, baseSize);
+        }
     }
 
     private void drawBaseSquare(Graphics2D g2, PlayerColor c, int x, int y, int size) {
@@ -187,11 +268,11 @@ public final class BoardPanel extends JPanel {
         g2.drawRoundRect(x, y, size, size, 14, 14);
     }
 
-    private void drawTokens(Graphics2D g2) {
+    private void drawTokens(Graphics2D g2, BoardSnapshot snapshot) {
         for (PlayerColor c : config.players()) {
-            for (int i = 0; i < 4; i++) {
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
                 TokenId t = new TokenId(c, i);
-                TokenPosition pos = controller.position(t);
+                TokenPosition pos = snapshot.position(t);
                 Point p = pointForToken(t, pos);
 
                 boolean movable = controller.isTokenMovableNow(t);
@@ -204,19 +285,26 @@ public final class BoardPanel extends JPanel {
                 g2.setStroke(new BasicStroke(movable ? 3f : 1.5f));
                 g2.drawOval(p.x - tokenRadius, p.y - tokenRadius, tokenRadius * 2, tokenRadius * 2);
 
+                Font font = labelFont;
+                if (font == null) {
+                    continue;
+                }
                 g2.setColor(Color.WHITE);
-                g2.setFont(getFont().deriveFont(Font.BOLD, 11f));
+                // на мелких клетках (длинное кольцо) подпись уменьшается вместе с фишкой
+                float fontSize = Math.min(11f, tokenRadius * 1.1f);
+                g2.setFont(font.deriveFont(fontSize));
                 String label = String.valueOf(i + 1);
-                g2.drawString(label, p.x - 3, p.y + 4);
+                g2.drawString(label, p.x - fontSize * 0.3f, p.y + fontSize * 0.36f);
             }
         }
     }
 
     private TokenId findTokenAt(Point mouse) {
+        BoardSnapshot snapshot = controller.snapshot();
         for (PlayerColor c : config.players()) {
-            for (int i = 0; i < 4; i++) {
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
                 TokenId t = new TokenId(c, i);
-                TokenPosition pos = controller.position(t);
+                TokenPosition pos = snapshot.position(t);
                 Point p = pointForToken(t, pos);
                 double dist = mouse.distance(p);
                 if (dist <= tokenRadius + 3) {
@@ -237,13 +325,13 @@ public final class BoardPanel extends JPanel {
             Point base = trackCellCenters.get(absTrackIndex);
 
             // смещение для двух фишек на одной клетке
-            int offset = token.index() % 2 == 0 ? -8 : 8;
+            int offset = token.index() % 2 == 0 ? -cellSize / 4 : cellSize / 4;
             return new Point(base.x + offset, base.y);
         }
 
         if (pos.type() == PositionType.HOME_LANE) {
             Point base = homeLaneCenters.get(token.color()).get(pos.index());
-            int offset = token.index() % 2 == 0 ? -6 : 6;
+            int offset = token.index() % 2 == 0 ? -cellSize / 5 : cellSize / 5;
             return new Point(base.x + offset, base.y);
         }
 
@@ -259,50 +347,17 @@ public final class BoardPanel extends JPanel {
     }
 
     private Point basePoint(TokenId token) {
-        int w = getWidth();
-        int h = getHeight();
-
-        int pad = 20;
-        int size = 90;
-
-        int x0;
-        int y0;
-        switch (token.color()) {
-            case RED -> {
-                x0 = pad;
-                y0 = pad;
-            }
-            case BLUE -> {
-                x0 = w - pad - size;
-                y0 = pad;
-            }
-            case GREEN -> {
-                x0 = w - pad - size;
-                y0 = h - pad - size;
-            }
-            case YELLOW -> {
-                x0 = pad;
-                y0 = h - pad - size;
-            }
-            default -> {
-                x0 = pad;
-                y0 = pad;
-            }
-        }
+        Point corner = baseCorners.get(token.color());
 
         int col = token.index() % 2;
         int row = token.index() / 2;
+        int step = baseSize / 3;
 
-        return new Point(x0 + 25 + col * 30, y0 + 25 + row * 30);
+        return new Point(corner.x + step + col * step, corner.y + step + row * step);
     }
 
     private int startIndex(PlayerColor color) {
-        for (GameConfig.PlayerStart ps : config.starts()) {
-            if (ps.color() == color) {
-                return ps.startTrackIndex();
-            }
-        }
-        return 0;
+        return config.startTrackIndex(color);
     }
 
     private Color awtColor(PlayerColor c) {
@@ -311,6 +366,10 @@ public final class BoardPanel extends JPanel {
             case BLUE -> new Color(45, 110, 220);
             case GREEN -> new Color(30, 160, 90);
             case YELLOW -> new Color(240, 190, 40);
+            case ORANGE -> new Color(245, 130, 30);
+            case PURPLE -> new Color(140, 70, 190);
+            case CYAN -> new Color(30, 180, 200);
+            case PINK -> new Color(230, 90, 160);
         };
     }
 }
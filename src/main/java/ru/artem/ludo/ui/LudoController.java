@@ -1,8 +1,18 @@
 package ru.artem.ludo.ui;
 
+import ru.artem.ludo.ai.PositionDatabase;
+import ru.artem.ludo.ai.PositionStats;
+import ru.artem.ludo.ai.WinEstimate;
+import ru.artem.ludo.ai.WinProbabilityOracle;
 import ru.artem.ludo.core.*;
+import ru.artem.ludo.replay.GameRecord;
+import ru.artem.ludo.replay.GameReplay;
+import ru.artem.ludo.replay.ReplayStep;
+import ru.artem.ludo.spectator.SpectatorHub;
 
+import javax.swing.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Контроллер GUI: хранит состояние партии и реализует сценарий взаимодействия
@@ -15,93 +25,167 @@ public final class LudoController {
     private final Dice dice;
 
     /**
-     * Индекс текущего игрока в списке config.players().
+     * Зерно кубика: по нему партию можно воспроизвести.
      */
-    private int currentPlayerIndex;
+    private final long seed;
 
     /**
-     * Последнее значение броска кубика (1..6), если игрок уже бросил.
+     * Последний опубликованный снимок доски. Его читают панель отрисовки и фоновые задачи
+     * без блокировок; изменяемая {@link Board} наружу не отдаётся.
      */
-    private Integer pendingRoll;
+    private volatile BoardSnapshot snapshot;
 
     /**
-     * Доступные ходы после броска.
+     * Очередь хода: бросок, выбор хода, бонус, доп. ход на 6, передача хода.
      */
-    private List<Move> legalMoves;
+    private final TurnEngine turns;
 
     /**
-     * Сколько шестёрок подряд выпало текущему игроку в GUI-цикле.
+     * Запись текущей партии (броски и ходы) для сохранения и повтора.
      */
-    private int consecutiveSixes;
+    private final GameRecord record;
 
     /**
-     * Флаг завершения игры.
+     * Открытый повтор (null — обычная игра) и сколько его ходов сейчас показано.
      */
-    private boolean finished;
+    private GameReplay replay;
+    private int replayPosition;
 
     /**
      * Сообщение/подсказка для UI.
      */
     private String message;
 
+    /**
+     * Фоновая оценка шансов на победу (null — ещё не запущена, см. {@link #startBackgroundServices()}).
+     */
+    private WinProbabilityOracle oracle;
+    private boolean oracleStarting;
+
+    /**
+     * Оценка, которая сейчас считается (отменяется при смене позиции).
+     */
+    private CompletableFuture<WinEstimate> pendingEstimate;
+    private BoardSnapshot estimatedSnapshot;
+    private PlayerColor estimatedToMove;
+
+    /**
+     * Последняя готовая оценка (null — ещё считается).
+     */
+    private WinEstimate winEstimate;
+
+    /**
+     * Вызывается на EDT, когда готова новая оценка.
+     */
+    private Runnable winEstimateListener;
+
+    /**
+     * База статистики позиций для подсказок (null — подсказок нет).
+     */
+    private PositionDatabase positions;
+
+    /**
+     * Трансляция партии зрителям (null — не транслируется).
+     */
+    private SpectatorHub spectators;
+
+    /**
+     * Боты за цветами (цвета без бота ходят кликами) и признак того, что бот сейчас ищет ход.
+     */
+    private final Map<PlayerColor, MoveStrategy> bots = new EnumMap<>(PlayerColor.class);
+    private boolean botThinking;
+
+    /**
+     * Сколько партий должно пройти через позицию, чтобы подсказывать по ней.
+     */
+    private static final long HINT_MIN_VISITS = 20;
+
     public LudoController(GameConfig config) {
+        this(config, GameSeeds.fresh());
+    }
+
+    /**
+     * Партия с заданным зерном кубика: те же ходы дают те же броски.
+     *
+     * @param config конфигурация поля/игроков
+     * @param seed зерно кубика
+     */
+    public LudoController(GameConfig config, long seed) {
         this.config = Objects.requireNonNull(config);
         this.board = new Board(config);
-        this.dice = new Dice(new Random());
+        this.seed = seed;
+        this.dice = new Dice(seed);
+        this.snapshot = board.snapshot();
 
-        this.currentPlayerIndex = 0;
-        this.pendingRoll = null;
-        this.legalMoves = List.of();
-        this.consecutiveSixes = 0;
-        this.finished = false;
+        this.turns = new TurnEngine(board);
+        this.record = new GameRecord(config, turns.currentPlayer());
         this.message = "Нажмите 'Бросить кубик'";
+
+        this.winEstimateListener = () -> { };
+    }
+
+    /**
+     * Запускает тяжёлые подсистемы (оценку шансов) в фоне, не задерживая первый кадр.
+     * Вызывается на EDT; повторные вызовы ничего не делают.
+     */
+    public void startBackgroundServices() {
+        if (oracle != null || oracleStarting) {
+            return;
+        }
+        oracleStarting = true;
+        CompletableFuture.supplyAsync(() -> new WinProbabilityOracle(600, 3_000, 4_096))
+                .thenAccept(created -> SwingUtilities.invokeLater(() -> {
+                    oracle = created;
+                    refreshWinEstimate();
+                }));
     }
 
     /**
      * @return true, если партия завершена
      */
     public boolean isGameFinished() {
-        return finished;
+        return turns.state() == TurnState.FINISHED;
     }
 
     /**
      * @return текущий игрок
      */
     public PlayerColor currentPlayer() {
-        return config.players().get(currentPlayerIndex);
+        return turns.currentPlayer();
     }
 
     /**
      * Выполняет бросок кубика для текущего игрока и рассчитывает допустимые ходы.
      *
-     * <p>Если ходов нет — игрок пропускает ход (кроме ситуации с 6, где доп. ход формально есть,
-     * но по правилам при отсутствии вариантов он всё равно заканчивает ход).</p>
+     * <p>Если ходов нет — игрок пропускает ход (в том числе при 6: без вариантов ход всё равно заканчивается).</p>
      */
     public void roll() {
-        if (finished) {
+        doRoll();
+        broadcast();
+        refreshWinEstimate();
+    }
+
+    private void doRoll() {
+        if (replay != null || turns.state() == TurnState.FINISHED) {
             return;
         }
-        if (pendingRoll != null) {
+        if (bots.containsKey(currentPlayer()) && !botThinking) {
+            message = "Сейчас ходит бот " + currentPlayer();
+            return;
+        }
+        if (turns.state() != TurnState.AWAIT_ROLL) {
             message = "Сначала выберите фишку для хода";
             return;
         }
 
+        PlayerColor player = currentPlayer();
         int roll = dice.roll();
-        pendingRoll = roll;
-
-        if (roll == 6) {
-            consecutiveSixes++;
-        } else {
-            consecutiveSixes = 0;
-        }
-
-        legalMoves = board.legalMoves(currentPlayer(), roll);
-
-        if (legalMoves.isEmpty()) {
-            message = currentPlayer() + ": выпало " + roll + ", ходов нет";
-            endTurnIfNeeded(roll);
+        TurnEvent rolled = turns.roll(roll);
+        record.recordRoll(roll);
+        if (rolled == TurnEvent.NO_MOVES) {
+            message = player + ": выпало " + roll + ", ходов нет";
         } else {
-            message = currentPlayer() + ": выпало " + roll + ". Выберите фишку.";
+            message = player + ": выпало " + roll + ". Выберите фишку.";
         }
     }
 
@@ -111,67 +195,267 @@ public final class LudoController {
      * @param token фишка (цвет + индекс)
      */
     public void clickToken(TokenId token) {
-        if (finished) {
+        doClickToken(token);
+        broadcast();
+        refreshWinEstimate();
+    }
+
+    private void doClickToken(TokenId token) {
+        if (replay != null || turns.state() == TurnState.FINISHED) {
             return;
         }
-        if (pendingRoll == null) {
+        if (turns.state() == TurnState.AWAIT_ROLL) {
             message = "Сначала бросьте кубик";
             return;
         }
-        if (token.color() != currentPlayer()) {
+        if (token.color() != currentPlayer() || bots.containsKey(token.color())) {
             message = "Сейчас ходит " + currentPlayer();
             return;
         }
 
-        Move chosen = chooseMoveForToken(token, pendingRoll);
+        Move chosen = chooseMoveForToken(token);
         if (chosen == null) {
             message = "Этой фишкой ходить нельзя";
             return;
         }
+        applyMove(chosen);
+    }
 
-        TurnOutcome outcome = board.applyMove(currentPlayer(), pendingRoll, chosen);
+    private void applyMove(Move chosen) {
+        PlayerColor player = currentPlayer();
+        TurnEvent event = turns.move(chosen);
+        record.recordMove(chosen);
+        snapshot = board.snapshot();
+        message = switch (event) {
+            case GAME_WON -> "Победитель: " + turns.winner().orElseThrow();
+            case BONUS_AVAILABLE -> player + ": бонус +" + turns.pendingBonus() + ". Выберите фишку.";
+            case EXTRA_TURN -> player + ": дополнительный ход (6). Бросьте кубик.";
+            case SIXES_PENALTY -> "Три 6 подряд — ход переходит к " + currentPlayer();
+            default -> "Ходит " + currentPlayer() + ". Бросьте кубик.";
+        };
+    }
+
+    /**
+     * Сажает бота за цвет или убирает его.
+     *
+     * @param color цвет
+     * @param strategy стратегия бота (null — цветом снова ходит человек)
+     */
+    public void setBot(PlayerColor color, MoveStrategy strategy) {
+        if (strategy == null) {
+            bots.remove(color);
+        } else {
+            bots.put(color, strategy);
+        }
+    }
+
+    /**
+     * @return true, если сейчас очередь бота и он ещё не думает над ходом
+     */
+    public boolean isBotTurn() {
+        return replay == null && !botThinking && turns.state() != TurnState.FINISHED
+                && bots.containsKey(currentPlayer());
+    }
 
-        Optional<PlayerColor> winner = board.winnerIfAny();
-        if (winner.isPresent()) {
-            finished = true;
-            message = "Победитель: " + winner.get();
+    /**
+     * Один шаг бота: бросок выполняется сразу, выбор хода — в фоне на копии доски, чтобы EDT
+     * не ждал поиска. Ход применяется на EDT, если за это время партия не изменилась.
+     *
+     * @param onMoved вызывается на EDT после применения хода бота
+     */
+    public void botStep(Runnable onMoved) {
+        if (!isBotTurn()) {
             return;
         }
+        PlayerColor player = currentPlayer();
+        botThinking = true;
+        if (turns.state() == TurnState.AWAIT_ROLL) {
+            doRoll();
+            botThinking = false;
+            broadcast();
+            refreshWinEstimate();
+            return;
+        }
+        MoveStrategy bot = bots.get(player);
+        Board copy = new Board(snapshot);
+        List<Move> options = turns.options();
+        boolean bonus = turns.state() == TurnState.AWAIT_BONUS;
+        int roll = turns.pendingRoll();
+        int steps = turns.pendingBonus();
+        CompletableFuture.supplyAsync(() -> bonus
+                        ? bot.chooseBonus(copy, player, steps, options)
+                        : bot.choose(copy, player, roll, options))
+                .whenComplete((move, error) -> SwingUtilities.invokeLater(() -> {
+                    botThinking = false;
+                    if (error == null && replay == null && currentPlayer() == player && turns.options() == options) {
+                        applyMove(move);
+                        broadcast();
+                        refreshWinEstimate();
+                    }
+                    onMoved.run();
+                }));
+    }
 
-        // бонусы после срубания/дома — в GUI делаем автоматически: двигаем первую доступную фишку
-        if (outcome.capture()) {
-            applyBonus(20);
-        } else if (outcome.reachedHome()) {
-            applyBonus(10);
+    /**
+     * @return запись текущей партии (пополняется по ходу игры)
+     */
+    public GameRecord record() {
+        return record;
+    }
+
+    /**
+     * Переключает поле в режим повтора: ходы недоступны, показывается расстановка повтора.
+     *
+     * @param replay повтор партии с теми же игроками
+     */
+    public void enterReplay(GameReplay replay) {
+        if (!replay.record().config().players().equals(config.players())) {
+            throw new IllegalArgumentException("Replay is recorded for other players: " + replay.record().config().players());
         }
+        this.replay = replay;
+        seekReplay(0);
+    }
 
-        winner = board.winnerIfAny();
-        if (winner.isPresent()) {
-            finished = true;
-            message = "Победитель: " + winner.get();
-            return;
+    /**
+     * Показывает расстановку после заданного числа ходов повтора.
+     *
+     * @param moves сколько ходов повтора применить
+     */
+    public void seekReplay(int moves) {
+        if (replay == null) {
+            throw new IllegalStateException("Replay is not open");
         }
+        snapshot = replay.seek(moves);
+        replayPosition = moves;
+    }
+
+    /**
+     * Закрывает повтор и возвращает поле к текущей партии.
+     */
+    public void exitReplay() {
+        replay = null;
+        snapshot = board.snapshot();
+    }
 
-        int roll = pendingRoll;
-        pendingRoll = null;
-        legalMoves = List.of();
+    /**
+     * @return открытый повтор или null
+     */
+    public GameReplay replay() {
+        return replay;
+    }
 
-        // правило трёх 6 подряд — в логике Board оно уже учтено, но в GUI нам важен переход хода.
-        if (consecutiveSixes >= 3) {
-            consecutiveSixes = 0;
-            nextPlayer();
-            message = "Три 6 подряд — ход переходит к " + currentPlayer();
-            return;
+    /**
+     * @return сколько ходов повтора сейчас показано
+     */
+    public int replayPosition() {
+        return replayPosition;
+    }
+
+    /**
+     * Описание последнего показанного хода повтора.
+     *
+     * @return строка вида "Ход 12 из 340: RED, выпало 6, фишка 2"
+     */
+    public String replayText() {
+        if (replay == null) {
+            return " ";
+        }
+        if (replayPosition == 0) {
+            return "Начало партии (ходов: " + replay.moveCount() + ")";
+        }
+        ReplayStep step = replay.step(replayPosition - 1);
+        String text = "Ход " + replayPosition + " из " + replay.moveCount() + ": " + step.mover()
+                + (step.bonus() ? ", бонус +" : ", выпало ") + step.roll()
+                + ", фишка " + (step.move().token().index() + 1);
+        if (step.event() == TurnEvent.GAME_WON) {
+            text += " — победа";
+        } else if (step.event() == TurnEvent.SIXES_PENALTY) {
+            text += " — три 6 подряд";
         }
+        return text;
+    }
 
-        if (roll == 6) {
-            message = currentPlayer() + ": дополнительный ход (6). Бросьте кубик.";
-            return;
+    /**
+     * @return последняя готовая оценка шансов или null, если она ещё считается
+     */
+    public WinEstimate winEstimate() {
+        return winEstimate;
+    }
+
+    /**
+     * Подписка на готовность новой оценки шансов (вызывается на EDT).
+     *
+     * @param listener обработчик
+     */
+    public void setWinEstimateListener(Runnable listener) {
+        this.winEstimateListener = Objects.requireNonNull(listener);
+    }
+
+    /**
+     * Подключает трансляцию: текущее состояние публикуется сразу, дальше — после каждого броска и хода.
+     *
+     * @param hub трансляция с той же конфигурацией (публикации идут с EDT)
+     */
+    public void setSpectatorHub(SpectatorHub hub) {
+        this.spectators = Objects.requireNonNull(hub);
+        broadcast();
+    }
+
+    private void broadcast() {
+        if (spectators != null && replay == null) {
+            spectators.publish(board.snapshot(), currentPlayer());
+        }
+    }
+
+    /**
+     * Подключает базу статистики позиций для подсказок.
+     *
+     * @param positions база (той же конфигурации, что и партия)
+     */
+    public void setPositionDatabase(PositionDatabase positions) {
+        if (!positions.config().players().equals(config.players())) {
+            throw new IllegalArgumentException("Position database is built for other players: " + positions.config().players());
         }
+        this.positions = positions;
+    }
 
-        consecutiveSixes = 0;
-        nextPlayer();
-        message = "Ходит " + currentPlayer() + ". Бросьте кубик.";
+    /**
+     * Подсказка по статистике базы: ход, после которого текущий игрок чаще всего выигрывал.
+     *
+     * @return текст подсказки (пустой, если базы нет или сейчас не выбор хода)
+     */
+    public String hintText() {
+        TurnState state = turns.state();
+        if (positions == null || replay != null || (state != TurnState.AWAIT_MOVE && state != TurnState.AWAIT_BONUS)) {
+            return " ";
+        }
+        PlayerColor player = currentPlayer();
+        BoardSnapshot current = snapshot;
+        Optional<Move> best = positions.bestMove(current, player, turns.options(), HINT_MIN_VISITS);
+        if (best.isEmpty()) {
+            return "Подсказка: по этим позициям нет статистики";
+        }
+        Move move = best.get();
+        PositionStats stats = positions.lookup(current.withMove(move), player).orElseThrow();
+        return "Подсказка: фишка " + (move.token().index() + 1) + " (побед " + Math.round(stats.winRate(player) * 100)
+                + "% из " + stats.visits() + " партий)";
+    }
+
+    /**
+     * Текст с шансами игроков для вывода в GUI.
+     *
+     * @return строка вида "Шансы: RED 30% · BLUE 25% ..."
+     */
+    public String winEstimateText() {
+        WinEstimate estimate = winEstimate;
+        if (estimate == null) {
+            return "Шансы: считаем…";
+        }
+        StringBuilder sb = new StringBuilder("Шансы:");
+        for (PlayerColor c : config.players()) {
+            sb.append(' ').append(c).append(' ').append(Math.round(estimate.probability(c) * 100)).append('%');
+        }
+        return sb.toString();
     }
 
     /**
@@ -187,27 +471,44 @@ public final class LudoController {
      * @return позиция фишки на доске
      */
     public TokenPosition position(TokenId token) {
-        return board.getPosition(token);
+        return snapshot.position(token);
+    }
+
+    /**
+     * @return неизменяемый снимок текущей расстановки (безопасно читать из любого потока)
+     */
+    public BoardSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return зерно кубика партии
+     */
+    public long seed() {
+        return seed;
     }
 
     /**
      * Возвращает, можно ли сейчас ходить данной фишкой (используется для подсветки).
      *
+     * <p>Вызывается для каждой фишки на каждой перерисовке, поэтому обычный ход проверяется по
+     * маске подвижных фишек из кэша доски; бонусных вариантов единицы, их достаточно перебрать.</p>
+     *
      * @param token фишка
      * @return true, если ход возможен
      */
     public boolean isTokenMovableNow(TokenId token) {
-        if (finished || pendingRoll == null) {
+        if (replay != null || token.color() != currentPlayer()) {
             return false;
         }
-        if (token.color() != currentPlayer()) {
-            return false;
+        if (turns.state() == TurnState.AWAIT_MOVE) {
+            return board.isMovable(token, turns.pendingRoll());
         }
-        return chooseMoveForToken(token, pendingRoll) != null;
+        return chooseMoveForToken(token) != null;
     }
 
-    private Move chooseMoveForToken(TokenId token, int roll) {
-        for (Move m : legalMoves) {
+    private Move chooseMoveForToken(TokenId token) {
+        for (Move m : turns.options()) {
             if (m.token().equals(token)) {
                 return m;
             }
@@ -215,33 +516,33 @@ public final class LudoController {
         return null;
     }
 
-    private void applyBonus(int bonusSteps) {
-        // бонус не должен влиять на правило шестёрок подряд => diceRoll=1
-        for (int i = 0; i < 4; i++) {
-            TokenId t = new TokenId(currentPlayer(), i);
-            Move m = new Move(t, bonusSteps);
-            TurnOutcome out = board.applyMove(currentPlayer(), 1, m);
-            // если ход был недопустим, applyMove вернёт outcome без эффектов, но позиция не изменится.
-            // Чтобы не усложнять API Board, считаем бонус применённым, если позиция изменилась в HOME/HOME_LANE/TRACK.
-            // В случае отсутствия вариантов — бонус пропускается.
-            if (out.capture() || out.reachedHome() || true) {
-                break;
-            }
+    /**
+     * Перезапускает фоновую оценку, если изменилась позиция или очередь хода.
+     * Результат приходит на EDT; сам EDT никогда не ждёт оценку.
+     */
+    private void refreshWinEstimate() {
+        if (oracle == null) {
+            return;
         }
-    }
-
-    private void endTurnIfNeeded(int roll) {
-        pendingRoll = null;
-        legalMoves = List.of();
-
-        if (roll == 6) {
-            // формально доп. ход есть, но если ходов нет — игрок заканчивает ход
-            consecutiveSixes = 0;
+        BoardSnapshot current = snapshot;
+        PlayerColor toMove = currentPlayer();
+        if (current.equals(estimatedSnapshot) && toMove == estimatedToMove) {
+            return;
         }
-        nextPlayer();
-    }
-
-    private void nextPlayer() {
-        currentPlayerIndex = (currentPlayerIndex + 1) % config.players().size();
+        if (pendingEstimate != null) {
+            pendingEstimate.cancel(true);
+        }
+        estimatedSnapshot = current;
+        estimatedToMove = toMove;
+        winEstimate = null;
+
+        CompletableFuture<WinEstimate> future = oracle.estimate(current, toMove);
+        pendingEstimate = future;
+        future.thenAccept(estimate -> SwingUtilities.invokeLater(() -> {
+            if (pendingEstimate == future) {
+                winEstimate = estimate;
+                winEstimateListener.run();
+            }
+        }));
     }
 }
@@ -1,15 +1,34 @@
 package ru.artem.ludo.ui;
 
+import ru.artem.ludo.ai.ExpectimaxStrategy;
+import ru.artem.ludo.ai.HeuristicEvaluator;
+import ru.artem.ludo.ai.OpeningBook;
+import ru.artem.ludo.ai.PositionDatabase;
+import ru.artem.ludo.ai.SearchPool;
 import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.replay.GameRecord;
+import ru.artem.ludo.replay.GameReplay;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.time.Duration;
 
 /**
  * Главное окно приложения Лудо.
  *
  * <p>Содержит панель поля, панель управления (бросок кубика/информация)
- * и связывает UI со состоянием игры.</p>
+ * и связывает UI со состоянием игры. Конструктор собирает только лёгкие компоненты:
+ * шрифты и оценка шансов запускаются в фоне после первого отрисованного кадра.</p>
+ *
+ * <p>Меню "Партия" сохраняет запись текущей партии и открывает записи в режиме повтора:
+ * ползунок переводит поле к любому ходу записи.</p>
+ *
+ * <p>Меню "Боты" сажает бота за все цвета, кроме первого; ходы бота идут по таймеру.</p>
  */
 public final class LudoFrame extends JFrame {
 
@@ -26,11 +45,55 @@ public final class LudoFrame extends JFrame {
      */
     private final JLabel statusLabel;
 
+    /**
+     * Метка с оценкой шансов игроков на победу.
+     */
+    private final JLabel winLabel;
+
+    /**
+     * Метка с подсказкой хода по базе статистики позиций.
+     */
+    private final JLabel hintLabel;
+
     /**
      * Кнопка броска кубика.
      */
     private final JButton rollButton;
 
+    /**
+     * Панель повтора: ползунок по ходам, шаг назад/вперёд, выход (видна только в режиме повтора).
+     */
+    private final JPanel replayBar;
+    private final JSlider replaySlider;
+    private final JLabel replayLabel;
+
+    /**
+     * Таймер ходов бота и пул поиска (создаётся при первом включении ботов).
+     */
+    private final Timer botTimer;
+    private SearchPool searchPool;
+    private boolean botOpponents;
+
+    /**
+     * Дебютная книга ботов (если загружена).
+     */
+    private OpeningBook openingBook;
+
+    /**
+     * Пауза между шагами бота, чтобы ходы было видно.
+     */
+    private static final int BOT_STEP_MILLIS = 400;
+
+    /**
+     * Сколько бот думает над ходом.
+     */
+    private static final Duration BOT_BUDGET = Duration.ofMillis(50);
+
+    /**
+     * Внешний обработчик первого кадра (например, замер времени запуска).
+     */
+    private Runnable firstFrameListener;
+
     /**
      * Создаёт окно игры.
      *
@@ -44,10 +107,69 @@ public final class LudoFrame extends JFrame {
         this.boardPanel = new BoardPanel(config, controller);
 
         this.statusLabel = new JLabel("Готово");
+        this.winLabel = new JLabel(" ");
+        this.hintLabel = new JLabel(" ");
         this.rollButton = new JButton("Бросить кубик");
+        this.replayBar = new JPanel(new BorderLayout(8, 8));
+        this.replaySlider = new JSlider(0, 0, 0);
+        this.replayLabel = new JLabel(" ");
+        this.botTimer = new Timer(BOT_STEP_MILLIS, e -> {
+            if (controller.isBotTurn()) {
+                controller.botStep(this::refreshFromModel);
+                refreshFromModel();
+            }
+        });
 
         initUi();
         refreshFromModel();
+        boardPanel.setFirstFrameListener(this::firstFramePainted);
+    }
+
+    /**
+     * Подписка на первый отрисованный кадр поля.
+     *
+     * @param listener обработчик, вызывается на EDT один раз
+     */
+    public void setFirstFrameListener(Runnable listener) {
+        this.firstFrameListener = listener;
+    }
+
+    /**
+     * Подключает базу статистики позиций: с этого момента показываются подсказки ходов.
+     *
+     * @param positions база статистики
+     */
+    public void usePositionDatabase(PositionDatabase positions) {
+        controller.setPositionDatabase(positions);
+        refreshFromModel();
+    }
+
+    /**
+     * Подключает дебютную книгу: боты сначала ищут ход в ней, затем думают сами.
+     *
+     * @param book дебютная книга
+     */
+    public void useOpeningBook(OpeningBook book) {
+        if (!book.config().players().equals(config.players())) {
+            throw new IllegalArgumentException("Opening book is built for other players: " + book.config().players());
+        }
+        this.openingBook = book;
+        if (botOpponents) {
+            setBotOpponents(true);
+        }
+    }
+
+    /**
+     * Поле уже на экране: теперь можно грузить шрифты и запускать оценку шансов.
+     */
+    private void firstFramePainted() {
+        Thread fonts = new Thread(boardPanel::preloadFonts, "font-preload");
+        fonts.setDaemon(true);
+        fonts.start();
+        controller.startBackgroundServices();
+        if (firstFrameListener != null) {
+            firstFrameListener.run();
+        }
     }
 
     private void initUi() {
@@ -59,30 +181,154 @@ public final class LudoFrame extends JFrame {
         JPanel controls = new JPanel(new BorderLayout(8, 8));
         controls.add(rollButton, BorderLayout.WEST);
         controls.add(statusLabel, BorderLayout.CENTER);
+        controls.add(winLabel, BorderLayout.SOUTH);
+        controls.add(hintLabel, BorderLayout.NORTH);
+
+        controller.setWinEstimateListener(() -> winLabel.setText(controller.winEstimateText()));
 
         rollButton.addActionListener(e -> {
             controller.roll();
             refreshFromModel();
         });
+        // ход кликом обрабатывает сама панель; после него обновляем статус и подсказку
+        boardPanel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                refreshFromModel();
+            }
+        });
 
+        initReplayBar();
+
+        root.add(replayBar, BorderLayout.NORTH);
         root.add(boardPanel, BorderLayout.CENTER);
         root.add(controls, BorderLayout.SOUTH);
 
+        setJMenuBar(createMenu());
         setContentPane(root);
         pack();
         setMinimumSize(getSize());
         setLocationRelativeTo(null);
     }
 
+    private JMenuBar createMenu() {
+        JMenu game = new JMenu("Партия");
+        JMenuItem save = new JMenuItem("Сохранить запись…");
+        save.addActionListener(e -> saveRecord());
+        JMenuItem open = new JMenuItem("Открыть запись…");
+        open.addActionListener(e -> openRecord());
+        JMenuItem current = new JMenuItem("Повтор текущей партии");
+        current.addActionListener(e -> showReplay(new GameReplay(controller.record())));
+        game.add(save);
+        game.add(open);
+        game.add(current);
+
+        JMenu botsMenu = new JMenu("Боты");
+        JCheckBoxMenuItem opponents = new JCheckBoxMenuItem("Соперники — боты");
+        opponents.addActionListener(e -> setBotOpponents(opponents.isSelected()));
+        botsMenu.add(opponents);
+
+        JMenuBar bar = new JMenuBar();
+        bar.add(game);
+        bar.add(botsMenu);
+        return bar;
+    }
+
+    private void setBotOpponents(boolean enabled) {
+        if (enabled && searchPool == null) {
+            searchPool = new SearchPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        botOpponents = enabled;
+        MoveStrategy bot = null;
+        if (enabled) {
+            bot = new ExpectimaxStrategy(searchPool, BOT_BUDGET, 8, new HeuristicEvaluator(config));
+            if (openingBook != null) {
+                bot = openingBook.strategy(bot);
+            }
+        }
+        for (PlayerColor c : config.players().subList(1, config.players().size())) {
+            controller.setBot(c, bot);
+        }
+        if (enabled) {
+            botTimer.start();
+        } else {
+            botTimer.stop();
+        }
+        refreshFromModel();
+    }
+
+    private void initReplayBar() {
+        JButton back = new JButton("◀");
+        back.addActionListener(e -> replaySlider.setValue(replaySlider.getValue() - 1));
+        JButton forward = new JButton("▶");
+        forward.addActionListener(e -> replaySlider.setValue(replaySlider.getValue() + 1));
+        JButton exit = new JButton("Вернуться к игре");
+        exit.addActionListener(e -> {
+            controller.exitReplay();
+            replayBar.setVisible(false);
+            refreshFromModel();
+        });
+        replaySlider.addChangeListener(e -> {
+            if (controller.replay() != null) {
+                controller.seekReplay(replaySlider.getValue());
+                refreshFromModel();
+            }
+        });
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        buttons.add(back);
+        buttons.add(forward);
+        buttons.add(exit);
+        replayBar.add(replaySlider, BorderLayout.CENTER);
+        replayBar.add(buttons, BorderLayout.EAST);
+        replayBar.add(replayLabel, BorderLayout.SOUTH);
+        replayBar.setVisible(false);
+    }
+
+    private void saveRecord() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            controller.record().save(chooser.getSelectedFile().toPath());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Не удалось сохранить запись: " + e.getMessage(),
+                    "Ludo", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void openRecord() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            showReplay(new GameReplay(GameRecord.load(config, chooser.getSelectedFile().toPath())));
+        } catch (IOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Не удалось открыть запись: " + e.getMessage(),
+                    "Ludo", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void showReplay(GameReplay replay) {
+        controller.enterReplay(replay);
+        replaySlider.setMaximum(replay.moveCount());
+        replaySlider.setValue(0);
+        replayBar.setVisible(true);
+        refreshFromModel();
+    }
+
     /**
      * Синхронизирует UI с текущим состоянием игры: перерисовка поля + статус.
      */
     public void refreshFromModel() {
         statusLabel.setText(controller.statusText());
+        winLabel.setText(controller.winEstimateText());
+        hintLabel.setText(controller.hintText());
+        replayLabel.setText(controller.replayText());
         boardPanel.repaint();
 
-        if (controller.isGameFinished()) {
-            rollButton.setEnabled(false);
-        }
+        rollButton.setEnabled(controller.replay() == null && !controller.isGameFinished());
     }
 }
@@ -0,0 +1,113 @@
+package ru.artem.ludo.ai;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки бота с бюджетом времени.
+ */
+public class ExpectimaxStrategyTest {
+
+    /**
+     * Каждый выбор укладывается в бюджет (с запасом на планировщик) и возвращает допустимый ход.
+     */
+    @Test
+    void decisionsStayWithinBudget() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        long budget = 30;
+        AtomicLong worst = new AtomicLong();
+        try (SearchPool pool = new SearchPool(2)) {
+            ExpectimaxStrategy bot = new ExpectimaxStrategy(pool, Duration.ofMillis(budget));
+            MoveStrategy timed = (board, color, roll, legal) -> {
+                long t0 = System.nanoTime();
+                Move m = bot.choose(board, color, roll, legal);
+                worst.accumulateAndGet(System.nanoTime() - t0, Math::max);
+                assertTrue(legal.contains(m));
+                return m;
+            };
+            GameResult result = new Game(config, new Dice(new Random(5)), timed).playUntilWin(400);
+            assertTrue(result.turns() > 0);
+        }
+        assertTrue(worst.get() < Duration.ofMillis(budget + 150).toNanos(), "worst decision " + worst.get() / 1e6 + " ms");
+    }
+
+    /**
+     * Много партий на пуле из одного потока: все доигрываются, и ни одна не остаётся без поиска —
+     * у каждой есть ходы, выбранные хотя бы первой итерацией углубления.
+     */
+    @Test
+    void concurrentGamesShareSmallPool() throws InterruptedException {
+        GameConfig config = GameConfig.forPlayers(2, 40, 4);
+        int games = 6;
+        AtomicInteger[] searched = new AtomicInteger[games];
+        GameResult[] results = new GameResult[games];
+        try (SearchPool pool = new SearchPool(1)) {
+            ExpectimaxStrategy bot = new ExpectimaxStrategy(pool, Duration.ofMillis(5), 3, PositionEvaluator.progress());
+            List<Thread> threads = new ArrayList<>();
+            for (int g = 0; g < games; g++) {
+                int game = g;
+                searched[g] = new AtomicInteger();
+                MoveStrategy counting = (board, color, roll, legal) -> {
+                    ExpectimaxStrategy.Decision d = bot.decide(board.snapshot(), color, roll, legal);
+                    if (d.depth() > 0) {
+                        searched[game].incrementAndGet();
+                    }
+                    return d.move();
+                };
+                Thread t = new Thread(() -> results[game] =
+                        new Game(config, new Dice(new Random(game)), counting).playUntilWin(2_000));
+                t.start();
+                threads.add(t);
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+        }
+        for (int g = 0; g < games; g++) {
+            assertTrue(results[g].winnerColor().isPresent(), "game " + g + " did not finish");
+            assertTrue(searched[g].get() > 0, "game " + g + " never got a search slice");
+        }
+    }
+
+    /**
+     * Неглубокий поиск уверенно обыгрывает случайного соперника.
+     */
+    @Test
+    void beatsRandomPlayer() {
+        GameConfig config = GameConfig.forPlayers(2, 40, 4);
+        PlayerColor botColor = config.players().get(0);
+        Random random = new Random(11);
+        int wins = 0;
+        int games = 30;
+        try (SearchPool pool = new SearchPool(1)) {
+            ExpectimaxStrategy bot = new ExpectimaxStrategy(pool, Duration.ofMillis(50), 2, PositionEvaluator.progress());
+            MoveStrategy opponent = MoveStrategy.random(random);
+            MoveStrategy seated = (Board board, PlayerColor color, int roll, List<Move> legal) -> color == botColor
+                    ? bot.choose(board, color, roll, legal)
+                    : opponent.choose(board, color, roll, legal);
+            for (int g = 0; g < games; g++) {
+                GameResult result = new Game(config, new Dice(random), seated).playUntilWin(2_000);
+                if (result.winnerColor().orElse(null) == botColor) {
+                    wins++;
+                }
+            }
+        }
+        assertTrue(wins >= games * 6 / 10, "bot won " + wins + " of " + games);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.artem.ludo.ai;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки эвристической оценки и карты угроз.
+ */
+public class HeuristicEvaluatorTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Одиночная фишка в трёх клетках перед соперником рискует с вероятностью броска 3;
+     * вторая своя фишка на той же клетке (блок) и безопасная клетка снимают риск.
+     */
+    @Test
+    void exposureComesFromEnemiesBehind() {
+        BoardSnapshot lone = allAtBase()
+                .with(new TokenId(PlayerColor.RED, 0), TokenPosition.track(15))
+                .with(new TokenId(PlayerColor.BLUE, 0), TokenPosition.track(12));
+        DangerMap map = new DangerMap(CONFIG);
+        map.sync(lone);
+        assertEquals(1.0 / 6, map.exposure(0, 15), 1e-9);
+        // синяя фишка впереди красных ничем не рискует
+        assertEquals(0, map.exposure(1, 2), 1e-9);
+
+        map.sync(lone.with(new TokenId(PlayerColor.RED, 1), TokenPosition.track(15)));
+        assertTrue(map.inBlock(0, 15));
+        assertEquals(0, map.exposure(0, 15));
+
+        map.sync(lone.with(new TokenId(PlayerColor.RED, 0), TokenPosition.track(20)));
+        assertTrue(map.onSafeCell(0, 20));
+        assertEquals(0, map.exposure(0, 20));
+    }
+
+    private static BoardSnapshot allAtBase() {
+        BoardSnapshot s = BoardSnapshot.initial(CONFIG);
+        for (PlayerColor c : CONFIG.players()) {
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                s = s.with(new TokenId(c, i), TokenPosition.base());
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Инкрементальная карта даёт ту же оценку, что и построенная с нуля, на позициях подряд и вразброс.
+     */
+    @Test
+    void incrementalUpdatesMatchFreshMaps() {
+        List<BoardSnapshot> positions = EvaluatorBenchmark.positions(CONFIG, 5, new Random(3));
+        HeuristicEvaluator incremental = new HeuristicEvaluator(CONFIG);
+        Random random = new Random(4);
+        for (int i = 0; i < 2_000; i++) {
+            BoardSnapshot s = i < positions.size() ? positions.get(i) : positions.get(random.nextInt(positions.size()));
+            PlayerColor color = CONFIG.players().get(i % CONFIG.players().size());
+            double expected = new HeuristicEvaluator(CONFIG).evaluate(s, color);
+            assertEquals(expected, incremental.evaluate(s, color), 1e-6, "position " + i);
+        }
+    }
+
+    /**
+     * После прогрева вызов оценки не выделяет памяти.
+     */
+    @Test
+    void evaluationDoesNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)) {
+            return;
+        }
+        BoardSnapshot[] positions = EvaluatorBenchmark.positions(CONFIG, 3, new Random(5)).toArray(new BoardSnapshot[0]);
+        HeuristicEvaluator evaluator = new HeuristicEvaluator(CONFIG);
+        double sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += evaluator.evaluate(positions[i % positions.length], PlayerColor.RED);
+        }
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 100_000; i++) {
+            sink += evaluator.evaluate(positions[i % positions.length], PlayerColor.RED);
+        }
+        long allocated = mx.getThreadAllocatedBytes(tid) - before;
+        assertTrue(allocated < 16_384, "allocated " + allocated + " bytes, checksum " + sink);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.artem.ludo.ai;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки дебютной книги.
+ */
+public class OpeningBookTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+    private static final int PLIES = 10;
+
+    private static OpeningBook book;
+
+    @BeforeAll
+    static void buildBook() throws InterruptedException {
+        book = OpeningBook.build(CONFIG, 1_000, PLIES, 32, 11, 1);
+    }
+
+    /**
+     * Книга зависит только от зерна, а не от числа потоков; файл загружается обратно без изменений.
+     */
+    @Test
+    void buildIsReproducibleAndRoundTrips(@TempDir Path dir) throws Exception {
+        assertTrue(book.size() > 0);
+        Path one = dir.resolve("one.book");
+        Path two = dir.resolve("two.book");
+        book.save(one);
+        OpeningBook.build(CONFIG, 1_000, PLIES, 32, 11, 3).save(two);
+        assertArrayEquals(Files.readAllBytes(one), Files.readAllBytes(two));
+
+        Path again = dir.resolve("again.book");
+        OpeningBook loaded = OpeningBook.load(CONFIG, one);
+        assertEquals(book.size(), loaded.size());
+        loaded.save(again);
+        assertArrayEquals(Files.readAllBytes(one), Files.readAllBytes(again));
+    }
+
+    /**
+     * В дебюте бот берёт ход из книги и не зовёт запасную стратегию; позиции вне книги — ей.
+     */
+    @Test
+    void strategyConsultsBookBeforeFallback(@TempDir Path dir) throws IOException {
+        book.save(dir.resolve("openings.book"));
+        OpeningBook mapped = OpeningBook.load(CONFIG, dir.resolve("openings.book"));
+        MoveStrategy greedy = new HeuristicEvaluator(CONFIG).greedy();
+        int[] calls = new int[2]; // решения с выбором, обращения к запасной
+        MoveStrategy fallback = new MoveStrategy() {
+            @Override
+            public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+                if (legalMoves.size() > 1) {
+                    calls[1]++;
+                }
+                return greedy.choose(board, color, diceRoll, legalMoves);
+            }
+
+            @Override
+            public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+                return bonusMoves.get(0);
+            }
+        };
+        MoveStrategy bookFirst = mapped.strategy(fallback);
+        MoveStrategy counting = new MoveStrategy() {
+            @Override
+            public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+                if (legalMoves.size() > 1) {
+                    calls[0]++;
+                }
+                Move m = bookFirst.choose(board, color, diceRoll, legalMoves);
+                assertTrue(legalMoves.contains(m));
+                return m;
+            }
+
+            @Override
+            public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+                return bookFirst.chooseBonus(board, color, bonusSteps, bonusMoves);
+            }
+        };
+        Random random = new Random(3);
+        for (int g = 0; g < 300; g++) {
+            new Game(CONFIG, new Dice(random), counting).playUntilWin(PLIES);
+        }
+        int hits = calls[0] - calls[1];
+        assertTrue(hits > 0 && calls[1] > 0, Arrays.toString(calls));
+    }
+
+    /**
+     * Книга другой конфигурации и обрезанный файл не загружаются.
+     */
+    @Test
+    void rejectsForeignOrBrokenFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("openings.book");
+        book.save(file);
+        assertThrows(IOException.class, () -> OpeningBook.load(GameConfig.forPlayers(2, 40, 4), file));
+
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated.book");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> OpeningBook.load(CONFIG, truncated));
+
+        Path garbage = dir.resolve("garbage.book");
+        Files.write(garbage, new byte[64]);
+        assertThrows(IOException.class, () -> OpeningBook.load(CONFIG, garbage));
+    }
+}
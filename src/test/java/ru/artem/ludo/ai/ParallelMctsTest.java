@@ -0,0 +1,127 @@
+package ru.artem.ludo.ai;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки многопоточного MCTS.
+ */
+public class ParallelMctsTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Позиция: красная фишка в трёх клетках позади одиночной синей, другая красная далеко.
+     */
+    private static BoardSnapshot capturePosition() {
+        BoardSnapshot s = BoardSnapshot.initial(CONFIG);
+        for (PlayerColor c : CONFIG.players()) {
+            for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                s = s.with(new TokenId(c, i), TokenPosition.base());
+            }
+        }
+        return s.with(new TokenId(PlayerColor.RED, 0), TokenPosition.track(12))
+                .with(new TokenId(PlayerColor.RED, 1), TokenPosition.track(30))
+                .with(new TokenId(PlayerColor.BLUE, 0), TokenPosition.track(15));
+    }
+
+    /**
+     * Несколько потоков находят срубание, а после поиска в дереве не остаётся виртуальных потерь:
+     * посещения корня и сумма посещений его ходов равны числу итераций.
+     */
+    @Test
+    void findsCaptureAndKeepsCountsExact() {
+        BoardSnapshot root = capturePosition();
+        List<Move> legal = new Board(root).legalMoves(PlayerColor.RED, 3);
+        assertEquals(2, legal.size());
+        try (ParallelMcts mcts = new ParallelMcts(CONFIG, 4, 1 << 16, 4_000, Duration.ofMinutes(1), true)) {
+            ParallelMcts.Result result = mcts.search(root, PlayerColor.RED, 3, legal);
+
+            assertEquals(new TokenId(PlayerColor.RED, 0), result.move().token());
+            assertEquals(4_000, result.iterations());
+            assertEquals(4_000, mcts.visitsOf(0));
+            assertEquals(4_000, mcts.visitsOf(1) + mcts.visitsOf(2));
+        }
+    }
+
+    /**
+     * Маленький пул узлов не ломает поиск: когда узлы кончаются, итерации просто разыгрывают из листа.
+     */
+    @Test
+    void survivesExhaustedNodePool() {
+        BoardSnapshot root = capturePosition();
+        List<Move> legal = new Board(root).legalMoves(PlayerColor.RED, 3);
+        try (ParallelMcts mcts = new ParallelMcts(CONFIG, 2, 64, 2_000, Duration.ofMinutes(1), false)) {
+            ParallelMcts.Result result = mcts.search(root, PlayerColor.RED, 3, legal);
+            assertTrue(legal.contains(result.move()));
+            assertTrue(result.nodes() <= 64);
+            assertEquals(2_000, mcts.visitsOf(0));
+        }
+    }
+
+    /**
+     * Даже с небольшим числом итераций поиск уверенно обыгрывает случайного соперника.
+     */
+    @Test
+    void beatsRandomPlayer() {
+        GameConfig config = GameConfig.forPlayers(2, 40, 4);
+        PlayerColor botColor = config.players().get(0);
+        Random random = new Random(17);
+        int wins = 0;
+        int games = 30;
+        try (ParallelMcts mcts = new ParallelMcts(config, 2, 1 << 16, 150, Duration.ofMinutes(1), true)) {
+            MoveStrategy opponent = MoveStrategy.random(random);
+            MoveStrategy seated = new MoveStrategy() {
+                @Override
+                public Move choose(Board board, PlayerColor color, int roll, List<Move> legal) {
+                    return color == botColor ? mcts.choose(board, color, roll, legal) : opponent.choose(board, color, roll, legal);
+                }
+
+                @Override
+                public Move chooseBonus(Board board, PlayerColor color, int bonus, List<Move> moves) {
+                    return color == botColor ? mcts.chooseBonus(board, color, bonus, moves) : opponent.chooseBonus(board, color, bonus, moves);
+                }
+            };
+            for (int g = 0; g < games; g++) {
+                GameResult result = new Game(config, new Dice(random), seated).playUntilWin(2_000);
+                if (result.winnerColor().orElse(null) == botColor) {
+                    wins++;
+                }
+            }
+        }
+        assertTrue(wins >= games * 55 / 100, "bot won " + wins + " of " + games);
+    }
+
+    /**
+     * Когда пул узлов заполнен, поиск продолжается без расширения, а счётчик узлов не растёт дальше размера пула.
+     */
+    @Test
+    void fullPoolStopsNodeCounter() {
+        BoardSnapshot root = capturePosition();
+        List<Move> legal = new Board(root).legalMoves(PlayerColor.RED, 3);
+        try (ParallelMcts mcts = new ParallelMcts(CONFIG, 2, 64, 20_000, Duration.ofMinutes(1), false)) {
+            ParallelMcts.Result result = mcts.search(root, PlayerColor.RED, 3, legal);
+
+            assertEquals(20_000, result.iterations());
+            assertTrue(mcts.allocatedNodes() <= 64, "allocated " + mcts.allocatedNodes());
+            assertEquals(mcts.allocatedNodes(), result.nodes());
+            assertEquals(20_000, mcts.visitsOf(1) + mcts.visitsOf(2));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.artem.ludo.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки базы статистики позиций.
+ */
+public class PositionDatabaseTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Одновременные записи из нескольких потоков не теряют ни одного увеличения счётчика.
+     */
+    @Test
+    void concurrentWritersKeepExactCounts() throws Exception {
+        PositionDatabase db = new PositionDatabase(CONFIG, 4_096);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    db.record(1 + i % 100, Optional.of(PlayerColor.BLUE));
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(100, db.size());
+        for (long key = 1; key <= 100; key++) {
+            PositionStats stats = db.lookup(key).orElseThrow();
+            assertEquals(400, stats.visits());
+            assertEquals(1.0, stats.winRate(PlayerColor.BLUE));
+            assertEquals(0.0, stats.winRate(PlayerColor.RED));
+        }
+        assertTrue(db.lookup(12_345).isEmpty());
+    }
+
+    /**
+     * Сохранённая база загружается с теми же счётчиками.
+     */
+    @Test
+    void saveAndLoadRoundTrip(@TempDir Path dir) throws Exception {
+        PositionDatabase db = new PositionDatabase(CONFIG, 1 << 16);
+        db.populate(200, 5, 2, 5_000);
+        Path file = dir.resolve("positions.ldpb");
+        db.save(file);
+
+        PositionDatabase loaded = PositionDatabase.load(CONFIG, file);
+        assertEquals(db.size(), loaded.size());
+
+        BoardSnapshot start = BoardSnapshot.initial(CONFIG);
+        List<Move> moves = new Board(CONFIG).legalMoves(PlayerColor.RED, 3);
+        for (Move m : moves) {
+            assertEquals(db.lookup(start.withMove(m), PlayerColor.RED), loaded.lookup(start.withMove(m), PlayerColor.RED));
+        }
+        assertTrue(db.lookup(start.withMove(moves.get(0)), PlayerColor.RED).isPresent());
+    }
+
+    /**
+     * Подсказка выбирает ход в позицию с наибольшей долей побед ходящего.
+     */
+    @Test
+    void bestMovePrefersHigherWinRate() {
+        PositionDatabase db = new PositionDatabase(CONFIG, 1_024);
+        Board board = new Board(CONFIG);
+        // освобождаем выход, чтобы на 5 были и выход с базы, и ход фишкой с поля
+        board.applyMove(PlayerColor.RED, 3, board.legalMoves(PlayerColor.RED, 3).get(0));
+        BoardSnapshot start = board.snapshot();
+        List<Move> moves = board.legalMoves(PlayerColor.RED, 5);
+        assertTrue(moves.size() >= 2);
+
+        Move good = moves.get(1);
+        for (int i = 0; i < 30; i++) {
+            db.record(PositionDatabase.key(start.withMove(moves.get(0)), PlayerColor.RED), Optional.of(PlayerColor.BLUE));
+            db.record(PositionDatabase.key(start.withMove(good), PlayerColor.RED), Optional.of(PlayerColor.RED));
+        }
+
+        assertEquals(Optional.of(good), db.bestMove(start, PlayerColor.RED, moves, 20));
+        assertEquals(Optional.empty(), db.bestMove(start, PlayerColor.RED, moves, 31));
+    }
+
+    /**
+     * Переполненная таблица отбрасывает новые позиции (и считает их), но продолжает считать известные;
+     * наполнение партиями сверх ёмкости не прерывается.
+     */
+    @Test
+    void fullTableRejectsNewKeys() throws InterruptedException {
+        PositionDatabase db = new PositionDatabase(CONFIG, 16);
+        long key = 0;
+        while (db.size() < (long) (db.capacity() * 0.9)) {
+            db.record(++key, Optional.empty());
+        }
+        long full = db.size();
+        for (int i = 1; i <= 100; i++) {
+            db.record(key + i, Optional.of(PlayerColor.RED));
+        }
+        assertEquals(full, db.size());
+        assertEquals(100, db.rejected());
+        assertEquals(Optional.empty(), db.lookup(key + 1));
+
+        for (int i = 0; i < 5; i++) {
+            db.record(1, Optional.of(PlayerColor.BLUE));
+        }
+        assertEquals(6, db.lookup(1).orElseThrow().visits());
+        assertEquals(5, db.lookup(1).orElseThrow().wins().get(PlayerColor.BLUE));
+
+        PositionDatabase small = new PositionDatabase(CONFIG, 1_024);
+        assertEquals(200, small.populate(200, 3, 2, 5_000));
+        assertTrue(small.rejected() > 0);
+        // позиции после первого хода красных встречаются в каждой партии и попали в таблицу до заполнения
+        long[] before = firstMoveVisits(small);
+        small.populate(200, 4, 2, 5_000);
+        long[] after = firstMoveVisits(small);
+        assertTrue(Arrays.stream(before).sum() > 0);
+        assertTrue(Arrays.stream(after).sum() > Arrays.stream(before).sum(),
+                Arrays.toString(before) + " -> " + Arrays.toString(after));
+    }
+
+    private static long[] firstMoveVisits(PositionDatabase db) {
+        BoardSnapshot start = new Board(CONFIG).snapshot();
+        TokenId red = new TokenId(PlayerColor.RED, 0);
+        long[] visits = new long[7];
+        for (int roll = 1; roll <= 6; roll++) {
+            visits[roll] = db.lookup(start.withMove(new Move(red, roll)), PlayerColor.RED)
+                    .map(PositionStats::visits).orElse(0L);
+        }
+        return visits;
+    }
+}
@@ -0,0 +1,110 @@
+package ru.artem.ludo.ai;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки оценки вероятности победы и её LRU-кэша.
+ */
+public class WinProbabilityOracleTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Кэш держит не больше заданного числа записей и вытесняет ту, к которой дольше всего не обращались.
+     */
+    @Test
+    void lruEvictsLeastRecentlyUsed() {
+        LruCache<Integer, String> cache = new LruCache<>(3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertEquals("a", cache.get(1)); // 1 теперь самый свежий, старейший — 2
+
+        cache.put(4, "d");
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertEquals("a", cache.get(1));
+        assertEquals("c", cache.get(3));
+        assertEquals("d", cache.get(4));
+
+        for (int i = 10; i < 100; i++) {
+            cache.put(i, "x");
+            assertTrue(cache.size() <= 3);
+        }
+        assertEquals(4, cache.hits());
+        assertEquals(1, cache.misses());
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0));
+    }
+
+    /**
+     * Повтор позиции и та же позиция, полученная другим порядком ходов, отвечают из кэша без новых разыгрываний.
+     */
+    @Test
+    void repeatedAndTransposedPositionsHitCache() throws Exception {
+        try (WinProbabilityOracle oracle = new WinProbabilityOracle(200, 2_000, 16)) {
+            BoardSnapshot start = new Board(CONFIG).snapshot();
+            TokenId red = new TokenId(PlayerColor.RED, 0);
+            BoardSnapshot twoThenThree = start.withMove(new Move(red, 2)).withMove(new Move(red, 3));
+            BoardSnapshot threeThenTwo = start.withMove(new Move(red, 3)).withMove(new Move(red, 2));
+
+            WinEstimate first = oracle.estimate(twoThenThree, PlayerColor.BLUE).get(30, TimeUnit.SECONDS);
+            assertEquals(200, first.rollouts());
+            double sum = 0;
+            for (PlayerColor c : CONFIG.players()) {
+                sum += first.probability(c);
+            }
+            assertTrue(sum > 0.9 && sum <= 1.0 + 1e-9, "sum " + sum);
+            long played = oracle.rolloutsPlayed();
+
+            CompletableFuture<WinEstimate> repeated = oracle.estimate(twoThenThree, PlayerColor.BLUE);
+            CompletableFuture<WinEstimate> transposed = oracle.estimate(threeThenTwo, PlayerColor.BLUE);
+            assertTrue(repeated.isDone() && transposed.isDone());
+            assertSame(first, repeated.get());
+            assertSame(first, transposed.get());
+            assertEquals(2, oracle.cacheHits());
+            assertEquals(played, oracle.rolloutsPlayed());
+
+            // та же расстановка, но другой ходящий — другая позиция
+            assertFalse(oracle.estimate(twoThenThree, PlayerColor.GREEN).isDone());
+        }
+    }
+
+    /**
+     * Когда позиция сменилась, устаревшую оценку отменяют: её разыгрывания прекращаются, в кэш она не попадает.
+     */
+    @Test
+    void cancellingStaleEstimateStopsRollouts() throws Exception {
+        try (WinProbabilityOracle oracle = new WinProbabilityOracle(Integer.MAX_VALUE, 2_000, 16)) {
+            BoardSnapshot stale = new Board(CONFIG).snapshot();
+            CompletableFuture<WinEstimate> estimate = oracle.estimate(stale, PlayerColor.RED);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (oracle.rolloutsPlayed() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(oracle.rolloutsPlayed() > 0);
+
+            assertTrue(estimate.cancel(true));
+            // порция проверяет отмену перед каждой партией: после отмены может доиграться не больше одной партии на поток
+            Thread.sleep(200);
+            long afterCancel = oracle.rolloutsPlayed();
+            Thread.sleep(200);
+            assertEquals(afterCancel, oracle.rolloutsPlayed());
+
+            CompletableFuture<WinEstimate> again = oracle.estimate(stale, PlayerColor.RED);
+            assertFalse(again.isDone());
+            assertEquals(0, oracle.cacheHits());
+            again.cancel(true);
+        }
+    }
+}
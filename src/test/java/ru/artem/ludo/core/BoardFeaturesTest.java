@@ -0,0 +1,135 @@
+package ru.artem.ludo.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет пакетное кодирование позиций после ходов.
+ */
+public class BoardFeaturesTest {
+
+    /**
+     * Строка признаков хода совпадает с признаками позиции, полученной реальным применением хода.
+     */
+    @Test
+    void successorRowsMatchAppliedMoves() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        Board board = new Board(config);
+        List<Object[]> history = new ArrayList<>();
+        Random random = new Random(7);
+        int row = board.featuresPerMove();
+        int positionPart = row - 3;
+        float[] successors = new float[row * 8];
+        float[] applied = new float[row];
+
+        for (int step = 0; step < 300 && board.winnerIfAny().isEmpty(); step++) {
+            PlayerColor color = config.players().get(step % config.players().size());
+            int roll = 1 + random.nextInt(6);
+            List<Move> moves = board.legalMoves(color, roll);
+            int count = board.encodeSuccessors(color, roll, successors, 0);
+            assertEquals(moves.size(), count);
+
+            for (int i = 0; i < count; i++) {
+                Board twin = replay(config, history);
+                twin.applyMove(color, roll, moves.get(i));
+                twin.encodePosition(color, applied, 0);
+                assertArrayEquals(Arrays.copyOfRange(applied, 0, positionPart),
+                        Arrays.copyOfRange(successors, i * row, i * row + positionPart),
+                        "step " + step + ", move " + moves.get(i));
+            }
+
+            if (!moves.isEmpty()) {
+                Move chosen = moves.get(random.nextInt(moves.size()));
+                board.resetConsecutiveSixes(color);
+                board.applyMove(color, roll, chosen);
+                history.add(new Object[]{color, roll, chosen});
+            }
+        }
+    }
+
+    /**
+     * Все перегрузки возвращают число ходов; direct-буфер получает те же строки, что и массив.
+     */
+    @Test
+    void bufferOverloadsReturnMoveCount() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        Board board = new Board(config);
+        board.applyMove(PlayerColor.RED, 5, board.legalMoves(PlayerColor.RED, 5).get(0));
+        List<Move> moves = board.legalMoves(PlayerColor.RED, 5);
+        assertTrue(moves.size() >= 2);
+        int size = moves.size() * board.featuresPerMove();
+
+        float[] array = new float[size];
+        assertEquals(moves.size(), board.encodeSuccessors(PlayerColor.RED, moves, array, 0));
+        assertEquals(moves.size(), board.encodeSuccessors(PlayerColor.RED, 5, array, 0));
+
+        FloatBuffer heap = FloatBuffer.allocate(size + 3);
+        heap.position(3);
+        assertEquals(moves.size(), board.encodeSuccessors(PlayerColor.RED, moves, heap));
+        assertEquals(size + 3, heap.position());
+
+        FloatBuffer direct = ByteBuffer.allocateDirect(4 * (size + 3)).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        direct.position(3);
+        assertEquals(moves.size(), board.encodeSuccessors(PlayerColor.RED, moves, direct));
+        assertEquals(size + 3, direct.position());
+
+        float[] fromHeap = new float[size];
+        float[] fromDirect = new float[size];
+        heap.position(3);
+        heap.get(fromHeap);
+        direct.position(3);
+        direct.get(fromDirect);
+        assertArrayEquals(array, fromHeap);
+        assertArrayEquals(array, fromDirect);
+    }
+
+    /**
+     * Угроза срубания учитывает шестёрку по правилам: при пустой базе соперника 6 даёт 7 шагов,
+     * и фишка в семи клетках впереди него под ударом; пока база не пуста — нет.
+     */
+    @Test
+    void threatReachFollowsSixStepsRule() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        assertEquals(7, config.rules().sixStepsWhenBaseEmpty());
+        int tokens = config.players().size() * Board.TOKENS_PER_PLAYER;
+        int threatOfFirstRed = 3 * tokens;
+
+        BoardSnapshot snapshot = BoardSnapshot.initial(config)
+                .with(new TokenId(PlayerColor.RED, 0), TokenPosition.track(17))
+                .with(new TokenId(PlayerColor.BLUE, 0), TokenPosition.track(10))
+                .with(new TokenId(PlayerColor.BLUE, 1), TokenPosition.home())
+                .with(new TokenId(PlayerColor.BLUE, 2), TokenPosition.home());
+        float[] row = new float[new Board(config).featuresPerMove()];
+
+        new Board(snapshot.with(new TokenId(PlayerColor.BLUE, 3), TokenPosition.home()))
+                .encodePosition(PlayerColor.RED, row, 0);
+        assertEquals(1f, row[threatOfFirstRed]);
+
+        new Board(snapshot).encodePosition(PlayerColor.RED, row, 0);
+        assertEquals(0f, row[threatOfFirstRed]);
+
+        Board sixIsSix = new Board(BoardSnapshot.initial(config.withRules(config.rules().withSixStepsWhenBaseEmpty(6)))
+                .with(new TokenId(PlayerColor.RED, 0), TokenPosition.track(17))
+                .with(new TokenId(PlayerColor.BLUE, 0), TokenPosition.track(10)));
+        sixIsSix.encodePosition(PlayerColor.RED, row, 0);
+        assertEquals(0f, row[threatOfFirstRed]);
+    }
+
+    private static Board replay(GameConfig config, List<Object[]> history) {
+        Board board = new Board(config);
+        for (Object[] h : history) {
+            board.resetConsecutiveSixes((PlayerColor) h[0]);
+            board.applyMove((PlayerColor) h[0], (Integer) h[1], (Move) h[2]);
+        }
+        return board;
+    }
+}
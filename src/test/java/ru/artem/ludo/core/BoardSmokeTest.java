@@ -2,6 +2,9 @@ package ru.artem.ludo.core;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -32,4 +35,113 @@ public class BoardSmokeTest {
         assertNotNull(board.legalMoves(PlayerColor.RED, 5));
         assertNotNull(board.legalMoves(PlayerColor.RED, 1));
     }
+
+    /**
+     * Проверяет, что доска на 8 игроков с длинным кольцом создаётся и даёт ходы.
+     */
+    @Test
+    void largeBoardForEightPlayers() {
+        GameConfig config = GameConfig.forPlayers(8, 200, 6);
+        Board board = new Board(config);
+        assertEquals(8, config.players().size());
+        for (PlayerColor c : config.players()) {
+            assertFalse(board.legalMoves(c, 3).isEmpty());
+        }
+    }
+
+    /**
+     * Бонусные ходы предлагаются только фишкам, которые могут пройти бонус, и не сбрасывают счётчик шестёрок.
+     */
+    @Test
+    void bonusMovesUseTargetComputation() {
+        Board board = new Board(GameConfig.defaultForFourPlayers());
+        TokenId red = new TokenId(PlayerColor.RED, 0);
+
+        assertEquals(List.of(new Move(red, 10)), board.bonusMoves(PlayerColor.RED, 10));
+
+        board.applyMove(PlayerColor.RED, 6, new Move(red, 6));
+        board.applyBonusMove(PlayerColor.RED, new Move(red, 10));
+        board.applyMove(PlayerColor.RED, 6, new Move(red, 6));
+        // третья шестёрка подряд откатывает фишку: бонус счётчик не сбросил
+        board.applyMove(PlayerColor.RED, 6, new Move(red, 6));
+        assertEquals(PositionType.BASE, board.getPosition(red).type());
+    }
+
+    /**
+     * Блок сразу перед концом кольца и сразу после него: маска отвечает так же, как обход по клеткам,
+     * а чужая фишка не перепрыгивает блок при переходе через 0.
+     */
+    @Test
+    void blockMaskHandlesWrapAround() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        int last = config.trackLength() - 1;
+        TokenId red0 = new TokenId(PlayerColor.RED, 0);
+        TokenId red1 = new TokenId(PlayerColor.RED, 1);
+        TokenId blue = new TokenId(PlayerColor.BLUE, 0);
+
+        for (int cell : new int[]{last, 0}) {
+            BoardSnapshot position = new Board(config).snapshot()
+                    .with(red0, TokenPosition.track(cell))
+                    .with(red1, TokenPosition.track(cell))
+                    .with(blue, TokenPosition.track(last - 2));
+            Board board = new Board(position);
+            assertTrue(board.isBlockOnAbsCell(cell));
+            assertMaskMatchesWalk(board, config.trackLength());
+
+            // синяя фишка за два поля до конца кольца: блок на last встаёт на втором шаге, на 0 — на третьем
+            int blockedFrom = cell == last ? 2 : 3;
+            for (int roll = 1; roll <= 4; roll++) {
+                assertEquals(roll < blockedFrom, board.legalMoves(PlayerColor.BLUE, roll).contains(new Move(blue, roll)),
+                        "block on " + cell + ", roll " + roll);
+            }
+        }
+    }
+
+    /**
+     * Кольцо длиннее 64 клеток: маска занимает несколько слов, в том числе блок во втором слове
+     * и диапазоны через границы слов и через 0. На протяжении партии маска совпадает с обходом по клеткам.
+     */
+    @Test
+    void blockMaskSpansSeveralWords() {
+        GameConfig config = GameConfig.forPlayers(2, 130, 4);
+        PlayerColor red = config.players().get(0);
+        BoardSnapshot position = new Board(config).snapshot()
+                .with(new TokenId(red, 0), TokenPosition.track(70))
+                .with(new TokenId(red, 1), TokenPosition.track(70))
+                .with(new TokenId(red, 2), TokenPosition.track(129))
+                .with(new TokenId(red, 3), TokenPosition.track(129));
+        Board board = new Board(position);
+        assertTrue(board.isBlockOnAbsCell(70));
+        assertTrue(board.anyBlockInRange(10, 60));
+        assertFalse(board.anyBlockInRange(10, 59));
+        assertTrue(board.anyBlockInRange(128, 1));
+        assertFalse(board.anyBlockInRange(129, 70));
+        assertMaskMatchesWalk(board, config.trackLength());
+
+        Board game = new Board(config);
+        Random random = new Random(21);
+        for (int step = 0; step < 2_000 && game.winnerIfAny().isEmpty(); step++) {
+            PlayerColor color = config.players().get(step % 2);
+            int roll = 1 + random.nextInt(6);
+            List<Move> moves = game.legalMoves(color, roll);
+            if (!moves.isEmpty()) {
+                game.resetConsecutiveSixes(color);
+                game.applyMove(color, roll, moves.get(random.nextInt(moves.size())));
+                assertMaskMatchesWalk(game, config.trackLength());
+            }
+        }
+    }
+
+    /**
+     * Сравнивает ответ маски с обходом клеток (from, from + span] по одной, как до появления маски.
+     */
+    private static void assertMaskMatchesWalk(Board board, int trackLen) {
+        for (int from = 0; from < trackLen; from++) {
+            boolean blocked = false;
+            for (int span = 1; span < trackLen; span++) {
+                blocked |= board.isBlockOnAbsCell((from + span) % trackLen);
+                assertEquals(blocked, board.anyBlockInRange(from, span), "from " + from + ", span " + span);
+            }
+        }
+    }
 }
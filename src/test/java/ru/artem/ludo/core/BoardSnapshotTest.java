@@ -0,0 +1,62 @@
+package ru.artem.ludo.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет упакованные снимки доски.
+ */
+public class BoardSnapshotTest {
+
+    /**
+     * {@link BoardSnapshot#withMove} даёт ту же расстановку, что и {@link Board#applyMove},
+     * а доска, восстановленная из снимка, совпадает с исходной.
+     */
+    @Test
+    void withMoveMatchesBoard() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        Board board = new Board(config);
+        Random random = new Random(3);
+        int captures = 0;
+
+        for (int step = 0; step < 2_000 && board.winnerIfAny().isEmpty(); step++) {
+            PlayerColor color = config.players().get(step % config.players().size());
+            int roll = 1 + random.nextInt(6);
+            List<Move> moves = board.legalMoves(color, roll);
+            if (moves.isEmpty()) {
+                continue;
+            }
+            Move move = moves.get(random.nextInt(moves.size()));
+            BoardSnapshot before = board.snapshot();
+
+            board.resetConsecutiveSixes(color);
+            if (board.applyMove(color, roll, move).capture()) {
+                captures++;
+            }
+
+            BoardSnapshot after = board.snapshot();
+            assertEquals(after, before.withMove(move), "step " + step);
+            assertEquals(after.hash64(), before.withMove(move).hash64());
+            assertEquals(after, new Board(after).snapshot());
+            for (PlayerColor c : config.players()) {
+                for (int i = 0; i < Board.TOKENS_PER_PLAYER; i++) {
+                    TokenId t = new TokenId(c, i);
+                    assertEquals(board.getPosition(t).toString(), after.position(t).toString());
+                }
+            }
+        }
+        assertTrue(captures > 0);
+    }
+
+    /**
+     * Стандартная доска на 4 игроков укладывается в два слова.
+     */
+    @Test
+    void defaultBoardFitsInTwoWords() {
+        assertEquals(2, BoardSnapshot.initial(GameConfig.defaultForFourPlayers()).wordCount());
+    }
+}
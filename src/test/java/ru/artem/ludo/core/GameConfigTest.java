@@ -0,0 +1,62 @@
+package ru.artem.ludo.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки согласованности конфигурации поля и игроков.
+ */
+public class GameConfigTest {
+
+    private static final List<PlayerColor> TWO = List.of(PlayerColor.RED, PlayerColor.BLUE);
+    private static final List<GameConfig.PlayerStart> TWO_STARTS = List.of(
+            new GameConfig.PlayerStart(PlayerColor.RED, 0, 19),
+            new GameConfig.PlayerStart(PlayerColor.BLUE, 10, 9));
+
+    /**
+     * Канонический конструктор проверяет то же, что и {@link GameConfig#forPlayers}: число игроков,
+     * длину кольца и цветной дорожки.
+     */
+    @Test
+    void constructorChecksSizes() {
+        assertDoesNotThrow(() -> new GameConfig(20, 4, List.of(0, 10), TWO_STARTS, TWO));
+
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(),
+                List.of(TWO_STARTS.get(0)), List.of(PlayerColor.RED)));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(3, 4, List.of(), TWO_STARTS, TWO));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 0, List.of(), TWO_STARTS, TWO));
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.forPlayers(4, 40, 0));
+        assertThrows(IllegalArgumentException.class, () -> GameConfig.forPlayers(9, 90, 4));
+    }
+
+    /**
+     * У каждого игрока свой цвет и ровно один выход.
+     */
+    @Test
+    void constructorChecksPlayersAndStarts() {
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(), TWO_STARTS,
+                List.of(PlayerColor.RED, PlayerColor.RED)));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(),
+                List.of(TWO_STARTS.get(0)), TWO));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(),
+                List.of(TWO_STARTS.get(0), TWO_STARTS.get(1), new GameConfig.PlayerStart(PlayerColor.BLUE, 5, 4)), TWO));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(),
+                List.of(TWO_STARTS.get(0), new GameConfig.PlayerStart(PlayerColor.GREEN, 10, 9)), TWO));
+    }
+
+    /**
+     * Выходы, входы на дорожку и безопасные клетки лежат на кольце.
+     */
+    @Test
+    void constructorChecksTrackIndices() {
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(20), TWO_STARTS, TWO));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(-1), TWO_STARTS, TWO));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(), List.of(
+                TWO_STARTS.get(0), new GameConfig.PlayerStart(PlayerColor.BLUE, 25, 9)), TWO));
+        assertThrows(IllegalArgumentException.class, () -> new GameConfig(20, 4, List.of(), List.of(
+                TWO_STARTS.get(0), new GameConfig.PlayerStart(PlayerColor.BLUE, 10, -1)), TWO));
+    }
+}
@@ -0,0 +1,71 @@
+package ru.artem.ludo.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет воспроизводимость партий по зерну.
+ */
+public class GameSeedsTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Кубик с зерном повторяет последовательность и даёт все грани примерно поровну.
+     */
+    @Test
+    void seededDiceIsReproducibleAndFair() {
+        Dice a = new Dice(42);
+        Dice b = new Dice(42);
+        int[] faces = new int[7];
+        for (int i = 0; i < 60_000; i++) {
+            int roll = a.roll();
+            assertEquals(roll, b.roll());
+            faces[roll]++;
+        }
+        for (int face = 1; face <= 6; face++) {
+            assertTrue(Math.abs(faces[face] - 10_000) < 500, "face " + face + ": " + faces[face]);
+        }
+    }
+
+    /**
+     * Партию K серии можно сыграть отдельно: итог тот же, что и при игре всей серии по порядку.
+     */
+    @Test
+    void gameOfSeriesReplaysInIsolation() {
+        List<GameResult> series = new ArrayList<>();
+        for (int k = 0; k < 20; k++) {
+            series.add(Game.seeded(CONFIG, 7, k, MoveStrategy::random).playUntilWin(10_000));
+        }
+        for (int k : new int[]{13, 0, 19, 5}) {
+            assertEquals(series.get(k), Game.seeded(CONFIG, 7, k, MoveStrategy::random).playUntilWin(10_000), "game " + k);
+        }
+        Set<Integer> lengths = new HashSet<>();
+        for (GameResult r : series) {
+            lengths.add(r.turns());
+        }
+        assertTrue(lengths.size() > 10, "games of a series should differ: " + lengths);
+    }
+
+    /**
+     * Зёрна партий и потоков внутри партии не совпадают друг с другом.
+     */
+    @Test
+    void seedsAndStreamsAreDistinct() {
+        Set<Long> seen = new HashSet<>();
+        for (long series = 0; series < 4; series++) {
+            for (long game = 0; game < 1_000; game++) {
+                long gameSeed = GameSeeds.gameSeed(series, game);
+                assertTrue(seen.add(gameSeed));
+                assertTrue(seen.add(GameSeeds.stream(gameSeed, GameSeeds.DICE_STREAM)));
+                assertTrue(seen.add(GameSeeds.stream(gameSeed, GameSeeds.STRATEGY_STREAM)));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.artem.ludo.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет кэш допустимых ходов доски.
+ */
+public class LegalMoveCacheTest {
+
+    /**
+     * На протяжении партии кэшированные ходы и маски совпадают с посчитанными на свежей доске,
+     * а после хода кэш не отдаёт устаревших ответов.
+     */
+    @Test
+    void cachedMovesMatchFreshBoardThroughoutGame() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        Board board = new Board(config);
+        Random random = new Random(17);
+
+        for (int step = 0; step < 400 && board.winnerIfAny().isEmpty(); step++) {
+            Board fresh = new Board(board.snapshot());
+            for (int pass = 0; pass < 2; pass++) {
+                for (PlayerColor c : config.players()) {
+                    for (int roll = 1; roll <= 6; roll++) {
+                        List<Move> expected = fresh.legalMoves(c, roll);
+                        assertEquals(expected, board.legalMoves(c, roll), "step " + step + ", " + c + " rolled " + roll);
+                        int mask = 0;
+                        for (Move m : expected) {
+                            mask |= 1 << m.token().index();
+                        }
+                        assertEquals(mask, board.movableMask(c, roll));
+                    }
+                }
+            }
+
+            PlayerColor color = config.players().get(step % config.players().size());
+            int roll = 1 + random.nextInt(6);
+            List<Move> moves = board.legalMoves(color, roll);
+            if (!moves.isEmpty()) {
+                board.resetConsecutiveSixes(color);
+                board.applyMove(color, roll, moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    /**
+     * Повтор запроса — попадание в кэш и тот же неизменяемый список; перемещение фишки сбрасывает кэш.
+     */
+    @Test
+    void repeatedQueriesHitUntilPositionChanges() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        Board board = new Board(config);
+        TokenId red0 = new TokenId(PlayerColor.RED, 0);
+
+        List<Move> first = board.legalMoves(PlayerColor.RED, 3);
+        assertEquals(0, board.legalMoveCacheHits());
+        assertEquals(1, board.legalMoveCacheMisses());
+
+        assertSame(first, board.legalMoves(PlayerColor.RED, 3));
+        assertTrue(board.isMovable(red0, 3));
+        assertFalse(board.isMovable(new TokenId(PlayerColor.RED, 1), 3));
+        assertEquals(3, board.legalMoveCacheHits());
+        assertThrows(UnsupportedOperationException.class, () -> first.remove(0));
+
+        board.applyMove(PlayerColor.RED, 3, first.get(0));
+        List<Move> after = board.legalMoves(PlayerColor.RED, 3);
+        assertNotSame(first, after);
+        assertEquals(2, board.legalMoveCacheMisses());
+        assertEquals(TokenPosition.track(config.startTrackIndex(PlayerColor.RED) + 3), board.getPosition(red0));
+    }
+}
@@ -0,0 +1,77 @@
+package ru.artem.ludo.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки вариантов правил, заданных через {@link RuleSet}.
+ */
+public class RuleSetTest {
+
+    /**
+     * Выход с базы работает по тому значению кубика, которое задано в правилах.
+     */
+    @Test
+    void exitRollFollowsRuleSet() {
+        GameConfig config = GameConfig.defaultForFourPlayers().withRules(RuleSet.standard().withExitRoll(6));
+        Board board = new Board(config);
+        TokenId first = new TokenId(PlayerColor.RED, 0);
+        TokenId second = new TokenId(PlayerColor.RED, 1);
+
+        // освобождаем выход
+        board.applyMove(PlayerColor.RED, 3, new Move(first, 3));
+
+        assertTrue(board.legalMoves(PlayerColor.RED, 6).contains(new Move(second, 0)));
+        assertFalse(board.legalMoves(PlayerColor.RED, 5).contains(new Move(second, 0)));
+    }
+
+    /**
+     * Бонусы в {@link TurnOutcome} берутся из правил.
+     */
+    @Test
+    void captureBonusFollowsRuleSet() {
+        GameConfig config = GameConfig.defaultForFourPlayers().withRules(RuleSet.standard().withBonuses(15, 5));
+        Board board = new Board(config);
+        TokenId red = new TokenId(PlayerColor.RED, 0);
+        TokenId blue = new TokenId(PlayerColor.BLUE, 0);
+
+        // синяя фишка уходит с выхода (10) на 13, красная доходит до неё с 0: 3+6+4
+        board.applyMove(PlayerColor.BLUE, 3, new Move(blue, 3));
+        board.applyMove(PlayerColor.RED, 3, new Move(red, 3));
+        board.applyMove(PlayerColor.RED, 6, new Move(red, 6));
+        TurnOutcome outcome = board.applyMove(PlayerColor.RED, 4, new Move(red, 4));
+
+        assertTrue(outcome.capture());
+        assertEquals(15, outcome.bonusSteps());
+        assertEquals(PositionType.BASE, board.getPosition(blue).type());
+    }
+
+    /**
+     * На клетке не больше двух фишек: для стопок из трёх и более блок не определён, такие правила не создаются.
+     */
+    @Test
+    void maxTokensPerCellIsOneOrTwo() {
+        assertEquals(1, RuleSet.standard().withMaxTokensPerCell(1).maxTokensPerCell());
+        assertEquals(2, RuleSet.standard().withMaxTokensPerCell(2).maxTokensPerCell());
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.standard().withMaxTokensPerCell(0));
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.standard().withMaxTokensPerCell(3));
+    }
+
+    /**
+     * С одной фишкой на клетке блоков нет: своя фишка не может встать на занятую клетку.
+     */
+    @Test
+    void singleTokenCellsForbidStacking() {
+        GameConfig config = GameConfig.defaultForFourPlayers().withRules(RuleSet.standard().withMaxTokensPerCell(1));
+        Board board = new Board(config);
+        TokenId first = new TokenId(PlayerColor.RED, 0);
+        TokenId second = new TokenId(PlayerColor.RED, 1);
+
+        board.applyMove(PlayerColor.RED, 3, new Move(first, 3));
+        board.applyMove(PlayerColor.RED, 5, new Move(second, 0));
+
+        assertFalse(board.legalMoves(PlayerColor.RED, 3).contains(new Move(second, 3)));
+        assertTrue(board.legalMoves(PlayerColor.RED, 4).contains(new Move(second, 4)));
+    }
+}
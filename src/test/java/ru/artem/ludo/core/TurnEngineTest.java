@@ -0,0 +1,158 @@
+package ru.artem.ludo.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки последовательности хода в {@link TurnEngine}.
+ */
+public class TurnEngineTest {
+
+    /**
+     * Без допустимых ходов ход сразу переходит к следующему игроку, а шаги не в своём состоянии запрещены.
+     */
+    @Test
+    void noMovesPassesTurn() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        TokenId red = new TokenId(PlayerColor.RED, 0);
+        // все красные фишки на базе: без 5 ходить нечем
+        Board board = new Board(BoardSnapshot.initial(config).with(red, TokenPosition.base()));
+        TurnEngine turns = new TurnEngine(board);
+
+        assertThrows(IllegalStateException.class, () -> turns.move(new Move(red, 1)));
+
+        assertEquals(TurnEvent.NO_MOVES, turns.roll(3));
+        assertEquals(PlayerColor.BLUE, turns.currentPlayer());
+        assertEquals(TurnState.AWAIT_ROLL, turns.state());
+
+        assertEquals(TurnEvent.MOVES_AVAILABLE, turns.roll(2));
+        assertEquals(TurnState.AWAIT_MOVE, turns.state());
+        assertThrows(IllegalStateException.class, () -> turns.roll(3));
+        assertThrows(IllegalArgumentException.class, () -> turns.move(new Move(red, 2)));
+
+        assertEquals(TurnEvent.TURN_PASSED, turns.move(turns.options().get(0)));
+        assertEquals(PlayerColor.GREEN, turns.currentPlayer());
+    }
+
+    /**
+     * Третья шестёрка подряд откатывает фишку и передаёт ход, счётчик шестёрок — только в {@link Board}.
+     */
+    @Test
+    void thirdSixPassesTurn() {
+        Board board = new Board(GameConfig.defaultForFourPlayers());
+        TurnEngine turns = new TurnEngine(board);
+
+        assertEquals(TurnEvent.MOVES_AVAILABLE, turns.roll(6));
+        assertEquals(TurnEvent.EXTRA_TURN, turns.move(turns.options().get(0)));
+        assertEquals(PlayerColor.RED, turns.currentPlayer());
+        assertEquals(1, board.consecutiveSixes(PlayerColor.RED));
+
+        turns.roll(6);
+        assertEquals(TurnEvent.EXTRA_TURN, turns.move(turns.options().get(0)));
+
+        turns.roll(6);
+        assertEquals(TurnEvent.SIXES_PENALTY, turns.move(turns.options().get(0)));
+        assertEquals(PlayerColor.BLUE, turns.currentPlayer());
+        assertEquals(0, board.consecutiveSixes(PlayerColor.RED));
+        assertEquals(TurnState.AWAIT_ROLL, turns.state());
+    }
+
+    /**
+     * Партия, ведомая только шагами движка, доходит до победы, согласованной с доской.
+     */
+    @Test
+    void drivesGameToWinner() {
+        Board board = new Board(GameConfig.defaultForFourPlayers());
+        TurnEngine turns = new TurnEngine(board);
+        Dice dice = new Dice(new Random(7));
+        MoveStrategy strategy = MoveStrategy.random(new Random(11));
+
+        int steps = 0;
+        while (turns.state() != TurnState.FINISHED && steps++ < 200_000) {
+            switch (turns.state()) {
+                case AWAIT_ROLL -> turns.roll(dice.roll());
+                case AWAIT_MOVE -> turns.move(strategy.choose(board, turns.currentPlayer(), turns.pendingRoll(), turns.options()));
+                case AWAIT_BONUS -> turns.move(strategy.chooseBonus(board, turns.currentPlayer(), turns.pendingBonus(), turns.options()));
+                default -> fail();
+            }
+        }
+
+        assertEquals(TurnState.FINISHED, turns.state());
+        assertEquals(board.winnerIfAny(), turns.winner());
+        assertTrue(turns.options().isEmpty());
+    }
+
+    /**
+     * Партия до победителя знает только первое место.
+     */
+    @Test
+    void playUntilWinReportsOnlyWinner() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        GameResult result = new Game(config, new Dice(new Random(5)), MoveStrategy.random(new Random(6))).playUntilWin(100_000);
+
+        PlayerColor winner = result.winnerColor().orElseThrow();
+        assertEquals(List.of(winner), result.finishingOrder());
+        assertEquals(1, result.place(winner));
+    }
+
+    /**
+     * При игре до последнего места выбывшие не ходят, а порядок мест совпадает с тем,
+     * в каком игроки на самом деле заводили домой последнюю фишку.
+     */
+    @Test
+    void playToLastPlaceRecordsRealFinishingOrder() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        Board board = new Board(config);
+        TurnEngine turns = new TurnEngine(board, PlayerColor.RED, true);
+        Dice dice = new Dice(new Random(7));
+        MoveStrategy strategy = MoveStrategy.random(new Random(11));
+
+        List<PlayerColor> seen = new ArrayList<>();
+        int playerFinished = 0;
+        int steps = 0;
+        while (turns.state() != TurnState.FINISHED && steps++ < 500_000) {
+            PlayerColor current = turns.currentPlayer();
+            assertFalse(seen.contains(current), current + " moves after finishing");
+            TurnEvent event = switch (turns.state()) {
+                case AWAIT_ROLL -> turns.roll(dice.roll());
+                case AWAIT_MOVE -> turns.move(strategy.choose(board, current, turns.pendingRoll(), turns.options()));
+                case AWAIT_BONUS -> turns.move(strategy.chooseBonus(board, current, turns.pendingBonus(), turns.options()));
+                default -> fail();
+            };
+            if (board.hasFinished(current) && !seen.contains(current)) {
+                seen.add(current);
+            }
+            if (event == TurnEvent.PLAYER_FINISHED) {
+                playerFinished++;
+            }
+        }
+
+        assertEquals(TurnState.FINISHED, turns.state());
+        assertEquals(config.players().size() - 2, playerFinished);
+        assertEquals(config.players().size() - 1, seen.size());
+        assertEquals(seen, turns.finishingOrder().subList(0, seen.size()));
+        assertTrue(turns.finishingOrder().containsAll(config.players()));
+        assertEquals(seen.get(0), turns.winner().orElseThrow());
+    }
+
+    /**
+     * Игра до последнего места до первого победителя идёт так же, как партия до победителя.
+     */
+    @Test
+    void playUntilAllFinishKeepsSameWinner() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        for (long seed = 0; seed < 5; seed++) {
+            GameResult toWinner = Game.seeded(config, seed, 0, MoveStrategy::random).playUntilWin(100_000);
+            GameResult toLast = Game.seeded(config, seed, 0, MoveStrategy::random).playUntilAllFinish(100_000);
+
+            assertEquals(toWinner.winnerColor(), toLast.winnerColor());
+            assertEquals(config.players().size(), toLast.finishingOrder().size());
+            assertTrue(toLast.turns() > toWinner.turns());
+        }
+    }
+}
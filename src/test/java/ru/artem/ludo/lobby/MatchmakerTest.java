@@ -0,0 +1,116 @@
+package ru.artem.ludo.lobby;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.GameConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки подбора столов.
+ */
+public class MatchmakerTest {
+
+    private static final GameConfig TWO = GameConfig.forPlayers(2, 40, 4);
+    private static final GameConfig FOUR = GameConfig.defaultForFourPlayers();
+    private static final long WAIT = TimeUnit.MILLISECONDS.toNanos(1_000);
+
+    /**
+     * Игроки одной полосы и варианта садятся за стол в первом же шаге, разные варианты не смешиваются.
+     */
+    @Test
+    void fullBandFormsTableAtOnce() {
+        List<Table> tables = new ArrayList<>();
+        Matchmaker lobby = new Matchmaker(new LobbyConfig(100, 10, 1_000), tables::add);
+        for (int i = 0; i < 5; i++) {
+            lobby.join(i, 1_510 + i, FOUR);
+        }
+        lobby.join(10, 1_550, TWO);
+        lobby.join(11, 1_560, TWO);
+        lobby.tick(System.nanoTime());
+
+        assertEquals(2, tables.size());
+        for (Table t : tables) {
+            assertEquals(0, t.bots());
+            assertEquals(t.config().players().size(), t.players().size());
+            assertTrue(t.players().stream().allMatch(p -> p.variant().equals(t.config())));
+        }
+        assertEquals(1, lobby.metrics().snapshot().queued());
+    }
+
+    /**
+     * Ожидание ограничено: сначала добор из соседних полос, затем боты.
+     */
+    @Test
+    void waitIsBounded() {
+        List<Table> tables = new ArrayList<>();
+        Matchmaker lobby = new Matchmaker(new LobbyConfig(100, 10, 1_000), tables::add);
+        lobby.join(1, 1_510, FOUR);
+        lobby.join(2, 1_520, FOUR);
+        lobby.join(3, 1_620, FOUR);
+        lobby.join(4, 1_420, FOUR);
+        long t0 = lobby.join(5, 1_800, FOUR).enqueuedNanos();
+
+        lobby.tick(t0);
+        assertTrue(tables.isEmpty());
+
+        lobby.tick(t0 + WAIT + 1);
+        assertEquals(1, tables.size());
+        Set<Long> ids = new HashSet<>();
+        tables.get(0).players().forEach(p -> ids.add(p.playerId()));
+        assertEquals(Set.of(1L, 2L, 3L, 4L), ids);
+        assertEquals(1, lobby.metrics().snapshot().widened());
+
+        lobby.tick(t0 + WAIT + 2);
+        assertEquals(1, tables.size());
+        lobby.tick(t0 + 2 * WAIT + 1);
+        assertEquals(2, tables.size());
+        assertEquals(3, tables.get(1).bots());
+        assertEquals(0, lobby.metrics().snapshot().queued());
+    }
+
+    /**
+     * Заявки из многих потоков не теряются и не дублируются; в фоне столы собирает поток подбора.
+     */
+    @Test
+    void concurrentJoinsAreAllSeated() throws Exception {
+        Set<Long> seated = ConcurrentHashMap.newKeySet();
+        List<Table> tables = Collections.synchronizedList(new ArrayList<>());
+        Matchmaker lobby = new Matchmaker(new LobbyConfig(200, 5, 50), t -> {
+            tables.add(t);
+            t.players().forEach(p -> assertTrue(seated.add(p.playerId())));
+        });
+        lobby.start();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int base = p * 10_000;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    lobby.join(base + i, 1_000 + (i * 37) % 1_000, i % 3 == 0 ? TWO : FOUR);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (lobby.metrics().snapshot().queued() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        lobby.close();
+
+        assertEquals(20_000, seated.size());
+        assertEquals(0, lobby.metrics().snapshot().queued());
+        assertEquals(tables.size(), lobby.metrics().snapshot().tables());
+        assertEquals(20_000, lobby.metrics().queueWait().count());
+    }
+}
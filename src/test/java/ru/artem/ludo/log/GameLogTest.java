@@ -0,0 +1,235 @@
+package ru.artem.ludo.log;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.PositionType;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameLogTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Все поля события переживают упаковку, аргумент обрезается до 24 бит.
+     */
+    @Test
+    void eventRoundTrip() {
+        long e = LogEvent.BONUS_MOVE.encode(PlayerColor.YELLOW.ordinal(), 3, 20, PositionType.HOME_LANE.ordinal(), 5);
+        assertEquals(LogEvent.BONUS_MOVE, LogEvent.kind(e));
+        assertEquals(PlayerColor.YELLOW.ordinal(), LogEvent.color(e));
+        assertEquals(3, LogEvent.token(e));
+        assertEquals(20, LogEvent.value(e));
+        assertEquals(PositionType.HOME_LANE.ordinal(), LogEvent.positionType(e));
+        assertEquals(5, LogEvent.arg(e));
+
+        long big = LogEvent.GAME_FINISHED.encode(LogEvent.NONE, 0, 0, LogEvent.NONE, Integer.MAX_VALUE);
+        assertEquals(LogEvent.NONE, LogEvent.color(big));
+        assertEquals(LogEvent.MAX_ARG, LogEvent.arg(big));
+    }
+
+    /**
+     * Полная подробность: партия от начала до итога, по строке на каждый ход.
+     */
+    @Test
+    void logsWholeGame() {
+        StringWriter out = new StringWriter();
+        GameResult result;
+        try (GameLog log = new GameLog(LogLevel.MOVES, out)) {
+            result = new Game(CONFIG, new Dice(new Random(5)), MoveStrategy.firstLegal(), log).playUntilWin(10_000);
+        }
+        List<String> lines = out.toString().lines().toList();
+        assertTrue(lines.get(0).endsWith("game started, first RED"), lines.get(0));
+        assertTrue(lines.get(lines.size() - 1).endsWith("game over: winner " + result.winnerColor().orElseThrow()
+                + " after " + result.turns() + " moves"), lines.get(lines.size() - 1));
+        long moves = lines.stream().filter(l -> l.contains("move: ")).count();
+        assertEquals(result.turns(), moves);
+        assertTrue(lines.stream().anyMatch(l -> l.contains(" rolled ")));
+        assertTrue(lines.stream().anyMatch(l -> l.contains("extra turn (6)")));
+    }
+
+    /**
+     * Уровень отсекает подробности; выключенный журнал не пишет ничего.
+     */
+    @Test
+    void levelFiltersEvents() {
+        StringWriter out = new StringWriter();
+        try (GameLog log = new GameLog(LogLevel.SUMMARY, out)) {
+            new Game(CONFIG, new Dice(new Random(1)), MoveStrategy.firstLegal(), log).playUntilWin(10_000);
+            log.flush();
+            assertEquals(2, out.toString().lines().count());
+
+            log.setLevel(LogLevel.OFF);
+            new Game(CONFIG, new Dice(new Random(2)), MoveStrategy.firstLegal(), log).playUntilWin(10_000);
+            log.flush();
+            assertEquals(2, out.toString().lines().count());
+        }
+        assertFalse(GameLog.off().isEnabled(LogEvent.GAME_STARTED));
+    }
+
+    /**
+     * Зерно кубика пишется в строку начала партии и не сбивает разбор следующих событий;
+     * партия по зерну его хранит.
+     */
+    @Test
+    void gameStartedCarriesSeed() {
+        StringWriter out = new StringWriter();
+        long seed = 0x9E3779B97F4A7C15L;
+        try (GameLog log = new GameLog(LogLevel.MOVES, out, 4, Duration.ofMillis(1))) {
+            for (int i = 0; i < 20; i++) {
+                log.gameStarted(PlayerColor.BLUE, seed + i);
+                log.event(LogEvent.ROLL, PlayerColor.BLUE, 4);
+                log.flush();
+            }
+            assertEquals(0, log.dropped());
+        }
+        List<String> lines = out.toString().lines().toList();
+        assertEquals(40, lines.size());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(lines.get(2 * i).endsWith("game started, first BLUE, seed=" + (seed + i)), lines.get(2 * i));
+            assertTrue(lines.get(2 * i + 1).endsWith("BLUE rolled 4"), lines.get(2 * i + 1));
+        }
+
+        assertEquals(seed, new Game(CONFIG, seed).seed().orElseThrow());
+        assertTrue(new Game(CONFIG).seed().isPresent());
+        assertTrue(new Game(CONFIG, new Dice(seed), MoveStrategy.firstLegal()).seed().isEmpty());
+    }
+
+    /**
+     * Партии из нескольких потоков: строки каждого потока идут по порядку партий, ничего не потеряно.
+     */
+    @Test
+    void concurrentGamesKeepPerThreadOrder() throws InterruptedException {
+        StringWriter out = new StringWriter();
+        int threads = 4;
+        int games = 10;
+        try (GameLog log = new GameLog(LogLevel.MOVES, out, 1 << 16, Duration.ofMillis(5))) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                Thread w = new Thread(() -> {
+                    for (int g = 0; g < games; g++) {
+                        new Game(CONFIG, new Dice(random), MoveStrategy.random(random), log).playUntilWin(10_000);
+                    }
+                }, "player-" + t);
+                w.start();
+                workers.add(w);
+            }
+            for (Thread w : workers) {
+                w.join();
+            }
+            log.flush();
+            assertEquals(0, log.dropped());
+        }
+        List<String> lines = out.toString().lines().toList();
+        for (int t = 0; t < threads; t++) {
+            String prefix = "[player-" + t + " #";
+            int game = 0;
+            boolean open = false;
+            for (String l : lines) {
+                if (!l.startsWith(prefix)) {
+                    continue;
+                }
+                int number = Integer.parseInt(l.substring(prefix.length(), l.indexOf(']')));
+                if (l.contains("game started")) {
+                    assertTrue(!open && number == game + 1, l);
+                    game = number;
+                    open = true;
+                } else {
+                    assertTrue(open && number == game, l);
+                    open = !l.contains("game over");
+                }
+            }
+            assertEquals(games, game);
+            assertFalse(open);
+        }
+    }
+
+    /**
+     * Полный буфер не задерживает партию, даже если вывод стоит: лишние события отбрасываются и учитываются.
+     */
+    @Test
+    void fullBufferDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter out = new StringWriter();
+        Writer stalled = new Writer() {
+            @Override
+            public void write(char[] buf, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write(buf, off, len);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try (GameLog log = new GameLog(LogLevel.MOVES, stalled, 16, Duration.ofMillis(1))) {
+            for (int i = 0; i < 100; i++) {
+                log.event(LogEvent.ROLL, PlayerColor.RED, 1 + i % 6);
+            }
+            long dropped = log.dropped();
+            // писатель успел забрать не больше одного буфера до того, как встал на выводе
+            assertTrue(dropped >= 100 - 2 * 16, "dropped " + dropped);
+            release.countDown();
+            log.flush();
+
+            List<String> lines = out.toString().lines().toList();
+            assertEquals(100 - dropped, lines.stream().filter(l -> l.contains(" rolled ")).count());
+            long reported = lines.stream().filter(l -> l.endsWith(" events"))
+                    .mapToLong(l -> Long.parseLong(l.substring(l.indexOf("dropped ") + 8, l.length() - 7)))
+                    .sum();
+            assertEquals(dropped, reported);
+        }
+    }
+
+    /**
+     * Запись события после первого обращения потока не выделяет памяти.
+     */
+    @Test
+    void loggingDoesNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)) {
+            return;
+        }
+        try (GameLog log = new GameLog(LogLevel.MOVES, Writer.nullWriter(), 1 << 10, Duration.ofHours(1))) {
+            TokenId token = new TokenId(PlayerColor.GREEN, 2);
+            TokenPosition to = TokenPosition.base();
+            log.event(LogEvent.ROLL, PlayerColor.GREEN, 3);
+
+            long tid = Thread.currentThread().getId();
+            long before = mx.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < 100_000; i++) {
+                log.event(LogEvent.ROLL, PlayerColor.GREEN, 3);
+                log.move(LogEvent.MOVE, token, 3, to);
+                log.gameFinished(null, i);
+            }
+            long allocated = mx.getThreadAllocatedBytes(tid) - before;
+            assertTrue(allocated < 16_384, "allocated " + allocated + " bytes");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.artem.ludo.rating;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.PlayerColor;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки рейтинга ботов.
+ */
+public class RatingEngineTest {
+
+    private static final List<PlayerColor> ORDER =
+            List.of(PlayerColor.RED, PlayerColor.BLUE, PlayerColor.GREEN, PlayerColor.YELLOW);
+
+    /**
+     * Бот, который всегда выше в порядке мест, получает больший рейтинг; сумма рейтингов сохраняется.
+     */
+    @Test
+    void higherPlacesRaiseRating() {
+        RatingEngine engine = new RatingEngine(4, RatingEngine.DEFAULT_K, 16);
+        GameResult result = new GameResult(100, Optional.of(PlayerColor.RED), ORDER);
+        int[] seats = seats(0, 1, 2, 3);
+        for (int i = 0; i < 1_000; i++) {
+            engine.record(result, seats);
+        }
+        engine.record(new GameResult(10_000, Optional.empty()), seats);
+        engine.record(new GameResult(200, Optional.of(PlayerColor.YELLOW)), seats);
+        engine.merge();
+
+        double[] r = engine.ratings();
+        assertTrue(r[0] > r[1] && r[1] > r[2] && r[2] > r[3], Arrays.toString(r));
+        assertEquals(4 * RatingEngine.INITIAL_RATING, r[0] + r[1] + r[2] + r[3], 1e-6);
+        assertEquals(1_000, engine.games(0));
+        assertEquals(2, engine.skipped());
+    }
+
+    /**
+     * Записи из нескольких потоков не теряются, и после слияния рейтинг по-прежнему сохраняет сумму.
+     */
+    @Test
+    void parallelWritersMerge() throws InterruptedException {
+        RatingEngine engine = new RatingEngine(6, RatingEngine.DEFAULT_K, 100);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int shift = t;
+            Thread w = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    int a = (i + shift) % 6;
+                    GameResult result = new GameResult(50, Optional.of(PlayerColor.RED), ORDER);
+                    engine.record(result, seats(a, (a + 1) % 6, (a + 2) % 6, (a + 3) % 6));
+                }
+            });
+            w.start();
+            threads.add(w);
+        }
+        for (Thread w : threads) {
+            w.join();
+        }
+        engine.merge();
+
+        assertEquals(40_000, engine.recorded());
+        long seatsPlayed = 0;
+        double sum = 0;
+        for (int b = 0; b < 6; b++) {
+            seatsPlayed += engine.games(b);
+            sum += engine.rating(b);
+        }
+        assertEquals(4 * 40_000, seatsPlayed);
+        assertEquals(6 * RatingEngine.INITIAL_RATING, sum, 1e-6);
+    }
+
+    /**
+     * Контрольная точка восстанавливает рейтинги без потери точности и счётчики.
+     */
+    @Test
+    void checkpointRoundTrip(@TempDir Path dir) throws Exception {
+        RatingEngine engine = new RatingEngine(4);
+        for (int i = 0; i < 300; i++) {
+            engine.record(new GameResult(80, Optional.of(PlayerColor.BLUE), List.of(PlayerColor.BLUE, PlayerColor.RED)),
+                    seats(i % 4, (i + 1) % 4, 0, 0));
+        }
+        Path file = dir.resolve("ratings.bin");
+        engine.checkpoint(file);
+
+        RatingEngine loaded = RatingEngine.load(file, RatingEngine.DEFAULT_K, 1_024);
+        assertEquals(engine.recorded(), loaded.recorded());
+        for (int b = 0; b < 4; b++) {
+            assertEquals(engine.rating(b), loaded.rating(b));
+            assertEquals(engine.games(b), loaded.games(b));
+        }
+    }
+
+    private static int[] seats(int red, int blue, int green, int yellow) {
+        int[] botByColor = new int[PlayerColor.values().length];
+        botByColor[PlayerColor.RED.ordinal()] = red;
+        botByColor[PlayerColor.BLUE.ordinal()] = blue;
+        botByColor[PlayerColor.GREEN.ordinal()] = green;
+        botByColor[PlayerColor.YELLOW.ordinal()] = yellow;
+        return botByColor;
+    }
+}
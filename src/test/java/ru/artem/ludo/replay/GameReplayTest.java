@@ -0,0 +1,126 @@
+package ru.artem.ludo.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TurnEngine;
+import ru.artem.ludo.core.TurnState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки записи и повтора партий.
+ */
+public class GameReplayTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Переход к любому ходу даёт ту же расстановку, что была в партии после этого хода,
+     * при любом интервале опорных снимков.
+     */
+    @Test
+    void seekMatchesPlayedGame() {
+        List<BoardSnapshot> played = new ArrayList<>();
+        GameRecord record = playRecorded(21, played);
+        assertTrue(played.size() > 100, "game is too short: " + played.size());
+
+        for (int interval : new int[]{1, 7, GameReplay.DEFAULT_KEYFRAME_INTERVAL, 10_000}) {
+            GameReplay replay = new GameReplay(record, interval);
+            assertEquals(played.size() - 1, replay.moveCount());
+            assertTrue(replay.winner().isPresent());
+            for (int k = played.size() - 1; k >= 0; k -= 3) {
+                assertEquals(played.get(k), replay.seek(k), "interval " + interval + ", move " + k);
+            }
+            assertEquals(played.get(0), replay.seek(0));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> new GameReplay(record).seek(played.size()));
+    }
+
+    /**
+     * Сохранённая запись загружается и проигрывается так же.
+     */
+    @Test
+    void saveAndLoadRoundTrip(@TempDir Path dir) throws Exception {
+        List<BoardSnapshot> played = new ArrayList<>();
+        GameRecord record = playRecorded(5, played);
+        Path file = dir.resolve("game.ldgr");
+        record.save(file);
+
+        GameRecord loaded = GameRecord.load(CONFIG, file);
+        assertEquals(record.actionCount(), loaded.actionCount());
+        assertEquals(record.firstPlayer(), loaded.firstPlayer());
+        GameReplay replay = new GameReplay(loaded);
+        assertEquals(played.get(played.size() - 1), replay.seek(replay.moveCount()));
+        assertEquals(new GameReplay(record).winner(), replay.winner());
+    }
+
+    /**
+     * Запись не загружается в конфигурацию с другим полем или другими правилами.
+     */
+    @Test
+    void loadRejectsOtherBoardOrRules(@TempDir Path dir) throws Exception {
+        GameRecord record = playRecorded(5, new ArrayList<>());
+        Path file = dir.resolve("game.ldgr");
+        record.save(file);
+
+        assertThrows(IOException.class, () -> GameRecord.load(GameConfig.forPlayers(4, 48, 4), file));
+        assertThrows(IOException.class, () -> GameRecord.load(GameConfig.forPlayers(4, 40, 5), file));
+        assertThrows(IOException.class, () -> GameRecord.load(CONFIG.withRules(CONFIG.rules().withBonuses(10, 10)), file));
+        assertThrows(IOException.class, () -> GameRecord.load(CONFIG.withRules(CONFIG.rules().withForceBlockBreakOnSix(false)), file));
+        assertEquals(record.actionCount(), GameRecord.load(GameConfig.forPlayers(4, 40, 4), file).actionCount());
+    }
+
+    /**
+     * Запись с ходом, которого не было среди допустимых, отвергается.
+     */
+    @Test
+    void rejectsIllegalRecord() {
+        GameRecord record = new GameRecord(CONFIG);
+        record.recordRoll(3);
+        record.recordMove(new Move(new TokenId(PlayerColor.RED, 2), 3));
+        assertThrows(IllegalArgumentException.class, () -> new GameReplay(record));
+
+        GameRecord twoRolls = new GameRecord(CONFIG);
+        twoRolls.recordRoll(6);
+        twoRolls.recordRoll(6);
+        assertThrows(IllegalArgumentException.class, () -> new GameReplay(twoRolls));
+    }
+
+    private static GameRecord playRecorded(long seed, List<BoardSnapshot> played) {
+        Board board = new Board(CONFIG);
+        TurnEngine turns = new TurnEngine(board);
+        GameRecord record = new GameRecord(CONFIG);
+        Dice dice = new Dice(new Random(seed));
+        MoveStrategy strategy = MoveStrategy.random(new Random(seed + 1));
+        played.add(board.snapshot());
+        while (turns.state() != TurnState.FINISHED) {
+            if (turns.state() == TurnState.AWAIT_ROLL) {
+                int roll = dice.roll();
+                turns.roll(roll);
+                record.recordRoll(roll);
+                continue;
+            }
+            Move move = turns.state() == TurnState.AWAIT_BONUS
+                    ? strategy.chooseBonus(board, turns.currentPlayer(), turns.pendingBonus(), turns.options())
+                    : strategy.choose(board, turns.currentPlayer(), turns.pendingRoll(), turns.options());
+            turns.move(move);
+            record.recordMove(move);
+            played.add(board.snapshot());
+        }
+        return record;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.artem.ludo.selfplay;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.Game;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.GameResult;
+import ru.artem.ludo.core.Move;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет запись примеров обёрткой над стратегией.
+ */
+public class SampleRecorderTest {
+
+    /**
+     * Бонусные ходы выбирает {@code chooseBonus} обёрнутой стратегии, а не её {@code choose} с броском 0;
+     * в примере такой ход помечен броском 0.
+     */
+    @Test
+    void bonusDecisionsComeFromDelegateChooseBonus() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        int features = new Board(config).featuresPerMove();
+        List<Move> bonusChoices = new ArrayList<>();
+        MoveStrategy delegate = new MoveStrategy() {
+            @Override
+            public Move choose(Board board, PlayerColor color, int diceRoll, List<Move> legalMoves) {
+                assertNotEquals(0, diceRoll, "bonus move routed through choose");
+                return legalMoves.get(0);
+            }
+
+            @Override
+            public Move chooseBonus(Board board, PlayerColor color, int bonusSteps, List<Move> bonusMoves) {
+                Move m = bonusMoves.get(bonusMoves.size() - 1);
+                bonusChoices.add(m);
+                return m;
+            }
+        };
+
+        SampleRecorder recorder = new SampleRecorder(features);
+        List<Move> recordedBonus = new ArrayList<>();
+        int samples = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            recorder.reset(delegate);
+            GameResult result = new Game(config, new Dice(seed), recorder).playUntilWin(10_000);
+            ByteBuffer data = ByteBuffer.wrap(recorder.encode(result.winnerColor()));
+            samples += recorder.count();
+            for (int i = 0; i < recorder.count(); i++) {
+                data.position(i * (SampleRecorder.SAMPLE_HEADER_BYTES + 4 * features));
+                PlayerColor color = PlayerColor.values()[data.get()];
+                int roll = data.get();
+                int token = data.get();
+                int steps = data.get();
+                if (roll == 0) {
+                    recordedBonus.add(new Move(new TokenId(color, token), steps));
+                }
+            }
+        }
+        assertTrue(samples > 0);
+        assertFalse(bonusChoices.isEmpty(), "no bonus moves in 20 games");
+        assertEquals(bonusChoices, recordedBonus);
+    }
+}
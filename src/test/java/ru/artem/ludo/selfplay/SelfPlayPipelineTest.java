@@ -0,0 +1,93 @@
+package ru.artem.ludo.selfplay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.MoveStrategy;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет формат шардов и воспроизводимость самоигры.
+ */
+public class SelfPlayPipelineTest {
+
+    /**
+     * Содержимое шарда зависит только от зерна, а не от числа рабочих потоков.
+     */
+    @Test
+    void shardsAreDeterministicAcrossWorkerCounts(@TempDir Path dir) throws Exception {
+        SelfPlayMetrics.Snapshot one = run(dir.resolve("one"), 1);
+        SelfPlayMetrics.Snapshot four = run(dir.resolve("four"), 4);
+
+        assertEquals(6, one.games());
+        assertEquals(one.samples(), four.samples());
+        long onDisk = 0;
+        for (int shard = 0; shard < 3; shard++) {
+            onDisk += Files.size(ShardWriter.shardPath(dir.resolve("one"), shard));
+        }
+        assertEquals(onDisk, one.bytes());
+        for (int shard = 0; shard < 3; shard++) {
+            assertArrayEquals(read(ShardWriter.shardPath(dir.resolve("one"), shard)),
+                    read(ShardWriter.shardPath(dir.resolve("four"), shard)));
+        }
+
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                Files.newInputStream(ShardWriter.shardPath(dir.resolve("one"), 0))))) {
+            assertEquals(ShardWriter.MAGIC, in.readInt());
+            assertEquals(ShardWriter.VERSION, in.readShort());
+            assertTrue(in.readInt() > 0);
+            assertEquals(SelfPlayPipeline.shardSeed(99, 0), in.readLong());
+        }
+    }
+
+    /**
+     * Байты на диске учитываются по мере записи, ещё до закрытия шарда; итог совпадает с размером файла.
+     */
+    @Test
+    void bytesAreCountedBeforeShardCloses(@TempDir Path dir) throws Exception {
+        SelfPlayMetrics metrics = new SelfPlayMetrics();
+        BlockingQueue<ShardWriter.Chunk> queue = new ArrayBlockingQueue<>(4);
+        ShardWriter writer = new ShardWriter(queue, dir, 8, metrics);
+        Thread thread = new Thread(writer, "shard-writer");
+        thread.start();
+
+        // несжимаемая порция больше буферов gzip: часть обязана дойти до файла
+        byte[] noise = new byte[1 << 18];
+        new Random(3).nextBytes(noise);
+        queue.put(new ShardWriter.Chunk(0, 1, noise, false));
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (metrics.snapshot().bytes() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(metrics.snapshot().bytes() > 0, "nothing counted while the shard is open");
+
+        queue.put(new ShardWriter.Chunk(0, 1, new byte[16], true));
+        queue.put(ShardWriter.END);
+        thread.join();
+        assertNull(writer.failure());
+        assertEquals(Files.size(ShardWriter.shardPath(dir, 0)), metrics.snapshot().bytes());
+    }
+
+    private static SelfPlayMetrics.Snapshot run(Path dir, int workers) throws InterruptedException {
+        SelfPlayConfig config = new SelfPlayConfig(GameConfig.defaultForFourPlayers(), dir, 3, 2, 99,
+                workers, 2, 5_000, MoveStrategy::random);
+        return new SelfPlayPipeline(config).run();
+    }
+
+    private static byte[] read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return in.readAllBytes();
+        }
+    }
+}
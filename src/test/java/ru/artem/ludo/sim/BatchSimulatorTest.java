@@ -0,0 +1,40 @@
+package ru.artem.ludo.sim;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.GameConfig;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки пакетной симуляции (правила сверяются с доской в {@link DifferentialFuzzerTest}).
+ */
+public class BatchSimulatorTest {
+
+    /**
+     * Итог не зависит от размера пакета: дозаполнение и уплотнение не путают партии.
+     */
+    @Test
+    void resultDoesNotDependOnBatchSize() {
+        GameConfig config = GameConfig.defaultForFourPlayers();
+        BatchSimulator.Result single = new BatchSimulator(config, 1).run(300, 42, 5_000);
+        BatchSimulator.Result batched = new BatchSimulator(config, 37).run(300, 42, 5_000);
+        BatchSimulator.Result wide = new BatchSimulator(config, 1_000).run(300, 42, 5_000);
+
+        assertEquals(single, batched);
+        assertEquals(single, wide);
+        assertEquals(300, Arrays.stream(single.winsBySeat()).sum() + single.truncated());
+        assertTrue(single.moves() > 0);
+    }
+
+    /**
+     * Партии, упёршиеся в ограничение длины, считаются прерванными, а не выигранными.
+     */
+    @Test
+    void countsTruncatedGames() {
+        BatchSimulator.Result result = new BatchSimulator(GameConfig.forPlayers(3, 45, 5), 16).run(50, 7, 10);
+        assertEquals(50, result.truncated());
+        assertEquals(0, Arrays.stream(result.winsBySeat()).sum());
+    }
+}
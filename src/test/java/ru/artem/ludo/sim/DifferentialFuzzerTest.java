@@ -0,0 +1,33 @@
+package ru.artem.ludo.sim;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.RuleSet;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Прогоняет дифференциальное сравнение движков на небольшом числе партий.
+ */
+public class DifferentialFuzzerTest {
+
+    /**
+     * Снимки, пакетный движок и эталонная доска совпадают на стандартных правилах и на изменённых вариантах,
+     * в том числе на кольце длиннее 64 клеток и без блоков (одна фишка на клетке).
+     */
+    @Test
+    void snapshotEngineMatchesBoard() {
+        for (GameConfig config : List.of(
+                GameConfig.defaultForFourPlayers(),
+                GameConfig.forPlayers(3, 45, 5).withRules(RuleSet.standard().withExitRoll(6).withMaxConsecutiveSixes(2)),
+                GameConfig.forPlayers(6, 120, 6).withRules(RuleSet.standard().withSixStepsWhenBaseEmpty(6)),
+                GameConfig.forPlayers(2, 30, 4).withRules(RuleSet.standard().withMaxTokensPerCell(1).withBonuses(0, 4)))) {
+            DifferentialFuzzer fuzzer = new DifferentialFuzzer(config, new BoardEngine(), List.of(new SnapshotEngine(), new BatchEngine()));
+            DifferentialFuzzer.Report report = fuzzer.run(11, 100, 3_000);
+            assertTrue(report.passed(), report::toString);
+            assertTrue(report.moves() > 0);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.artem.ludo.sim;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.PlayerColor;
+import ru.artem.ludo.core.TokenId;
+import ru.artem.ludo.core.TokenPosition;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки движка разыгрываний.
+ */
+public class PlayoutEngineTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * С одним зерном серия разыгрываний повторяется, а из начальной позиции победы делятся примерно поровну.
+     */
+    @Test
+    void seededPlayoutsRepeatAndLookFair() {
+        PlayoutEngine engine = new PlayoutEngine(CONFIG, PlayoutEngine.Policy.RANDOM, 5_000);
+        BoardSnapshot start = BoardSnapshot.initial(CONFIG);
+        long[] first = new long[4];
+        long[] second = new long[4];
+        engine.seedCurrentThread(9);
+        int truncated = engine.playouts(start, PlayerColor.RED, 4_000, first);
+        engine.seedCurrentThread(9);
+        engine.playouts(start, PlayerColor.RED, 4_000, second);
+
+        assertArrayEquals(first, second);
+        assertEquals(4_000, Arrays.stream(first).sum() + truncated);
+        for (long w : first) {
+            assertTrue(w > 800 && w < 1_200, Arrays.toString(first));
+        }
+    }
+
+    /**
+     * Игрок, которому осталось завести одну фишку, почти всегда выигрывает; жадная политика
+     * не хуже случайной.
+     */
+    @Test
+    void nearlyWonPositionIsWon() {
+        int route = CONFIG.trackLength() + CONFIG.homeLaneLength();
+        BoardSnapshot start = BoardSnapshot.initial(CONFIG);
+        for (int i = 0; i < 3; i++) {
+            start = start.with(new TokenId(PlayerColor.RED, i), TokenPosition.home());
+        }
+        start = start.with(new TokenId(PlayerColor.RED, 3), TokenPosition.homeLane(CONFIG.homeLaneLength() - 3));
+        assertEquals(route - 3, start.routeDistance(new TokenId(PlayerColor.RED, 3)));
+
+        for (PlayoutEngine.Policy policy : PlayoutEngine.Policy.values()) {
+            PlayoutEngine engine = new PlayoutEngine(CONFIG, policy, 5_000);
+            engine.seedCurrentThread(1);
+            long[] wins = new long[4];
+            engine.playouts(start, PlayerColor.RED, 1_000, wins);
+            assertTrue(wins[0] > 900, policy + " " + Arrays.toString(wins));
+        }
+    }
+
+    /**
+     * После первого вызова в потоке разыгрывания не выделяют памяти.
+     */
+    @Test
+    void playoutsDoNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)) {
+            return;
+        }
+        PlayoutEngine engine = new PlayoutEngine(CONFIG, PlayoutEngine.Policy.GREEDY, 5_000);
+        BoardSnapshot start = BoardSnapshot.initial(CONFIG);
+        long[] wins = new long[CONFIG.players().size()];
+        engine.playouts(start, PlayerColor.BLUE, 200, wins);
+
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 2_000; i++) {
+            engine.playout(start, CONFIG.players().get(i % CONFIG.players().size()));
+        }
+        long allocated = mx.getThreadAllocatedBytes(tid) - before;
+        assertTrue(allocated < 16_384, "allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,168 @@
+package ru.artem.ludo.spectator;
+
+import org.junit.jupiter.api.Test;
+import ru.artem.ludo.core.Board;
+import ru.artem.ludo.core.BoardSnapshot;
+import ru.artem.ludo.core.Dice;
+import ru.artem.ludo.core.GameConfig;
+import ru.artem.ludo.core.MoveStrategy;
+import ru.artem.ludo.core.TurnEngine;
+import ru.artem.ludo.core.TurnState;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверки трансляции партии зрителям.
+ */
+public class SpectatorHubTest {
+
+    private static final GameConfig CONFIG = GameConfig.defaultForFourPlayers();
+
+    /**
+     * Зритель, успевающий за партией, получает каждый кадр дельтой и видит ту же расстановку.
+     */
+    @Test
+    void deltasRebuildGame() {
+        SpectatorHub hub = new SpectatorHub(CONFIG, Runnable::run);
+        LoopbackSpectator first = new LoopbackSpectator();
+        LoopbackSpectator second = new LoopbackSpectator();
+        List<SpectatorFrame> seen = new ArrayList<>();
+        hub.subscribe(first);
+        hub.subscribe(second);
+        hub.subscribe(seen::add);
+
+        Board board = new Board(CONFIG);
+        TurnEngine turns = new TurnEngine(board);
+        Dice dice = new Dice(new Random(3));
+        MoveStrategy strategy = MoveStrategy.random(new Random(4));
+        hub.publish(board.snapshot(), turns.currentPlayer());
+        int published = 1;
+        while (turns.state() != TurnState.FINISHED) {
+            switch (turns.state()) {
+                case AWAIT_ROLL -> turns.roll(dice.roll());
+                case AWAIT_MOVE -> turns.move(strategy.choose(board, turns.currentPlayer(), turns.pendingRoll(), turns.options()));
+                case AWAIT_BONUS -> turns.move(strategy.chooseBonus(board, turns.currentPlayer(), turns.pendingBonus(), turns.options()));
+                default -> fail();
+            }
+            SpectatorFrame frame = hub.publish(board.snapshot(), turns.currentPlayer());
+            published++;
+            assertEquals(board.snapshot(), frame.snapshot());
+            assertEquals(board.snapshot(), first.snapshot());
+            assertEquals(turns.currentPlayer(), first.toMove());
+        }
+
+        assertEquals(1, first.resyncs());
+        assertEquals(published - 1, first.deltasApplied());
+        assertEquals(board.snapshot(), second.snapshot());
+        assertEquals(published, seen.size());
+        assertTrue(seen.get(seen.size() - 1).buffer().isReadOnly());
+    }
+
+    /**
+     * Занятый зритель не копит очередь: кадры сворачиваются в последний, а все зрители получают один и тот же буфер.
+     */
+    @Test
+    void slowSpectatorIsCoalesced() {
+        ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        SpectatorHub hub = new SpectatorHub(CONFIG, pending::add);
+        List<SpectatorFrame> a = new ArrayList<>();
+        List<SpectatorFrame> b = new ArrayList<>();
+        SpectatorSubscription subA = hub.subscribe(a::add);
+        hub.subscribe(b::add);
+
+        Board board = new Board(CONFIG);
+        BoardSnapshot snapshot = board.snapshot();
+        for (int i = 0; i < 5; i++) {
+            snapshot = snapshot.withMove(board.legalMoves(CONFIG.players().get(0), 1).get(0));
+            board = new Board(snapshot);
+            hub.publish(snapshot, CONFIG.players().get(0));
+        }
+        assertEquals(2, pending.size());
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+
+        assertEquals(1, a.size());
+        assertEquals(5, a.get(0).sequence());
+        assertSame(a.get(0), b.get(0));
+        assertEquals(4, subA.coalesced());
+
+        LoopbackSpectator late = new LoopbackSpectator();
+        hub.subscribe(late);
+        pending.poll().run();
+        assertEquals(snapshot, late.snapshot());
+
+        subA.cancel();
+        hub.publish(snapshot, CONFIG.players().get(1));
+        assertEquals(2, hub.subscriberCount());
+    }
+
+    /**
+     * На кольце длиннее 256 клеток дельты по-прежнему восстанавливают расстановку.
+     */
+    @Test
+    void deltasSurviveLongTracks() {
+        GameConfig config = GameConfig.forPlayers(2, 600, 4);
+        SpectatorHub hub = new SpectatorHub(config, Runnable::run);
+        LoopbackSpectator spectator = new LoopbackSpectator();
+        hub.subscribe(spectator);
+
+        Board board = new Board(config);
+        TurnEngine turns = new TurnEngine(board);
+        Dice dice = new Dice(new Random(5));
+        MoveStrategy strategy = MoveStrategy.random(new Random(6));
+        hub.publish(board.snapshot(), turns.currentPlayer());
+        for (int step = 0; step < 2_000 && turns.state() != TurnState.FINISHED; step++) {
+            switch (turns.state()) {
+                case AWAIT_ROLL -> turns.roll(dice.roll());
+                case AWAIT_MOVE -> turns.move(strategy.choose(board, turns.currentPlayer(), turns.pendingRoll(), turns.options()));
+                case AWAIT_BONUS -> turns.move(strategy.chooseBonus(board, turns.currentPlayer(), turns.pendingBonus(), turns.options()));
+                default -> fail();
+            }
+            hub.publish(board.snapshot(), turns.currentPlayer());
+            assertEquals(board.snapshot(), spectator.snapshot());
+        }
+        assertEquals(1, spectator.resyncs());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpectatorHub(GameConfig.forPlayers(2, 70_000, 4), Runnable::run));
+    }
+
+    /**
+     * Исключение из зрителя не останавливает доставку ему следующих кадров.
+     */
+    @Test
+    void failingSpectatorKeepsReceivingFrames() {
+        SpectatorHub hub = new SpectatorHub(CONFIG, Runnable::run);
+        List<SpectatorFrame> received = new ArrayList<>();
+        SpectatorSubscription subscription = hub.subscribe(frame -> {
+            received.add(frame);
+            if (frame.sequence() == 1) {
+                throw new IllegalStateException("spectator failed");
+            }
+        });
+
+        BoardSnapshot snapshot = new Board(CONFIG).snapshot();
+        for (int i = 0; i < 3; i++) {
+            hub.publish(snapshot, CONFIG.players().get(0));
+        }
+        assertEquals(3, received.size());
+        assertEquals(1, subscription.failures());
+        assertEquals(3, subscription.delivered());
+    }
+
+    /**
+     * Небольшой нагрузочный прогон: все зрители сходятся к итоговой расстановке, задержки записаны.
+     */
+    @Test
+    void loadRunConverges() throws InterruptedException {
+        SpectatorLoadTest.Result r = SpectatorLoadTest.run(2_000, 100, 0, 2, 9);
+        assertEquals(r.subscribers(), r.consistent());
+        assertEquals(r.delivered(), r.latency().count());
+        assertTrue(r.latency().percentile(50) <= r.latency().percentile(99));
+    }
+}